@@ -0,0 +1,165 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.examples.autobench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A log-linear histogram of long values, i.e. nanoseconds. Values are bucketed by power of two,
+ * and each power of two is split into linear sub buckets, so the error is bounded by the
+ * number of sub buckets rather than growing with the value. With 7 bits, the default,
+ * a value is reported within 1/64, about 1.6%, of what was recorded, from nanos up to the life of the JVM,
+ * in a fixed few thousand longs. Recording is synchronized, so replies completed on different
+ * threads can share a histogram.
+ */
+public class LatencyHistogram {
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    public LatencyHistogram() {
+        this(7);
+    }
+
+    /**
+     * @param subBucketBits the linear resolution within each power of two, 2 to 16 bits
+     */
+    public LatencyHistogram(int subBucketBits) {
+        if (subBucketBits < 2 || subBucketBits > 16) {
+            throw new IllegalArgumentException("Sub bucket bits must be between 2 and 16.");
+        }
+        this.subBucketBits = subBucketBits;
+        subBucketCount = 1 << subBucketBits;
+        subBucketHalfCount = subBucketCount / 2;
+        counts = new long[subBucketCount + (64 - subBucketBits) * subBucketHalfCount];
+    }
+
+    private int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int)value; // exact
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - subBucketBits + 1;
+        int sub = (int)(value >>> shift); // between half and full sub bucket count
+        return subBucketCount + (shift - 1) * subBucketHalfCount + (sub - subBucketHalfCount);
+    }
+
+    // the highest value that lands in the bucket
+    private long highestValueAt(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index - subBucketCount) / subBucketHalfCount + 1;
+        long sub = subBucketHalfCount + (index - subBucketCount) % subBucketHalfCount;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     * @param value the value
+     */
+    public synchronized void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * The value that the percentile of recorded values are at or below.
+     * The value is the top of its bucket, so it is never lower than what was recorded.
+     * @param percentile the percentile, 0 to 100
+     * @return the value, 0 if nothing was recorded
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        if (percentile >= 100) {
+            return max;
+        }
+        long target = Math.max(1, (long)Math.ceil(percentile / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        sum = 0;
+    }
+
+    /**
+     * The percentiles for a spectrum that gets finer towards the tail:
+     * each halving of the distance to 100 is split into the ticks, and the list ends with 100.
+     * @param ticksPerHalf the number of percentiles for each halving
+     * @param highest the highest percentile before 100, i.e. 99.999
+     * @return the percentiles
+     */
+    public static double[] percentileSpectrum(int ticksPerHalf, double highest) {
+        List<Double> list = new ArrayList<>();
+        for (int k = 0; ; k++) {
+            double p = 100.0 * (1.0 - Math.pow(0.5, (double)k / ticksPerHalf));
+            if (p > highest) {
+                break;
+            }
+            list.add(p);
+        }
+        list.add(100.0);
+        double[] spectrum = new double[list.size()];
+        for (int i = 0; i < spectrum.length; i++) {
+            spectrum[i] = list.get(i);
+        }
+        return spectrum;
+    }
+}
@@ -37,10 +37,13 @@ public class NatsAutoBench {
                     "\n[serverURL] [help] [tiny|small|med|large] [conscrypt] [jsfile]" +
                     "\n[PubOnly] [PubOnlyWithHeaders] [PubSub] [PubDispatch] [ReqReply] [Latency] " +
                     "\n[JsPubSync] [JsPubAsync] [JsSub] [JsPubRounds]" +
+                    "\n[OpenLoop] [OpenPubSub] [OpenReqReply] [OpenJsPub] [-rate <msgs/sec>] [-ocsv <filespec>]" +
                     "[-lcsv <filespec>] \n\n"
             + "If no specific test name(s) are supplied all will be run, otherwise only supplied tests will be run."
             + "\n\nUse tls:// or opentls:// to require tls, via the Default SSLContext\n"
-            + "\n\ntiny, small and med reduce the number of messages used for tests, which can help on slower machines\n";
+            + "\n\ntiny, small and med reduce the number of messages used for tests, which can help on slower machines\n"
+            + "\nThe Open tests send at a fixed rate, 10,000 msgs/sec unless -rate is given, and measure latency from the"
+            + "\nintended send time. OpenLoop runs all three. -ocsv writes their percentile spectrum to a csv file.\n";
 
     public static void main(String[] args) {
 
@@ -212,6 +215,24 @@ public class NatsAutoBench {
                     (msize, mcnt) -> new LatencyBenchmark("Latency " + msize, mcnt, msize, a.lcsv));
         }
 
+        if (a.openPubSub) {
+            addLatencyTests(a.openLoopMsgs, a.maxSize, tests, sizes,
+                (msize, mcnt) -> new OpenLoopLatencyBenchmark("OpenPubSub " + msize, mcnt, msize,
+                    OpenLoopLatencyBenchmark.Scenario.PubSub, a.targetRate, a.jsFile, a.ocsv));
+        }
+
+        if (a.openReqReply) {
+            addLatencyTests(a.openLoopMsgs, a.maxSize, tests, sizes,
+                (msize, mcnt) -> new OpenLoopLatencyBenchmark("OpenReqReply " + msize, mcnt, msize,
+                    OpenLoopLatencyBenchmark.Scenario.ReqReply, a.targetRate, a.jsFile, a.ocsv));
+        }
+
+        if (a.openJsPub) {
+            addLatencyTests(a.openLoopMsgs, a.maxSize, tests, sizes,
+                (msize, mcnt) -> new OpenLoopLatencyBenchmark("OpenJsPub " + msize, mcnt, msize,
+                    OpenLoopLatencyBenchmark.Scenario.JsPub, a.targetRate, a.jsFile, a.ocsv));
+        }
+
         return tests;
     }
 
@@ -287,6 +308,8 @@ public class NatsAutoBench {
         boolean conscrypt = false;
         int baseMsgs = 100_000;
         int latencyMsgs = 5_000;
+        int openLoopMsgs = 50_000;
+        long targetRate = 10_000;
         long maxSize = 8192;
         boolean allTests = true;
 
@@ -302,6 +325,10 @@ public class NatsAutoBench {
         boolean jsPubRounds = false;
         boolean jsFile = false;
         String lcsv = null;
+        boolean openPubSub = false;
+        boolean openReqReply = false;
+        boolean openJsPub = false;
+        String ocsv = null;
     }
 
     private static Arguments readArgs(String[] args) {
@@ -315,24 +342,29 @@ public class NatsAutoBench {
                     case "large":
                         a.baseMsgs = 500_000;
                         a.latencyMsgs = 25_000;
+                        a.openLoopMsgs = 250_000;
                         break;
                     case "med":
                         a.baseMsgs = 50_000;
                         a.latencyMsgs = 2_500;
+                        a.openLoopMsgs = 25_000;
                         break;
                     case "small":
                         a.baseMsgs = 5_000;
                         a.latencyMsgs = 250;
+                        a.openLoopMsgs = 2_500;
                         a.maxSize = 1024;
                         break;
                     case "tiny":
                         a.baseMsgs = 1_000;
                         a.latencyMsgs = 50;
+                        a.openLoopMsgs = 500;
                         a.maxSize = 1024;
                         break;
                     case "nano":
                         a.baseMsgs = 10;
                         a.latencyMsgs = 5;
+                        a.openLoopMsgs = 50;
                         a.maxSize = 512;
                         break;
                     case "pubonly":
@@ -375,6 +407,30 @@ public class NatsAutoBench {
                         a.allTests = false;
                         a.jsPubRounds = true;
                         break;
+                    case "openloop":
+                        a.allTests = false;
+                        a.openPubSub = true;
+                        a.openReqReply = true;
+                        a.openJsPub = true;
+                        break;
+                    case "openpubsub":
+                        a.allTests = false;
+                        a.openPubSub = true;
+                        break;
+                    case "openreqreply":
+                        a.allTests = false;
+                        a.openReqReply = true;
+                        break;
+                    case "openjspub":
+                        a.allTests = false;
+                        a.openJsPub = true;
+                        break;
+                    case "-rate":
+                        a.targetRate = Long.parseLong(args[++x]);
+                        break;
+                    case "-ocsv":
+                        a.ocsv = args[++x];
+                        break;
                     case "jsfile":
                         a.jsFile = true;
                         break;
@@ -0,0 +1,255 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.examples.autobench;
+
+import io.nats.client.*;
+import io.nats.client.api.StorageType;
+import io.nats.client.api.StreamConfiguration;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An open loop latency benchmark. Unlike {@link LatencyBenchmark}, which waits for each message before sending
+ * the next, messages are sent on a fixed schedule at the target rate whether or not earlier ones have arrived.
+ * Latency is measured from when each message was meant to be sent, so time spent queued behind a stall
+ * is counted rather than hidden (coordinated omission). The latency from when it was actually sent
+ * is recorded too, the gap between the two shows how much delay a closed loop would have missed.
+ */
+public class OpenLoopLatencyBenchmark extends AutoBenchmark {
+    public enum Scenario {
+        PubSub, ReqReply, JsPub
+    }
+
+    static FileOutputStream ocsvOut;
+
+    private final Scenario scenario;
+    private final long targetRate;
+    private final boolean jsFile;
+    private final String ocsv;
+    private final LatencyHistogram intended;
+    private final LatencyHistogram actual;
+
+    public OpenLoopLatencyBenchmark(String name, long messageCount, long messageSize, Scenario scenario, long targetRate, boolean jsFile, String ocsv) {
+        super(name, messageCount, messageSize);
+        this.scenario = scenario;
+        this.targetRate = targetRate;
+        this.jsFile = jsFile;
+        this.ocsv = ocsv;
+        this.intended = new LatencyHistogram();
+        this.actual = new LatencyHistogram();
+    }
+
+    public void execute(Options connectOptions) throws InterruptedException {
+        int count = (int)getMessageCount();
+        byte[] payload = createPayload();
+        String subject = getSubject();
+        long interval = 1_000_000_000L / targetRate;
+
+        // the send times, filled in by the sender and read by whichever thread sees the message complete
+        AtomicLongArray sentAt = new AtomicLongArray(count);
+        CountDownLatch done = new CountDownLatch(count);
+        intended.reset();
+        actual.reset();
+
+        Connection pubConnection = null;
+        Connection subConnection = null;
+        JetStreamManagement jsm = null;
+        String stream = null;
+        try {
+            pubConnection = Nats.connect(connectOptions);
+            subConnection = Nats.connect(connectOptions);
+
+            // messages from one publisher arrive in order, so the receiver knows which send it is by counting
+            AtomicInteger received = new AtomicInteger();
+            AtomicLong start = new AtomicLong();
+            if (scenario == Scenario.PubSub) {
+                Dispatcher d = subConnection.createDispatcher(msg -> {
+                    int i = received.getAndIncrement();
+                    record(i, start.get() + i * interval, sentAt, done);
+                });
+                d.subscribe(subject);
+            }
+            else if (scenario == Scenario.ReqReply) {
+                Connection responder = subConnection;
+                Dispatcher d = subConnection.createDispatcher(msg -> responder.publish(msg.getReplyTo(), msg.getData()));
+                d.subscribe(subject);
+            }
+            else {
+                stream = getStream();
+                jsm = pubConnection.jetStreamManagement();
+                jsm.addStream(StreamConfiguration.builder()
+                    .name(stream)
+                    .subjects(subject)
+                    .storageType(jsFile ? StorageType.File : StorageType.Memory)
+                    .build());
+            }
+            subConnection.flush(Duration.ofSeconds(5));
+            JetStream js = scenario == Scenario.JsPub ? pubConnection.jetStream() : null;
+
+            startTiming();
+            start.set(System.nanoTime());
+            for (int i = 0; i < count; i++) {
+                long intendedAt = start.get() + i * interval;
+                waitUntil(intendedAt);
+                sentAt.set(i, System.nanoTime());
+
+                if (scenario == Scenario.PubSub) {
+                    pubConnection.publish(subject, payload);
+                }
+                else {
+                    int seq = i;
+                    CompletableFuture<?> f = scenario == Scenario.ReqReply
+                        ? pubConnection.request(subject, payload)
+                        : js.publishAsync(subject, payload);
+                    f.whenComplete((r, t) -> {
+                        if (t != null) {
+                            setException(t instanceof Exception ? (Exception)t : new Exception(t));
+                        }
+                        record(seq, intendedAt, sentAt, done);
+                    });
+                }
+            }
+
+            // the sender can fall behind, allow for the backlog on top of the run time
+            long runSeconds = count / targetRate;
+            if (!done.await(runSeconds + 30, TimeUnit.SECONDS)) {
+                throw new Exception("Timed out with " + done.getCount() + " of " + count + " outstanding");
+            }
+            endTiming();
+        }
+        catch (Exception ex) {
+            setException(ex);
+        }
+        finally {
+            if (jsm != null) {
+                try {
+                    jsm.deleteStream(stream);
+                }
+                catch (IOException | JetStreamApiException ignore) {}
+            }
+            if (pubConnection != null) {
+                pubConnection.close();
+            }
+            if (subConnection != null) {
+                subConnection.close();
+            }
+        }
+    }
+
+    private void record(int seq, long intendedAt, AtomicLongArray sentAt, CountDownLatch done) {
+        long now = System.nanoTime();
+        intended.record(now - intendedAt);
+        actual.record(now - sentAt.get(seq));
+        done.countDown();
+    }
+
+    // spin for the last stretch, parking is not precise enough at high rates
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            }
+        }
+    }
+
+    @Override
+    public void beforePrintFirstOfKind() {
+        System.out.println("Open Loop Latency                      |                       micros                     |");
+        System.out.println("| test                  | measured |   count |   p50 |   p90 |   p99 |  p99.9 | p99.99 |    max |");
+        System.out.println("| --------------------- | -------- | ------- | ----- | ----- | ----- | ------ | ------ | ------ |");
+
+        if (ocsv != null) {
+            try {
+                ocsvOut = new FileOutputStream(ocsv);
+                ocsvOut.write("test,scenario,payload,rate,percentile,intended_us,actual_us,1/(1-percentile)\r\n".getBytes(StandardCharsets.US_ASCII));
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public void printResult() {
+        if (getException() != null) {
+            String message = getException().getMessage();
+            if (message == null) {
+                message = getException().getClass().getCanonicalName();
+            }
+            System.out.printf("| %-21s Exception: %s\n", getName(), message);
+            return;
+        }
+
+        printRow("intended", intended);
+        printRow("actual", actual);
+
+        if (ocsvOut != null) {
+            StringBuilder sb = new StringBuilder();
+            for (double p : LatencyHistogram.percentileSpectrum(5, 99.999)) {
+                sb.append(getName()).append(',')
+                    .append(scenario).append(',')
+                    .append(getMessageSize()).append(',')
+                    .append(targetRate).append(',')
+                    .append(String.format("%.6f", p)).append(',')
+                    .append(String.format("%.3f", intended.getValueAtPercentile(p) / 1e3)).append(',')
+                    .append(String.format("%.3f", actual.getValueAtPercentile(p) / 1e3)).append(',')
+                    .append(p >= 100 ? "" : String.format("%.2f", 1 / (1 - p / 100))).append("\r\n");
+            }
+            try {
+                ocsvOut.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void printRow(String measured, LatencyHistogram h) {
+        System.out.printf("| %-21s | %-8s | %7s | %5.0f | %5.0f | %5.0f | %6.0f | %6.0f | %6.0f |\n",
+            getName(),
+            measured,
+            NumberFormat.getIntegerInstance().format(h.getTotalCount()),
+            h.getValueAtPercentile(50) / 1e3,
+            h.getValueAtPercentile(90) / 1e3,
+            h.getValueAtPercentile(99) / 1e3,
+            h.getValueAtPercentile(99.9) / 1e3,
+            h.getValueAtPercentile(99.99) / 1e3,
+            h.getMax() / 1e3);
+    }
+
+    @Override
+    public void afterPrintLastOfKind() {
+        if (ocsvOut != null) {
+            try {
+                ocsvOut.close();
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            ocsvOut = null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End to end client benchmarks against the {@link LoopbackServer}, so the numbers are the client's cost
+ * plus a cheap echo over loopback, and can be reproduced on any box without a nats-server.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoopbackBenchmarks {
+    static final int MESSAGES = 10_000;
+
+    @Param({"16", "512"})
+    public int payloadSize;
+
+    private LoopbackServer server;
+    private Connection pubConnection;
+    private Connection subConnection;
+    private byte[] payload;
+    private final AtomicReference<CountDownLatch> received = new AtomicReference<>();
+
+    @Setup
+    public void setup() throws Exception {
+        server = new LoopbackServer();
+        Options options = new Options.Builder().server(server.getURI()).build();
+        pubConnection = Nats.connect(options);
+        subConnection = Nats.connect(options);
+        payload = new byte[payloadSize];
+
+        subConnection.createDispatcher(msg -> received.get().countDown()).subscribe("bench.pubsub");
+        subConnection.createDispatcher(msg -> subConnection.publish(msg.getReplyTo(), msg.getData())).subscribe("bench.request");
+        subConnection.flush(Duration.ofSeconds(5));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pubConnection.close();
+        subConnection.close();
+        server.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(MESSAGES)
+    public void publish() throws Exception {
+        for (int i = 0; i < MESSAGES; i++) {
+            pubConnection.publish("bench.pub", payload);
+        }
+        pubConnection.flush(Duration.ofSeconds(10));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(MESSAGES)
+    public void publishSubscribe() throws Exception {
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+        received.set(latch);
+        for (int i = 0; i < MESSAGES; i++) {
+            pubConnection.publish("bench.pubsub", payload);
+        }
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Only received " + (MESSAGES - latch.getCount()) + " of " + MESSAGES);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Message requestReply() throws Exception {
+        return pubConnection.request("bench.request", payload).get(10, TimeUnit.SECONDS);
+    }
+}
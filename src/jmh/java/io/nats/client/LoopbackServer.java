@@ -0,0 +1,528 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stand-in for nats-server that runs in the JVM over loopback, so client throughput and latency
+ * can be measured without the cost, or the variance, of a real server. It speaks just enough of the protocol:
+ * INFO, CONNECT, PING/PONG, SUB/UNSUB, PUB/HPUB and MSG/HMSG, with subject routing, wildcards and queue groups.
+ * There is no auth, TLS, JetStream, clustering or slow consumer handling, and subjects are not validated.
+ *
+ * <p>Each client has a thread that reads its traffic and writes the routed messages straight into the
+ * buffered output of the subscribing clients. Those outputs are flushed once the reading client
+ * has nothing more to read, so batches from the client are echoed as batches.
+ *
+ * <p>It can also be run on its own, i.e. for the autobench examples, with {@code ./gradlew loopbackServer -Pport=4222}
+ */
+public class LoopbackServer implements AutoCloseable {
+    private static final byte[] PONG = "PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MSG = "MSG ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HMSG = "HMSG ".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ARGS = 6;
+
+    private final ServerSocket serverSocket;
+    private final Map<String, CopyOnWriteArrayList<Sub>> literalSubs;
+    private final CopyOnWriteArrayList<Sub> wildcardSubs;
+    private final Set<Client> clients;
+    private final AtomicInteger nextClientId;
+    private volatile boolean running;
+
+    /**
+     * Start a server on an ephemeral port.
+     * @throws IOException if the socket could not be bound
+     */
+    public LoopbackServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Start a server on the port.
+     * @param port the port, 0 for an ephemeral port
+     * @throws IOException if the socket could not be bound
+     */
+    public LoopbackServer(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        literalSubs = new ConcurrentHashMap<>();
+        wildcardSubs = new CopyOnWriteArrayList<>();
+        clients = ConcurrentHashMap.newKeySet();
+        nextClientId = new AtomicInteger(1);
+        running = true;
+
+        Thread acceptor = new Thread(this::accept, "loopback-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String getURI() {
+        return "nats://127.0.0.1:" + getPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        }
+        catch (IOException ignore) {}
+        for (Client c : clients) {
+            c.close();
+        }
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setReceiveBufferSize(2 * BUFFER_SIZE);
+                socket.setSendBufferSize(2 * BUFFER_SIZE);
+                Client client = new Client(nextClientId.getAndIncrement(), socket);
+                clients.add(client);
+                Thread t = new Thread(client, "loopback-server-client-" + client.id);
+                t.setDaemon(true);
+                t.start();
+            }
+            catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Subscriptions
+    // ----------------------------------------------------------------------------------------------------
+    private static class Sub {
+        final Client client;
+        final String subject;
+        final String[] tokens; // only for wildcards
+        final String queue;
+        final byte[] sid;
+        final AtomicLong remaining = new AtomicLong(-1);
+
+        Sub(Client client, String subject, String queue, String sid) {
+            this.client = client;
+            this.subject = subject;
+            this.queue = queue;
+            this.sid = sid.getBytes(StandardCharsets.US_ASCII);
+
+            String[] split = subject.split("\\.");
+            boolean wildcard = false;
+            for (String token : split) {
+                wildcard |= token.equals("*") || token.equals(">");
+            }
+            this.tokens = wildcard ? split : null;
+        }
+
+        boolean matches(String subject) {
+            int pos = 0;
+            int len = subject.length();
+            for (String token : tokens) {
+                if (pos > len) {
+                    return false; // the subject has fewer tokens
+                }
+                if (token.equals(">")) {
+                    return pos < len;
+                }
+                int end = subject.indexOf('.', pos);
+                if (end == -1) {
+                    end = len;
+                }
+                if (!token.equals("*") && (end - pos != token.length() || !subject.regionMatches(pos, token, 0, token.length()))) {
+                    return false;
+                }
+                pos = end + 1;
+            }
+            return pos == len + 1; // and not more tokens
+        }
+    }
+
+    private void addSub(Sub sub) {
+        if (sub.tokens == null) {
+            literalSubs.computeIfAbsent(sub.subject, s -> new CopyOnWriteArrayList<>()).add(sub);
+        }
+        else {
+            wildcardSubs.add(sub);
+        }
+    }
+
+    private void removeSub(Sub sub) {
+        if (sub.tokens == null) {
+            List<Sub> list = literalSubs.get(sub.subject);
+            if (list != null) {
+                list.remove(sub);
+            }
+        }
+        else {
+            wildcardSubs.remove(sub);
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Client connection
+    // ----------------------------------------------------------------------------------------------------
+    private class Client implements Runnable {
+        final int id;
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out; // guarded by itself, other clients' threads route into it
+        final Map<String, Sub> subs; // only used by this client's thread
+        final List<Client> toFlush; // clients written to since the last flush
+        final Map<String, AtomicInteger> queueCursors; // only used by this client's thread
+
+        final byte[] buffer;
+        int position;
+        int limit;
+
+        byte[] line;
+        int lineLength;
+        final int[] argStart;
+        final int[] argEnd;
+        int argCount;
+        byte[] payload;
+        boolean echo;
+
+        Client(int id, Socket socket) throws IOException {
+            this.id = id;
+            this.socket = socket;
+            in = socket.getInputStream();
+            out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+            subs = new HashMap<>();
+            toFlush = new ArrayList<>();
+            queueCursors = new HashMap<>();
+            buffer = new byte[BUFFER_SIZE];
+            line = new byte[1024];
+            argStart = new int[MAX_ARGS];
+            argEnd = new int[MAX_ARGS];
+            payload = new byte[BUFFER_SIZE];
+            echo = true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                String info = "INFO {\"server_id\":\"LOOPBACK" + id + "\",\"server_name\":\"loopback\",\"version\":\"2.9.0\"," +
+                    "\"go\":\"go1.19\",\"host\":\"127.0.0.1\",\"port\":" + getPort() + ",\"headers\":true," +
+                    "\"max_payload\":1048576,\"proto\":1,\"client_id\":" + id + "}\r\n";
+                synchronized (out) {
+                    out.write(info.getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+
+                while (running && readLine()) {
+                    processLine();
+                    if (position == limit && in.available() == 0) {
+                        flushPending(); // about to block, send what was routed
+                    }
+                }
+            }
+            catch (SocketException e) {
+                // client went away
+            }
+            catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+            finally {
+                for (Sub sub : subs.values()) {
+                    removeSub(sub);
+                }
+                close();
+            }
+        }
+
+        // the client's own thread removes its subscriptions once its read fails
+        void close() {
+            clients.remove(this);
+            try {
+                socket.close();
+            }
+            catch (IOException ignore) {}
+        }
+
+        private boolean fill() throws IOException {
+            int n = in.read(buffer, 0, buffer.length);
+            if (n < 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            return true;
+        }
+
+        // reads up to the CRLF, without it, and splits it into args on spaces and tabs
+        private boolean readLine() throws IOException {
+            lineLength = 0;
+            while (true) {
+                if (position == limit && !fill()) {
+                    return false;
+                }
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    break;
+                }
+                if (b != '\r') {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+
+            argCount = 0;
+            int i = 0;
+            while (i < lineLength && argCount < MAX_ARGS) {
+                while (i < lineLength && (line[i] == ' ' || line[i] == '\t')) {
+                    i++;
+                }
+                if (i == lineLength) {
+                    break;
+                }
+                argStart[argCount] = i;
+                // CONNECT json has spaces, it is the last arg so it keeps the rest of the line
+                if (argCount == 1 && isOp("CONNECT")) {
+                    i = lineLength;
+                }
+                while (i < lineLength && line[i] != ' ' && line[i] != '\t') {
+                    i++;
+                }
+                argEnd[argCount++] = i;
+            }
+            return true;
+        }
+
+        private boolean isOp(String op) {
+            int len = argEnd[0] - argStart[0];
+            if (len != op.length()) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (Character.toUpperCase(line[argStart[0] + i]) != op.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String arg(int i) {
+            return new String(line, argStart[i], argEnd[i] - argStart[i], StandardCharsets.US_ASCII);
+        }
+
+        private int intArg(int i) {
+            int n = 0;
+            for (int x = argStart[i]; x < argEnd[i]; x++) {
+                n = n * 10 + (line[x] - '0');
+            }
+            return n;
+        }
+
+        private void processLine() throws IOException {
+            if (argCount == 0) {
+                return;
+            }
+            if (isOp("PUB")) {
+                // PUB <subject> [reply-to] <#bytes>
+                route(false, intArg(argCount - 1));
+            }
+            else if (isOp("HPUB")) {
+                // HPUB <subject> [reply-to] <#header bytes> <#total bytes>
+                route(true, intArg(argCount - 1));
+            }
+            else if (isOp("PING")) {
+                writeTo(this, PONG, 0, PONG.length);
+            }
+            else if (isOp("SUB")) {
+                // SUB <subject> [queue group] <sid>
+                String sid = arg(argCount - 1);
+                Sub sub = new Sub(this, arg(1), argCount == 4 ? arg(2) : null, sid);
+                subs.put(sid, sub);
+                addSub(sub);
+            }
+            else if (isOp("UNSUB")) {
+                // UNSUB <sid> [max_msgs]
+                Sub sub = subs.get(arg(1));
+                if (sub != null) {
+                    if (argCount == 3) {
+                        sub.remaining.set(intArg(2));
+                    }
+                    else {
+                        subs.remove(arg(1));
+                        removeSub(sub);
+                    }
+                }
+            }
+            else if (isOp("CONNECT")) {
+                if (argCount > 1 && arg(1).replace(" ", "").contains("\"echo\":false")) {
+                    echo = false;
+                }
+            }
+            // PONG and anything else is ignored
+        }
+
+        private void readPayload(int size) throws IOException {
+            int total = size + 2; // CRLF
+            if (payload.length < total) {
+                payload = new byte[Math.max(total, payload.length * 2)];
+            }
+            int read = 0;
+            while (read < total) {
+                if (position == limit && !fill()) {
+                    throw new IOException("Client closed in the middle of a message");
+                }
+                int n = Math.min(total - read, limit - position);
+                System.arraycopy(buffer, position, payload, read, n);
+                position += n;
+                read += n;
+            }
+        }
+
+        private void route(boolean headers, int totalSize) throws IOException {
+            readPayload(totalSize);
+            String subject = arg(1);
+
+            List<Sub> queued = null;
+            List<Sub> literal = literalSubs.get(subject);
+            if (literal != null) {
+                for (Sub sub : literal) {
+                    if (sub.queue == null) {
+                        deliver(sub, headers);
+                    }
+                    else {
+                        queued = addQueued(queued, sub);
+                    }
+                }
+            }
+            for (Sub sub : wildcardSubs) {
+                if (sub.matches(subject)) {
+                    if (sub.queue == null) {
+                        deliver(sub, headers);
+                    }
+                    else {
+                        queued = addQueued(queued, sub);
+                    }
+                }
+            }
+
+            // each queue group gets one copy, the members take turns
+            while (queued != null && !queued.isEmpty()) {
+                String queue = queued.get(0).queue;
+                List<Sub> members = new ArrayList<>();
+                for (Iterator<Sub> it = queued.iterator(); it.hasNext(); ) {
+                    Sub sub = it.next();
+                    if (sub.queue.equals(queue)) {
+                        members.add(sub);
+                        it.remove();
+                    }
+                }
+                AtomicInteger cursor = queueCursors.computeIfAbsent(queue, q -> new AtomicInteger());
+                deliver(members.get(Math.floorMod(cursor.getAndIncrement(), members.size())), headers);
+            }
+        }
+
+        private List<Sub> addQueued(List<Sub> queued, Sub sub) {
+            if (queued == null) {
+                queued = new ArrayList<>();
+            }
+            queued.add(sub);
+            return queued;
+        }
+
+        private void deliver(Sub sub, boolean headers) throws IOException {
+            if (!echo && sub.client == this) {
+                return;
+            }
+            long remaining = sub.remaining.get();
+            if (remaining == 0) {
+                return;
+            }
+            if (remaining > 0 && sub.remaining.decrementAndGet() == 0) {
+                removeSub(sub); // the owner's subs map keeps it, which is harmless
+            }
+
+            // MSG <subject> <sid> [reply-to] <#bytes> / HMSG <subject> <sid> [reply-to] <#header bytes> <#total bytes>
+            Client target = sub.client;
+            synchronized (target.out) {
+                OutputStream o = target.out;
+                o.write(headers ? HMSG : MSG);
+                o.write(line, argStart[1], argEnd[1] - argStart[1]);
+                o.write(' ');
+                o.write(sub.sid);
+                for (int i = 2; i < argCount; i++) {
+                    o.write(' ');
+                    o.write(line, argStart[i], argEnd[i] - argStart[i]);
+                }
+                o.write('\r');
+                o.write('\n');
+                o.write(payload, 0, intArg(argCount - 1) + 2);
+            }
+            if (!toFlush.contains(target)) {
+                toFlush.add(target);
+            }
+        }
+
+        private void writeTo(Client target, byte[] bytes, int off, int len) throws IOException {
+            synchronized (target.out) {
+                target.out.write(bytes, off, len);
+            }
+            if (!toFlush.contains(target)) {
+                toFlush.add(target);
+            }
+        }
+
+        private void flushPending() {
+            for (Client c : toFlush) {
+                try {
+                    synchronized (c.out) {
+                        c.out.flush();
+                    }
+                }
+                catch (IOException e) {
+                    c.close(); // that client is gone
+                }
+            }
+            toFlush.clear();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Options.DEFAULT_PORT;
+        LoopbackServer server = new LoopbackServer(port);
+        System.out.println("Loopback server listening on " + server.getURI());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.bench;
+
+import io.nats.client.support.JsonSerializable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.nats.client.support.Encoding.jsonDecode;
+import static io.nats.client.support.JsonUtils.*;
+
+/**
+ * A results file: the environment the matrix ran in, as flat strings, and a result per scenario.
+ * One result is written per line so two files can also be read with a plain diff.
+ */
+public class BenchReport implements JsonSerializable {
+    static final String ENVIRONMENT = "environment";
+    static final String RESULTS = "results";
+
+    private static final Pattern ENV_FIELD_RE = Pattern.compile("\"(\\w+)\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final Map<String, String> environment;
+    private final List<BenchResult> results;
+
+    BenchReport(Map<String, String> environment) {
+        this.environment = new LinkedHashMap<>(environment);
+        results = new ArrayList<>();
+    }
+
+    BenchReport(String json) {
+        environment = new LinkedHashMap<>();
+        Matcher m = ENV_FIELD_RE.matcher(getJsonObject(ENVIRONMENT, json));
+        while (m.find()) {
+            environment.put(m.group(1), jsonDecode(m.group(2)));
+        }
+        results = new ArrayList<>();
+        for (String r : getObjectList(RESULTS, json)) {
+            results.add(new BenchResult(r));
+        }
+    }
+
+    static BenchReport read(Path path) throws IOException {
+        return new BenchReport(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(path, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    void add(BenchResult result) {
+        results.add(result);
+    }
+
+    public Map<String, String> getEnvironment() {
+        return Collections.unmodifiableMap(environment);
+    }
+
+    public List<BenchResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * @param name the scenario name
+     * @return the result for the scenario, null if it is not in the report
+     */
+    public BenchResult getResult(String name) {
+        for (BenchResult r : results) {
+            if (r.getName().equals(name)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toJson() {
+        StringBuilder env = beginJson();
+        for (Map.Entry<String, String> e : environment.entrySet()) {
+            addField(env, e.getKey(), e.getValue());
+        }
+        StringBuilder sb = new StringBuilder("{\n  \"").append(ENVIRONMENT).append("\":").append(endJson(env))
+            .append(",\n  \"").append(RESULTS).append("\":[");
+        for (int i = 0; i < results.size(); i++) {
+            sb.append(i == 0 ? "\n    " : ",\n    ").append(results.get(i).toJson());
+        }
+        return sb.append("\n  ]\n}\n").toString();
+    }
+}
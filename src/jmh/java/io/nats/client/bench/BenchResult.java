@@ -0,0 +1,259 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.bench;
+
+import io.nats.client.support.JsonSerializable;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import static io.nats.client.support.JsonUtils.*;
+
+/**
+ * The result of running one scenario. Throughput is the median of the runs, with the
+ * lowest and highest kept to show the spread. Latency is sampled over all the runs,
+ * it is zero when the scenario does not measure it, i.e. publish only.
+ */
+public class BenchResult implements JsonSerializable {
+    static final String NAME = "name";
+    static final String MODE = "mode";
+    static final String PAYLOAD = "payload";
+    static final String PUBLISHERS = "publishers";
+    static final String SUBSCRIBERS = "subscribers";
+    static final String HEADERS = "headers";
+    static final String MESSAGES = "messages";
+    static final String RUNS = "runs";
+    static final String MSGS_PER_SEC = "msgs_per_sec";
+    static final String MIN_MSGS_PER_SEC = "min_msgs_per_sec";
+    static final String MAX_MSGS_PER_SEC = "max_msgs_per_sec";
+    static final String DELIVERED_PER_SEC = "delivered_per_sec";
+    static final String BYTES_PER_SEC = "bytes_per_sec";
+    static final String LATENCY_P50 = "latency_p50_ns";
+    static final String LATENCY_P99 = "latency_p99_ns";
+    static final String LATENCY_MAX = "latency_max_ns";
+    static final String SKIPPED = "skipped";
+    static final String ERROR = "error";
+
+    private static final Pattern NAME_RE = string_pattern(NAME);
+    private static final Pattern MODE_RE = string_pattern(MODE);
+    private static final Pattern PAYLOAD_RE = integer_pattern(PAYLOAD);
+    private static final Pattern PUBLISHERS_RE = integer_pattern(PUBLISHERS);
+    private static final Pattern SUBSCRIBERS_RE = integer_pattern(SUBSCRIBERS);
+    private static final Pattern HEADERS_RE = boolean_pattern(HEADERS);
+    private static final Pattern MESSAGES_RE = integer_pattern(MESSAGES);
+    private static final Pattern RUNS_RE = integer_pattern(RUNS);
+    private static final Pattern MSGS_PER_SEC_RE = integer_pattern(MSGS_PER_SEC);
+    private static final Pattern MIN_MSGS_PER_SEC_RE = integer_pattern(MIN_MSGS_PER_SEC);
+    private static final Pattern MAX_MSGS_PER_SEC_RE = integer_pattern(MAX_MSGS_PER_SEC);
+    private static final Pattern DELIVERED_PER_SEC_RE = integer_pattern(DELIVERED_PER_SEC);
+    private static final Pattern BYTES_PER_SEC_RE = integer_pattern(BYTES_PER_SEC);
+    private static final Pattern LATENCY_P50_RE = integer_pattern(LATENCY_P50);
+    private static final Pattern LATENCY_P99_RE = integer_pattern(LATENCY_P99);
+    private static final Pattern LATENCY_MAX_RE = integer_pattern(LATENCY_MAX);
+
+    private final String name;
+    private final String mode;
+    private final int payload;
+    private final int publishers;
+    private final int subscribers;
+    private final boolean headers;
+    private final long messages;
+    private int runs;
+    private long msgsPerSec;
+    private long minMsgsPerSec;
+    private long maxMsgsPerSec;
+    private long deliveredPerSec;
+    private long bytesPerSec;
+    private long latencyP50;
+    private long latencyP99;
+    private long latencyMax;
+    private String skipped;
+    private String error;
+
+    BenchResult(BenchScenario scenario) {
+        name = scenario.getName();
+        mode = scenario.getMode().name();
+        payload = scenario.getPayloadSize();
+        publishers = scenario.getPublishers();
+        subscribers = scenario.getSubscribers();
+        headers = scenario.isHeaders();
+        messages = scenario.getMessages();
+    }
+
+    BenchResult(String json) {
+        name = readString(json, NAME_RE);
+        mode = readString(json, MODE_RE);
+        payload = readInt(json, PAYLOAD_RE, 0);
+        publishers = readInt(json, PUBLISHERS_RE, 0);
+        subscribers = readInt(json, SUBSCRIBERS_RE, 0);
+        headers = readBoolean(json, HEADERS_RE);
+        messages = readLong(json, MESSAGES_RE, 0);
+        runs = readInt(json, RUNS_RE, 0);
+        msgsPerSec = readLong(json, MSGS_PER_SEC_RE, 0);
+        minMsgsPerSec = readLong(json, MIN_MSGS_PER_SEC_RE, 0);
+        maxMsgsPerSec = readLong(json, MAX_MSGS_PER_SEC_RE, 0);
+        deliveredPerSec = readLong(json, DELIVERED_PER_SEC_RE, 0);
+        bytesPerSec = readLong(json, BYTES_PER_SEC_RE, 0);
+        latencyP50 = readLong(json, LATENCY_P50_RE, 0);
+        latencyP99 = readLong(json, LATENCY_P99_RE, 0);
+        latencyMax = readLong(json, LATENCY_MAX_RE, 0);
+        skipped = readStringMayHaveQuotes(json, SKIPPED, null);
+        error = readStringMayHaveQuotes(json, ERROR, null);
+    }
+
+    /**
+     * Fill in the throughput from the runs.
+     * @param elapsedNanos the time each run took
+     * @param delivered the messages received by all the subscribers in each run
+     */
+    void setRuns(long[] elapsedNanos, long[] delivered) {
+        runs = elapsedNanos.length;
+        long[] rates = new long[runs];
+        long deliveredTotal = 0;
+        long elapsedTotal = 0;
+        for (int i = 0; i < runs; i++) {
+            rates[i] = perSecond(messages, elapsedNanos[i]);
+            deliveredTotal += delivered[i];
+            elapsedTotal += elapsedNanos[i];
+        }
+        Arrays.sort(rates);
+        msgsPerSec = rates[runs / 2];
+        minMsgsPerSec = rates[0];
+        maxMsgsPerSec = rates[runs - 1];
+        deliveredPerSec = perSecond(deliveredTotal, elapsedTotal);
+        bytesPerSec = msgsPerSec * payload;
+    }
+
+    void setLatency(long p50, long p99, long max) {
+        latencyP50 = p50;
+        latencyP99 = p99;
+        latencyMax = max;
+    }
+
+    void setSkipped(String skipped) {
+        this.skipped = skipped;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : (long)(count * 1e9 / nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getPayload() {
+        return payload;
+    }
+
+    public int getPublishers() {
+        return publishers;
+    }
+
+    public int getSubscribers() {
+        return subscribers;
+    }
+
+    public boolean isHeaders() {
+        return headers;
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public long getMsgsPerSec() {
+        return msgsPerSec;
+    }
+
+    public long getMinMsgsPerSec() {
+        return minMsgsPerSec;
+    }
+
+    public long getMaxMsgsPerSec() {
+        return maxMsgsPerSec;
+    }
+
+    public long getDeliveredPerSec() {
+        return deliveredPerSec;
+    }
+
+    public long getBytesPerSec() {
+        return bytesPerSec;
+    }
+
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    public String getSkipped() {
+        return skipped;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return true if the scenario ran and has numbers to compare
+     */
+    public boolean isComplete() {
+        return skipped == null && error == null && runs > 0;
+    }
+
+    @Override
+    public String toJson() {
+        StringBuilder sb = beginJson();
+        addField(sb, NAME, name);
+        addField(sb, MODE, mode);
+        addField(sb, PAYLOAD, payload);
+        addField(sb, PUBLISHERS, publishers);
+        addField(sb, SUBSCRIBERS, subscribers);
+        addField(sb, HEADERS, headers);
+        addField(sb, MESSAGES, messages);
+        addFieldWhenGtZero(sb, RUNS, runs);
+        addFieldWhenGtZero(sb, MSGS_PER_SEC, msgsPerSec);
+        addFieldWhenGtZero(sb, MIN_MSGS_PER_SEC, minMsgsPerSec);
+        addFieldWhenGtZero(sb, MAX_MSGS_PER_SEC, maxMsgsPerSec);
+        addFieldWhenGtZero(sb, DELIVERED_PER_SEC, deliveredPerSec);
+        addFieldWhenGtZero(sb, BYTES_PER_SEC, bytesPerSec);
+        addFieldWhenGtZero(sb, LATENCY_P50, latencyP50);
+        addFieldWhenGtZero(sb, LATENCY_P99, latencyP99);
+        addFieldWhenGtZero(sb, LATENCY_MAX, latencyMax);
+        addField(sb, SKIPPED, skipped);
+        addField(sb, ERROR, error);
+        return endJson(sb).toString();
+    }
+}
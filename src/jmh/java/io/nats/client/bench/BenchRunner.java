@@ -0,0 +1,609 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.bench;
+
+import io.nats.client.*;
+import io.nats.client.api.ServerInfo;
+import io.nats.client.api.StorageType;
+import io.nats.client.api.StreamConfiguration;
+import io.nats.client.impl.Headers;
+import io.nats.client.impl.NatsMessage;
+import io.nats.client.support.DateTimeUtils;
+import io.nats.examples.autobench.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a named matrix of scenarios, payload sizes, publisher and subscriber counts, headers and JetStream
+ * publishing, and saves the results with the environment they ran in as json. Two results files can then be
+ * compared, any scenario that is slower than the threshold is reported as a regression and the exit code is 1,
+ * so a client build can be checked against the last one before it is rolled out:
+ * <pre>
+ * ./gradlew benchRunner -Pbench.args="run -matrix full -label before -out build/bench/before.json"
+ * (switch builds)
+ * ./gradlew benchRunner -Pbench.args="run -matrix full -label after -out build/bench/after.json"
+ * ./gradlew benchRunner -Pbench.args="compare build/bench/before.json build/bench/after.json -threshold 5"
+ * </pre>
+ * By default the matrix runs against an in-process {@link LoopbackServer}, so the numbers are the client's own
+ * and the same on every run of a box. The loopback server has no JetStream, so those scenarios are recorded
+ * as skipped unless a server url is given.
+ */
+public class BenchRunner {
+    static final String LOOPBACK = "loopback";
+    static final int SAMPLE_EVERY = 64;
+    static final int ASYNC_WINDOW = 1_000;
+    static final long BASE_NANOS = System.nanoTime();
+
+    static final String usageString =
+        "\nUsage: java -cp <classpath> io.nats.client.bench.BenchRunner" +
+            "\n  run [-server loopback|<url>] [-matrix smoke|core|fanout|headers|jetstream|full] [-scenario <regex>]" +
+            "\n      [-messages <count>] [-repeat <runs>] [-soak <seconds>] [-warmup <count>] [-jsfile]" +
+            "\n      [-label <text>] [-out <file>]" +
+            "\n  compare <baseline file> <candidate file> [-threshold <percent>] [-latencyThreshold <percent>]" +
+            "\n  list [-matrix <name>] [-messages <count>]" +
+            "\n\nrun executes the matrix, loopback by default, and writes the results as json, bench-results.json by default." +
+            "\n-messages is the count for a small core scenario, the others are scaled from it. Each scenario runs" +
+            "\n-repeat times, 3 by default, or for -soak seconds if that is longer, and the median throughput is kept." +
+            "\n\ncompare reports the change of each scenario, and exits with 1 if throughput dropped by more than" +
+            "\n-threshold percent, 10 by default, or p99 latency rose by more than -latencyThreshold, 25 by default.\n";
+
+    static class Arguments {
+        String command = "run";
+        String server = LOOPBACK;
+        String matrix = "core";
+        String scenario = null;
+        long messages = 100_000;
+        int repeat = 3;
+        long soakSeconds = 0;
+        long warmup = 100_000;
+        boolean jsFile = false;
+        String label = null;
+        String out = "bench-results.json";
+        List<String> files = new ArrayList<>();
+        double threshold = 10;
+        double latencyThreshold = 25;
+    }
+
+    public static void main(String[] args) {
+        Arguments a = readArgs(args);
+        try {
+            switch (a.command) {
+                case "list":
+                    for (BenchScenario s : scenarios(a)) {
+                        System.out.println(s);
+                    }
+                    break;
+                case "compare":
+                    if (a.files.size() != 2) {
+                        usage();
+                    }
+                    boolean regressed = compare(BenchReport.read(Paths.get(a.files.get(0))),
+                        BenchReport.read(Paths.get(a.files.get(1))), a.threshold, a.latencyThreshold);
+                    System.exit(regressed ? 1 : 0);
+                    break;
+                default:
+                    run(a);
+                    break;
+            }
+        }
+        catch (Exception exp) {
+            exp.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    static List<BenchScenario> scenarios(Arguments a) {
+        List<BenchScenario> list = BenchScenario.matrix(a.matrix, a.messages);
+        if (a.scenario != null) {
+            list.removeIf(s -> !s.getName().matches(a.scenario));
+        }
+        return list;
+    }
+
+    static void run(Arguments a) throws Exception {
+        List<BenchScenario> scenarios = scenarios(a);
+        LoopbackServer loopback = a.server.equals(LOOPBACK) ? new LoopbackServer() : null;
+        try {
+            Options options = new Options.Builder()
+                .server(loopback == null ? a.server : loopback.getURI())
+                .connectionTimeout(Duration.ofSeconds(5))
+                .noReconnect()
+                .build();
+
+            ServerInfo serverInfo;
+            try (Connection nc = Nats.connect(options)) {
+                serverInfo = nc.getServerInfo();
+            }
+            BenchReport report = new BenchReport(environment(a, serverInfo));
+            System.out.printf("Running %d scenarios against %s\n", scenarios.size(), a.server);
+
+            if (a.warmup > 0) {
+                runOnce(options, new BenchScenario(BenchScenario.Mode.Core, 128, 1, 1, false, a.warmup), new LatencyHistogram(), a.jsFile);
+            }
+
+            printHeader();
+            for (BenchScenario s : scenarios) {
+                BenchResult result = runScenario(options, s, a, serverInfo.isJetStreamAvailable());
+                report.add(result);
+                printResult(result);
+            }
+
+            report.write(Paths.get(a.out));
+            System.out.println("\nResults written to " + Paths.get(a.out).toAbsolutePath());
+        }
+        finally {
+            if (loopback != null) {
+                loopback.close();
+            }
+        }
+    }
+
+    static Map<String, String> environment(Arguments a, ServerInfo serverInfo) {
+        Runtime rt = Runtime.getRuntime();
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("label", a.label == null ? "" : a.label);
+        env.put("timestamp", DateTimeUtils.toRfc3339(DateTimeUtils.gmtNow()));
+        env.put("client_version", Nats.CLIENT_VERSION);
+        env.put("git_commit", gitCommit());
+        env.put("target", a.server);
+        env.put("server_version", serverInfo.getVersion());
+        env.put("server_jetstream", Boolean.toString(serverInfo.isJetStreamAvailable()));
+        env.put("matrix", a.matrix + (a.scenario == null ? "" : " " + a.scenario));
+        env.put("messages", Long.toString(a.messages));
+        env.put("repeat", Integer.toString(a.repeat));
+        env.put("soak_seconds", Long.toString(a.soakSeconds));
+        env.put("js_storage", a.jsFile ? "file" : "memory");
+        env.put("java_version", System.getProperty("java.version"));
+        env.put("java_vendor", System.getProperty("java.vendor"));
+        env.put("java_vm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        env.put("jvm_args", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        env.put("os_name", System.getProperty("os.name"));
+        env.put("os_arch", System.getProperty("os.arch"));
+        env.put("os_version", System.getProperty("os.version"));
+        env.put("cpus", Integer.toString(rt.availableProcessors()));
+        env.put("max_memory", Long.toString(rt.maxMemory()));
+        return env;
+    }
+
+    // the GIT_COMMIT environment variable if the build set it, otherwise ask git
+    static String gitCommit() {
+        String commit = System.getenv("GIT_COMMIT");
+        if (commit != null && !commit.isEmpty()) {
+            return commit;
+        }
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = r.readLine();
+                if (p.waitFor(5, TimeUnit.SECONDS) && p.exitValue() == 0 && line != null) {
+                    return line.trim();
+                }
+            }
+        }
+        catch (IOException | InterruptedException ignore) {
+            // not run from a checkout
+        }
+        return "unknown";
+    }
+
+    static BenchResult runScenario(Options options, BenchScenario s, Arguments a, boolean jetStreamAvailable) {
+        BenchResult result = new BenchResult(s);
+        if (s.isJetStream() && !jetStreamAvailable) {
+            result.setSkipped("JetStream is not available on " + a.server);
+            return result;
+        }
+
+        LatencyHistogram latency = new LatencyHistogram();
+        List<long[]> runs = new ArrayList<>();
+        long soakEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(a.soakSeconds);
+        try {
+            do {
+                runs.add(runOnce(options, s, latency, a.jsFile));
+
+                // Ask for GC and wait a moment between runs
+                System.gc();
+                Thread.sleep(500);
+            } while (runs.size() < a.repeat || System.nanoTime() < soakEnd);
+        }
+        catch (Exception e) {
+            result.setError(e.getMessage() == null ? e.getClass().getCanonicalName() : e.getMessage());
+            return result;
+        }
+
+        long[] elapsed = new long[runs.size()];
+        long[] delivered = new long[runs.size()];
+        for (int i = 0; i < elapsed.length; i++) {
+            elapsed[i] = runs.get(i)[0];
+            delivered[i] = runs.get(i)[1];
+        }
+        result.setRuns(elapsed, delivered);
+        if (latency.getTotalCount() > 0) {
+            result.setLatency(latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getMax());
+        }
+        return result;
+    }
+
+    /**
+     * Run the scenario once on fresh connections.
+     * @return the elapsed nanos and the number of messages delivered to the subscribers
+     */
+    static long[] runOnce(Options options, BenchScenario s, LatencyHistogram latency, boolean jsFile) throws Exception {
+        String subject = "bench." + NUID.nextGlobal();
+        long expected = s.getMessages() * s.getSubscribers();
+        AtomicLong delivered = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(expected > 0 ? 1 : 0);
+        List<Connection> connections = new ArrayList<>();
+        JetStreamManagement jsm = null;
+        String stream = null;
+        try {
+            for (int i = 0; i < s.getSubscribers(); i++) {
+                Connection nc = Nats.connect(options);
+                connections.add(nc);
+                Dispatcher d = nc.createDispatcher(msg -> {
+                    long stamp = readStamp(msg.getData());
+                    if (stamp != 0) {
+                        latency.record(System.nanoTime() - BASE_NANOS - stamp);
+                    }
+                    if (delivered.incrementAndGet() == expected) {
+                        done.countDown();
+                    }
+                });
+                d.setPendingLimits(0, 0); // never drop, a slow run should show as slow
+                d.subscribe(subject);
+                nc.flush(Duration.ofSeconds(5));
+            }
+
+            List<Connection> publishers = new ArrayList<>();
+            for (int i = 0; i < s.getPublishers(); i++) {
+                Connection nc = Nats.connect(options);
+                connections.add(nc);
+                publishers.add(nc);
+            }
+
+            if (s.isJetStream()) {
+                stream = "bench-" + NUID.nextGlobal();
+                jsm = publishers.get(0).jetStreamManagement();
+                jsm.addStream(StreamConfiguration.builder()
+                    .name(stream)
+                    .subjects(subject)
+                    .storageType(jsFile ? StorageType.File : StorageType.Memory)
+                    .build());
+            }
+
+            CountDownLatch go = new CountDownLatch(1);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < publishers.size(); i++) {
+                Connection nc = publishers.get(i);
+                long count = s.getMessages() / publishers.size() + (i < s.getMessages() % publishers.size() ? 1 : 0);
+                Thread t = new Thread(() -> {
+                    try {
+                        go.await();
+                        publish(nc, s, subject, count, latency, failure);
+                    }
+                    catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }, "bench-publisher-" + i);
+                threads.add(t);
+                t.start();
+            }
+
+            long start = System.nanoTime();
+            go.countDown();
+            for (Thread t : threads) {
+                t.join();
+            }
+            if (failure.get() != null) {
+                Throwable t = failure.get();
+                throw t instanceof Exception ? (Exception)t : new Exception(t);
+            }
+            if (!done.await(60, TimeUnit.SECONDS)) {
+                throw new TimeoutException("Received " + delivered.get() + " of " + expected + " messages");
+            }
+            return new long[] {System.nanoTime() - start, delivered.get()};
+        }
+        finally {
+            if (jsm != null) {
+                try {
+                    jsm.deleteStream(stream);
+                }
+                catch (IOException | JetStreamApiException ignore) {}
+            }
+            for (Connection nc : connections) {
+                nc.close();
+            }
+        }
+    }
+
+    // Every SAMPLE_EVERY message is timed. Core messages carry the send time in the payload to the subscriber,
+    // so they need a fresh array, the rest share one whose stamp is zero. JetStream is timed at the publisher until the ack.
+    private static void publish(Connection nc, BenchScenario s, String subject, long count,
+                                LatencyHistogram latency, AtomicReference<Throwable> failure) throws Exception {
+        byte[] payload = new byte[s.getPayloadSize()];
+        Headers headers = s.isHeaders() ? new Headers().put("Bench-Header", "bench-value") : null;
+        JetStream js = s.isJetStream() ? nc.jetStream() : null;
+        Semaphore window = new Semaphore(ASYNC_WINDOW);
+
+        for (long i = 0; i < count; i++) {
+            boolean sample = i % SAMPLE_EVERY == 0;
+            long sentAt = System.nanoTime();
+            byte[] data = payload;
+            if (sample && js == null && payload.length >= 8) {
+                data = new byte[payload.length];
+                writeStamp(data, sentAt - BASE_NANOS);
+            }
+            Message msg = headers == null ? null : NatsMessage.builder().subject(subject).headers(headers).data(data).build();
+
+            switch (s.getMode()) {
+                case Core:
+                    if (msg == null) {
+                        nc.publish(subject, data);
+                    }
+                    else {
+                        nc.publish(msg);
+                    }
+                    break;
+                case JsSync:
+                    if (msg == null) {
+                        js.publish(subject, data);
+                    }
+                    else {
+                        js.publish(msg);
+                    }
+                    if (sample) {
+                        latency.record(System.nanoTime() - sentAt);
+                    }
+                    break;
+                case JsAsync:
+                    window.acquire();
+                    (msg == null ? js.publishAsync(subject, data) : js.publishAsync(msg)).whenComplete((ack, t) -> {
+                        if (t != null) {
+                            failure.compareAndSet(null, t);
+                        }
+                        else if (sample) {
+                            latency.record(System.nanoTime() - sentAt);
+                        }
+                        window.release();
+                    });
+                    break;
+            }
+        }
+
+        if (s.getMode() == BenchScenario.Mode.JsAsync) {
+            if (!window.tryAcquire(ASYNC_WINDOW, 60, TimeUnit.SECONDS)) {
+                throw new TimeoutException("Timed out waiting for publish acks");
+            }
+        }
+        else {
+            nc.flush(Duration.ofSeconds(60));
+        }
+    }
+
+    private static void writeStamp(byte[] data, long stamp) {
+        for (int i = 0; i < 8; i++) {
+            data[i] = (byte)(stamp >>> (56 - 8 * i));
+        }
+    }
+
+    private static long readStamp(byte[] data) {
+        if (data == null || data.length < 8) {
+            return 0;
+        }
+        long stamp = 0;
+        for (int i = 0; i < 8; i++) {
+            stamp = (stamp << 8) | (data[i] & 0xFF);
+        }
+        return stamp;
+    }
+
+    /**
+     * Print the change of each scenario in the baseline, and warnings for differences in the environment
+     * that make the comparison less meaningful.
+     * @return true if any scenario regressed
+     */
+    static boolean compare(BenchReport baseline, BenchReport candidate, double threshold, double latencyThreshold) {
+        Map<String, String> be = baseline.getEnvironment();
+        Map<String, String> ce = candidate.getEnvironment();
+        System.out.printf("Comparing %s (%s) to %s (%s)\n",
+            describe(be), be.get("git_commit"), describe(ce), ce.get("git_commit"));
+        for (String key : new String[] {"target", "server_version", "java_version", "java_vm", "jvm_args",
+                                        "os_name", "os_arch", "cpus", "max_memory", "messages", "js_storage"}) {
+            if (!Objects.equals(be.get(key), ce.get(key))) {
+                System.out.printf("Warning: %s differs, %s vs %s\n", key, be.get(key), ce.get(key));
+            }
+        }
+
+        System.out.println();
+        System.out.println("| scenario                   |   base msgs/s |   cand msgs/s |  change | base p99 us | cand p99 us |  change | verdict    |");
+        System.out.println("| -------------------------- | ------------- | ------------- | ------- | ----------- | ----------- | ------- | ---------- |");
+
+        boolean regressed = false;
+        for (BenchResult b : baseline.getResults()) {
+            BenchResult c = candidate.getResult(b.getName());
+            String verdict;
+            if (c == null) {
+                verdict = "missing";
+            }
+            else if (!b.isComplete()) {
+                verdict = b.getSkipped() != null ? "skipped" : "base error";
+            }
+            else if (!c.isComplete()) {
+                verdict = c.getSkipped() != null ? "skipped" : "REGRESSION";
+                regressed |= c.getError() != null;
+            }
+            else {
+                double tput = change(b.getMsgsPerSec(), c.getMsgsPerSec());
+                double p99 = change(b.getLatencyP99(), c.getLatencyP99());
+                if (tput < -threshold || p99 > latencyThreshold) {
+                    verdict = "REGRESSION";
+                    regressed = true;
+                }
+                else if (tput > threshold) {
+                    verdict = "faster";
+                }
+                else {
+                    verdict = "ok";
+                }
+            }
+            System.out.printf("| %-26s | %13s | %13s | %7s | %11s | %11s | %7s | %-10s |\n",
+                b.getName(),
+                count(b.isComplete(), b.getMsgsPerSec()),
+                count(c != null && c.isComplete(), c == null ? 0 : c.getMsgsPerSec()),
+                percent(b, c, b.getMsgsPerSec(), c == null ? 0 : c.getMsgsPerSec()),
+                micros(b.isComplete(), b.getLatencyP99()),
+                micros(c != null && c.isComplete(), c == null ? 0 : c.getLatencyP99()),
+                percent(b, c, b.getLatencyP99(), c == null ? 0 : c.getLatencyP99()),
+                verdict);
+        }
+        for (BenchResult c : candidate.getResults()) {
+            if (baseline.getResult(c.getName()) == null) {
+                System.out.printf("| %-26s | %13s | %13s | %7s | %11s | %11s | %7s | %-10s |\n",
+                    c.getName(), "", count(c.isComplete(), c.getMsgsPerSec()), "", "", micros(c.isComplete(), c.getLatencyP99()), "", "new");
+            }
+        }
+
+        System.out.println();
+        System.out.println(regressed ? "Regressions found" : "No regressions");
+        return regressed;
+    }
+
+    private static String describe(Map<String, String> env) {
+        String label = env.get("label");
+        return label == null || label.isEmpty() ? env.get("timestamp") : label;
+    }
+
+    private static double change(long base, long cand) {
+        return base == 0 || cand == 0 ? 0 : (cand - base) * 100.0 / base;
+    }
+
+    private static String percent(BenchResult b, BenchResult c, long base, long cand) {
+        if (c == null || !b.isComplete() || !c.isComplete() || base == 0 || cand == 0) {
+            return "";
+        }
+        return String.format("%+.1f%%", change(base, cand));
+    }
+
+    private static String count(boolean complete, long value) {
+        return complete ? NumberFormat.getIntegerInstance().format(value) : "";
+    }
+
+    private static String micros(boolean complete, long nanos) {
+        return complete && nanos > 0 ? String.format("%.1f", nanos / 1e3) : "";
+    }
+
+    private static void printHeader() {
+        System.out.println();
+        System.out.println("| scenario                   |    msgs |      msgs/s |  spread | delivered/s |     MB/s |   p50 us |   p99 us |");
+        System.out.println("| -------------------------- | ------- | ----------- | ------- | ----------- | -------- | -------- | -------- |");
+    }
+
+    private static void printResult(BenchResult r) {
+        if (!r.isComplete()) {
+            System.out.printf("| %-26s %s: %s\n", r.getName(), r.getSkipped() != null ? "Skipped" : "Exception",
+                r.getSkipped() != null ? r.getSkipped() : r.getError());
+            return;
+        }
+        System.out.printf("| %-26s | %7s | %11s | %6.1f%% | %11s | %8.2f | %8s | %8s |\n",
+            r.getName(),
+            NumberFormat.getIntegerInstance().format(r.getMessages()),
+            NumberFormat.getIntegerInstance().format(r.getMsgsPerSec()),
+            r.getMsgsPerSec() == 0 ? 0 : (r.getMaxMsgsPerSec() - r.getMinMsgsPerSec()) * 100.0 / r.getMsgsPerSec(),
+            r.getSubscribers() == 0 ? "" : NumberFormat.getIntegerInstance().format(r.getDeliveredPerSec()),
+            r.getBytesPerSec() / (1024.0 * 1024.0),
+            micros(true, r.getLatencyP50()),
+            micros(true, r.getLatencyP99()));
+    }
+
+    private static void usage() {
+        System.err.println(usageString);
+        System.exit(-1);
+    }
+
+    static Arguments readArgs(String[] args) {
+        Arguments a = new Arguments();
+        for (int x = 0; x < args.length; x++) {
+            switch (args[x].toLowerCase()) {
+                case "run":
+                case "compare":
+                case "list":
+                    a.command = args[x].toLowerCase();
+                    break;
+                case "-server":
+                    a.server = args[++x];
+                    break;
+                case "-matrix":
+                    a.matrix = args[++x];
+                    break;
+                case "-scenario":
+                    a.scenario = args[++x];
+                    break;
+                case "-messages":
+                    a.messages = Long.parseLong(args[++x]);
+                    break;
+                case "-repeat":
+                    a.repeat = Math.max(1, Integer.parseInt(args[++x]));
+                    break;
+                case "-soak":
+                    a.soakSeconds = Long.parseLong(args[++x]);
+                    break;
+                case "-warmup":
+                    a.warmup = Long.parseLong(args[++x]);
+                    break;
+                case "-jsfile":
+                    a.jsFile = true;
+                    break;
+                case "-label":
+                    a.label = args[++x];
+                    break;
+                case "-out":
+                    a.out = args[++x];
+                    break;
+                case "-threshold":
+                    a.threshold = Double.parseDouble(args[++x]);
+                    break;
+                case "-latencythreshold":
+                    a.latencyThreshold = Double.parseDouble(args[++x]);
+                    break;
+                case "help":
+                case "-help":
+                    usage();
+                    break;
+                default:
+                    if (args[x].startsWith("-")) {
+                        System.err.println("Unknown option " + args[x]);
+                        usage();
+                    }
+                    a.files.add(args[x]);
+                    break;
+            }
+        }
+        return a;
+    }
+}
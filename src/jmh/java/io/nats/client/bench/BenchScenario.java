@@ -0,0 +1,150 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One cell of a benchmark matrix. The name is built from the settings, so results from
+ * different runs of the same matrix line up by name when they are compared.
+ */
+public class BenchScenario {
+    public enum Mode {
+        Core, JsSync, JsAsync
+    }
+
+    static final List<String> MATRICES = Collections.unmodifiableList(
+        Arrays.asList("smoke", "core", "fanout", "headers", "jetstream", "full"));
+
+    private final Mode mode;
+    private final int payloadSize;
+    private final int publishers;
+    private final int subscribers;
+    private final boolean headers;
+    private final long messages;
+
+    public BenchScenario(Mode mode, int payloadSize, int publishers, int subscribers, boolean headers, long messages) {
+        this.mode = mode;
+        this.payloadSize = payloadSize;
+        this.publishers = publishers;
+        this.subscribers = subscribers;
+        this.headers = headers;
+        this.messages = messages;
+    }
+
+    /**
+     * The name of the scenario, i.e. core-1x4-128b or jsasync-1x0-1024b-hdr
+     * @return the name
+     */
+    public String getName() {
+        return mode.name().toLowerCase() + "-" + publishers + "x" + subscribers + "-" + payloadSize + "b" + (headers ? "-hdr" : "");
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    public int getPublishers() {
+        return publishers;
+    }
+
+    public int getSubscribers() {
+        return subscribers;
+    }
+
+    public boolean isHeaders() {
+        return headers;
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public boolean isJetStream() {
+        return mode != Mode.Core;
+    }
+
+    /**
+     * Build a named matrix. Message counts are scaled from the base by the cost of the scenario,
+     * so each cell takes roughly the same time.
+     * @param name one of smoke, core, fanout, headers, jetstream or full
+     * @param baseMessages the message count for a small core scenario
+     * @return the scenarios
+     */
+    public static List<BenchScenario> matrix(String name, long baseMessages) {
+        List<BenchScenario> list = new ArrayList<>();
+        switch (name.toLowerCase()) {
+            case "smoke":
+                list.add(core(128, 1, 1, false, baseMessages / 10));
+                break;
+            case "core":
+                for (int size : new int[] {16, 128, 1024, 8192}) {
+                    list.add(core(size, 1, 0, false, baseMessages));
+                    list.add(core(size, 1, 1, false, baseMessages));
+                }
+                break;
+            case "fanout":
+                for (int[] ps : new int[][] {{1, 1}, {1, 4}, {4, 1}, {4, 4}}) {
+                    list.add(core(128, ps[0], ps[1], false, baseMessages));
+                }
+                break;
+            case "headers":
+                for (int size : new int[] {128, 1024}) {
+                    list.add(core(size, 1, 1, false, baseMessages));
+                    list.add(core(size, 1, 1, true, baseMessages));
+                }
+                break;
+            case "jetstream":
+                for (int size : new int[] {128, 1024}) {
+                    list.add(new BenchScenario(Mode.JsSync, size, 1, 0, false, Math.max(1, baseMessages / 20)));
+                    list.add(new BenchScenario(Mode.JsAsync, size, 1, 0, false, Math.max(1, baseMessages / 2)));
+                }
+                list.add(new BenchScenario(Mode.JsAsync, 128, 1, 0, true, Math.max(1, baseMessages / 2)));
+                break;
+            case "full":
+                for (String m : MATRICES) {
+                    if (!m.equals("smoke") && !m.equals("full")) {
+                        for (BenchScenario s : matrix(m, baseMessages)) {
+                            if (list.stream().noneMatch(e -> e.getName().equals(s.getName()))) {
+                                list.add(s);
+                            }
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown matrix " + name + ", expected one of " + MATRICES);
+        }
+        return list;
+    }
+
+    // big payloads run fewer messages
+    private static BenchScenario core(int size, int publishers, int subscribers, boolean headers, long baseMessages) {
+        long messages = size > 1024 ? baseMessages / 4 : baseMessages;
+        return new BenchScenario(Mode.Core, size, publishers, subscribers, headers, Math.max(1, messages));
+    }
+
+    @Override
+    public String toString() {
+        return getName() + " x " + messages;
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.support.IncomingHeadersProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding headers for a publish and decoding them from an incoming HMSG.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeadersBenchmarks {
+
+    @Param({"1", "8"})
+    public int headerCount;
+
+    private Headers headers;
+    private byte[] serialized;
+    private byte[] statusAndHeaders;
+    private byte[] dest;
+
+    @Setup
+    public void setup() {
+        headers = new Headers();
+        for (int i = 0; i < headerCount; i++) {
+            headers.add("Bench-Key-" + i, "bench-value-" + i);
+        }
+        serialized = headers.getSerialized();
+        statusAndHeaders = "NATS/1.0 408 Request Timeout\r\nNats-Pending-Messages: 1\r\nNats-Pending-Bytes: 128\r\n\r\n".getBytes();
+        dest = new byte[64 * 1024];
+    }
+
+    @Benchmark
+    public int encode() {
+        return headers.serializeToArray(0, dest);
+    }
+
+    @Benchmark
+    public Headers buildAndEncode() {
+        Headers h = new Headers();
+        for (int i = 0; i < headerCount; i++) {
+            h.add("Bench-Key-" + i, "bench-value-" + i);
+        }
+        h.serializeToArray(0, dest);
+        return h;
+    }
+
+    @Benchmark
+    public Headers decode() {
+        return new IncomingHeadersProcessor(serialized).getHeaders();
+    }
+
+    @Benchmark
+    public IncomingHeadersProcessor decodeStatus() {
+        return new IncomingHeadersProcessor(statusAndHeaders);
+    }
+}
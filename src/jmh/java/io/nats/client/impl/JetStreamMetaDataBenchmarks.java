@@ -0,0 +1,48 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the JetStream ack reply subject, which is done for every message a consumer looks at the metadata of.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JetStreamMetaDataBenchmarks {
+
+    @Param({
+        "$JS.ACK.bench-stream.bench-consumer.1.12345.6789.1667408888888888888.42",
+        "$JS.ACK.bench-domain.bench-hash.bench-stream.bench-consumer.1.12345.6789.1667408888888888888.42.token"
+    })
+    public String replyTo;
+
+    private NatsMessage msg;
+
+    @Setup
+    public void setup() {
+        msg = new NatsMessage.InternalMessageFactory("1", "bench.js", replyTo, 0, false).getMessage();
+    }
+
+    @Benchmark
+    public NatsJetStreamMetaData parse() {
+        return new NatsJetStreamMetaData(msg);
+    }
+}
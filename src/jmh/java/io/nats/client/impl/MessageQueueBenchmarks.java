@@ -0,0 +1,79 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The writer side of the outgoing queue, publishers push and the writer accumulates batches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageQueueBenchmarks {
+    static final int MESSAGES = 1000;
+
+    @Param({"16", "512"})
+    public int payloadSize;
+
+    private MessageQueue queue;
+    private NatsMessage[] messages;
+
+    @Setup
+    public void setup() {
+        queue = new MessageQueue(true);
+        messages = new NatsMessage[MESSAGES];
+        byte[] data = new byte[payloadSize];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = new NatsMessage("bench.queue." + i, null, data);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void pushPopNow(Blackhole bh) throws InterruptedException {
+        for (NatsMessage msg : messages) {
+            queue.push(msg);
+        }
+        for (int i = 0; i < MESSAGES; i++) {
+            bh.consume(queue.popNow());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long pushAccumulate() throws InterruptedException {
+        for (NatsMessage msg : messages) {
+            msg.next = null; // the messages are reused, clear the links from the last batch
+            queue.push(msg);
+        }
+
+        long count = 0;
+        NatsMessage msg = queue.accumulate(64 * 1024, 1000, null);
+        while (msg != null) {
+            while (msg != null) {
+                count++;
+                msg = msg.next;
+            }
+            msg = queue.accumulate(64 * 1024, 1000, null);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,54 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating an outgoing message and copying it into the send buffer, as publish and the writer do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageSerializationBenchmarks {
+
+    @Param({"false", "true"})
+    public boolean withHeaders;
+
+    @Param({"16", "512"})
+    public int payloadSize;
+
+    private byte[] data;
+    private Headers headers;
+    private byte[] sendBuffer;
+
+    @Setup
+    public void setup() {
+        data = new byte[payloadSize];
+        headers = withHeaders ? new Headers().add("Nats-Msg-Id", "1234567890").add("Content-Type", "text/plain") : null;
+        sendBuffer = new byte[64 * 1024];
+    }
+
+    @Benchmark
+    public int createAndCopy() {
+        NatsMessage msg = new NatsMessage("bench.serialize", "bench.reply", headers, data);
+        msg.getSizeInBytes();
+        return msg.copyTo(0, sendBuffer);
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Options;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a read's worth of MSG or HMSG protocol. The messages are for an unknown sid,
+ * so after parsing they only update the statistics, which keeps delivery out of the numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReaderParseBenchmarks {
+    static final int MESSAGES = 200;
+
+    @Param({"MSG", "HMSG"})
+    public String op;
+
+    @Param({"16", "128"})
+    public int payloadSize;
+
+    private NatsConnectionReader reader;
+    private byte[] stream;
+
+    @Setup
+    public void setup() throws IOException {
+        NatsConnection nc = new NatsConnection(new Options.Builder().build());
+        reader = nc.getReader();
+
+        byte[] data = new byte[payloadSize];
+        byte[] headers = "NATS/1.0\r\nNats-Msg-Id: 1234567890\r\nContent-Type: text/plain\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < MESSAGES; i++) {
+            String line = "HMSG".equals(op)
+                ? "HMSG bench.reader." + i + " 99 " + headers.length + " " + (headers.length + data.length) + "\r\n"
+                : "MSG bench.reader." + i + " 99 " + data.length + "\r\n";
+            out.write(line.getBytes(StandardCharsets.US_ASCII));
+            if ("HMSG".equals(op)) {
+                out.write(headers);
+            }
+            out.write(data);
+            out.write('\r');
+            out.write('\n');
+        }
+        stream = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void parse() throws IOException {
+        reader.fakeReadForTest(stream);
+        reader.processBuffer(stream.length);
+    }
+}
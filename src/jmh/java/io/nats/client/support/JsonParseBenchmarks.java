@@ -0,0 +1,75 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.support;
+
+import io.nats.client.api.ConsumerInfo;
+import io.nats.client.api.ServerInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON parsing done by the client: the server INFO on every connect and
+ * JetStream API responses, plus the JsonUtils helpers they are built on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonParseBenchmarks {
+    static final String SERVER_INFO_JSON = "INFO {\"server_id\":\"NCXJ5QZ3V2V5AOIJJSHJ7WQRXOLX6YDWBYL5VXDD7JXKJQSEGRUPXJTN\"," +
+        "\"server_name\":\"bench-server\",\"version\":\"2.9.3\",\"proto\":1,\"go\":\"go1.19.2\",\"host\":\"0.0.0.0\"," +
+        "\"port\":4222,\"headers\":true,\"auth_required\":true,\"tls_required\":false,\"max_payload\":1048576," +
+        "\"jetstream\":true,\"client_id\":42,\"client_ip\":\"127.0.0.1\",\"cluster\":\"bench-cluster\"," +
+        "\"connect_urls\":[\"10.0.0.1:4222\",\"10.0.0.2:4222\",\"10.0.0.3:4222\"],\"nonce\":\"xVyKW7ZwR0QjLqs\"}";
+
+    static final String CONSUMER_INFO_JSON = "{\"type\":\"io.nats.jetstream.api.v1.consumer_info_response\"," +
+        "\"stream_name\":\"bench-stream\",\"name\":\"bench-consumer\",\"created\":\"2022-11-05T19:33:21.163377Z\"," +
+        "\"config\":{\"durable_name\":\"bench-consumer\",\"deliver_subject\":\"bench.deliver\",\"deliver_policy\":\"all\"," +
+        "\"ack_policy\":\"explicit\",\"ack_wait\":30000000000,\"max_deliver\":10,\"replay_policy\":\"instant\"}," +
+        "\"delivered\":{\"consumer_seq\":1,\"stream_seq\":2,\"last_active\":\"2022-11-05T19:33:21.163377Z\"}," +
+        "\"ack_floor\":{\"consumer_seq\":3,\"stream_seq\":4,\"last_active\":\"2022-11-05T20:33:21.163377Z\"}," +
+        "\"num_pending\":24,\"num_ack_pending\":42,\"num_redelivered\":42," +
+        "\"cluster\":{\"name\":\"bench-cluster\",\"leader\":\"n1\",\"replicas\":[" +
+        "{\"name\":\"n2\",\"current\":true,\"offline\":false,\"active\":230000000000,\"lag\":3}," +
+        "{\"name\":\"n3\",\"current\":false,\"offline\":false,\"active\":240000000000,\"lag\":4}]}}";
+
+    @Benchmark
+    public ServerInfo serverInfo() {
+        return new ServerInfo(SERVER_INFO_JSON);
+    }
+
+    @Benchmark
+    public ConsumerInfo consumerInfo() {
+        return new ConsumerInfo(CONSUMER_INFO_JSON);
+    }
+
+    @Benchmark
+    public String readString() {
+        return JsonUtils.readString(CONSUMER_INFO_JSON, ApiConstants.STREAM_NAME_RE);
+    }
+
+    @Benchmark
+    public long readLong() {
+        return JsonUtils.readLong(CONSUMER_INFO_JSON, ApiConstants.NUM_PENDING_RE, 0);
+    }
+
+    @Benchmark
+    public List<String> getObjectList() {
+        return JsonUtils.getObjectList("replicas", CONSUMER_INFO_JSON);
+    }
+}
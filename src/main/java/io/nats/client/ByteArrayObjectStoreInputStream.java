@@ -0,0 +1,109 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+import io.nats.client.api.ObjectInfo;
+
+import java.io.IOException;
+
+import static io.nats.client.support.NatsJetStreamClientError.OsGetRangeOutOfBounds;
+
+/**
+ * An object store input stream over an object that has already been read into memory,
+ * what {@link ObjectStore#open(String) ObjectStore.open} returns by default.
+ */
+class ByteArrayObjectStoreInputStream extends ObjectStoreInputStream {
+
+    private final ObjectInfo oi;
+    private final byte[] data;
+    private int position;
+    private boolean closed;
+
+    ByteArrayObjectStoreInputStream(ObjectInfo oi, byte[] data) {
+        this.oi = oi;
+        this.data = data;
+    }
+
+    @Override
+    public ObjectInfo getObjectInfo() {
+        return oi;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        ensureOpen();
+        if (position < 0 || position > data.length) {
+            throw OsGetRangeOutOfBounds.instance();
+        }
+        this.position = (int)position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        return position < data.length ? data[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= data.length) {
+            return -1;
+        }
+        int n = Math.min(len, data.length - position);
+        System.arraycopy(data, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        int skipped = (int)Math.min(n, data.length - position);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return data.length - position;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed.");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static io.nats.client.support.Validator.validateDurationNotRequiredGtOrEqZero;
+import static io.nats.client.support.Validator.validateGtZeroOrMinus1;
+
+/**
+ * The CollectOptions class specifies when a scatter-gather request made with
+ * {@link Connection#requestMany(String, byte[], CollectOptions) requestMany()} stops collecting replies.
+ * Collecting stops at the first of these:
+ * <ul>
+ * <li>the max number of replies have been received</li>
+ * <li>the timeout has passed since the request was sent</li>
+ * <li>the stall time has passed since the last reply, if a stall time is set</li>
+ * <li>a reply matches the sentinel, if a sentinel is set</li>
+ * </ul>
+ */
+public class CollectOptions {
+    /**
+     * The default time to collect replies, 2 seconds.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Options.DEFAULT_CONNECTION_TIMEOUT;
+
+    /**
+     * Options with the defaults, which collects until the default timeout.
+     */
+    public static final CollectOptions DEFAULT_COLLECT_OPTIONS = builder().build();
+
+    private final long maxMessages;
+    private final Duration timeout;
+    private final Duration stall;
+    private final Predicate<Message> sentinel;
+    private final boolean includeSentinel;
+
+    private CollectOptions(Builder b) {
+        this.maxMessages = b.maxMessages;
+        this.timeout = b.timeout;
+        this.stall = b.stall;
+        this.sentinel = b.sentinel;
+        this.includeSentinel = b.includeSentinel;
+    }
+
+    /**
+     * Get the max number of replies to collect
+     * @return the max, -1 for no limit
+     */
+    public long getMaxMessages() {
+        return maxMessages;
+    }
+
+    /**
+     * Get the total time to collect replies
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Get the longest time to wait between replies
+     * @return the stall time, null if not set
+     */
+    public Duration getStall() {
+        return stall;
+    }
+
+    /**
+     * Get the predicate that ends collecting when a reply matches it
+     * @return the sentinel, null if not set
+     */
+    public Predicate<Message> getSentinel() {
+        return sentinel;
+    }
+
+    /**
+     * Whether the reply that matches the sentinel is part of the result
+     * @return the flag
+     */
+    public boolean isIncludeSentinel() {
+        return includeSentinel;
+    }
+
+    /**
+     * Creates a builder for the options.
+     * @return a collect options builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * CollectOptions are created using a Builder.
+     */
+    public static class Builder {
+        private long maxMessages = -1;
+        private Duration timeout = DEFAULT_TIMEOUT;
+        private Duration stall;
+        private Predicate<Message> sentinel;
+        private boolean includeSentinel;
+
+        /**
+         * Stop collecting after this many replies.
+         * @param maxMessages the max, greater than zero or -1 for no limit
+         * @return the builder
+         */
+        public Builder maxMessages(long maxMessages) {
+            this.maxMessages = validateGtZeroOrMinus1(maxMessages, "Max Messages");
+            return this;
+        }
+
+        /**
+         * Stop collecting once this much time has passed since the request was sent.
+         * @param timeout the timeout, null for the default
+         * @return the builder
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = validateDurationNotRequiredGtOrEqZero(timeout, DEFAULT_TIMEOUT);
+            return this;
+        }
+
+        /**
+         * Stop collecting if no reply arrives within this time of the previous one,
+         * or of the request if there has been no reply yet.
+         * @param stall the stall time, null to not use a stall time
+         * @return the builder
+         */
+        public Builder stall(Duration stall) {
+            this.stall = validateDurationNotRequiredGtOrEqZero(stall, null);
+            return this;
+        }
+
+        /**
+         * Stop collecting when a reply matches the predicate.
+         * The matching reply is not part of the result unless {@link #includeSentinel(boolean)} is set.
+         * @param sentinel the predicate, null to not use a sentinel
+         * @return the builder
+         */
+        public Builder sentinel(Predicate<Message> sentinel) {
+            this.sentinel = sentinel;
+            return this;
+        }
+
+        /**
+         * Set whether the reply that matches the sentinel is part of the result.
+         * @param includeSentinel the flag
+         * @return the builder
+         */
+        public Builder includeSentinel(boolean includeSentinel) {
+            this.includeSentinel = includeSentinel;
+            return this;
+        }
+
+        /**
+         * Build the CollectOptions
+         * @return the built CollectOptions
+         */
+        public CollectOptions build() {
+            return new CollectOptions(this);
+        }
+    }
+}
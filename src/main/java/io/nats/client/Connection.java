@@ -18,8 +18,11 @@ import io.nats.client.api.ServerInfo;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -219,6 +222,87 @@ public interface Connection extends AutoCloseable {
      * @return a Future for the response, which may be cancelled on error or timed out
      */
     CompletableFuture<Message> requestWithTimeout(Message message, Duration timeout);
+
+    /**
+     * Send a batch of requests. The requests are queued together, so they are written
+     * to the server in as few writes as possible. The returned futures are in the same
+     * order as the messages and each is completed when its response comes back.
+     *
+     * <p>As with {@link #request(Message) request()}, the replyTo of each message is
+     * reserved for internal use.</p>
+     *
+     * <p>If the outgoing queue fills up part way through the batch, the requests already queued are sent
+     * and the futures of the ones that did not fit are cancelled.</p>
+     *
+     * <p>The default sends each message with {@link #request(Message) request()}.</p>
+     *
+     * @param messages the request messages
+     * @return a Future for each response, which may be cancelled on error or timed out
+     * @throws IllegalStateException if the reconnect buffer is exceeded
+     */
+    default List<CompletableFuture<Message>> requestMany(List<Message> messages) {
+        return requestMany(messages, null);
+    }
+
+    /**
+     * Send a batch of requests. See {@link #requestMany(List) requestMany()}
+     *
+     * <p>The default sends each message with {@link #requestWithTimeout(Message, Duration) requestWithTimeout()}.</p>
+     *
+     * @param messages the request messages
+     * @param timeout the time to wait for each response
+     * @return a Future for each response, which may be cancelled on error or timed out
+     * @throws IllegalStateException if the reconnect buffer is exceeded
+     */
+    default List<CompletableFuture<Message>> requestMany(List<Message> messages, Duration timeout) {
+        List<CompletableFuture<Message>> futures = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            futures.add(timeout == null ? request(message) : requestWithTimeout(message, timeout));
+        }
+        return futures;
+    }
+
+    /**
+     * Send a scatter-gather request, collecting the replies from every responder.
+     * The returned future is completed with the replies received when the collect options
+     * say collecting is done, for instance when the max replies have arrived or the timeout passes.
+     * If there are no responders the list is empty.
+     *
+     * <p>The replies are routed through the connection's shared response inbox,
+     * so no subscription is made for each request.</p>
+     *
+     * <p>This is an optional operation. The connections created by {@link Nats#connect() Nats.connect()}
+     * support it, the default throws UnsupportedOperationException.</p>
+     *
+     * @param subject the subject for the services that will handle the request
+     * @param body the content of the message
+     * @param collectOptions when to stop collecting, null for {@link CollectOptions#DEFAULT_COLLECT_OPTIONS the defaults}
+     * @return a Future for the replies, which may be cancelled on error
+     * @throws UnsupportedOperationException if this connection does not support scatter-gather requests
+     */
+    default CompletableFuture<List<Message>> requestMany(String subject, byte[] body, CollectOptions collectOptions) {
+        throw new UnsupportedOperationException("Scatter-gather requests are not supported by this connection.");
+    }
+
+    /**
+     * Send a scatter-gather request, collecting the replies from every responder.
+     * See {@link #requestMany(String, byte[], CollectOptions) requestMany()}
+     *
+     * <p>The Message object allows you to set a replyTo, but in requests,
+     * the replyTo is reserved for internal use as the address for the
+     * server to respond to the client with the consumer's reply.</p>
+     *
+     * <p>This is an optional operation. The connections created by {@link Nats#connect() Nats.connect()}
+     * support it, the default throws UnsupportedOperationException.</p>
+     *
+     * @param message the message
+     * @param collectOptions when to stop collecting, null for {@link CollectOptions#DEFAULT_COLLECT_OPTIONS the defaults}
+     * @return a Future for the replies, which may be cancelled on error
+     * @throws UnsupportedOperationException if this connection does not support scatter-gather requests
+     */
+    default CompletableFuture<List<Message>> requestMany(Message message, CollectOptions collectOptions) {
+        throw new UnsupportedOperationException("Scatter-gather requests are not supported by this connection.");
+    }
     
     /**
      * Send a request and returns the reply or null. This version of request is equivalent
@@ -335,6 +419,42 @@ public interface Connection extends AutoCloseable {
      */
     void flush(Duration timeout) throws TimeoutException, InterruptedException;
 
+    /**
+     * Flush the connection's buffer of outgoing messages without blocking. Like {@link #flush(Duration) flush}
+     * a PING is sent to the server after the messages published before this call, and the future
+     * is completed when the server's PONG arrives, with the round trip time of the PING.
+     *
+     * <p>Calls made while a flush PING is waiting for its PONG share the next PING, so many callers
+     * flushing at the same time cost at most two PINGs. The future is completed on one of the connection's
+     * executor threads, not the thread reading from the server.
+     *
+     * <p>If the connection is closed or not connected, the future completes exceptionally with an
+     * IllegalStateException. If the connection is lost before the PONG arrives, it completes
+     * exceptionally with a TimeoutException. There is no timeout, use {@link CompletableFuture#get(long, java.util.concurrent.TimeUnit) get}
+     * with a timeout to limit the wait.
+     *
+     * <p>The default runs {@link #flush(Duration) flush} on a
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool} thread, so calls do not share PINGs.
+     *
+     * @return a future completed with the round trip time of the flush
+     */
+    default CompletableFuture<Duration> flushAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                flush(Duration.ZERO);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            catch (TimeoutException e) {
+                throw new CompletionException(e);
+            }
+            return Duration.ofNanos(System.nanoTime() - start);
+        });
+    }
+
     /**
      * Drain tells the connection to process in flight messages before closing.
      * 
@@ -0,0 +1,79 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import java.util.List;
+
+/**
+ * A ConnectionGroup is a single logical connection backed by several connections, called shards,
+ * each with its own socket, reader thread and writer thread. Use {@link Nats#connectSharded(Options, int) Nats.connectSharded}
+ * to create one.
+ *
+ * <p>The group is used like any other {@link Connection Connection}:
+ * <ul>
+ * <li> Publishes and requests are routed to a shard according to the group's {@link Routing Routing}.
+ * <li> Subscriptions and dispatchers are spread across the shards round-robin.
+ * <li> Flush, drain, close and clearLastError are applied to every shard.
+ * <li> The {@link #getStatistics() statistics} are the sum of the statistics of every shard.
+ * <li> The {@link #getStatus() status} is CONNECTED only when every shard is connected.
+ * </ul>
+ *
+ * <p>Calls that are tied to one server session, for instance {@link #getServerInfo() getServerInfo},
+ * {@link #RTT() RTT}, {@link #createInbox() createInbox} and the JetStream, Key Value and Object Store contexts,
+ * use the first shard.
+ *
+ * <p>Since messages published to different shards travel over different sockets, ordering is only preserved for
+ * messages published to the same shard. Use {@link Routing#SUBJECT_HASH SUBJECT_HASH} routing, the default, to keep
+ * messages on the same subject in order.
+ *
+ * <p><strong>This interface is experimental, please provide feedback on its value.</strong>
+ */
+public interface ConnectionGroup extends Connection {
+
+    /**
+     * How publishes and requests are assigned to a shard.
+     */
+    enum Routing {
+        /**
+         * The shard is chosen by the hash of the subject, so all messages for a subject use the same shard.
+         */
+        SUBJECT_HASH,
+        /**
+         * Each publish or request uses the next shard.
+         */
+        ROUND_ROBIN;
+    }
+
+    /**
+     * @return the number of connections in the group
+     */
+    int getShardCount();
+
+    /**
+     * Get a single connection in the group
+     * @param index the index of the shard, from 0 to the shard count, exclusive
+     * @return the connection
+     */
+    Connection getShard(int index);
+
+    /**
+     * @return an unmodifiable list of the connections in the group
+     */
+    List<Connection> getShards();
+
+    /**
+     * @return how publishes and requests are assigned to a shard
+     */
+    Routing getRouting();
+}
@@ -69,6 +69,39 @@ public interface Consumer {
      */
     public long getPendingByteLimit();
 
+    /**
+     * Set soft watermarks, percents of the pending limits, that warn the
+     * {@link ErrorListener#pendingWatermarkReached(Connection, Consumer, int) ErrorListener} before this consumer
+     * is slow and starts to drop messages. A watermark is reached when either the pending message count or the pending
+     * byte count gets to that percent of its limit, a limit that is disabled is not checked. Consumers start with
+     * the watermarks in the {@link Options.Builder#pendingWatermarks(int...) Options}, none by default.
+     * Setting them resets which have been reached.
+     * <p>
+     * This is an optional operation. The consumers handed out by the connection all support it, the default
+     * implementation throws an {@link UnsupportedOperationException}.
+     *
+     * @param percents the watermarks, each between 1 and 99, none to turn them off
+     * @throws IllegalArgumentException if a watermark is out of range
+     * @throws UnsupportedOperationException if this consumer does not support watermarks
+     */
+    public default void setPendingWatermarks(int... percents) {
+        throw new UnsupportedOperationException("Pending watermarks are not supported by this consumer.");
+    }
+
+    /**
+     * @return the pending watermarks, in ascending order, set by {@link #setPendingWatermarks(int...) setPendingWatermarks}
+     */
+    public default int[] getPendingWatermarks() {
+        return new int[0];
+    }
+
+    /**
+     * @return the highest pending watermark currently reached, 0 if none
+     */
+    public default int getPendingWatermark() {
+        return 0;
+    }
+
     /**
      * @return the number of messages waiting to be delivered/popped, {@link #setPendingLimits(long, long) setPendingLimits}
      */
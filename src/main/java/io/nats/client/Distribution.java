@@ -0,0 +1,76 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+/**
+ * A distribution of values recorded by the {@link Statistics Statistics}, like the bytes of each socket read.
+ * Values are counted in power of two buckets, so percentiles are approximate: the value reported for a percentile
+ * is the top of the bucket it falls in, never more than the max and never less than the real value.
+ * <p>A distribution is a snapshot, taken when it was asked for.
+ */
+public interface Distribution {
+    /**
+     * A distribution with no values recorded, what {@link Statistics Statistics} implementations that do not
+     * record distributions return.
+     */
+    Distribution EMPTY = new Distribution() {
+        @Override public long getCount() { return 0; }
+        @Override public long getSum() { return 0; }
+        @Override public long getMin() { return 0; }
+        @Override public long getMax() { return 0; }
+        @Override public double getAverage() { return 0; }
+        @Override public long getValueAtPercentile(double percentile) { return 0; }
+        @Override public long[] getBucketCounts() { return new long[65]; }
+        @Override public String toString() { return "Distribution{count=0}"; }
+    };
+
+    /**
+     * @return the number of values recorded
+     */
+    long getCount();
+
+    /**
+     * @return the sum of the values recorded
+     */
+    long getSum();
+
+    /**
+     * @return the smallest value recorded, or 0 if none were
+     */
+    long getMin();
+
+    /**
+     * @return the largest value recorded, or 0 if none were
+     */
+    long getMax();
+
+    /**
+     * @return the average of the values recorded, or 0 if none were
+     */
+    double getAverage();
+
+    /**
+     * @param percentile the percentile, 0 to 100
+     * @return the value the percentile of recorded values are at or below, or 0 if none were recorded
+     */
+    long getValueAtPercentile(double percentile);
+
+    /**
+     * The count of values in each bucket. Bucket 0 is values of 0, and bucket n, for n from 1 to 64,
+     * is values from 2<sup>n-1</sup> to 2<sup>n</sup>-1.
+     * @return a copy of the bucket counts
+     */
+    long[] getBucketCounts();
+}
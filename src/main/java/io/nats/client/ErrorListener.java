@@ -70,6 +70,31 @@ public interface ErrorListener {
      */
     default void slowConsumerDetected(Connection conn, Consumer consumer) {};
 
+    /**
+     * Called by the connection when the pending messages or bytes of a consumer reach one of its
+     * {@link Consumer#setPendingWatermarks(int...) pending watermarks}, a percent of its pending limits.
+     * This is an early warning, no messages have been dropped. If several watermarks are passed at once,
+     * this is called for each, in ascending order. It is not called again for the same watermark until
+     * it has been cleared.
+     *
+     * @param conn The connection associated with the consumer
+     * @param consumer The consumer whose pending messages are filling up
+     * @param percent The watermark that was reached
+     */
+    default void pendingWatermarkReached(Connection conn, Consumer consumer, int percent) {}
+
+    /**
+     * Called by the connection when a consumer's pending messages and bytes are back under a
+     * {@link Consumer#setPendingWatermarks(int...) pending watermark} it had reached. So that a consumer
+     * sitting at a watermark does not report on every message, a watermark is cleared once both are
+     * under 90% of it. If several watermarks are cleared at once, this is called for each, in descending order.
+     *
+     * @param conn The connection associated with the consumer
+     * @param consumer The consumer that has caught up
+     * @param percent The watermark that was cleared
+     */
+    default void pendingWatermarkCleared(Connection conn, Consumer consumer, int percent) {}
+
     /**
      * Called by the connection when a message is discarded.
      *
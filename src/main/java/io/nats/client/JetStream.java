@@ -365,4 +365,14 @@ public interface JetStream {
      * @throws JetStreamApiException the request had an error related to the data
      */      
     JetStreamSubscription subscribe(String subject, PullSubscribeOptions options) throws IOException, JetStreamApiException;
+
+    /**
+     * Get the counts and latencies of the JetStream API requests made by the connection, by endpoint.
+     * They are for the connection, so they include the requests of every context made from it.
+     * The default is {@link JetStreamApiStatistics#EMPTY no statistics}.
+     * @return the statistics
+     */
+    default JetStreamApiStatistics getApiStatistics() {
+        return JetStreamApiStatistics.EMPTY;
+    }
 }
@@ -0,0 +1,78 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts and latencies of the JetStream API requests made by a connection, grouped by endpoint,
+ * the API subject without the prefix or the stream and consumer names, like {@code STREAM.INFO} or {@code CONSUMER.CREATE}.
+ * The statistics cover every {@link JetStream JetStream} and {@link JetStreamManagement JetStreamManagement}
+ * context made from the connection, including the ones behind key value and object stores.
+ * Publishing to a stream is not an API request and is not counted.
+ * <p>The statistics are kept as the requests are made, each {@link Endpoint Endpoint} is a snapshot, taken when it was asked for.
+ */
+public interface JetStreamApiStatistics {
+    /**
+     * Statistics with no requests made, what implementations that do not keep statistics return.
+     */
+    JetStreamApiStatistics EMPTY = new JetStreamApiStatistics() {
+        @Override public List<Endpoint> getEndpoints() { return Collections.emptyList(); }
+        @Override public Endpoint getEndpoint(String name) { return null; }
+        @Override public long getTotalRequests() { return 0; }
+    };
+
+    /**
+     * The statistics for one API endpoint.
+     */
+    interface Endpoint {
+        /**
+         * @return the endpoint, like {@code STREAM.INFO}
+         */
+        String getName();
+
+        /**
+         * @return the number of requests made
+         */
+        long getRequests();
+
+        /**
+         * @return the number of requests that had no response in time
+         */
+        long getTimeouts();
+
+        /**
+         * @return the nanoseconds from making each request to getting its response, or timing out
+         */
+        Distribution getLatencyNanos();
+    }
+
+    /**
+     * @return the endpoints that have been called, in name order
+     */
+    List<Endpoint> getEndpoints();
+
+    /**
+     * @param name the endpoint, like {@code STREAM.INFO}
+     * @return the statistics for the endpoint, or null if it has not been called
+     */
+    Endpoint getEndpoint(String name);
+
+    /**
+     * @return the number of requests made to all endpoints
+     */
+    long getTotalRequests();
+}
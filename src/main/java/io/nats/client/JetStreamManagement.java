@@ -270,4 +270,14 @@ public interface JetStreamManagement {
      * @return true if the delete succeeded
      */
     boolean deleteMessage(String streamName, long seq, boolean erase) throws IOException, JetStreamApiException;
+
+    /**
+     * Get the counts and latencies of the JetStream API requests made by the connection, by endpoint.
+     * They are for the connection, so they include the requests of every context made from it.
+     * The default is {@link JetStreamApiStatistics#EMPTY no statistics}.
+     * @return the statistics
+     */
+    default JetStreamApiStatistics getApiStatistics() {
+        return JetStreamApiStatistics.EMPTY;
+    }
 }
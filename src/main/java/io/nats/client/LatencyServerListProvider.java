@@ -0,0 +1,347 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.nats.client.support.NatsConstants.OP_INFO;
+
+/**
+ * A ServerListProvider that orders the servers by how fast they respond.
+ *
+ * <p>Each candidate server is probed in parallel by opening a socket and waiting for the server's INFO.
+ * Servers that respond are tried first, fastest first, followed by the servers that did not respond,
+ * in the order they were given, so they are still tried as a last resort. The server the connection
+ * is currently connected to, if any, is always tried last.
+ *
+ * <p>The probes run in the background, so a connect or reconnect never waits on them. The candidates are
+ * probed as soon as they are first seen or change, and again every refresh interval. Until the first probe
+ * of a server is done, it is ranked as if it did not respond. A refresh interval of zero does not probe
+ * periodically, instead every call starts a probe, which the calls after it see.
+ *
+ * <p>The provider can be shared by connections. It can be set with the builder,
+ * {@link Options.Builder#serverListProvider(ServerListProvider) serverListProvider}, or by class name with
+ * {@link Options#PROP_SERVERS_LIST_PROVIDER_CLASS}, which uses the default settings.
+ * {@link #close() Close} the provider to stop probing once no connection uses it.
+ *
+ * IMPORTANT! ServerListProvider IS CURRENTLY EXPERIMENTAL AND SUBJECT TO CHANGE.
+ */
+public class LatencyServerListProvider implements ServerListProvider, AutoCloseable {
+    public static final Duration DEFAULT_PROBE_TIMEOUT = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private static final byte[] INFO_BYTES = OP_INFO.getBytes(StandardCharsets.US_ASCII);
+
+    private final Duration probeTimeout;
+    private final Duration refreshInterval;
+    private final boolean includeDiscoveredServers;
+    private final ExecutorService probeExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownScheduler;
+
+    private List<String> rankedCandidates;
+    private List<String> ranking;
+    private Map<String, Long> latencies = new HashMap<>();
+    private ScheduledFuture<?> refreshTask;
+    private boolean probing;
+    private boolean closed;
+
+    /**
+     * Construct a provider with the default probe timeout and refresh interval, that includes discovered servers
+     */
+    public LatencyServerListProvider() {
+        this(DEFAULT_PROBE_TIMEOUT, DEFAULT_REFRESH_INTERVAL, true);
+    }
+
+    /**
+     * Construct a provider
+     * @param probeTimeout the maximum time to wait for all the servers to respond to the probe
+     * @param refreshInterval how long a ranking is used before servers are probed again
+     * @param includeDiscoveredServers whether to include the servers discovered from the server info
+     */
+    public LatencyServerListProvider(Duration probeTimeout, Duration refreshInterval, boolean includeDiscoveredServers) {
+        this(probeTimeout, refreshInterval, includeDiscoveredServers, null);
+    }
+
+    /**
+     * Construct a provider
+     * @param probeTimeout the maximum time to wait for all the servers to respond to the probe
+     * @param refreshInterval how often the servers are probed again
+     * @param includeDiscoveredServers whether to include the servers discovered from the server info
+     * @param scheduler the scheduler that starts the probes, for instance the one given to the
+     *                  {@link Options.Builder#scheduler(ScheduledExecutorService) options}, null for the provider's own.
+     *                  The probes themselves run on their own threads, so they never hold up the scheduler.
+     *                  A scheduler that is given is not shut down when the provider is closed.
+     */
+    public LatencyServerListProvider(Duration probeTimeout, Duration refreshInterval, boolean includeDiscoveredServers, ScheduledExecutorService scheduler) {
+        if (probeTimeout == null || probeTimeout.isZero() || probeTimeout.isNegative()) {
+            throw new IllegalArgumentException("Probe timeout must be greater than zero.");
+        }
+        if (refreshInterval == null || refreshInterval.isNegative()) {
+            throw new IllegalArgumentException("Refresh interval cannot be negative.");
+        }
+        this.probeTimeout = probeTimeout;
+        this.refreshInterval = refreshInterval;
+        this.includeDiscoveredServers = includeDiscoveredServers;
+
+        // threads are not kept around between probes
+        AtomicInteger threadNo = new AtomicInteger();
+        probeExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 500L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "nats-server-probe:" + threadNo.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+        if (scheduler == null) {
+            ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "nats-server-probe-scheduler");
+                t.setDaemon(true);
+                return t;
+            });
+            stpe.setRemoveOnCancelPolicy(true);
+            this.scheduler = stpe;
+            ownScheduler = true;
+        }
+        else {
+            this.scheduler = scheduler;
+            ownScheduler = false;
+        }
+    }
+
+    @Override
+    public synchronized List<String> getServerList(String currentServer,
+                                                   List<String> optionsServersUnprocessed,
+                                                   List<String> discoveredServersUnprocessed) {
+        List<String> candidates = new ArrayList<>();
+        addCandidates(candidates, optionsServersUnprocessed);
+        if (includeDiscoveredServers) {
+            addCandidates(candidates, discoveredServersUnprocessed);
+        }
+
+        if (!candidates.equals(rankedCandidates)) {
+            // rank with what is known until the new candidates are probed
+            rankedCandidates = candidates;
+            ranking = rank(candidates, latencies);
+            scheduleProbes();
+        }
+        else if (refreshInterval.isZero()) {
+            refresh();
+        }
+
+        List<String> servers = new ArrayList<>(ranking);
+        if (currentServer != null && servers.remove(currentServer)) {
+            servers.add(currentServer);
+        }
+        return servers;
+    }
+
+    /**
+     * Stop probing. The provider still returns the servers, in the order of the last ranking.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        if (ownScheduler) {
+            scheduler.shutdownNow();
+        }
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the latency measured for each server by the latest probe.
+     * Servers that did not respond within the probe timeout are not included.
+     * @return an unmodifiable map of server to latency, empty if no probe has been done
+     */
+    public synchronized Map<String, Duration> getLatencies() {
+        Map<String, Duration> map = new LinkedHashMap<>();
+        if (ranking != null) {
+            for (String server : ranking) {
+                Long nanos = latencies.get(server);
+                if (nanos != null) {
+                    map.put(server, Duration.ofNanos(nanos));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private void addCandidates(List<String> candidates, List<String> unprocessed) {
+        if (unprocessed != null) {
+            for (String server : unprocessed) {
+                try {
+                    String srv = Options.parseURIForServer(server).toString();
+                    if (!candidates.contains(srv)) {
+                        candidates.add(srv);
+                    }
+                }
+                catch (URISyntaxException e) {
+                    // not a server that can be connected to, just ignore it
+                }
+            }
+        }
+    }
+
+    // must be called with the lock held
+    private void scheduleProbes() {
+        if (closed) {
+            return;
+        }
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        try {
+            refreshTask = refreshInterval.isZero()
+                ? scheduler.schedule(this::refresh, 0, TimeUnit.NANOSECONDS)
+                : scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        catch (RejectedExecutionException e) {
+            refreshTask = null; // the scheduler was shut down, the ranking stays as it is
+        }
+    }
+
+    /**
+     * Start probing the candidates unless a probe is already running, which picks up a change in candidates.
+     */
+    private synchronized void refresh() {
+        if (probing || closed) {
+            return;
+        }
+        probing = true;
+        try {
+            probeExecutor.execute(this::probeCandidates);
+        }
+        catch (RejectedExecutionException e) {
+            probing = false;
+        }
+    }
+
+    private void probeCandidates() {
+        boolean done = false;
+        try {
+            List<String> candidates;
+            synchronized (this) {
+                candidates = rankedCandidates;
+            }
+            while (true) {
+                Map<String, Long> measured = probe(candidates);
+                synchronized (this) {
+                    if (closed || candidates == rankedCandidates) {
+                        if (!closed) {
+                            latencies = measured;
+                            ranking = rank(candidates, measured);
+                        }
+                        probing = false;
+                        done = true;
+                        return;
+                    }
+                    // the candidates changed while probing, probe the new ones
+                    candidates = rankedCandidates;
+                }
+            }
+        }
+        finally {
+            if (!done) {
+                synchronized (this) {
+                    probing = false;
+                }
+            }
+        }
+    }
+
+    private Map<String, Long> probe(List<String> candidates) {
+        Map<String, Future<Long>> futures = new HashMap<>();
+        for (String server : candidates) {
+            futures.put(server, probeExecutor.submit(() -> probe(server)));
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        long end = System.nanoTime() + probeTimeout.toNanos();
+        for (Map.Entry<String, Future<Long>> entry : futures.entrySet()) {
+            try {
+                long remaining = Math.max(0, end - System.nanoTime());
+                Long nanos = entry.getValue().get(remaining, TimeUnit.NANOSECONDS);
+                if (nanos != null) {
+                    result.put(entry.getKey(), nanos);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (ExecutionException | TimeoutException e) {
+                // did not respond in time, it won't be ranked
+            }
+        }
+
+        // the probes have their own socket timeouts, this just releases a late one sooner
+        for (Future<Long> f : futures.values()) {
+            f.cancel(true);
+        }
+        return result;
+    }
+
+    /**
+     * Time opening a socket to the server and reading the start of the INFO the server sends on connect.
+     * @return the elapsed nanos or null if the server did not respond properly
+     */
+    private Long probe(String server) throws IOException, URISyntaxException {
+        URI uri = Options.parseURIForServer(server);
+        int timeoutMillis = (int) Math.max(1, probeTimeout.toMillis());
+        long start = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            InputStream in = socket.getInputStream();
+            for (byte expected : INFO_BYTES) {
+                int b = in.read();
+                if (b != expected) {
+                    return null;
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static List<String> rank(List<String> candidates, Map<String, Long> latencies) {
+        List<String> responded = new ArrayList<>();
+        List<String> silent = new ArrayList<>();
+        for (String server : candidates) {
+            if (latencies.containsKey(server)) {
+                responded.add(server);
+            }
+            else {
+                silent.add(server);
+            }
+        }
+        responded.sort(Comparator.comparing(latencies::get));
+        responded.addAll(silent);
+        return responded;
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+/**
+ * A MessageTracer follows sampled messages through the client, from {@link Connection#publish(Message) publish}
+ * to the socket, and from the socket to the handler. It is configured in the {@link Options Options}
+ * with {@link Options.Builder#messageTracer(MessageTracer) messageTracer()}, along with how many messages
+ * to sample, so it can be left on in production.
+ * <p>The tracer is called on the thread doing the work, the publisher, the writer, the reader or the dispatcher,
+ * so it should return quickly. Exceptions it throws are handed to the {@link ErrorListener ErrorListener}.
+ * <p>A message that came in through a sync {@link Subscription Subscription} is traced at
+ * {@link Point#DISPATCH_START DISPATCH_START} when it is returned from {@code nextMessage}, and has no end.
+ */
+public interface MessageTracer {
+    /**
+     * The points a message is traced at.
+     */
+    enum Point {
+        /** A message is about to be put in the outgoing queue. */
+        ENQUEUE,
+        /** A message has been written to the socket. */
+        WRITE,
+        /** A message has been read from the socket, and is about to be queued for its subscription. */
+        READ,
+        /** A message is about to be handed to the application. */
+        DISPATCH_START,
+        /** The message handler returned. */
+        DISPATCH_END
+    }
+
+    /**
+     * Called at each point for a sampled message.
+     * @param point the point
+     * @param message the message
+     * @param nanoTime the {@link System#nanoTime() monotonic time} at the point
+     */
+    void trace(Point point, Message message, long nanoTime);
+
+    /**
+     * The header to carry a trace id on sampled outgoing messages, or null, the default, to not add one.
+     * A message that already has the header keeps it, so a trace id is propagated when a message is forwarded.
+     * @return the header name
+     */
+    default String getTraceIdHeader() {
+        return null;
+    }
+
+    /**
+     * @return a new trace id for a sampled outgoing message, by default a {@link NUID NUID}
+     */
+    default String newTraceId() {
+        return NUID.nextGlobal();
+    }
+}
@@ -193,6 +193,46 @@ public abstract class Nats {
         return createConnection(options, false);
     }
 
+    /**
+     * Connect a {@link ConnectionGroup ConnectionGroup} of shardCount connections, all made with the same options.
+     * Publishes and requests are routed to a shard by the hash of their subject.
+     *
+     * <p>A single connection has one reader thread and one writer thread, a group can spread that work across cores.
+     * See {@link ConnectionGroup ConnectionGroup} for how each call is applied to the shards.
+     *
+     * <p>This is a synchronous call, if any shard fails to connect, the shards that did connect are closed
+     * and the exception is thrown.
+     *
+     * <p><strong>This method is experimental, please provide feedback on its value.</strong>
+     *
+     * @param options the options object to use to create each connection
+     * @param shardCount the number of connections, must be greater than zero
+     * @throws IOException if a networking issue occurs
+     * @throws InterruptedException if the current thread is interrupted
+     * @return the connection group
+     */
+    public static ConnectionGroup connectSharded(Options options, int shardCount) throws IOException, InterruptedException {
+        return NatsImpl.createConnectionGroup(options, shardCount, ConnectionGroup.Routing.SUBJECT_HASH, false);
+    }
+
+    /**
+     * Connect a {@link ConnectionGroup ConnectionGroup} of shardCount connections, all made with the same options.
+     *
+     * <p>See {@link #connectSharded(Options, int) connectSharded(Options, int)}
+     *
+     * <p><strong>This method is experimental, please provide feedback on its value.</strong>
+     *
+     * @param options the options object to use to create each connection
+     * @param shardCount the number of connections, must be greater than zero
+     * @param routing how publishes and requests are assigned to a shard
+     * @throws IOException if a networking issue occurs
+     * @throws InterruptedException if the current thread is interrupted
+     * @return the connection group
+     */
+    public static ConnectionGroup connectSharded(Options options, int shardCount, ConnectionGroup.Routing routing) throws IOException, InterruptedException {
+        return NatsImpl.createConnectionGroup(options, shardCount, routing, false);
+    }
+
     /**
      * Try to connect in another thread, a connection listener is required to get
      * the connection.
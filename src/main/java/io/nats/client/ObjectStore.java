@@ -16,13 +16,16 @@ package io.nats.client;
 import io.nats.client.api.*;
 import io.nats.client.impl.NatsObjectStoreWatchSubscription;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.List;
 
+import static io.nats.client.support.NatsJetStreamClientError.*;
+import static io.nats.client.support.NatsObjectStoreUtil.DEFAULT_CHUNK_SIZE;
+
 /**
  * Object Store Management context for creation and access to key value buckets.
  * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
@@ -60,6 +63,59 @@ public interface ObjectStore {
      */
     ObjectInfo put(String objectName, InputStream inputStream) throws IOException, JetStreamApiException, NoSuchAlgorithmException;
 
+    /**
+     * Place the contents of the input stream into a new object with a resumable put.
+     * The handler is given a checkpoint each time the server acknowledges a chunk.
+     * If the put fails, the chunks already stored are kept, instead of being purged,
+     * so the put can be continued with {@link #resume(ObjectPutCheckpoint, InputStream, ObjectPutCheckpointHandler) resume}
+     * or cleaned up with {@link #abort(ObjectPutCheckpoint) abort}.
+     * The object is only visible once all the chunks are stored.
+     * The default does a put that is not resumable, so the handler is not given checkpoints.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param meta the metadata for the object
+     * @param inputStream the source input stream
+     * @param checkpointHandler the handler to receive checkpoints
+     * @return the ObjectInfo for the saved object
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    default ObjectInfo put(ObjectMeta meta, InputStream inputStream, ObjectPutCheckpointHandler checkpointHandler) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        return put(meta, inputStream);
+    }
+
+    /**
+     * Continue a resumable put from a checkpoint, for instance after a reconnect or in a new process.
+     * The input stream must provide the same content from the beginning. The part of the input that
+     * is already stored is read to rebuild the digest, but is not published again.
+     * The checkpoint can only be resumed by an object store with the same
+     * {@link ObjectStoreOptions.Builder#chunkDeduplication(boolean) chunk deduplication} as the put.
+     * The default starts the put over, publishing the whole input.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param checkpoint the last checkpoint received
+     * @param inputStream the source input stream, from the beginning
+     * @param checkpointHandler the handler to receive checkpoints
+     * @return the ObjectInfo for the saved object
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    default ObjectInfo resume(ObjectPutCheckpoint checkpoint, InputStream inputStream, ObjectPutCheckpointHandler checkpointHandler) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        return put(checkpoint.getObjectMeta(), inputStream, checkpointHandler);
+    }
+
+    /**
+     * Abandon a resumable put, purging the chunks already stored. With
+     * {@link ObjectStoreOptions.Builder#chunkDeduplication(boolean) chunk deduplication} the chunks may be shared,
+     * so only the manifest is purged and the chunks are left for {@link #compact(Duration) compact}.
+     * The default does nothing, since the default put is not resumable and keeps no chunks when it fails.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param checkpoint the last checkpoint received
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     */
+    default void abort(ObjectPutCheckpoint checkpoint) throws IOException, JetStreamApiException {}
+
     /**
      * Place the bytes into a new object.
      * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
@@ -83,6 +139,38 @@ public interface ObjectStore {
      */
     ObjectInfo put(File file) throws IOException, JetStreamApiException, NoSuchAlgorithmException;
 
+    /**
+     * Place the contents of the file into a new object using the file name as the object name.
+     * The file is read through a memory mapping instead of an input stream.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param path the path of the file to read
+     * @return the ObjectInfo for the saved object
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    default ObjectInfo put(Path path) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        return put(ObjectMeta.objectName(path.getFileName().toString()), path);
+    }
+
+    /**
+     * Place the contents of the file into a new object.
+     * The file is read through a memory mapping instead of an input stream.
+     * The default reads the file through an input stream.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param meta the metadata for the object
+     * @param path the path of the file to read
+     * @return the ObjectInfo for the saved object
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    default ObjectInfo put(ObjectMeta meta, Path path) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return put(meta, in);
+        }
+    }
+
     /**
      * Get an object by name from the store, reading it into the output stream, if the object exists.
      * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
@@ -96,6 +184,90 @@ public interface ObjectStore {
      */
     ObjectInfo get(String objectName, OutputStream outputStream) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException;
 
+    /**
+     * Get an object by name from the store, writing it to the file at the path, if the object exists.
+     * The file is created or truncated and the chunks are written in order, also when they are
+     * prefetched in parallel, since chunks other than the last may be shorter than the chunk size.
+     * The default writes the object to the file through an output stream.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param objectName The name of the object
+     * @param path the destination file path.
+     * @return the ObjectInfo for the object name or throw an exception if it does not exist or is deleted.
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    default ObjectInfo get(String objectName, Path path) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            return get(objectName, out);
+        }
+    }
+
+    /**
+     * Get a range of bytes of an object by name from the store, reading it into the output stream, if the object exists.
+     * Only the chunks that contain the range are fetched. A range that goes past the end of the object is trimmed.
+     * Since the whole object is not read, the digest is not verified.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param objectName The name of the object
+     * @param offset the position in the object of the first byte to read
+     * @param length the number of bytes to read
+     * @param outputStream the destination stream.
+     * @return the ObjectInfo for the object name or throw an exception if it does not exist or is deleted.
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     */
+    default ObjectInfo get(String objectName, long offset, long length, OutputStream outputStream) throws IOException, JetStreamApiException, InterruptedException {
+        try (ObjectStoreInputStream in = open(objectName)) {
+            ObjectInfo oi = in.getObjectInfo();
+            if (offset < 0 || length < 0 || offset > oi.getSize()) {
+                throw OsGetRangeOutOfBounds.instance();
+            }
+            in.seek(offset);
+
+            // a range past the end is trimmed to the end of the object
+            long remaining = Math.min(length, oi.getSize() - offset);
+            byte[] buffer = new byte[(int)Math.min(remaining, Math.max(oi.getChunkSize(), DEFAULT_CHUNK_SIZE))];
+            while (remaining > 0) {
+                int red = in.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+                if (red < 0) {
+                    throw OsGetSizeMismatch.instance();
+                }
+                outputStream.write(buffer, 0, red);
+                remaining -= red;
+            }
+            outputStream.flush();
+            return oi;
+        }
+    }
+
+    /**
+     * Open an object by name for reading, if the object exists. The stream only fetches
+     * the chunks it reads and supports skip and seek.
+     * Since the whole object may not be read, the digest is not verified.
+     * The default reads the whole object into memory with {@link #get(String, OutputStream) get},
+     * which does verify the digest.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param objectName The name of the object
+     * @return the input stream or throw an exception if it does not exist or is deleted.
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     */
+    default ObjectStoreInputStream open(String objectName) throws IOException, JetStreamApiException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            return new ByteArrayObjectStoreInputStream(get(objectName, out), out.toByteArray());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Get the info for an object if the object exists / is not deleted.
      * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
@@ -199,4 +371,27 @@ public interface ObjectStore {
      * @throws JetStreamApiException the request had an error related to the data the request had an error related to the data
      */
     ObjectStoreStatus getStatus() throws IOException, JetStreamApiException;
+
+    /**
+     * Purge the {@link ObjectStoreOptions.Builder#chunkDeduplication(boolean) deduplicated} chunks that are not
+     * in the manifest of any object in the bucket. Chunks can be shared between objects, so deleting or replacing
+     * a deduplicated object, or a failed or aborted put, leaves its chunks behind for this to collect.
+     * This reads the manifest of every deduplicated object in the bucket.
+     * <p>Puts from any client can run at the same time. A chunk is only purged if it was last stored before
+     * the grace period, and a manifest published within the grace period by a put that has not published
+     * its meta yet still counts, so the grace period should be longer than a deduplicated put takes.
+     * A put that reuses a chunk this purges before the put's manifest is read fails with an error,
+     * rather than storing an object that cannot be read.
+     * The age of a chunk is the server's timestamp compared to this client's clock.
+     * The default does nothing.
+     * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+     * @param gracePeriod how long a chunk no manifest refers to is kept after it was last stored
+     * @return the number of chunk messages purged
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     */
+    default long compact(Duration gracePeriod) throws IOException, JetStreamApiException, InterruptedException {
+        return 0;
+    }
 }
@@ -0,0 +1,48 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+import io.nats.client.api.ObjectInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream over an object in an object store that only fetches the chunks it reads.
+ * The position can be moved with skip or seek. Since a read can start anywhere in the object,
+ * the digest of the object is not verified.
+ * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+ */
+public abstract class ObjectStoreInputStream extends InputStream {
+
+    /**
+     * Get the info for the object being read
+     * @return the info
+     */
+    public abstract ObjectInfo getObjectInfo();
+
+    /**
+     * Get the position in the object of the next byte to be read
+     * @return the position
+     */
+    public abstract long getPosition();
+
+    /**
+     * Set the position in the object of the next byte to be read
+     * @param position the position, from 0 to the size of the object, inclusive
+     * @throws IOException if the stream is closed
+     */
+    public abstract void seek(long position) throws IOException;
+}
@@ -13,6 +13,8 @@
 
 package io.nats.client;
 
+import io.nats.client.support.Validator;
+
 /**
  * The ObjectStoreOptions class specifies the general options for ObjectStore.
  * Options are created using the {@link ObjectStoreOptions.Builder Builder}.
@@ -20,8 +22,34 @@ package io.nats.client;
  */
 public class ObjectStoreOptions extends FeatureOptions {
 
+    /**
+     * The default number of chunks to fetch ahead when getting an object, 1, meaning chunks are read sequentially
+     */
+    public static final int DEFAULT_CHUNK_PREFETCH = 1;
+
+    private final int chunkPrefetch;
+    private final boolean chunkDeduplication;
+
     private ObjectStoreOptions(Builder b) {
         super(b);
+        chunkPrefetch = b.chunkPrefetch;
+        chunkDeduplication = b.chunkDeduplication;
+    }
+
+    /**
+     * Gets the number of chunks that may be fetched concurrently and held for reordering when getting an object.
+     * @return the chunk prefetch
+     */
+    public int getChunkPrefetch() {
+        return chunkPrefetch;
+    }
+
+    /**
+     * Whether objects are put with content addressed chunks.
+     * @return the flag
+     */
+    public boolean isChunkDeduplication() {
+        return chunkDeduplication;
     }
 
     /**
@@ -56,6 +84,9 @@ public class ObjectStoreOptions extends FeatureOptions {
      */
     public static class Builder extends FeatureOptions.Builder<Builder, ObjectStoreOptions> {
 
+        private int chunkPrefetch = DEFAULT_CHUNK_PREFETCH;
+        private boolean chunkDeduplication;
+
         @Override
         protected Builder getThis() {
             return this;
@@ -67,6 +98,40 @@ public class ObjectStoreOptions extends FeatureOptions {
 
         public Builder(ObjectStoreOptions oso) {
             super(oso);
+            if (oso != null) {
+                chunkPrefetch = oso.chunkPrefetch;
+                chunkDeduplication = oso.chunkDeduplication;
+            }
+        }
+
+        /**
+         * Sets the number of chunks that may be fetched concurrently when getting an object.
+         * When greater than 1, chunks are requested by stream sequence in parallel, held in a reorder
+         * buffer no larger than this number of chunks, and written to the output stream in order.
+         * The requests run on a pool of this many threads owned by the object store, not on the connection's executor.
+         * The default, 1, reads the chunks sequentially from a single ordered consumer.
+         * @param chunkPrefetch the number of chunks, must be greater than zero
+         * @return the builder
+         */
+        public Builder chunkPrefetch(int chunkPrefetch) {
+            this.chunkPrefetch = Validator.validateGtZero(chunkPrefetch, "Chunk Prefetch");
+            return this;
+        }
+
+        /**
+         * Sets whether objects are put with content addressed chunks. Each chunk is stored under a subject
+         * made from the digest of its bytes and is only published if no chunk with that digest is already
+         * in the bucket. The digests of the chunks, in order, are stored under the object's nuid as its manifest.
+         * Chunks can be shared between objects, so deleting or replacing a deduplicated object, or a failed put,
+         * only purges its manifest. The chunks no manifest refers to any more are purged by
+         * {@link ObjectStore#compact(java.time.Duration) compact}, after a grace period that protects puts in progress.
+         * Objects put this way can only be read by clients that understand the manifest.
+         * @param chunkDeduplication the flag
+         * @return the builder
+         */
+        public Builder chunkDeduplication(boolean chunkDeduplication) {
+            this.chunkDeduplication = chunkDeduplication;
+            return this;
         }
 
         /**
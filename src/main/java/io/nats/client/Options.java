@@ -17,12 +17,15 @@ import io.nats.client.impl.DataPort;
 import io.nats.client.impl.ErrorListenerLoggerImpl;
 import io.nats.client.impl.SocketDataPort;
 import io.nats.client.support.SSLUtils;
+import io.nats.client.support.Validator;
 
 import javax.net.ssl.SSLContext;
 import java.lang.reflect.Constructor;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.*;
@@ -113,6 +116,22 @@ public class Options {
      */
     public static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
 
+    /**
+     * Default number of servers that are raced when connecting, see {@link #getParallelConnectAttempts() getParallelConnectAttempts()}.
+     *
+     * <p>
+     * This property is defined as {@value}, servers are tried one at a time.
+     */
+    public static final int DEFAULT_PARALLEL_CONNECT_ATTEMPTS = 1;
+
+    /**
+     * Default delay between starting raced connection attempts, see {@link #getParallelConnectStagger() getParallelConnectStagger()}.
+     *
+     * <p>
+     * This property is defined as 50 milliseconds.
+     */
+    public static final Duration DEFAULT_PARALLEL_CONNECT_STAGGER = Duration.ofMillis(50);
+
     /**
      * Default server ping interval. The client will send a ping to the server on this interval to insure liveness.
      * The server may send pings to the client as well, these are handled automatically by the library
@@ -158,6 +177,18 @@ public class Options {
      */
     public static final int DEFAULT_RECONNECT_BUF_SIZE = 8_388_608;
 
+    /**
+     * Default most bytes the reconnect buffer will spill to disk, {@link #getReconnectBufferSpillMaxBytes() getReconnectBufferSpillMaxBytes()}.
+     *
+     * <p>This property is defined as {@value} bytes, 256 * 1024 * 1024.
+     */
+    public static final long DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES = 268_435_456L;
+
+    /**
+     * Default policy when the reconnect buffer is full, {@link #getReconnectBufferOverflowPolicy() getReconnectBufferOverflowPolicy()}.
+     */
+    public static final ReconnectBufferOverflowPolicy DEFAULT_RECONNECT_BUF_OVERFLOW_POLICY = ReconnectBufferOverflowPolicy.THROW;
+
     /**
      * The default length, {@value} bytes, the client will allow in an
      *  outgoing protocol control line, {@link #getMaxControlLine() getMaxControlLine()}.
@@ -244,6 +275,21 @@ public class Options {
      * {@link Builder#errorListener(ErrorListener) errorListener}.
      */
     public static final String PROP_ERROR_LISTENER = PFX + "callback.error";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#messageTracer(MessageTracer) messageTracer}.
+     */
+    public static final String PROP_MESSAGE_TRACER = PFX + "tracer";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#messageTracerSampling(int) messageTracerSampling}.
+     */
+    public static final String PROP_MESSAGE_TRACER_SAMPLING = PFX + "tracer.sampling";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, a comma separated list of percents, see
+     * {@link Builder#pendingWatermarks(int...) pendingWatermarks}.
+     */
+    public static final String PROP_PENDING_WATERMARKS = PFX + "pending.watermarks";
     /**
      * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#maxPingsOut(int) maxPingsOut}.
      */
@@ -263,11 +309,41 @@ public class Options {
      * {@link Builder#connectionTimeout(Duration) connectionTimeout}.
      */
     public static final String PROP_CONNECTION_TIMEOUT = PFX + "timeout";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#parallelConnectAttempts(int) parallelConnectAttempts}.
+     */
+    public static final String PROP_PARALLEL_CONNECT_ATTEMPTS = PFX + "parallel.connect.attempts";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#parallelConnectStagger(Duration) parallelConnectStagger}.
+     */
+    public static final String PROP_PARALLEL_CONNECT_STAGGER = PFX + "parallel.connect.stagger";
     /**
      * Property used to configure a builder from a Properties object. {@value}, see
      * {@link Builder#reconnectBufferSize(long) reconnectBufferSize}.
      */
     public static final String PROP_RECONNECT_BUF_SIZE = PFX + "reconnect.buffer.size";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#reconnectBufferOffHeap() reconnectBufferOffHeap}.
+     */
+    public static final String PROP_RECONNECT_BUF_OFF_HEAP = PFX + "reconnect.buffer.offheap";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#reconnectBufferSpill(Path, long) reconnectBufferSpill}.
+     */
+    public static final String PROP_RECONNECT_BUF_SPILL_DIR = PFX + "reconnect.buffer.spill.dir";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#reconnectBufferSpill(Path, long) reconnectBufferSpill}.
+     */
+    public static final String PROP_RECONNECT_BUF_SPILL_MAX_BYTES = PFX + "reconnect.buffer.spill.maxbytes";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see
+     * {@link Builder#reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy) reconnectBufferOverflowPolicy}.
+     */
+    public static final String PROP_RECONNECT_BUF_OVERFLOW_POLICY = PFX + "reconnect.buffer.overflow";
     /**
      * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#reconnectWait(Duration)
      * reconnectWait}.
@@ -512,10 +588,16 @@ public class Options {
     private final Duration reconnectJitter;
     private final Duration reconnectJitterTls;
     private final Duration connectionTimeout;
+    private final int parallelConnectAttempts;
+    private final Duration parallelConnectStagger;
     private final Duration pingInterval;
     private final Duration requestCleanupInterval;
     private final int maxPingsOut;
     private final long reconnectBufferSize;
+    private final boolean reconnectBufferOffHeap;
+    private final Path reconnectBufferSpillDirectory;
+    private final long reconnectBufferSpillMaxBytes;
+    private final ReconnectBufferOverflowPolicy reconnectBufferOverflowPolicy;
     private final char[] username;
     private final char[] password;
     private final char[] token;
@@ -536,27 +618,37 @@ public class Options {
 
     private final ErrorListener errorListener;
     private final ConnectionListener connectionListener;
+    private final MessageTracer messageTracer;
+    private final int messageTracerSampling;
+    private final int[] pendingWatermarks;
     private final String dataPortType;
 
     private final boolean trackAdvancedStats;
     private final boolean traceConnection;
 
     private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
     private final ServerListProvider serverListProvider;
 
     static class DefaultThreadFactory implements ThreadFactory {
         String name;
+        boolean daemon;
         AtomicInteger threadNo = new AtomicInteger(0);
 
         public DefaultThreadFactory (String name){
+            this(name, false);
+        }
+
+        public DefaultThreadFactory (String name, boolean daemon){
             this.name = name;
+            this.daemon = daemon;
         }
 
         public Thread newThread(Runnable r) {
             String threadName = name+":"+threadNo.incrementAndGet();
             Thread t = new Thread(r,threadName);
-            if (t.isDaemon()) {
-                t.setDaemon(false);
+            if (t.isDaemon() != daemon) {
+                t.setDaemon(daemon);
             }
             if (t.getPriority() != Thread.NORM_PRIORITY) {
                 t.setPriority(Thread.NORM_PRIORITY);
@@ -593,10 +685,16 @@ public class Options {
         private Duration reconnectJitter = DEFAULT_RECONNECT_JITTER;
         private Duration reconnectJitterTls = DEFAULT_RECONNECT_JITTER_TLS;
         private Duration connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+        private int parallelConnectAttempts = DEFAULT_PARALLEL_CONNECT_ATTEMPTS;
+        private Duration parallelConnectStagger = DEFAULT_PARALLEL_CONNECT_STAGGER;
         private Duration pingInterval = DEFAULT_PING_INTERVAL;
         private Duration requestCleanupInterval = DEFAULT_REQUEST_CLEANUP_INTERVAL;
         private int maxPingsOut = DEFAULT_MAX_PINGS_OUT;
         private long reconnectBufferSize = DEFAULT_RECONNECT_BUF_SIZE;
+        private boolean reconnectBufferOffHeap = false;
+        private Path reconnectBufferSpillDirectory = null;
+        private long reconnectBufferSpillMaxBytes = DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES;
+        private ReconnectBufferOverflowPolicy reconnectBufferOverflowPolicy = DEFAULT_RECONNECT_BUF_OVERFLOW_POLICY;
         private char[] username = null;
         private char[] password = null;
         private char[] token = null;
@@ -620,8 +718,12 @@ public class Options {
 
         private ErrorListener errorListener = null;
         private ConnectionListener connectionListener = null;
+        private MessageTracer messageTracer = null;
+        private int messageTracerSampling = 1;
+        private int[] pendingWatermarks = new int[0];
         private String dataPortType = DEFAULT_DATA_PORT_TYPE;
         private ExecutorService executor;
+        private ScheduledExecutorService scheduler;
 
         /**
          * Constructs a new Builder with the default values.
@@ -766,11 +868,36 @@ public class Options {
                         props.getProperty(PROP_RECONNECT_BUF_SIZE, Long.toString(DEFAULT_RECONNECT_BUF_SIZE)));
             }
 
+            if (props.containsKey(PROP_RECONNECT_BUF_OFF_HEAP)) {
+                this.reconnectBufferOffHeap = Boolean.parseBoolean(props.getProperty(PROP_RECONNECT_BUF_OFF_HEAP));
+            }
+
+            if (props.containsKey(PROP_RECONNECT_BUF_SPILL_DIR)) {
+                long max = Long.parseLong(props.getProperty(PROP_RECONNECT_BUF_SPILL_MAX_BYTES,
+                    Long.toString(DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES)));
+                this.reconnectBufferSpill(Paths.get(props.getProperty(PROP_RECONNECT_BUF_SPILL_DIR)), max);
+            }
+
+            if (props.containsKey(PROP_RECONNECT_BUF_OVERFLOW_POLICY)) {
+                this.reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy.valueOf(
+                    props.getProperty(PROP_RECONNECT_BUF_OVERFLOW_POLICY).trim().toUpperCase()));
+            }
+
             if (props.containsKey(PROP_CONNECTION_TIMEOUT)) {
                 int ms = Integer.parseInt(props.getProperty(PROP_CONNECTION_TIMEOUT, "-1"));
                 this.connectionTimeout = (ms < 0) ? DEFAULT_CONNECTION_TIMEOUT : Duration.ofMillis(ms);
             }
 
+            if (props.containsKey(PROP_PARALLEL_CONNECT_ATTEMPTS)) {
+                int attempts = Integer.parseInt(props.getProperty(PROP_PARALLEL_CONNECT_ATTEMPTS, "-1"));
+                this.parallelConnectAttempts = (attempts < 1) ? DEFAULT_PARALLEL_CONNECT_ATTEMPTS : attempts;
+            }
+
+            if (props.containsKey(PROP_PARALLEL_CONNECT_STAGGER)) {
+                int ms = Integer.parseInt(props.getProperty(PROP_PARALLEL_CONNECT_STAGGER, "-1"));
+                this.parallelConnectStagger = (ms < 0) ? DEFAULT_PARALLEL_CONNECT_STAGGER : Duration.ofMillis(ms);
+            }
+
             if (props.containsKey(PROP_MAX_CONTROL_LINE)) {
                 int bytes = Integer.parseInt(props.getProperty(PROP_MAX_CONTROL_LINE, "-1"));
                 this.maxControlLine = (bytes < 0) ? DEFAULT_MAX_CONTROL_LINE : bytes;
@@ -805,6 +932,21 @@ public class Options {
                 this.connectionListener = (ConnectionListener) instance;
             }
 
+            if (props.containsKey(PROP_MESSAGE_TRACER)) {
+                Object instance = createInstanceOf(props.getProperty(PROP_MESSAGE_TRACER));
+                this.messageTracer = (MessageTracer) instance;
+            }
+
+            if (props.containsKey(PROP_MESSAGE_TRACER_SAMPLING)) {
+                this.messageTracerSampling(Integer.parseInt(props.getProperty(PROP_MESSAGE_TRACER_SAMPLING, "1")));
+            }
+
+            if (props.containsKey(PROP_PENDING_WATERMARKS)) {
+                String str = props.getProperty(PROP_PENDING_WATERMARKS).trim();
+                this.pendingWatermarks(str.isEmpty() ? new int[0]
+                    : Arrays.stream(str.split(",\\s*")).mapToInt(Integer::parseInt).toArray());
+            }
+
             if (props.containsKey(PROP_DATA_PORT_TYPE)) {
                 this.dataPortType = props.getProperty(PROP_DATA_PORT_TYPE);
             }
@@ -1075,7 +1217,8 @@ public class Options {
          * auto-reconnect. Use -1 to turn on infinite reconnects.
          * 
          * <p>The reconnect count is incremented on a per-server basis, so if the server list contains 5 servers
-         * but max reconnects is set to 3, only 3 of those servers will be tried.
+         * but max reconnects is set to 3, only 3 of those servers will be tried. When attempts are raced, see
+         * {@link #parallelConnectAttempts(int) parallelConnectAttempts}, each server the race tried counts.
          * 
          * <p>This library has a slight difference from some NATS clients, if you set the maxReconnects to zero
          * there will not be any reconnect attempts, regardless of the number of known servers.
@@ -1158,6 +1301,35 @@ public class Options {
             return this;
         }
 
+        /**
+         * Set the number of servers that can be tried at the same time when connecting or reconnecting.
+         * Attempts are started {@link #parallelConnectStagger(Duration) parallelConnectStagger} apart, or
+         * as soon as an earlier attempt fails, and the first server to answer with its INFO is used
+         * for the connection. The other attempts are closed. Each attempt is allowed the connection timeout,
+         * so a server that does not answer does not hold up trying the next one.
+         *
+         * <p>The default, 1, tries the servers one at a time.
+         *
+         * @param attempts the maximum number of attempts in progress at the same time
+         * @return the Builder for chaining
+         */
+        public Builder parallelConnectAttempts(int attempts) {
+            this.parallelConnectAttempts = attempts < 1 ? DEFAULT_PARALLEL_CONNECT_ATTEMPTS : attempts;
+            return this;
+        }
+
+        /**
+         * Set the delay between starting parallel connection attempts, see
+         * {@link #parallelConnectAttempts(int) parallelConnectAttempts}.
+         *
+         * @param time the time to wait before starting the next attempt
+         * @return the Builder for chaining
+         */
+        public Builder parallelConnectStagger(Duration time) {
+            this.parallelConnectStagger = time == null || time.isNegative() ? DEFAULT_PARALLEL_CONNECT_STAGGER : time;
+            return this;
+        }
+
         /**
          * Set the interval between attempts to pings the server. These pings are automated,
          * and capped by {@link #maxPingsOut(int) maxPingsOut()}. As of 2.4.4 the library
@@ -1231,6 +1403,50 @@ public class Options {
             return this;
         }
 
+        /**
+         * Keep the messages published while reconnecting off the heap. Each message is serialized
+         * as it is published into chunks of direct memory, which are replayed as raw bytes once the
+         * connection is back. The {@link #reconnectBufferSize(long) reconnectBufferSize} is counted
+         * in serialized bytes, and a long outage does not fill the heap with message objects.
+         *
+         * @return the Builder for chaining
+         */
+        public Builder reconnectBufferOffHeap() {
+            this.reconnectBufferOffHeap = true;
+            return this;
+        }
+
+        /**
+         * Spill the reconnect buffer to disk when it is full. Messages that don't fit in the
+         * {@link #reconnectBufferSize(long) reconnectBufferSize} are appended to memory mapped segment
+         * files in the directory, and are replayed in order after the in memory part once the connection
+         * is back. The files are deleted once replayed or when the connection closes.
+         * Spilling keeps the in memory part {@link #reconnectBufferOffHeap() off the heap} too.
+         *
+         * @param directory the directory for the segment files, null to not spill
+         * @param maxBytes the most bytes to spill, see
+         *                 {@link #reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy) reconnectBufferOverflowPolicy}
+         *                 for what happens after that
+         * @return the Builder for chaining
+         */
+        public Builder reconnectBufferSpill(Path directory, long maxBytes) {
+            this.reconnectBufferSpillDirectory = directory;
+            this.reconnectBufferSpillMaxBytes = maxBytes < 1 ? DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES : maxBytes;
+            return this;
+        }
+
+        /**
+         * Set what a publish does when the reconnect buffer, and the spill log if there is one, is full.
+         * The default is to throw an IllegalStateException.
+         *
+         * @param policy the policy, null for the default
+         * @return the Builder for chaining
+         */
+        public Builder reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy policy) {
+            this.reconnectBufferOverflowPolicy = policy == null ? DEFAULT_RECONNECT_BUF_OVERFLOW_POLICY : policy;
+            return this;
+        }
+
         /**
          * Set the username and password for basic authentication.
          * 
@@ -1340,6 +1556,47 @@ public class Options {
             return this;
         }
 
+        /**
+         * Set the {@link MessageTracer MessageTracer} to follow sampled messages through the connection.
+         * Without one, the default, nothing is traced.
+         *
+         * @param tracer The new MessageTracer for this connection.
+         * @return the Builder for chaining
+         */
+        public Builder messageTracer(MessageTracer tracer) {
+            this.messageTracer = tracer;
+            return this;
+        }
+
+        /**
+         * Set how many messages are traced, one in every {@code oneInN} outgoing messages
+         * and one in every {@code oneInN} incoming messages, chosen at random. The default, 1, traces every message.
+         *
+         * @param oneInN the sampling rate, less than 1 is treated as 1
+         * @return the Builder for chaining
+         */
+        public Builder messageTracerSampling(int oneInN) {
+            this.messageTracerSampling = Math.max(1, oneInN);
+            return this;
+        }
+
+        /**
+         * Set the soft watermarks for the pending messages of each consumer, as percents of its
+         * {@link Consumer#setPendingLimits(long, long) pending limits}, i.e. 50 and 80. When either the pending
+         * message count or byte count reaches a watermark the {@link ErrorListener#pendingWatermarkReached(Connection, Consumer, int)
+         * ErrorListener} is told, and again when it is {@link ErrorListener#pendingWatermarkCleared(Connection, Consumer, int) cleared},
+         * so the application can shed load before messages are dropped. Consumers can change their own with
+         * {@link Consumer#setPendingWatermarks(int...) setPendingWatermarks}. The default is none.
+         *
+         * @param percents the watermarks, each between 1 and 99
+         * @return the Builder for chaining
+         * @throws IllegalArgumentException if a watermark is out of range
+         */
+        public Builder pendingWatermarks(int... percents) {
+            this.pendingWatermarks = Validator.validatePendingWatermarks(percents);
+            return this;
+        }
+
         /**
          * Set the {@link ExecutorService ExecutorService} used to run threaded tasks. The default is a
          * cached thread pool that names threads after the connection name (or a default). This executor
@@ -1358,6 +1615,25 @@ public class Options {
             return this;
         }
 
+        /**
+         * Set the {@link ScheduledExecutorService ScheduledExecutorService} used for periodic and delayed work,
+         * the ping and request cleanup timers of the connection and the heartbeat alarms of JetStream push
+         * subscriptions. The default is a single daemon thread shared by every connection built with these options.
+         * Like the default executor, its thread has a short keepalive time, 500ms, so it goes away once the
+         * connections using it are closed.
+         *
+         * <p>The same scheduler can be given to the options of many connections, so they all share its threads.
+         * Closing a connection does not shut down the scheduler. The tasks are short, but should not be
+         * delayed for long, so a scheduler that is busy with other work will affect pings.
+         *
+         * @param scheduler The ScheduledExecutorService to use for connections built with these options.
+         * @return the Builder for chaining
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
         /**
          * The class to use for this connections data port. This is an advanced setting
          * and primarily useful for testing.
@@ -1464,6 +1740,16 @@ public class Options {
                                                         new SynchronousQueue<>(),
                                                         new DefaultThreadFactory(threadPrefix));
             }
+
+            if (this.scheduler == null) {
+                String threadPrefix = (this.connectionName != null && this.connectionName.length() > 0) ? this.connectionName : DEFAULT_THREAD_NAME_PREFIX;
+                ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1,
+                                                        new DefaultThreadFactory(threadPrefix + "-scheduler", true));
+                stpe.setRemoveOnCancelPolicy(true); // cancelled heartbeat alarms shouldn't linger
+                stpe.setKeepAliveTime(500L, TimeUnit.MILLISECONDS);
+                stpe.allowCoreThreadTimeOut(true); // nothing shuts the default down, so let its thread end when idle
+                this.scheduler = stpe;
+            }
             return new Options(this);
         }
     }
@@ -1484,10 +1770,16 @@ public class Options {
         this.reconnectJitter = b.reconnectJitter;
         this.reconnectJitterTls = b.reconnectJitterTls;
         this.connectionTimeout = b.connectionTimeout;
+        this.parallelConnectAttempts = b.parallelConnectAttempts;
+        this.parallelConnectStagger = b.parallelConnectStagger;
         this.pingInterval = b.pingInterval;
         this.requestCleanupInterval = b.requestCleanupInterval;
         this.maxPingsOut = b.maxPingsOut;
         this.reconnectBufferSize = b.reconnectBufferSize;
+        this.reconnectBufferOffHeap = b.reconnectBufferOffHeap || b.reconnectBufferSpillDirectory != null;
+        this.reconnectBufferSpillDirectory = b.reconnectBufferSpillDirectory;
+        this.reconnectBufferSpillMaxBytes = b.reconnectBufferSpillMaxBytes;
+        this.reconnectBufferOverflowPolicy = b.reconnectBufferOverflowPolicy;
         this.username = b.username;
         this.password = b.password;
         this.token = b.token;
@@ -1509,9 +1801,13 @@ public class Options {
 
         this.errorListener = b.errorListener == null ? new ErrorListenerLoggerImpl() : b.errorListener;
         this.connectionListener = b.connectionListener;
+        this.messageTracer = b.messageTracer;
+        this.messageTracerSampling = b.messageTracerSampling;
+        this.pendingWatermarks = b.pendingWatermarks;
         this.dataPortType = b.dataPortType;
         this.trackAdvancedStats = b.trackAdvancedStats;
         this.executor = b.executor;
+        this.scheduler = b.scheduler;
 
         this.ignoreDiscoveredServers = b.ignoreDiscoveredServers;
 
@@ -1528,6 +1824,13 @@ public class Options {
         return this.executor;
     }
 
+    /**
+     * @return the scheduler, see {@link Builder#scheduler(ScheduledExecutorService) scheduler()} in the builder doc
+     */
+    public ScheduledExecutorService getScheduler() {
+        return this.scheduler;
+    }
+
     /**
      * @return the error listener. Will be an instance of ErrorListenerLoggerImpl if not user supplied. See {@link Builder#errorListener(ErrorListener) errorListener()} in the builder doc
      */
@@ -1542,6 +1845,27 @@ public class Options {
         return this.connectionListener;
     }
 
+    /**
+     * @return the message tracer, or null, see {@link Builder#messageTracer(MessageTracer) messageTracer()} in the builder doc
+     */
+    public MessageTracer getMessageTracer() {
+        return this.messageTracer;
+    }
+
+    /**
+     * @return one in how many messages are traced, see {@link Builder#messageTracerSampling(int) messageTracerSampling()} in the builder doc
+     */
+    public int getMessageTracerSampling() {
+        return this.messageTracerSampling;
+    }
+
+    /**
+     * @return the pending watermarks for new consumers, in ascending order, see {@link Builder#pendingWatermarks(int...) pendingWatermarks()} in the builder doc
+     */
+    public int[] getPendingWatermarks() {
+        return this.pendingWatermarks.clone();
+    }
+
     /**
      * @return the auth handler, or null, see {@link Builder#authHandler(AuthHandler) authHandler()} in the builder doc
      */
@@ -1720,6 +2044,22 @@ public class Options {
         return connectionTimeout;
     }
 
+    /**
+     * @return the number of servers that can be tried at the same time when connecting, see
+     * {@link Builder#parallelConnectAttempts(int) parallelConnectAttempts()} in the builder doc
+     */
+    public int getParallelConnectAttempts() {
+        return parallelConnectAttempts;
+    }
+
+    /**
+     * @return the delay between starting parallel connection attempts, see
+     * {@link Builder#parallelConnectStagger(Duration) parallelConnectStagger()} in the builder doc
+     */
+    public Duration getParallelConnectStagger() {
+        return parallelConnectStagger;
+    }
+
     /**
      * @return the pingInterval, see {@link Builder#pingInterval(Duration) pingInterval()} in the builder doc
      */
@@ -1749,6 +2089,38 @@ public class Options {
         return reconnectBufferSize;
     }
 
+    /**
+     * @return whether messages published while reconnecting are kept off the heap,
+     *         see {@link Builder#reconnectBufferOffHeap() reconnectBufferOffHeap()} in the builder doc
+     */
+    public boolean isReconnectBufferOffHeap() {
+        return reconnectBufferOffHeap;
+    }
+
+    /**
+     * @return the directory the reconnect buffer spills to, or null if it does not spill,
+     *         see {@link Builder#reconnectBufferSpill(Path, long) reconnectBufferSpill()} in the builder doc
+     */
+    public Path getReconnectBufferSpillDirectory() {
+        return reconnectBufferSpillDirectory;
+    }
+
+    /**
+     * @return the most bytes the reconnect buffer spills to disk,
+     *         see {@link Builder#reconnectBufferSpill(Path, long) reconnectBufferSpill()} in the builder doc
+     */
+    public long getReconnectBufferSpillMaxBytes() {
+        return reconnectBufferSpillMaxBytes;
+    }
+
+    /**
+     * @return what a publish does when the reconnect buffer is full,
+     *         see {@link Builder#reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy) reconnectBufferOverflowPolicy()} in the builder doc
+     */
+    public ReconnectBufferOverflowPolicy getReconnectBufferOverflowPolicy() {
+        return reconnectBufferOverflowPolicy;
+    }
+
     /**
      * @return the default size for buffers in the connection code, see {@link Builder#bufferSize(int) bufferSize()} in the builder doc
      */
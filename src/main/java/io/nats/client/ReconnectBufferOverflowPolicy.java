@@ -0,0 +1,31 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+/**
+ * What a publish does when the reconnect buffer, and the spill log if there is one, is full.
+ * See {@link Options.Builder#reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy) reconnectBufferOverflowPolicy()}
+ */
+public enum ReconnectBufferOverflowPolicy {
+    /**
+     * The publish throws an IllegalStateException, applications can use it as a signal to wait for reconnect.
+     */
+    THROW,
+
+    /**
+     * The message is dropped. It is counted in {@link Statistics#getDroppedCount() the dropped count}
+     * and passed to {@link ErrorListener#messageDiscarded(Connection, Message) messageDiscarded}.
+     */
+    DISCARD
+}
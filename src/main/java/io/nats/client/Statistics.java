@@ -49,4 +49,71 @@ public interface Statistics {
      * @return the total number of messages dropped by this connection across all slow consumers.
      */
     public long getDroppedCount();
+
+    /**
+     * @return the total number of times a consumer on this connection reached one of its
+     * {@link Consumer#setPendingWatermarks(int...) pending watermarks}.
+     */
+    public default long getPendingWatermarkCount() {
+        return 0;
+    }
+
+    /**
+     * The bytes of each socket read. Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getBytesPerRead() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * The bytes of each socket write. Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getBytesPerWrite() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * The nanoseconds each socket write blocked the writer.
+     * Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getWriteBlockedNanos() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * The number of messages the writer took from the outgoing queue as one batch.
+     * Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getMessagesPerBatch() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * The number of messages in the outgoing queue each time the writer goes to it for a batch.
+     * Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getOutgoingQueueDepth() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * The bytes in the outgoing queue each time the writer goes to it for a batch.
+     * Only recorded with {@link Options.Builder#turnOnAdvancedStats() advanced stats}.
+     * @return the distribution
+     */
+    public default Distribution getOutgoingQueueBytes() {
+        return Distribution.EMPTY;
+    }
+
+    /**
+     * @return the number of times the writer had to grow its send buffer to fit a message.
+     */
+    public default long getSendBufferResizes() {
+        return 0;
+    }
 }
@@ -35,6 +35,7 @@ public class ObjectInfo implements JsonSerializable {
     private final long chunks;
     private final String digest;
     private final boolean deleted;
+    private final boolean deduplicated;
     private final ObjectMeta objectMeta;
 
     private ZonedDateTime modified;
@@ -47,6 +48,7 @@ public class ObjectInfo implements JsonSerializable {
         chunks = b.chunks;
         digest = b.digest;
         deleted = b.deleted;
+        deduplicated = b.deduplicated;
         objectMeta = b.metaBuilder.build();
     }
 
@@ -74,6 +76,7 @@ public class ObjectInfo implements JsonSerializable {
         chunks = JsonUtils.readLong(json, CHUNKS_RE, 0);
         digest = JsonUtils.readString(json, DIGEST_RE);
         deleted = JsonUtils.readBoolean(json, DELETED_RE);
+        deduplicated = JsonUtils.readBoolean(json, DEDUPLICATED_RE);
     }
 
     @Override
@@ -87,6 +90,7 @@ public class ObjectInfo implements JsonSerializable {
         JsonUtils.addField(sb, CHUNKS, chunks);
         JsonUtils.addField(sb, DIGEST, digest);
         JsonUtils.addField(sb, DELETED, deleted);
+        JsonUtils.addFldWhenTrue(sb, DEDUPLICATED, deduplicated);
         return endJson(sb).toString();
     }
 
@@ -110,6 +114,10 @@ public class ObjectInfo implements JsonSerializable {
         return chunks;
     }
 
+    public int getChunkSize() {
+        return objectMeta.getObjectMetaOptions().getChunkSize();
+    }
+
     public String getDigest() {
         return digest;
     }
@@ -118,6 +126,15 @@ public class ObjectInfo implements JsonSerializable {
         return deleted;
     }
 
+    /**
+     * Whether the object was put with chunk deduplication. The chunks of such an object are stored
+     * by digest, and the digest of each chunk, in order, is stored as the manifest under the nuid.
+     * @return the flag
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
     public ObjectMeta getObjectMeta() {
         return objectMeta;
     }
@@ -162,6 +179,7 @@ public class ObjectInfo implements JsonSerializable {
         long chunks;
         String digest;
         boolean deleted;
+        boolean deduplicated;
         ObjectMeta.Builder metaBuilder;
 
         public Builder(String bucket, String objectName) {
@@ -182,6 +200,7 @@ public class ObjectInfo implements JsonSerializable {
             chunks = info.chunks;
             digest = info.digest;
             deleted = info.deleted;
+            deduplicated = info.deduplicated;
             metaBuilder = ObjectMeta.builder(info.objectMeta);
         }
 
@@ -225,6 +244,11 @@ public class ObjectInfo implements JsonSerializable {
             return this;
         }
 
+        public Builder deduplicated(boolean deduplicated) {
+            this.deduplicated = deduplicated;
+            return this;
+        }
+
         public Builder description(String description) {
             metaBuilder.description(description);
             return this;
@@ -279,6 +303,7 @@ public class ObjectInfo implements JsonSerializable {
         if (nuid != null ? !nuid.equals(info.nuid) : info.nuid != null) return false;
         if (modified != null ? !modified.equals(info.modified) : info.modified != null) return false;
         if (digest != null ? !digest.equals(info.digest) : info.digest != null) return false;
+        if (deduplicated != info.deduplicated) return false;
         return objectMeta.equals(info.objectMeta);
     }
 
@@ -291,6 +316,7 @@ public class ObjectInfo implements JsonSerializable {
         result = 31 * result + (int) (chunks ^ (chunks >>> 32));
         result = 31 * result + (digest != null ? digest.hashCode() : 0);
         result = 31 * result + (deleted ? 1 : 0);
+        result = 31 * result + (deduplicated ? 1 : 0);
         result = 31 * result + objectMeta.hashCode();
         return result;
     }
@@ -305,6 +331,7 @@ public class ObjectInfo implements JsonSerializable {
             ", chunks=" + chunks +
             ", digest='" + digest + '\'' +
             ", deleted=" + deleted +
+            ", deduplicated=" + deduplicated +
             ", objectMeta=" + objectMeta +
             '}';
     }
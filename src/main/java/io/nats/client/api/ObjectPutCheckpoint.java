@@ -0,0 +1,133 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.api;
+
+import io.nats.client.support.JsonSerializable;
+import io.nats.client.support.JsonUtils;
+import io.nats.client.support.Validator;
+
+import static io.nats.client.support.ApiConstants.*;
+import static io.nats.client.support.JsonUtils.*;
+
+/**
+ * The ObjectPutCheckpoint is the progress of a resumable put: the object meta, the nuid the chunks
+ * are being published under, whether the chunks are deduplicated and the number of chunks and bytes
+ * the server has acknowledged.
+ * It can be saved as json and restored with the json constructor to resume the put in another process.
+ * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+ */
+public class ObjectPutCheckpoint implements JsonSerializable {
+    private final String bucket;
+    private final String nuid;
+    private final long size;
+    private final long chunks;
+    private final boolean deduplicated;
+    private final ObjectMeta objectMeta;
+
+    public ObjectPutCheckpoint(String bucket, String nuid, ObjectMeta objectMeta, long size, long chunks, boolean deduplicated) {
+        this.bucket = Validator.validateBucketName(bucket, true);
+        this.nuid = Validator.validateNotNull(nuid, "Nuid");
+        this.objectMeta = (ObjectMeta)Validator.validateNotNull(objectMeta, "ObjectMeta");
+        this.size = size;
+        this.chunks = chunks;
+        this.deduplicated = deduplicated;
+    }
+
+    /**
+     * Construct a checkpoint from json previously produced by {@link #toJson()}
+     * @param json the json
+     */
+    public ObjectPutCheckpoint(String json) {
+        objectMeta = new ObjectMeta(json);
+
+        // same as ObjectInfo, remove the options so the
+        // link's bucket field cannot be mistaken for the bucket
+        json = removeObject(json, OPTIONS);
+
+        bucket = JsonUtils.readString(json, BUCKET_RE);
+        nuid = JsonUtils.readString(json, NUID_RE);
+        size = JsonUtils.readLong(json, SIZE_RE, 0);
+        chunks = JsonUtils.readLong(json, CHUNKS_RE, 0);
+        deduplicated = JsonUtils.readBoolean(json, DEDUPLICATED_RE);
+    }
+
+    @Override
+    public String toJson() {
+        StringBuilder sb = beginJson();
+        objectMeta.embedJson(sb);
+        JsonUtils.addField(sb, BUCKET, bucket);
+        JsonUtils.addField(sb, NUID, nuid);
+        JsonUtils.addField(sb, SIZE, size);
+        JsonUtils.addField(sb, CHUNKS, chunks);
+        JsonUtils.addFldWhenTrue(sb, DEDUPLICATED, deduplicated);
+        return endJson(sb).toString();
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public String getNuid() {
+        return nuid;
+    }
+
+    /**
+     * The number of bytes in the acknowledged chunks
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * The number of acknowledged chunks
+     * @return the chunk count
+     */
+    public long getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Whether the put publishes deduplicated chunks, it can only be
+     * resumed by an object store with the same chunk deduplication
+     * @return the flag
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
+    public ObjectMeta getObjectMeta() {
+        return objectMeta;
+    }
+
+    public String getObjectName() {
+        return objectMeta.getObjectName();
+    }
+
+    public int getChunkSize() {
+        return objectMeta.getObjectMetaOptions().getChunkSize();
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectPutCheckpoint{" +
+            "bucket='" + bucket + '\'' +
+            ", nuid='" + nuid + '\'' +
+            ", size=" + size +
+            ", chunks=" + chunks +
+            ", deduplicated=" + deduplicated +
+            ", objectMeta=" + objectMeta +
+            '}';
+    }
+}
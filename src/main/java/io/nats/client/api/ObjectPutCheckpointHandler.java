@@ -0,0 +1,26 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.api;
+
+/**
+ * Use the ObjectPutCheckpointHandler interface to record the progress of a resumable put.
+ * OBJECT STORE IMPLEMENTATION IS EXPERIMENTAL AND SUBJECT TO CHANGE.
+ */
+public interface ObjectPutCheckpointHandler {
+    /**
+     * Called on the putting thread each time the server acknowledges a chunk
+     * @param checkpoint the progress so far
+     */
+    void checkpoint(ObjectPutCheckpoint checkpoint);
+}
@@ -67,6 +67,22 @@ public class ErrorListenerLoggerImpl implements ErrorListener {
         LOGGER.warning(() -> supplyMessage("slowConsumerDetected", conn, consumer, null));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void pendingWatermarkReached(final Connection conn, final Consumer consumer, final int percent) {
+        LOGGER.warning(() -> supplyMessage("pendingWatermarkReached", conn, consumer, null, "Percent: ", percent));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void pendingWatermarkCleared(final Connection conn, final Consumer consumer, final int percent) {
+        LOGGER.info(() -> supplyMessage("pendingWatermarkCleared", conn, consumer, null, "Percent: ", percent));
+    }
+
     /**
      * {@inheritDoc}
      */
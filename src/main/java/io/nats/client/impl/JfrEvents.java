@@ -0,0 +1,268 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events for the client. The library targets Java 8, where there is no jdk.jfr,
+ * so the event types are built reflectively with jdk.jfr.EventFactory the first time they are used
+ * while a recording is running. Until then, and always on a JVM without Flight Recorder,
+ * {@link EventType#begin()} is a volatile read that returns null.
+ * <p>Call sites check the event is not null before committing, so that nothing is boxed when not recording:
+ * <pre>
+ * Object event = JfrEvents.WRITER_BATCH.begin();
+ * ...
+ * if (event != null) {
+ *     JfrEvents.WRITER_BATCH.commit(event, count, bytes);
+ * }
+ * </pre>
+ */
+final class JfrEvents {
+    private static final String CATEGORY = "NATS";
+
+    private static volatile boolean recording;
+
+    private static Class<?> annotationElementClass;
+    private static Constructor<?> annotationElementCtor;
+    private static Constructor<?> valueDescriptorCtor;
+    private static Method create;
+    private static Method newEvent;
+    private static Method isEnabled;
+    private static Method begin;
+    private static Method end;
+    private static Method shouldCommit;
+    private static Method set;
+    private static Method commit;
+
+    static final EventType CONNECT = new EventType("io.nats.client.Connect", "Connect",
+        "A connection attempt to a server, the first connect or a reconnect")
+        .field(String.class, "server", "Server")
+        .field(boolean.class, "reconnect", "Reconnect")
+        .field(boolean.class, "connected", "Connected");
+
+    static final EventType WRITER_BATCH = new EventType("io.nats.client.WriterBatch", "Writer Batch",
+        "A batch of outgoing messages copied to the send buffer and written to the socket")
+        .field(int.class, "messages", "Messages")
+        .field(long.class, "bytes", "Bytes");
+
+    static final EventType READER_BUFFER = new EventType("io.nats.client.ReaderBuffer", "Reader Buffer",
+        "A buffer filled by a socket read and parsed")
+        .field(int.class, "bytes", "Bytes");
+
+    static final EventType SLOW_CONSUMER_DROP = new EventType("io.nats.client.SlowConsumerDrop", "Slow Consumer Drop",
+        "A message dropped because the subscription or dispatcher was over its pending limits")
+        .field(String.class, "subject", "Subject")
+        .field(String.class, "sid", "Subscription Id")
+        .field(long.class, "pendingMessages", "Pending Messages")
+        .field(long.class, "pendingBytes", "Pending Bytes");
+
+    static final EventType JETSTREAM_API_REQUEST = new EventType("io.nats.client.JetStreamApiRequest", "JetStream API Request",
+        "A round trip to the JetStream API")
+        .field(String.class, "subject", "Subject")
+        .field(boolean.class, "responded", "Responded");
+
+    static final EventType PULL_REQUEST = new EventType("io.nats.client.PullRequest", "Pull Request",
+        "A pull request, from when it was sent until it was filled or a pull status arrived."
+            + " Messages and statuses carry no pull id, so they are matched to traced pulls in the order"
+            + " the pulls were sent. The match is approximate: a status for a pull sent before recording"
+            + " started, or a 409 rejecting a different pull, ends the oldest traced pull instead.")
+        .field(String.class, "subject", "Subject")
+        .field(int.class, "batchSize", "Batch Size")
+        .field(long.class, "expiresIn", "Expires In Millis")
+        .field(boolean.class, "noWait", "No Wait")
+        .field(int.class, "received", "Messages Received")
+        .field(String.class, "outcome", "Outcome");
+
+    static {
+        try {
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+            annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+            annotationElementCtor = annotationElementClass.getConstructor(Class.class, Object.class);
+            valueDescriptorCtor = valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+            create = eventFactoryClass.getMethod("create", List.class, List.class);
+            newEvent = eventFactoryClass.getMethod("newEvent");
+            isEnabled = eventClass.getMethod("isEnabled");
+            begin = eventClass.getMethod("begin");
+            end = eventClass.getMethod("end");
+            shouldCommit = eventClass.getMethod("shouldCommit");
+            set = eventClass.getMethod("set", int.class, Object.class);
+            commit = eventClass.getMethod("commit");
+
+            // keep track of whether anything is recording, without starting the recorder
+            Class<?> recorderClass = Class.forName("jdk.jfr.FlightRecorder");
+            Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+            Object listener = Proxy.newProxyInstance(JfrEvents.class.getClassLoader(), new Class<?>[]{listenerClass},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "recorderInitialized":
+                            updateRecording(args[0]);
+                            return null;
+                        case "recordingStateChanged":
+                            updateRecording(recorderClass.getMethod("getFlightRecorder").invoke(null));
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "NATS JFR Events Listener";
+                    }
+                    return null;
+                });
+            recorderClass.getMethod("addListener", listenerClass).invoke(null, listener);
+        }
+        catch (Throwable t) {
+            create = null; // no Flight Recorder, begin always returns null
+        }
+    }
+
+    private JfrEvents() {} /* ensures cannot be constructed */
+
+    private static void updateRecording(Object recorder) throws ReflectiveOperationException {
+        boolean running = false;
+        for (Object r : (List<?>) recorder.getClass().getMethod("getRecordings").invoke(recorder)) {
+            Object state = r.getClass().getMethod("getState").invoke(r);
+            if ("RUNNING".equals(String.valueOf(state))) {
+                running = true;
+                break;
+            }
+        }
+        recording = running;
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+
+    private static Object annotation(String className, Object value) throws ReflectiveOperationException {
+        Class<? extends Annotation> type = Class.forName(className).asSubclass(Annotation.class);
+        return value == null
+            ? annotationElementClass.getConstructor(Class.class).newInstance(type)
+            : annotationElementCtor.newInstance(type, value);
+    }
+
+    static final class EventType {
+        private final String name;
+        private final String label;
+        private final String description;
+        private final List<Class<?>> fieldTypes = new ArrayList<>();
+        private final List<String> fieldNames = new ArrayList<>();
+        private final List<String> fieldLabels = new ArrayList<>();
+        private volatile Object factory;
+        private volatile boolean failed;
+
+        EventType(String name, String label, String description) {
+            this.name = name;
+            this.label = label;
+            this.description = description;
+        }
+
+        private EventType field(Class<?> type, String name, String label) {
+            fieldTypes.add(type);
+            fieldNames.add(name);
+            fieldLabels.add(label);
+            return this;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        private Object factory() {
+            Object f = factory;
+            if (f == null && !failed && create != null) {
+                synchronized (this) {
+                    f = factory;
+                    if (f == null && !failed) {
+                        try {
+                            List<Object> annotations = Arrays.asList(
+                                annotation("jdk.jfr.Name", name),
+                                annotation("jdk.jfr.Label", label),
+                                annotation("jdk.jfr.Description", description),
+                                annotation("jdk.jfr.Category", new String[]{CATEGORY}),
+                                annotation("jdk.jfr.StackTrace", false));
+                            List<Object> fields = new ArrayList<>();
+                            for (int i = 0; i < fieldNames.size(); i++) {
+                                fields.add(valueDescriptorCtor.newInstance(fieldTypes.get(i), fieldNames.get(i),
+                                    Collections.singletonList(annotation("jdk.jfr.Label", fieldLabels.get(i)))));
+                            }
+                            f = create.invoke(null, annotations, fields);
+                            factory = f;
+                        }
+                        catch (Throwable t) {
+                            failed = true;
+                        }
+                    }
+                }
+            }
+            return f;
+        }
+
+        /**
+         * Start timing an event.
+         * @return the event, or null if no recording is running or the event is not enabled
+         */
+        Object begin() {
+            if (!recording) {
+                return null;
+            }
+            Object f = factory();
+            if (f == null) {
+                return null;
+            }
+            try {
+                Object event = newEvent.invoke(f);
+                if (!(Boolean) isEnabled.invoke(event)) {
+                    return null;
+                }
+                begin.invoke(event);
+                return event;
+            }
+            catch (Throwable t) {
+                return null;
+            }
+        }
+
+        /**
+         * End the event and commit it with its field values, in the order the fields were declared.
+         * @param event the event from {@link #begin()}, not null
+         * @param values the field values
+         */
+        void commit(Object event, Object... values) {
+            try {
+                end.invoke(event);
+                if ((Boolean) shouldCommit.invoke(event)) {
+                    for (int i = 0; i < values.length; i++) {
+                        set.invoke(event, i, values[i]);
+                    }
+                    commit.invoke(event);
+                }
+            }
+            catch (Throwable t) {
+                // recording is best effort, never let it break the client
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package io.nats.client.impl;
 
 import io.nats.client.Message;
+import io.nats.client.PullRequestOptions;
 
 abstract class MessageManager {
     protected NatsJetStreamSubscription sub;
@@ -27,4 +28,12 @@ abstract class MessageManager {
     }
 
     void shutdown() {}
+
+    /**
+     * Follow a pull request until it is done, for the flight recorder.
+     * @param jfrEvent the begun pull request event
+     * @param subject the subject the pull was published to
+     * @param pro the pull request options
+     */
+    void startPull(Object jfrEvent, String subject, PullRequestOptions pro) {}
 }
@@ -15,6 +15,7 @@ package io.nats.client.impl;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -130,6 +131,41 @@ class MessageQueue {
         }
     }
 
+    /**
+     * Push several messages, holding the filter lock once, so they go into the queue together
+     * and the writer can pick them up in the same batch. A queue that does not discard when full
+     * throws for a single message, but the messages of a batch before it are already queued,
+     * so the message that did not fit in time and the ones after it are returned as discarded instead.
+     * @param msgs the messages to push
+     * @return the messages that were discarded because the queue was full, usually empty
+     */
+    List<NatsMessage> push(List<NatsMessage> msgs) {
+        return push(msgs, false);
+    }
+
+    List<NatsMessage> push(List<NatsMessage> msgs, boolean internal) {
+        List<NatsMessage> discarded = new ArrayList<>();
+        this.filterLock.lock();
+        try {
+            for (int x = 0; x < msgs.size(); x++) {
+                NatsMessage msg = msgs.get(x);
+                try {
+                    if (!push(msg, internal)) {
+                        discarded.add(msg);
+                    }
+                }
+                catch (IllegalStateException e) {
+                    // full for the whole offer wait, the rest would wait too
+                    discarded.addAll(msgs.subList(x, msgs.size()));
+                    break;
+                }
+            }
+        } finally {
+            this.filterLock.unlock();
+        }
+        return discarded;
+    }
+
     /**
      * poisoning the queue puts the known poison pill into the queue, forcing any waiting code to stop
      * waiting and return.
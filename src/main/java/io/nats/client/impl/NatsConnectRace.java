@@ -0,0 +1,177 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Options;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Races connection attempts to several servers. Attempts are started a stagger apart,
+ * or right away when an earlier attempt fails, and the first server to send its INFO wins.
+ * The rest of the handshake is done by the connection on the winner's data port.
+ */
+class NatsConnectRace {
+
+    static class Attempt {
+        final String server;
+        final long deadline;
+        DataPort dataPort;
+        String infoJson;
+        Exception error;
+        private boolean abandoned;
+
+        Attempt(String server, long deadline) {
+            this.server = server;
+            this.deadline = deadline;
+        }
+
+        synchronized boolean adopt(DataPort dataPort) {
+            this.dataPort = dataPort;
+            return !abandoned;
+        }
+
+        synchronized boolean finish() {
+            if (abandoned) {
+                closeQuietly(dataPort);
+            }
+            return !abandoned;
+        }
+
+        synchronized void abandon() {
+            abandoned = true;
+            closeQuietly(dataPort);
+        }
+    }
+
+    private final NatsConnection conn;
+    private final Options options;
+
+    NatsConnectRace(NatsConnection conn) {
+        this.conn = conn;
+        this.options = conn.getOptions();
+    }
+
+    /**
+     * Race the servers in the list. The winner and the servers that failed are removed from the list,
+     * servers that were not tried or were abandoned when the race was won stay in it.
+     * @param remaining the servers left to try, in the order to try them
+     * @return the winning attempt, with a data port that has read the INFO, or null if no server answered
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    Attempt race(List<String> remaining) throws InterruptedException {
+        BlockingQueue<Attempt> finished = new LinkedBlockingQueue<>();
+        ArrayDeque<String> toStart = new ArrayDeque<>(remaining);
+        List<Attempt> active = new ArrayList<>();
+        int max = options.getParallelConnectAttempts();
+        long timeout = options.getConnectionTimeout().toNanos();
+        long stagger = options.getParallelConnectStagger().toNanos();
+        long nextStart = System.nanoTime();
+        Attempt winner = null;
+
+        try {
+            while (winner == null && !conn.isClosed() && (!toStart.isEmpty() || !active.isEmpty())) {
+                long now = System.nanoTime();
+                boolean canStart = !toStart.isEmpty() && active.size() < max;
+                if (canStart && (active.isEmpty() || now - nextStart >= 0)) {
+                    Attempt a = new Attempt(toStart.poll(), now + timeout);
+                    active.add(a);
+                    conn.getExecutor().submit(() -> run(a, finished));
+                    nextStart = now + stagger;
+                    continue;
+                }
+
+                // wait for an attempt to finish, the next start or the nearest deadline
+                long wait = canStart ? nextStart - now : Long.MAX_VALUE;
+                for (Attempt a : active) {
+                    wait = Math.min(wait, a.deadline - now);
+                }
+
+                Attempt done = finished.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    active.remove(done);
+                    if (done.error == null) {
+                        winner = done;
+                    }
+                    else {
+                        remaining.remove(done.server);
+                        conn.processException(done.error);
+                        nextStart = System.nanoTime(); // a failure lets the next one start now
+                    }
+                }
+                else {
+                    now = System.nanoTime();
+                    Iterator<Attempt> iter = active.iterator();
+                    while (iter.hasNext()) {
+                        Attempt a = iter.next();
+                        if (a.deadline - now <= 0) {
+                            iter.remove();
+                            a.abandon();
+                            remaining.remove(a.server);
+                            conn.processException(new TimeoutException("connection timed out"));
+                        }
+                    }
+                }
+            }
+        }
+        finally {
+            for (Attempt a : active) {
+                a.abandon();
+            }
+        }
+
+        if (winner != null) {
+            remaining.remove(winner.server);
+        }
+        return winner;
+    }
+
+    private void run(Attempt a, BlockingQueue<Attempt> finished) {
+        try {
+            DataPort dataPort = options.buildDataPort();
+            if (!a.adopt(dataPort)) {
+                return;
+            }
+            dataPort.connect(a.server, conn, Math.max(1, a.deadline - System.nanoTime()));
+            a.infoJson = conn.readInitialInfo(dataPort);
+        }
+        catch (Exception e) {
+            a.error = e;
+        }
+        if (a.finish()) {
+            if (a.error != null) {
+                closeQuietly(a.dataPort);
+            }
+            finished.add(a);
+        }
+    }
+
+    static void closeQuietly(DataPort dataPort) {
+        if (dataPort != null) {
+            try {
+                dataPort.close();
+            }
+            catch (Exception ignore) {
+                // the port may never have opened
+            }
+        }
+    }
+}
@@ -51,6 +51,7 @@ class NatsConnection implements Connection {
     private final Options options;
 
     private final NatsStatistics statistics;
+    private final NatsJetStreamApiStatistics jetStreamApiStatistics;
 
     private boolean connecting; // you can only connect in one thread
     private boolean disconnecting; // you can only disconnect in one thread
@@ -82,10 +83,16 @@ class NatsConnection implements Connection {
 
     private final String mainInbox;
     private final AtomicReference<NatsDispatcher> inboxDispatcher;
-    private Timer timer;
+    private List<ScheduledFuture<?>> timers;
 
     private final AtomicBoolean needPing;
 
+    private final ReentrantLock flushLock;
+    private boolean flushPingOutstanding;
+    private CompletableFuture<Duration> nextFlush; // flush callers waiting for the next flush ping
+    private CompletableFuture<Duration> nextAsyncFlush; // flushAsync callers waiting for the next flush ping
+    private int nextFlushCallers;
+
     private final AtomicLong nextSid;
     private final NUID nuid;
 
@@ -95,10 +102,13 @@ class NatsConnection implements Connection {
     private final AtomicBoolean blockPublishForDrain;
 
     private final ExecutorService callbackRunner;
+    private final ExecutorService connectExecutor;
 
     private final ExecutorService executor;
-    private final ExecutorService connectExecutor;
+    private final ScheduledExecutorService scheduler;
     private final boolean advancedTracking;
+    private final MessageTracer tracer;
+    private final int traceSampling;
 
     NatsConnection(Options options) {
         boolean trace = options.isTraceConnection();
@@ -108,6 +118,9 @@ class NatsConnection implements Connection {
 
         advancedTracking = options.isTrackAdvancedStats();
         this.statistics = new NatsStatistics(advancedTracking);
+        this.jetStreamApiStatistics = new NatsJetStreamApiStatistics();
+        this.tracer = options.getMessageTracer();
+        this.traceSampling = options.getMessageTracerSampling();
 
         this.statusLock = new ReentrantLock();
         this.statusChanged = this.statusLock.newCondition();
@@ -137,15 +150,27 @@ class NatsConnection implements Connection {
         this.blockPublishForDrain = new AtomicBoolean();
 
         timeTrace(trace, "creating executors");
-        this.callbackRunner = Executors.newSingleThreadExecutor();
         this.executor = options.getExecutor();
-        this.connectExecutor = Executors.newSingleThreadExecutor();
+        this.scheduler = options.getScheduler();
+        this.callbackRunner = new SerialExecutor(this.executor); // callbacks in order, without a thread of their own
+
+        // The INFO read and TLS upgrade block for up to the connect timeout. On the user's executor they could wait
+        // behind user work, on the shared scheduler they would hold up every connection's timers, so they get a
+        // thread of their own, which ends when idle so a connected connection doesn't keep it.
+        ThreadPoolExecutor cx = new ThreadPoolExecutor(1, 1, 500L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "nats-connect");
+            t.setDaemon(true);
+            return t;
+        });
+        cx.allowCoreThreadTimeOut(true);
+        this.connectExecutor = cx;
 
         timeTrace(trace, "creating reader and writer");
         this.reader = new NatsConnectionReader(this);
         this.writer = new NatsConnectionWriter(this);
 
         this.needPing = new AtomicBoolean(true);
+        this.flushLock = new ReentrantLock();
 
         timeTrace(trace, "connection object created");
     }
@@ -164,7 +189,8 @@ class NatsConnection implements Connection {
         timeTrace(trace, "starting connect loop");
 
         List<String> serversToTry = getServersToTry();
-        for (String serverURI : serversToTry) {
+        List<String> remaining = new ArrayList<>(serversToTry);
+        while (!remaining.isEmpty()) {
             if (isClosed()) {
                 break; // goes to statement after end-connect-server-loop
             }
@@ -174,8 +200,11 @@ class NatsConnection implements Connection {
             timeTrace(trace, "setting status to connecting");
             updateStatus(Status.CONNECTING);
 
-            timeTrace(trace, "trying to connect to %s", serverURI);
-            tryToConnect(serverURI, System.nanoTime());
+            String serverURI = tryToConnectNext(remaining, trace);
+            if (serverURI == null) {
+                updateStatus(Status.DISCONNECTED);
+                break; // no server answered the race, goes to statement after end-connect-server-loop
+            }
 
             if (isConnected()) {
                 break; // goes to statement after end-connect-server-loop
@@ -238,8 +267,8 @@ class NatsConnection implements Connection {
                 waitForReconnectTimeout(tries);
             }
 
-            List<String> serversToTry = getServersToTry();
-            for (String server : serversToTry) {
+            List<String> remaining = new ArrayList<>(getServersToTry());
+            while (!remaining.isEmpty()) {
                 if (isClosed()) {
                     break; // goes to statement after end-reconnect-server-loop
                 }
@@ -252,9 +281,14 @@ class NatsConnection implements Connection {
 
                 updateStatus(Status.RECONNECTING);
 
-                tryToConnect(server, System.nanoTime());
+                // a race can try several servers, each one counts as a try
+                int before = remaining.size();
+                String server = tryToConnectNext(remaining, options.isTraceConnection());
 
-                tries++;
+                tries += Math.max(1, before - remaining.size());
+                if (server == null) {
+                    break; // no server answered the race, goes to statement after end-reconnect-server-loop
+                }
                 if (maxTries > 0 && tries >= maxTries) {
                     break; // goes to statement after end-reconnect-server-loop
                 }
@@ -289,17 +323,7 @@ class NatsConnection implements Connection {
             return;
         }
 
-        this.subscribers.forEach((sid, sub) -> {
-            if (sub.getDispatcher() == null && !sub.isDraining()) {
-                sendSubscriptionMessage(sub.getSID(), sub.getSubject(), sub.getQueueName(), true);
-            }
-        });
-
-        this.dispatchers.forEach((nuid, d) -> {
-            if (!d.isDraining()) {
-                d.resendSubscriptions();
-            }
-        });
+        resendSubscriptions();
 
         try {
             this.flush(this.options.getConnectionTimeout());
@@ -348,11 +372,40 @@ class NatsConnection implements Connection {
         return remaining;
     }
 
+    // Removes the next server from the list and tries it, or when parallel connect is on,
+    // races the servers in the list and finishes the handshake with the winner.
+    // Returns the server that was tried or null if the race had no winner.
+    String tryToConnectNext(List<String> remaining, boolean trace) throws InterruptedException {
+        if (options.getParallelConnectAttempts() < 2 || remaining.size() < 2) {
+            String serverURI = remaining.remove(0);
+            timeTrace(trace, "trying to connect to %s", serverURI);
+            tryToConnect(serverURI, System.nanoTime());
+            return serverURI;
+        }
+
+        timeTrace(trace, "racing connections to %s", remaining);
+        NatsConnectRace.Attempt winner = new NatsConnectRace(this).race(remaining);
+        if (winner == null) {
+            return null;
+        }
+        timeTrace(trace, "trying to connect to %s", winner.server);
+        tryToConnect(winner.server, winner, System.nanoTime());
+        return winner.server;
+    }
+
     // is called from reconnect and connect
     // will wait for any previous attempt to complete, using the reader.stop and
     // writer.stop
     void tryToConnect(String serverURI, long now) {
+        tryToConnect(serverURI, null, now);
+    }
+
+    // raced is an attempt that already connected its data port and read the INFO, or null
+    void tryToConnect(String serverURI, NatsConnectRace.Attempt raced, long now) {
         this.currentServer = null;
+        final String racedInfo = raced == null ? null : raced.infoJson;
+        Object jfrEvent = JfrEvents.CONNECT.begin();
+        boolean reconnect = jfrEvent != null && this.status == Status.RECONNECTING;
 
         try {
             Duration connectTimeout = options.getConnectionTimeout();
@@ -384,9 +437,16 @@ class NatsConnection implements Connection {
             timeCheck(trace, end, "cleaning pong queue");
             cleanUpPongQueue();
 
-            timeoutNanos = timeCheck(trace, end, "connecting data port");
-            DataPort newDataPort = this.options.buildDataPort();
-            newDataPort.connect(serverURI, this, timeoutNanos);
+            DataPort newDataPort;
+            if (raced == null) {
+                timeoutNanos = timeCheck(trace, end, "connecting data port");
+                newDataPort = this.options.buildDataPort();
+                newDataPort.connect(serverURI, this, timeoutNanos);
+            }
+            else {
+                newDataPort = raced.dataPort;
+                raced = null; // the port is owned by the connection now
+            }
 
             // Notify the any threads waiting on the sockets
             this.dataPort = newDataPort;
@@ -395,7 +455,12 @@ class NatsConnection implements Connection {
             // Wait for the INFO message manually
             // all other traffic will use the reader and writer
             Callable<Object> connectTask = () -> {
-                readInitialInfo();
+                if (racedInfo == null) {
+                    readInitialInfo();
+                }
+                else {
+                    handleInfo(racedInfo);
+                }
                 checkVersionRequirements();
                 long start = System.nanoTime();
                 upgradeToSecureIfNeeded();
@@ -432,30 +497,25 @@ class NatsConnection implements Connection {
                 pongFuture.get(timeoutNanos, TimeUnit.NANOSECONDS);
             }
 
-            if (this.timer == null) {
+            if (this.timers == null) {
                 timeCheck(trace, end, "starting ping and cleanup timers");
-                this.timer = new Timer("Nats Connection Timer");
+                this.timers = new ArrayList<>();
 
                 long pingMillis = this.options.getPingInterval().toMillis();
 
                 if (pingMillis > 0) {
-                    this.timer.schedule(new TimerTask() {
-                        public void run() {
-                            if (isConnected()) {
-                                softPing(); // The timer always uses the standard queue
-                            }
+                    this.timers.add(this.scheduler.scheduleAtFixedRate(() -> {
+                        if (isConnected()) {
+                            softPing(); // The timer always uses the standard queue
                         }
-                    }, pingMillis, pingMillis);
+                    }, pingMillis, pingMillis, TimeUnit.MILLISECONDS));
                 }
 
                 long cleanMillis = this.options.getRequestCleanupInterval().toMillis();
 
                 if (cleanMillis > 0) {
-                    this.timer.schedule(new TimerTask() {
-                        public void run() {
-                            cleanResponses(false);
-                        }
-                    }, cleanMillis, cleanMillis);
+                    this.timers.add(this.scheduler.scheduleAtFixedRate(
+                        () -> cleanResponses(false), cleanMillis, cleanMillis, TimeUnit.MILLISECONDS));
                 }
             }
 
@@ -487,6 +547,9 @@ class NatsConnection implements Connection {
                 processException(e);
             }
         } finally {
+            if (raced != null) {
+                NatsConnectRace.closeQuietly(raced.dataPort); // never became the connection's port
+            }
             statusLock.lock();
             try {
                 this.connecting = false;
@@ -494,6 +557,9 @@ class NatsConnection implements Connection {
             } finally {
                 statusLock.unlock();
             }
+            if (jfrEvent != null) {
+                JfrEvents.CONNECT.commit(jfrEvent, serverURI, reconnect, serverURI.equals(this.currentServer));
+            }
         }
     }
 
@@ -621,6 +687,7 @@ class NatsConnection implements Connection {
         }
 
         closeSocketImpl();
+        writer.discardReconnectBuffer();
 
         this.dispatchers.forEach((nuid, d) -> d.stop(false));
 
@@ -629,9 +696,12 @@ class NatsConnection implements Connection {
         this.dispatchers.clear();
         this.subscribers.clear();
 
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (timers != null) {
+            // the scheduler is shared, so only this connection's tasks are cancelled
+            for (ScheduledFuture<?> f : timers) {
+                f.cancel(false);
+            }
+            timers = null;
         }
 
         cleanResponses(true);
@@ -651,7 +721,7 @@ class NatsConnection implements Connection {
             statusLock.unlock();
         }
 
-        // Stop the error handling and connect executors
+        // Stop the error handling runner
         callbackRunner.shutdown();
         try {
             callbackRunner.awaitTermination(this.options.getConnectionTimeout().toNanos(), TimeUnit.NANOSECONDS);
@@ -756,15 +826,28 @@ class NatsConnection implements Connection {
             throw new IllegalStateException("Connection is Draining"); // Ok to publish while waiting on subs
         }
 
-        NatsMessage nm = new NatsMessage(subject, replyTo, new Headers(headers), data, utf8mode);
+        NatsMessage nm = newOutgoingMessage(subject, replyTo, headers, data, utf8mode);
 
         Connection.Status stat = this.status;
         if ((stat == Status.RECONNECTING || stat == Status.DISCONNECTED)
                 && !this.writer.canQueueDuringReconnect(nm)) {
+            reconnectBufferFull();
+            options.getErrorListener().messageDiscarded(this, nm);
+            return;
+        }
+        queueOutgoing(nm);
+    }
+
+    /**
+     * Apply the overflow policy when a message does not fit in the reconnect buffer.
+     * Returns, after counting the drop, only if the policy is to discard the message.
+     */
+    void reconnectBufferFull() {
+        if (options.getReconnectBufferOverflowPolicy() == ReconnectBufferOverflowPolicy.THROW) {
             throw new IllegalStateException(
                     "Unable to queue any more messages during reconnect, max buffer is " + options.getReconnectBufferSize());
         }
-        queueOutgoing(nm);
+        statistics.incrementDroppedCount();
     }
 
     private void checkIfNeedsHeaderSupport(Headers headers) {
@@ -904,6 +987,54 @@ class NatsConnection implements Connection {
         return sid;
     }
 
+    // Called on reconnect. Rather than a protocol message per subscription, the SUB lines
+    // are written into buffer sized protocol messages that are queued together, so the
+    // writer sends them in one batch, followed by the single ping of the reconnect flush.
+    void resendSubscriptions() {
+        List<NatsSubscription> subs = new ArrayList<>(subscribers.size());
+        subscribers.forEach((sid, sub) -> {
+            if (sub.getDispatcher() == null && !sub.isDraining()) {
+                subs.add(sub);
+            }
+        });
+        dispatchers.forEach((nuid, d) -> {
+            if (!d.isDraining()) {
+                d.collectSubscriptions(subs);
+            }
+        });
+        if (subs.isEmpty()) {
+            return;
+        }
+
+        int chunkSize = options.getBufferSize();
+        List<NatsMessage> batch = new ArrayList<>();
+        ByteArrayBuilder bab = null;
+        for (NatsSubscription sub : subs) {
+            String queueName = sub.getQueueName();
+            // estimate, the builder grows if a subject has multi-byte characters
+            int lineLength = SUB_SP_BYTES.length + sub.getSubject().length() + 1 + sub.getSID().length()
+                + (queueName == null ? 0 : queueName.length() + 1);
+            if (bab == null || bab.length() + lineLength + 2 > chunkSize) {
+                if (bab != null) {
+                    batch.add(new ProtocolMessage(bab));
+                }
+                bab = new ByteArrayBuilder(Math.max(chunkSize, lineLength), UTF_8);
+            }
+            else {
+                bab.append(CRLF_BYTES); // the last line gets its CRLF when the message is written
+            }
+
+            bab.append(SUB_SP_BYTES).append(sub.getSubject());
+            if (queueName != null) {
+                bab.append(SP).append(queueName);
+            }
+            bab.append(SP).append(sub.getSID());
+        }
+        batch.add(new ProtocolMessage(bab));
+
+        writer.queueInternalMessages(batch);
+    }
+
     void sendSubscriptionMessage(String sid, String subject, String queueName, boolean treatAsInternal) {
         if (!isConnected()) {
             return; // We will set up sub on reconnect or ignore
@@ -969,12 +1100,14 @@ class NatsConnection implements Connection {
 
             if (remove) {
                 toRemove.add(key);
-                statistics.decrementOutstandingRequests();
             }
         });
 
         for (String token : toRemove) {
-            responsesAwaiting.remove(token);
+            // a collector takes itself out when it completes, so only count what is actually removed here
+            if (responsesAwaiting.remove(token) != null) {
+                statistics.decrementOutstandingRequests();
+            }
         }
 
         if (advancedTracking) {
@@ -1033,15 +1166,142 @@ class NatsConnection implements Connection {
         return requestFutureInternal(message.getSubject(), message.getHeaders(), message.getData(), message.isUtf8mode(), null, true);
     }
 
+    @Override
+    public List<CompletableFuture<Message>> requestMany(List<Message> messages) {
+        return requestMany(messages, null);
+    }
+
+    @Override
+    public List<CompletableFuture<Message>> requestMany(List<Message> messages, Duration timeout) {
+        validateNotNull(messages, "Messages");
+        for (Message message : messages) {
+            validateNotNull(message, "Message");
+            checkIfNeedsHeaderSupport(message.getHeaders());
+            checkPayloadSize(message.getData());
+        }
+        checkCanRequest();
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>(messages.size());
+        List<NatsMessage> batch = new ArrayList<>(messages.size());
+        List<NatsMessage> discarded;
+        long batchBytes = 0;
+        try {
+            for (Message message : messages) {
+                NatsRequestCompletableFuture future =
+                    new NatsRequestCompletableFuture(true, timeout == null ? options.getRequestCleanupInterval() : timeout);
+                futures.add(future);
+                String responseInbox = registerRequest(future);
+                NatsMessage nm = newOutgoingMessage(message.getSubject(), responseInbox, message.getHeaders(), message.getData(), message.isUtf8mode());
+                if (nm.getControlLineLength() > this.options.getMaxControlLine()) {
+                    throw new IllegalArgumentException("Control line is too long");
+                }
+                batch.add(nm);
+                batchBytes += nm.getSizeInBytes();
+            }
+
+            // the batch is queued or refused whole, the overflow policy
+            // either throws or drops every message in it
+            Connection.Status stat = this.status;
+            if ((stat == Status.RECONNECTING || stat == Status.DISCONNECTED)
+                    && !this.writer.canQueueDuringReconnect(batchBytes)) {
+                for (int x = 0; x < batch.size(); x++) {
+                    reconnectBufferFull();
+                }
+                discarded = batch;
+            }
+            else {
+                for (NatsMessage nm : batch) {
+                    if (nm.traced) {
+                        trace(MessageTracer.Point.ENQUEUE, nm);
+                    }
+                }
+                discarded = writer.queue(batch);
+            }
+        }
+        catch (RuntimeException e) {
+            // a bad message or the reconnect overflow policy throws before anything is queued,
+            // a full outgoing queue returns what it could not take instead,
+            // so none of these requests can be answered
+            for (CompletableFuture<Message> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+
+        // the requests that were not queued can't be answered
+        Set<NatsMessage> notQueued = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (NatsMessage nm : discarded) {
+            options.getErrorListener().messageDiscarded(this, nm);
+            notQueued.add(nm);
+        }
+        for (int x = 0; x < batch.size(); x++) {
+            if (notQueued.contains(batch.get(x))) {
+                futures.get(x).cancel(true);
+            }
+            else {
+                statistics.incrementRequestsSent();
+            }
+        }
+        return futures;
+    }
+
     CompletableFuture<Message> requestFutureInternal(String subject, Headers headers, byte[] data, boolean utf8mode, Duration futureTimeout, boolean cancelOn503) {
         checkPayloadSize(data);
+        checkCanRequest();
+
+        NatsRequestCompletableFuture future =
+            new NatsRequestCompletableFuture(cancelOn503, futureTimeout == null ? options.getRequestCleanupInterval() : futureTimeout);
+        String responseInbox = registerRequest(future);
+
+        // no flush here, the writer flushes when its queue goes idle,
+        // so a burst of requests goes out in as few writes as possible
+        publishInternal(subject, responseInbox, headers, data, utf8mode);
+        statistics.incrementRequestsSent();
+
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // utf8 subjects are still honored, as in the other String based requests
+    public CompletableFuture<List<Message>> requestMany(String subject, byte[] body, CollectOptions collectOptions) {
+        return requestManyInternal(subject, null, body, options.supportUTF8Subjects(), collectOptions);
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> requestMany(Message message, CollectOptions collectOptions) {
+        validateNotNull(message, "Message");
+        return requestManyInternal(message.getSubject(), message.getHeaders(), message.getData(), message.isUtf8mode(), collectOptions);
+    }
+
+    CompletableFuture<List<Message>> requestManyInternal(String subject, Headers headers, byte[] data, boolean utf8mode, CollectOptions collectOptions) {
+        checkPayloadSize(data);
+        checkCanRequest();
+
+        NatsRequestCollector collector = new NatsRequestCollector(
+            collectOptions == null ? CollectOptions.DEFAULT_COLLECT_OPTIONS : collectOptions, scheduler);
+        String responseInbox = registerRequest(collector);
+        collector.start();
 
+        publishInternal(subject, responseInbox, headers, data, utf8mode);
+        statistics.incrementRequestsSent();
+
+        return collector.getResult();
+    }
+
+    private void checkCanRequest() {
         if (isClosed()) {
             throw new IllegalStateException("Connection is Closed");
         } else if (isDraining()) {
             throw new IllegalStateException("Connection is Draining");
         }
+    }
 
+    /**
+     * Make sure the inbox dispatcher is running and track the future so the reply can find it.
+     * @param future the future for the reply
+     * @return the inbox the reply should be sent to
+     */
+    private String registerRequest(NatsRequestCompletableFuture future) {
         if (inboxDispatcher.get() == null) {
             NatsDispatcher d = new NatsDispatcher(this, this::deliverReply);
 
@@ -1054,34 +1314,41 @@ class NatsConnection implements Connection {
         }
 
         boolean oldStyle = options.isOldRequestStyle();
+        boolean collecting = future instanceof NatsRequestCollector;
         String responseInbox = oldStyle ? createInbox() : createResponseInbox(this.mainInbox);
-        String responseToken = getResponseToken(responseInbox);
-        NatsRequestCompletableFuture future =
-            new NatsRequestCompletableFuture(cancelOn503, futureTimeout == null ? options.getRequestCleanupInterval() : futureTimeout);
+        String key = getResponseToken(responseInbox);
 
         if (!oldStyle) {
-            responsesAwaiting.put(responseToken, future);
+            responsesAwaiting.put(key, future);
         }
         statistics.incrementOutstandingRequests();
 
         if (oldStyle) {
             NatsDispatcher dispatcher = this.inboxDispatcher.get();
             NatsSubscription sub = dispatcher.subscribeReturningSubscription(responseInbox);
-            dispatcher.unsubscribe(responseInbox, 1);
-            // Unsubscribe when future is cancelled:
+            if (!collecting) {
+                dispatcher.unsubscribe(responseInbox, 1);
+            }
+            // Unsubscribe when future is cancelled, or when a collector is done:
             future.whenComplete((msg, exception) -> {
-                if (exception instanceof CancellationException) {
+                if (collecting || exception instanceof CancellationException) {
                     dispatcher.unsubscribe(responseInbox);
                 }
             });
-            responsesAwaiting.put(sub.getSID(), future);
+            key = sub.getSID();
+            responsesAwaiting.put(key, future);
         }
 
-        publishInternal(subject, responseInbox, headers, data, utf8mode);
-        writer.flushBuffer();
-        statistics.incrementRequestsSent();
-
-        return future;
+        if (collecting) {
+            // a collector stays registered for every reply, so it takes itself out when it is done
+            String collectorKey = key;
+            future.whenComplete((msg, exception) -> {
+                if (responsesAwaiting.remove(collectorKey) != null) {
+                    statistics.decrementOutstandingRequests();
+                }
+            });
+        }
+        return responseInbox;
     }
 
     void deliverReply(Message msg) {
@@ -1089,7 +1356,14 @@ class NatsConnection implements Connection {
         String subject = msg.getSubject();
         String token = getResponseToken(subject);
         String key = oldStyle ? msg.getSID() : token;
-        NatsRequestCompletableFuture f = responsesAwaiting.remove(key);
+        NatsRequestCompletableFuture f = responsesAwaiting.get(key);
+        if (f instanceof NatsRequestCollector) {
+            ((NatsRequestCollector) f).collect(msg);
+            statistics.incrementRepliesReceived();
+            return;
+        }
+
+        f = responsesAwaiting.remove(key);
         if (f != null) {
             if (advancedTracking) {
                 responsesRespondedTo.put(key, f);
@@ -1158,49 +1432,169 @@ class NatsConnection implements Connection {
 
     public void flush(Duration timeout) throws TimeoutException, InterruptedException {
 
-        Instant start = Instant.now();
+        long start = System.nanoTime();
         waitForConnectOrClose(timeout);
 
         if (isClosed()) {
             throw new TimeoutException("Attempted to flush while closed");
         }
 
-        if (timeout == null) {
-            timeout = Duration.ZERO;
-        }
-
-        Instant now = Instant.now();
-        Duration waitTime = Duration.between(start, now);
+        long nanos = timeout == null ? 0 : timeout.toNanos();
+        long waitTime = System.nanoTime() - start;
 
-        if (!timeout.equals(Duration.ZERO) && waitTime.compareTo(timeout) >= 0) {
+        if (nanos > 0 && waitTime >= nanos) {
             throw new TimeoutException("Timeout out waiting for connection before flush.");
         }
 
+        if (!isConnected()) {
+            return;
+        }
+
         try {
-            Future<Boolean> waitForIt = sendPing();
+            Future<Duration> waitForIt = queueFlush(false);
 
-            if (waitForIt == null) { // error in the send ping code
-                return;
+            if (nanos > 0) {
+                // let the future timeout if it isn't resolved
+                waitForIt.get(Math.max(1, nanos - waitTime), TimeUnit.NANOSECONDS);
+            } else {
+                waitForIt.get();
+            }
+        } catch (ExecutionException e) {
+            // like a ping that could not be sent or a pong for a lost connection,
+            // a flush that was not attempted returns quietly
+            if (!(e.getCause() instanceof FlushNotSentException)) {
+                throw new TimeoutException(e.toString());
+            }
+        } catch (CancellationException e) {
+            throw new TimeoutException(e.toString());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Duration> flushAsync() {
+        if (isClosed()) {
+            return failedFlush(new IllegalStateException("Attempted to flush while closed."));
+        }
+        if (!isConnected()) {
+            return failedFlush(new IllegalStateException("Attempted to flush while not connected."));
+        }
+        return queueFlush(true);
+    }
+
+    // Callers blocked in flush wait on nextFlush, which is completed on the thread that reads the pong,
+    // so they never depend on a free executor thread. Callers of flushAsync wait on nextAsyncFlush,
+    // which is completed on the executor, so their callbacks do not run on the reader thread.
+    private CompletableFuture<Duration> queueFlush(boolean async) {
+        flushLock.lock();
+        try {
+            CompletableFuture<Duration> f;
+            if (async) {
+                if (nextAsyncFlush == null) {
+                    nextAsyncFlush = new CompletableFuture<>();
+                }
+                f = nextAsyncFlush;
             }
+            else {
+                if (nextFlush == null) {
+                    nextFlush = new CompletableFuture<>();
+                }
+                f = nextFlush;
+            }
+            nextFlushCallers++;
+            if (!flushPingOutstanding) {
+                sendFlushPing();
+            }
+            return f;
+        } finally {
+            flushLock.unlock();
+        }
+    }
 
-            long nanos = timeout.toNanos();
+    private static CompletableFuture<Duration> failedFlush(Exception e) {
+        CompletableFuture<Duration> f = new CompletableFuture<>();
+        f.completeExceptionally(e);
+        return f;
+    }
 
-            if (nanos > 0) {
+    // a flush ping that was not sent, or was answered by a lost connection, which flush ignores
+    private static class FlushNotSentException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        FlushNotSentException(String message) {
+            super(message);
+        }
+    }
 
-                nanos -= waitTime.toNanos();
+    // Must be called with the flush lock held. The ping covers every caller waiting on
+    // the next flush, since their messages were queued before it. Callers that arrive while
+    // it is outstanding wait for the one sent after its pong.
+    private void sendFlushPing() {
+        CompletableFuture<Duration> waiting = nextFlush;
+        CompletableFuture<Duration> waitingAsync = nextAsyncFlush;
+        int callers = nextFlushCallers;
+        nextFlush = null;
+        nextAsyncFlush = null;
+        nextFlushCallers = 0;
+
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> pongFuture = sendPing();
+        if (pongFuture == null) { // error in the send ping code
+            completeFlush(waiting, waitingAsync, null, new FlushNotSentException("Max outgoing Ping count exceeded."));
+            return;
+        }
 
-                if (nanos <= 0) {
-                    nanos = 1; // let the future timeout if it isn't resolved
+        flushPingOutstanding = true;
+        pongFuture.whenComplete((pong, t) -> {
+            Duration rtt = Duration.ofNanos(System.nanoTime() - start);
+            if (t == null && pong) {
+                this.statistics.incrementFlushCounter(callers);
+            }
+            if (t != null) {
+                completeFlush(waiting, waitingAsync, null, new TimeoutException(t.toString()));
+            }
+            else if (!pong) {
+                completeFlush(waiting, waitingAsync, null, new FlushNotSentException("Attempted to flush while not connected."));
+            }
+            else {
+                completeFlush(waiting, waitingAsync, rtt, null);
+            }
+
+            flushLock.lock();
+            try {
+                flushPingOutstanding = false;
+                if (nextFlush != null || nextAsyncFlush != null) {
+                    sendFlushPing();
                 }
+            } finally {
+                flushLock.unlock();
+            }
+        });
+    }
 
-                waitForIt.get(nanos, TimeUnit.NANOSECONDS);
-            } else {
-                waitForIt.get();
+    // The blocked callers are released right away. The pong arrives on the reader thread,
+    // user code waiting on an async flush must not run there, so that runs on the executor.
+    private void completeFlush(CompletableFuture<Duration> waiting, CompletableFuture<Duration> waitingAsync, Duration rtt, Exception e) {
+        if (waiting != null) {
+            completeFlush(waiting, rtt, e);
+        }
+        if (waitingAsync != null) {
+            try {
+                executor.execute(() -> completeFlush(waitingAsync, rtt, e));
+            } catch (RejectedExecutionException re) {
+                completeFlush(waitingAsync, rtt, e);
             }
+        }
+    }
 
-            this.statistics.incrementFlushCounter();
-        } catch (ExecutionException | CancellationException e) {
-            throw new TimeoutException(e.toString());
+    private static void completeFlush(CompletableFuture<Duration> f, Duration rtt, Exception e) {
+        if (e == null) {
+            f.complete(rtt);
+        }
+        else {
+            f.completeExceptionally(e);
         }
     }
 
@@ -1303,13 +1697,17 @@ class NatsConnection implements Connection {
     }
 
     void readInitialInfo() throws IOException {
+        handleInfo(readInitialInfo(this.dataPort));
+    }
+
+    String readInitialInfo(DataPort dataPort) throws IOException {
         byte[] readBuffer = new byte[options.getBufferSize()];
         ByteBuffer protocolBuffer = ByteBuffer.allocate(options.getBufferSize());
         boolean gotCRLF = false;
         boolean gotCR = false;
 
         while (!gotCRLF) {
-            int read = this.dataPort.read(readBuffer, 0, readBuffer.length);
+            int read = dataPort.read(readBuffer, 0, readBuffer.length);
 
             if (read < 0) {
                 break;
@@ -1356,7 +1754,7 @@ class NatsConnection implements Connection {
             throw new IOException("Received non-info initial message.");
         }
 
-        handleInfo(infoJson);
+        return infoJson;
     }
 
     void handleInfo(String infoJson) {
@@ -1373,10 +1771,56 @@ class NatsConnection implements Connection {
         }
     }
 
+    /**
+     * Create a message to publish, copying the headers. If the message is sampled for the tracer,
+     * it is marked as traced and gets a trace id header if the tracer wants one.
+     */
+    NatsMessage newOutgoingMessage(String subject, String replyTo, Headers headers, byte[] data, boolean utf8mode) {
+        Headers copy = new Headers(headers);
+        boolean traced = tracer != null && sampleTrace();
+        if (traced) {
+            String header = tracer.getTraceIdHeader();
+            if (header != null && !copy.containsKey(header) && serverInfo.get().isHeadersSupported()) {
+                copy.put(header, tracer.newTraceId());
+            }
+        }
+        NatsMessage nm = new NatsMessage(subject, replyTo, copy, data);
+        nm.utf8mode = utf8mode;
+        nm.traced = traced;
+        return nm;
+    }
+
+    boolean sampleTrace() {
+        return traceSampling == 1 || ThreadLocalRandom.current().nextInt(traceSampling) == 0;
+    }
+
+    /**
+     * An incoming message carrying the trace id header was sampled where it was published, so it is
+     * always traced, to follow it through to the handler. Others are sampled here.
+     */
+    boolean traceIncoming(NatsMessage msg) {
+        String header = tracer.getTraceIdHeader();
+        if (header != null && msg.hasHeaders() && msg.getHeaders().containsKey(header)) {
+            return true;
+        }
+        return sampleTrace();
+    }
+
+    void trace(MessageTracer.Point point, NatsMessage msg) {
+        try {
+            tracer.trace(point, msg, System.nanoTime());
+        } catch (Exception exp) {
+            processException(exp);
+        }
+    }
+
     void queueOutgoing(NatsMessage msg) {
         if (msg.getControlLineLength() > this.options.getMaxControlLine()) {
             throw new IllegalArgumentException("Control line is too long");
         }
+        if (msg.traced) {
+            trace(MessageTracer.Point.ENQUEUE, msg);
+        }
         if (!writer.queue(msg)) {
             options.getErrorListener().messageDiscarded(this, msg);
         }
@@ -1399,6 +1843,11 @@ class NatsConnection implements Connection {
         if (sub != null) {
             msg.setSubscription(sub);
 
+            if (tracer != null && traceIncoming(msg)) {
+                msg.traced = true;
+                trace(MessageTracer.Point.READ, msg);
+            }
+
             NatsDispatcher d = sub.getNatsDispatcher();
             NatsConsumer c = (d == null) ? sub : d;
             MessageQueue q = ((d == null) ? sub.getMessageQueue() : d.getMessageQueue());
@@ -1408,6 +1857,12 @@ class NatsConnection implements Connection {
                 this.statistics.incrementDroppedCount();
                 c.incrementDroppedCount();
 
+                Object jfrEvent = JfrEvents.SLOW_CONSUMER_DROP.begin();
+                if (jfrEvent != null) {
+                    JfrEvents.SLOW_CONSUMER_DROP.commit(jfrEvent, msg.getSubject(), msg.getSID(),
+                        c.getPendingMessageCount(), c.getPendingByteCount());
+                }
+
                 // Notify the first time
                 if (!c.isMarkedSlow()) {
                     c.markSlow();
@@ -1426,6 +1881,8 @@ class NatsConnection implements Connection {
                 }
             }
 
+            c.checkPendingWatermarks();
+
         }
 //        else {
 //            // Drop messages we don't have a subscriber for (could be extras on an
@@ -1453,6 +1910,30 @@ class NatsConnection implements Connection {
         }
     }
 
+    void processPendingWatermark(Consumer consumer, int percent, boolean reached) {
+        if (reached) {
+            this.statistics.incrementPendingWatermarkCount();
+        }
+        if (!this.callbackRunner.isShutdown()) {
+            try {
+                this.callbackRunner.execute(() -> {
+                    try {
+                        if (reached) {
+                            options.getErrorListener().pendingWatermarkReached(this, consumer, percent);
+                        }
+                        else {
+                            options.getErrorListener().pendingWatermarkCleared(this, consumer, percent);
+                        }
+                    } catch (Exception ex) {
+                        this.statistics.incrementExceptionCount();
+                    }
+                });
+            } catch (RejectedExecutionException re) {
+                // Timing with shutdown, let it go
+            }
+        }
+    }
+
     void processException(Exception exp) {
         this.statistics.incrementExceptionCount();
 
@@ -1563,6 +2044,10 @@ class NatsConnection implements Connection {
         return this.statistics;
     }
 
+    NatsJetStreamApiStatistics getJetStreamApiStatistics() {
+        return this.jetStreamApiStatistics;
+    }
+
     DataPort getDataPort() {
         return this.dataPort;
     }
@@ -1695,6 +2180,10 @@ class NatsConnection implements Connection {
         return executor;
     }
 
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
     void updateStatus(Status newStatus) {
         Status oldStatus = this.status;
 
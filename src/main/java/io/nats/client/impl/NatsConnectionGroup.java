@@ -0,0 +1,592 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.*;
+import io.nats.client.api.ServerInfo;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class NatsConnectionGroup implements ConnectionGroup {
+
+    private final List<Connection> shards;
+    private final Routing routing;
+    private final AtomicInteger publishCounter;
+    private final AtomicInteger subscribeCounter;
+    private final Statistics statistics;
+
+    NatsConnectionGroup(List<Connection> shards, Routing routing) {
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.routing = routing;
+        publishCounter = new AtomicInteger();
+        subscribeCounter = new AtomicInteger();
+        statistics = new GroupStatistics();
+    }
+
+    static NatsConnectionGroup connect(Options options, int shardCount, Routing routing, boolean reconnectOnConnect) throws IOException, InterruptedException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be greater than zero.");
+        }
+        if (routing == null) {
+            throw new IllegalArgumentException("Routing cannot be null.");
+        }
+
+        List<Connection> shards = new ArrayList<>(shardCount);
+        try {
+            for (int x = 0; x < shardCount; x++) {
+                shards.add(NatsImpl.createConnection(options, reconnectOnConnect));
+            }
+        }
+        catch (IOException | InterruptedException | RuntimeException e) {
+            // don't leave the shards that did connect behind
+            for (Connection shard : shards) {
+                try {
+                    shard.close();
+                }
+                catch (InterruptedException ignore) {}
+            }
+            throw e;
+        }
+        return new NatsConnectionGroup(shards, routing);
+    }
+
+    @Override
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public Connection getShard(int index) {
+        return shards.get(index);
+    }
+
+    @Override
+    public List<Connection> getShards() {
+        return shards;
+    }
+
+    @Override
+    public Routing getRouting() {
+        return routing;
+    }
+
+    private Connection first() {
+        return shards.get(0);
+    }
+
+    private Connection publishShard(String subject) {
+        if (shards.size() == 1) {
+            return first();
+        }
+        if (routing == Routing.SUBJECT_HASH && subject != null) {
+            return shards.get(Math.floorMod(subject.hashCode(), shards.size()));
+        }
+        return shards.get(Math.floorMod(publishCounter.getAndIncrement(), shards.size()));
+    }
+
+    private Connection subscribeShard() {
+        return shards.get(Math.floorMod(subscribeCounter.getAndIncrement(), shards.size()));
+    }
+
+    @Override
+    public void publish(String subject, byte[] body) {
+        publishShard(subject).publish(subject, body);
+    }
+
+    @Override
+    public void publish(String subject, String replyTo, byte[] body) {
+        publishShard(subject).publish(subject, replyTo, body);
+    }
+
+    @Override
+    public void publish(Message message) {
+        publishShard(message.getSubject()).publish(message);
+    }
+
+    @Override
+    public CompletableFuture<Message> request(String subject, byte[] body) {
+        return publishShard(subject).request(subject, body);
+    }
+
+    @Override
+    public CompletableFuture<Message> requestWithTimeout(String subject, byte[] body, Duration timeout) {
+        return publishShard(subject).requestWithTimeout(subject, body, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Message> request(Message message) {
+        return publishShard(message.getSubject()).request(message);
+    }
+
+    @Override
+    public CompletableFuture<Message> requestWithTimeout(Message message, Duration timeout) {
+        return publishShard(message.getSubject()).requestWithTimeout(message, timeout);
+    }
+
+    @Override
+    public List<CompletableFuture<Message>> requestMany(List<Message> messages) {
+        return requestMany(messages, null);
+    }
+
+    @Override
+    public List<CompletableFuture<Message>> requestMany(List<Message> messages, Duration timeout) {
+        // split the batch by shard, then put the futures back in the order of the messages
+        Map<Connection, List<Integer>> indexes = new LinkedHashMap<>();
+        for (int x = 0; x < messages.size(); x++) {
+            indexes.computeIfAbsent(publishShard(messages.get(x).getSubject()), k -> new ArrayList<>()).add(x);
+        }
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        for (Map.Entry<Connection, List<Integer>> entry : indexes.entrySet()) {
+            List<Message> batch = new ArrayList<>(entry.getValue().size());
+            for (int index : entry.getValue()) {
+                batch.add(messages.get(index));
+            }
+            List<CompletableFuture<Message>> shardFutures = entry.getKey().requestMany(batch, timeout);
+            for (int x = 0; x < shardFutures.size(); x++) {
+                futures.set(entry.getValue().get(x), shardFutures.get(x));
+            }
+        }
+        return futures;
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> requestMany(String subject, byte[] body, CollectOptions collectOptions) {
+        return publishShard(subject).requestMany(subject, body, collectOptions);
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> requestMany(Message message, CollectOptions collectOptions) {
+        return publishShard(message.getSubject()).requestMany(message, collectOptions);
+    }
+
+    @Override
+    public Message request(String subject, byte[] body, Duration timeout) throws InterruptedException {
+        return publishShard(subject).request(subject, body, timeout);
+    }
+
+    @Override
+    public Message request(Message message, Duration timeout) throws InterruptedException {
+        return publishShard(message.getSubject()).request(message, timeout);
+    }
+
+    @Override
+    public Subscription subscribe(String subject) {
+        return subscribeShard().subscribe(subject);
+    }
+
+    @Override
+    public Subscription subscribe(String subject, String queueName) {
+        return subscribeShard().subscribe(subject, queueName);
+    }
+
+    @Override
+    public Dispatcher createDispatcher(MessageHandler handler) {
+        return subscribeShard().createDispatcher(handler);
+    }
+
+    @Override
+    public Dispatcher createDispatcher() {
+        return subscribeShard().createDispatcher();
+    }
+
+    @Override
+    public void closeDispatcher(Dispatcher dispatcher) {
+        if (dispatcher instanceof NatsDispatcher) {
+            NatsConnection owner = ((NatsDispatcher) dispatcher).connection;
+            for (Connection shard : shards) {
+                if (shard == owner) {
+                    shard.closeDispatcher(dispatcher);
+                    return;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Connection can only manage its own dispatchers");
+    }
+
+    @Override
+    public void flush(Duration timeout) throws TimeoutException, InterruptedException {
+        // every shard shares the one timeout
+        boolean forever = timeout == null || timeout.isZero() || timeout.isNegative();
+        long end = forever ? 0 : System.nanoTime() + timeout.toNanos();
+        for (Connection shard : shards) {
+            if (forever) {
+                shard.flush(timeout);
+            }
+            else {
+                long remaining = end - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Timeout out waiting for flush");
+                }
+                shard.flush(Duration.ofNanos(remaining));
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Duration> flushAsync() {
+        // complete when every shard has flushed, with the slowest round trip
+        List<CompletableFuture<Duration>> futures = new ArrayList<>(shards.size());
+        for (Connection shard : shards) {
+            futures.add(shard.flushAsync());
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> {
+                Duration max = Duration.ZERO;
+                for (CompletableFuture<Duration> f : futures) {
+                    Duration d = f.join();
+                    if (d.compareTo(max) > 0) {
+                        max = d;
+                    }
+                }
+                return max;
+            });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> drain(Duration timeout) throws TimeoutException, InterruptedException {
+        // the shards drain at the same time, each with the full timeout
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(shards.size());
+        for (Connection shard : shards) {
+            futures.add(shard.drain(timeout));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> {
+                for (CompletableFuture<Boolean> f : futures) {
+                    if (!f.join()) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        InterruptedException interrupted = null;
+        for (Connection shard : shards) {
+            try {
+                shard.close();
+            }
+            catch (InterruptedException e) {
+                interrupted = e;
+            }
+        }
+        if (interrupted != null) {
+            throw interrupted;
+        }
+    }
+
+    @Override
+    public Status getStatus() {
+        Status status = first().getStatus();
+        for (int x = 1; x < shards.size(); x++) {
+            Status s = shards.get(x).getStatus();
+            if (s != status) {
+                status = worse(status, s);
+            }
+        }
+        return status;
+    }
+
+    // statuses that differ are combined into the one that says the most about the group not being usable
+    private static Status worse(Status a, Status b) {
+        if (a == Status.RECONNECTING || b == Status.RECONNECTING) {
+            return Status.RECONNECTING;
+        }
+        if (a == Status.CONNECTING || b == Status.CONNECTING) {
+            return Status.CONNECTING;
+        }
+        return Status.DISCONNECTED;
+    }
+
+    @Override
+    public long getMaxPayload() {
+        long max = Long.MAX_VALUE;
+        for (Connection shard : shards) {
+            long mp = shard.getMaxPayload();
+            if (mp > -1) {
+                max = Math.min(max, mp);
+            }
+        }
+        return max == Long.MAX_VALUE ? -1 : max;
+    }
+
+    @Override
+    public Collection<String> getServers() {
+        return first().getServers();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public Options getOptions() {
+        return first().getOptions();
+    }
+
+    @Override
+    public ServerInfo getServerInfo() {
+        return first().getServerInfo();
+    }
+
+    @Override
+    public String getConnectedUrl() {
+        return first().getConnectedUrl();
+    }
+
+    @Override
+    public InetAddress getClientInetAddress() {
+        return first().getClientInetAddress();
+    }
+
+    @Override
+    public String getLastError() {
+        for (Connection shard : shards) {
+            String err = shard.getLastError();
+            if (err != null) {
+                return err;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clearLastError() {
+        for (Connection shard : shards) {
+            shard.clearLastError();
+        }
+    }
+
+    @Override
+    public String createInbox() {
+        return first().createInbox();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        for (Connection shard : shards) {
+            shard.flushBuffer();
+        }
+    }
+
+    @Override
+    public Duration RTT() throws IOException {
+        return first().RTT();
+    }
+
+    @Override
+    public JetStream jetStream() throws IOException {
+        return first().jetStream();
+    }
+
+    @Override
+    public JetStream jetStream(JetStreamOptions options) throws IOException {
+        return first().jetStream(options);
+    }
+
+    @Override
+    public JetStreamManagement jetStreamManagement() throws IOException {
+        return first().jetStreamManagement();
+    }
+
+    @Override
+    public JetStreamManagement jetStreamManagement(JetStreamOptions options) throws IOException {
+        return first().jetStreamManagement(options);
+    }
+
+    @Override
+    public KeyValue keyValue(String bucketName) throws IOException {
+        return first().keyValue(bucketName);
+    }
+
+    @Override
+    public KeyValue keyValue(String bucketName, KeyValueOptions options) throws IOException {
+        return first().keyValue(bucketName, options);
+    }
+
+    @Override
+    public KeyValueManagement keyValueManagement() throws IOException {
+        return first().keyValueManagement();
+    }
+
+    @Override
+    public KeyValueManagement keyValueManagement(KeyValueOptions options) throws IOException {
+        return first().keyValueManagement(options);
+    }
+
+    @Override
+    public ObjectStore objectStore(String bucketName) throws IOException {
+        return first().objectStore(bucketName);
+    }
+
+    @Override
+    public ObjectStore objectStore(String bucketName, ObjectStoreOptions options) throws IOException {
+        return first().objectStore(bucketName, options);
+    }
+
+    @Override
+    public ObjectStoreManagement objectStoreManagement() throws IOException {
+        return first().objectStoreManagement();
+    }
+
+    @Override
+    public ObjectStoreManagement objectStoreManagement(ObjectStoreOptions options) throws IOException {
+        return first().objectStoreManagement(options);
+    }
+
+    /**
+     * The sum of the statistics of every shard, read at the time of the call.
+     */
+    class GroupStatistics implements Statistics {
+        @Override
+        public long getInMsgs() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getInMsgs();
+            }
+            return total;
+        }
+
+        @Override
+        public long getOutMsgs() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getOutMsgs();
+            }
+            return total;
+        }
+
+        @Override
+        public long getInBytes() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getInBytes();
+            }
+            return total;
+        }
+
+        @Override
+        public long getOutBytes() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getOutBytes();
+            }
+            return total;
+        }
+
+        @Override
+        public long getReconnects() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getReconnects();
+            }
+            return total;
+        }
+
+        @Override
+        public long getDroppedCount() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getDroppedCount();
+            }
+            return total;
+        }
+
+        @Override
+        public long getPendingWatermarkCount() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getPendingWatermarkCount();
+            }
+            return total;
+        }
+
+        @Override
+        public Distribution getBytesPerRead() {
+            return merge(Statistics::getBytesPerRead);
+        }
+
+        @Override
+        public Distribution getBytesPerWrite() {
+            return merge(Statistics::getBytesPerWrite);
+        }
+
+        @Override
+        public Distribution getWriteBlockedNanos() {
+            return merge(Statistics::getWriteBlockedNanos);
+        }
+
+        @Override
+        public Distribution getMessagesPerBatch() {
+            return merge(Statistics::getMessagesPerBatch);
+        }
+
+        @Override
+        public Distribution getOutgoingQueueDepth() {
+            return merge(Statistics::getOutgoingQueueDepth);
+        }
+
+        @Override
+        public Distribution getOutgoingQueueBytes() {
+            return merge(Statistics::getOutgoingQueueBytes);
+        }
+
+        @Override
+        public long getSendBufferResizes() {
+            long total = 0;
+            for (Connection shard : shards) {
+                total += shard.getStatistics().getSendBufferResizes();
+            }
+            return total;
+        }
+
+        private Distribution merge(Function<Statistics, Distribution> getter) {
+            NatsDistribution merged = new NatsDistribution();
+            for (Connection shard : shards) {
+                merged.add(getter.apply(shard.getStatistics()));
+            }
+            return merged;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("### Connection Group ###\n");
+            builder.append("Shards:                          ").append(shards.size()).append("\n");
+            builder.append("Messages in:                     ").append(getInMsgs()).append("\n");
+            builder.append("Bytes in:                        ").append(getInBytes()).append("\n");
+            builder.append("Messages out:                    ").append(getOutMsgs()).append("\n");
+            builder.append("Bytes out:                       ").append(getOutBytes()).append("\n");
+            builder.append("Reconnects:                      ").append(getReconnects()).append("\n");
+            builder.append("Dropped Messages:                ").append(getDroppedCount()).append("\n");
+            builder.append("Pending Watermarks Reached:      ").append(getPendingWatermarkCount()).append("\n");
+            return builder.toString();
+        }
+    }
+}
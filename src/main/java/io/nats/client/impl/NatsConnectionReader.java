@@ -124,32 +124,10 @@ class NatsConnectionReader implements Runnable {
 
                 if (bytesRead > 0) {
                     connection.getNatsStatistics().registerRead(bytesRead);
-
-                    while (this.bufferPosition < bytesRead) {
-                        if (this.mode == Mode.GATHER_OP) {
-                            this.gatherOp(bytesRead);
-                        }
-                        else if (this.mode == Mode.GATHER_MSG_HMSG_PROTO) {
-                            if (this.utf8Mode) {
-                                this.gatherProtocol(bytesRead);
-                            } else {
-                                this.gatherMessageProtocol(bytesRead);
-                            }
-                        }
-                        else if (this.mode == Mode.GATHER_PROTO) {
-                            this.gatherProtocol(bytesRead);
-                        }
-                        else if (this.mode == Mode.GATHER_HEADERS) {
-                            this.gatherHeaders(bytesRead);
-                        }
-                        else {  // Mode.GATHER_DATA
-                            this.gatherMessageData(bytesRead);
-                        }
-
-                        if (this.mode == Mode.PARSE_PROTO) { // Could be the end of the read
-                            this.parseProtocolMessage();
-                            this.protocolBuffer.clear();
-                        }
+                    Object jfrEvent = JfrEvents.READER_BUFFER.begin();
+                    this.processBuffer(bytesRead);
+                    if (jfrEvent != null) {
+                        JfrEvents.READER_BUFFER.commit(jfrEvent, bytesRead);
                     }
                 } else if (bytesRead < 0) {
                     throw new IOException("Read channel closed.");
@@ -169,6 +147,37 @@ class NatsConnectionReader implements Runnable {
         }
     }
 
+    // Parse the buffer up to bytesRead. A partial protocol line or message
+    // is kept in the current mode and finished by the next read.
+    void processBuffer(int bytesRead) throws IOException {
+        while (this.bufferPosition < bytesRead) {
+            if (this.mode == Mode.GATHER_OP) {
+                this.gatherOp(bytesRead);
+            }
+            else if (this.mode == Mode.GATHER_MSG_HMSG_PROTO) {
+                if (this.utf8Mode) {
+                    this.gatherProtocol(bytesRead);
+                } else {
+                    this.gatherMessageProtocol(bytesRead);
+                }
+            }
+            else if (this.mode == Mode.GATHER_PROTO) {
+                this.gatherProtocol(bytesRead);
+            }
+            else if (this.mode == Mode.GATHER_HEADERS) {
+                this.gatherHeaders(bytesRead);
+            }
+            else {  // Mode.GATHER_DATA
+                this.gatherMessageData(bytesRead);
+            }
+
+            if (this.mode == Mode.PARSE_PROTO) { // Could be the end of the read
+                this.parseProtocolMessage();
+                this.protocolBuffer.clear();
+            }
+        }
+    }
+
     // Gather the op, either up to the first space or the first carriage return.
     void gatherOp(int maxPos) throws IOException {
         try {
@@ -13,11 +13,14 @@
 
 package io.nats.client.impl;
 
+import io.nats.client.MessageTracer;
 import io.nats.client.Options;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -48,6 +51,10 @@ class NatsConnectionWriter implements Runnable {
     private final MessageQueue reconnectOutgoing;
     private final long reconnectBufferSize;
 
+    private final OffHeapReconnectBuffer offHeapBuffer; // null unless the option is set
+    private final ReentrantLock offHeapLock;
+    private volatile boolean offHeapBuffering;
+
     NatsConnectionWriter(NatsConnection connection) {
         this.connection = connection;
 
@@ -69,6 +76,16 @@ class NatsConnectionWriter implements Runnable {
         // The "reconnect" buffer contains internal messages, and we will keep it unlimited in size
         reconnectOutgoing = new MessageQueue(true, 0);
         reconnectBufferSize = options.getReconnectBufferSize();
+
+        if (options.isReconnectBufferOffHeap()) {
+            ReconnectSpillLog spill = options.getReconnectBufferSpillDirectory() == null ? null
+                : new ReconnectSpillLog(options.getReconnectBufferSpillDirectory(), options.getReconnectBufferSpillMaxBytes());
+            offHeapBuffer = new OffHeapReconnectBuffer(reconnectBufferSize, spill);
+        }
+        else {
+            offHeapBuffer = null;
+        }
+        offHeapLock = new ReentrantLock();
     }
 
     // Should only be called if the current thread has exited.
@@ -111,6 +128,11 @@ class NatsConnectionWriter implements Runnable {
     synchronized void sendMessageBatch(NatsMessage msg, DataPort dataPort, NatsStatistics stats)
         throws IOException {
 
+        Object jfrEvent = JfrEvents.WRITER_BATCH.begin();
+        NatsMessage first = msg;
+        boolean traced = false;
+        int messages = 0;
+        long bytes = 0;
         int sendPosition = 0;
         int sbl = sendBufferLength.get();
 
@@ -119,45 +141,54 @@ class NatsConnectionWriter implements Runnable {
 
             if (sendPosition + size > sbl) {
                 if (sendPosition > 0) {
-                    dataPort.write(sendBuffer, sendPosition);
-                    connection.getNatsStatistics().registerWrite(sendPosition);
+                    writeSendBuffer(dataPort, sendPosition, stats);
                     sendPosition = 0;
                 }
                 if (size > sbl) { // have to resize b/c can't fit 1 message
                     sbl = bufferAllocSize((int)size, BUFFER_BLOCK_SIZE);
                     sendBufferLength.set(sbl);
                     sendBuffer = new byte[sbl];
+                    stats.incrementSendBufferResizes();
                 }
             }
 
-            int blen = msg.protocolBab.length();
-            System.arraycopy(msg.protocolBab.internalArray(), 0, sendBuffer, sendPosition, blen);
-            sendPosition += blen;
+            sendPosition = msg.copyTo(sendPosition, sendBuffer);
+
+            stats.incrementOutMsgs();
+            stats.incrementOutBytes(size);
+            messages++;
+            bytes += size;
+            traced |= msg.traced;
 
-            sendBuffer[sendPosition++] = CR;
-            sendBuffer[sendPosition++] = LF;
+            msg = msg.next;
+        }
 
-            if (!msg.isProtocol()) {
-                sendPosition += msg.copyNotEmptyHeaders(sendPosition, sendBuffer);
+        writeSendBuffer(dataPort, sendPosition, stats);
+        stats.registerBatch(messages);
 
-                byte[] bytes = msg.getData(); // guaranteed to not be null
-                if (bytes.length > 0) {
-                    System.arraycopy(bytes, 0, sendBuffer, sendPosition, bytes.length);
-                    sendPosition += bytes.length;
+        if (traced) {
+            for (NatsMessage m = first; m != null; m = m.next) {
+                if (m.traced) {
+                    connection.trace(MessageTracer.Point.WRITE, m);
                 }
-
-                sendBuffer[sendPosition++] = CR;
-                sendBuffer[sendPosition++] = LF;
             }
+        }
 
-            stats.incrementOutMsgs();
-            stats.incrementOutBytes(size);
-
-            msg = msg.next;
+        if (jfrEvent != null) {
+            JfrEvents.WRITER_BATCH.commit(jfrEvent, messages, bytes);
         }
+    }
 
-        dataPort.write(sendBuffer, sendPosition);
-        connection.getNatsStatistics().registerWrite(sendPosition);
+    private void writeSendBuffer(DataPort dataPort, int length, NatsStatistics stats) throws IOException {
+        if (stats.isTrackAdvanced()) {
+            long start = System.nanoTime();
+            dataPort.write(sendBuffer, length);
+            stats.registerWriteBlocked(System.nanoTime() - start);
+        }
+        else {
+            dataPort.write(sendBuffer, length);
+        }
+        stats.registerWrite(length);
     }
 
     @Override
@@ -171,12 +202,20 @@ class NatsConnectionWriter implements Runnable {
             int maxAccumulate = Options.MAX_MESSAGES_IN_NETWORK_BUFFER;
 
             while (this.running.get()) {
-                NatsMessage msg = null;
+                MessageQueue queue;
+                NatsMessage msg;
+
+                if (this.offHeapBuffering && !this.reconnectMode.get()) {
+                    replayOffHeapBuffer(stats, maxAccumulate);
+                }
 
                 if (this.reconnectMode.get()) {
-                    msg = this.reconnectOutgoing.accumulate(sendBufferLength.get(), maxAccumulate, reconnectWait);
+                    queue = this.reconnectOutgoing;
+                    msg = queue.accumulate(sendBufferLength.get(), maxAccumulate, reconnectWait);
                 } else {
-                    msg = this.outgoing.accumulate(sendBufferLength.get(), maxAccumulate, waitForMessage);
+                    queue = this.outgoing;
+                    stats.registerOutgoingQueue(queue.length(), queue.sizeInBytes());
+                    msg = queue.accumulate(sendBufferLength.get(), maxAccumulate, waitForMessage);
                 }
 
                 if (msg == null) { // Make sure we are still running
@@ -184,6 +223,15 @@ class NatsConnectionWriter implements Runnable {
                 }
 
                 sendMessageBatch(msg, dataPort, stats);
+
+                // Only flush once the queue goes idle, while there is more to send
+                // the next batch pushes this one out, so busy publishers and requesters
+                // don't pay for a flush per message.
+                if (queue.length() == 0) {
+                    synchronized (this) {
+                        dataPort.flush();
+                    }
+                }
             }
         } catch (IOException | BufferOverflowException io) {
             this.connection.handleCommunicationIssue(io);
@@ -194,19 +242,156 @@ class NatsConnectionWriter implements Runnable {
         }
     }
 
+    private void replayOffHeapBuffer(NatsStatistics stats, int maxAccumulate) throws IOException, InterruptedException {
+        // what was queued before the outage goes first, publishes keep going
+        // to the off-heap buffer until it has been replayed, so the order is kept
+        NatsMessage msg = this.outgoing.accumulate(sendBufferLength.get(), maxAccumulate, null);
+        while (msg != null) {
+            sendMessageBatch(msg, dataPort, stats);
+            msg = this.outgoing.accumulate(sendBufferLength.get(), maxAccumulate, null);
+        }
+
+        // The lock is only held to take a replay and to consume it once written, so publishers keep
+        // appending while the socket is written. Publishes go back to the outgoing queue once a replay
+        // would be empty, which is after everything buffered before them has gone out.
+        while (true) {
+            OffHeapReconnectBuffer.Replay replay;
+            offHeapLock.lock();
+            try {
+                if (offHeapBuffer.isEmpty()) {
+                    offHeapBuffering = false;
+                    return;
+                }
+                replay = offHeapBuffer.snapshot();
+            } finally {
+                offHeapLock.unlock();
+            }
+
+            synchronized (this) {
+                replay.write(dataPort, sendBuffer, stats);
+            }
+
+            offHeapLock.lock();
+            try {
+                offHeapBuffer.consume(replay);
+            } finally {
+                offHeapLock.unlock();
+            }
+        }
+    }
+
     void setReconnectMode(boolean tf) {
+        if (tf && offHeapBuffer != null) {
+            offHeapBuffering = true;
+        }
         reconnectMode.set(tf);
     }
 
     boolean canQueueDuringReconnect(NatsMessage msg) {
+        return canQueueDuringReconnect(msg.getSizeInBytes());
+    }
+
+    boolean canQueueDuringReconnect(long bytes) {
+        if (offHeapBuffering) {
+            return true; // the off-heap buffer checks its own capacity as the message is added
+        }
         // don't over fill the "send" buffer while waiting to reconnect
-        return (reconnectBufferSize < 0 || (outgoing.sizeInBytes() + msg.getSizeInBytes()) < reconnectBufferSize);
+        return (reconnectBufferSize < 0 || (outgoing.sizeInBytes() + bytes) < reconnectBufferSize);
     }
 
     boolean queue(NatsMessage msg) {
+        if (offHeapBuffering) {
+            offHeapLock.lock();
+            try {
+                if (offHeapBuffering) { // may have been replayed while waiting for the lock
+                    return bufferOffHeap(msg);
+                }
+            } finally {
+                offHeapLock.unlock();
+            }
+        }
         return this.outgoing.push(msg);
     }
 
+    List<NatsMessage> queue(List<NatsMessage> msgs) {
+        if (offHeapBuffering) {
+            offHeapLock.lock();
+            try {
+                if (offHeapBuffering) { // may have been replayed while waiting for the lock
+                    return bufferOffHeap(msgs);
+                }
+            } finally {
+                offHeapLock.unlock();
+            }
+        }
+        return this.outgoing.push(msgs);
+    }
+
+    // The batch is taken or refused whole, so when the overflow policy throws, none of it was queued
+    private List<NatsMessage> bufferOffHeap(List<NatsMessage> msgs) {
+        long bytes = 0;
+        for (NatsMessage msg : msgs) {
+            bytes += msg.getSizeInBytes();
+        }
+        if (!offHeapBuffer.fits(bytes)) {
+            for (int x = 0; x < msgs.size(); x++) {
+                connection.reconnectBufferFull();
+            }
+            return msgs;
+        }
+
+        List<NatsMessage> discarded = new ArrayList<>();
+        for (NatsMessage msg : msgs) {
+            try {
+                if (offHeapBuffer.append(msg)) {
+                    continue;
+                }
+            }
+            catch (IOException e) {
+                connection.processException(e);
+            }
+            // the batch fit, so this is a spill log failure or a message that only fit split across memory and disk
+            connection.getNatsStatistics().incrementDroppedCount();
+            discarded.add(msg);
+        }
+        return discarded;
+    }
+
+    private boolean bufferOffHeap(NatsMessage msg) {
+        try {
+            if (offHeapBuffer.append(msg)) {
+                return true;
+            }
+        }
+        catch (IOException e) {
+            // the spill log could not be written, the message is treated as not fitting
+            connection.processException(e);
+        }
+        connection.reconnectBufferFull();
+        return false;
+    }
+
+    void discardReconnectBuffer() {
+        if (offHeapBuffer != null) {
+            offHeapLock.lock();
+            try {
+                offHeapBuffer.release();
+                offHeapBuffering = false;
+            } finally {
+                offHeapLock.unlock();
+            }
+        }
+    }
+
+    long offHeapBufferSizeInBytes() {
+        offHeapLock.lock();
+        try {
+            return offHeapBuffer == null ? 0 : offHeapBuffer.sizeInBytes();
+        } finally {
+            offHeapLock.unlock();
+        }
+    }
+
     void queueInternalMessage(NatsMessage msg) {
         if (this.reconnectMode.get()) {
             this.reconnectOutgoing.push(msg);
@@ -215,6 +400,14 @@ class NatsConnectionWriter implements Runnable {
         }
     }
 
+    void queueInternalMessages(List<NatsMessage> msgs) {
+        if (this.reconnectMode.get()) {
+            this.reconnectOutgoing.push(msgs, true);
+        } else {
+            this.outgoing.push(msgs, true);
+        }
+    }
+
     synchronized void flushBuffer() {
         // Since there is no connection level locking, we rely on synchronization
         // of the APIs here.
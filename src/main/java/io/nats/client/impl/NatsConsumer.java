@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.nats.client.Consumer;
+import io.nats.client.support.Validator;
 
 abstract class NatsConsumer implements Consumer {
 
@@ -32,6 +33,9 @@ abstract class NatsConsumer implements Consumer {
     private AtomicLong messagesDelivered;
     private AtomicBoolean slow;
     private AtomicReference<CompletableFuture<Boolean>> drainingFuture;
+    private final Object watermarkLock;
+    private volatile int[] pendingWatermarks;
+    private volatile int pendingWatermark;
 
     NatsConsumer(NatsConnection conn) {
         this.connection = conn;
@@ -41,6 +45,8 @@ abstract class NatsConsumer implements Consumer {
         this.messagesDelivered = new AtomicLong(0);
         this.slow = new AtomicBoolean(false);
         this.drainingFuture = new AtomicReference<>();
+        this.watermarkLock = new Object();
+        this.pendingWatermarks = conn == null ? new int[0] : conn.getOptions().getPendingWatermarks();
     }
 
     /**
@@ -138,6 +144,94 @@ abstract class NatsConsumer implements Consumer {
         return this.slow.get();
     }
 
+    public void setPendingWatermarks(int... percents) {
+        int[] validated = Validator.validatePendingWatermarks(percents);
+        synchronized (watermarkLock) {
+            this.pendingWatermarks = validated;
+            this.pendingWatermark = 0;
+        }
+    }
+
+    public int[] getPendingWatermarks() {
+        return this.pendingWatermarks.clone();
+    }
+
+    public int getPendingWatermark() {
+        return this.pendingWatermark;
+    }
+
+    /**
+     * Compare the pending messages and bytes to the watermarks, and report the watermarks
+     * reached or cleared since the last check. Called as messages are queued, it is a read
+     * of the watermarks when there are none.
+     */
+    void checkPendingWatermarks() {
+        int[] marks = this.pendingWatermarks;
+        if (marks.length == 0 || connection == null || watermarkFor(marks, pendingWatermark) == pendingWatermark) {
+            return;
+        }
+
+        // the queueing and the consuming threads can both get here, the lock keeps the reports in order
+        synchronized (watermarkLock) {
+            marks = this.pendingWatermarks;
+            int from = this.pendingWatermark;
+            int to = watermarkFor(marks, from);
+            if (to == from) {
+                return;
+            }
+            this.pendingWatermark = to;
+            if (to > from) {
+                for (int mark : marks) {
+                    if (mark > from && mark <= to) {
+                        connection.processPendingWatermark(this, mark, true);
+                    }
+                }
+            }
+            else {
+                for (int i = marks.length - 1; i >= 0; i--) {
+                    if (marks[i] > to && marks[i] <= from) {
+                        connection.processPendingWatermark(this, marks[i], false);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the watermarks after messages are taken off the queue, only needed if one was reached.
+     */
+    void releasePendingWatermarks() {
+        if (this.pendingWatermark > 0) {
+            checkPendingWatermarks();
+        }
+    }
+
+    // The highest watermark the pending percent is at, or is still holding because it has not dropped under 90% of it.
+    private int watermarkFor(int[] marks, int current) {
+        double percent = pendingPercent();
+        int level = 0;
+        for (int mark : marks) {
+            if (percent >= mark || (mark <= current && percent >= mark * 0.9)) {
+                level = mark;
+            }
+        }
+        return level;
+    }
+
+    // how full the fuller of the two pending limits is, limits that are off are not counted
+    private double pendingPercent() {
+        double percent = 0;
+        long maxMsgs = this.maxMessages.get();
+        if (maxMsgs > 0) {
+            percent = this.getPendingMessageCount() * 100.0 / maxMsgs;
+        }
+        long maxBytes = this.maxBytes.get();
+        if (maxBytes > 0) {
+            percent = Math.max(percent, this.getPendingByteCount() * 100.0 / maxBytes);
+        }
+        return percent;
+    }
+
     boolean hasReachedPendingLimits() {
         return ((this.getPendingByteCount() >= this.getPendingByteLimit() && this.getPendingByteLimit() > 0)
                 || (this.getPendingMessageCount() >= this.getPendingMessageLimit()
@@ -15,9 +15,11 @@ package io.nats.client.impl;
 
 import io.nats.client.Dispatcher;
 import io.nats.client.MessageHandler;
+import io.nats.client.MessageTracer;
 import io.nats.client.Subscription;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
@@ -81,6 +83,8 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
                     }
                 }
 
+                this.releasePendingWatermarks();
+
                 NatsSubscription sub = msg.getNatsSubscription();
 
                 if (sub != null && sub.isActive()) {
@@ -93,12 +97,21 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
                         handler = defaultHandler;
                     }
 
+                    boolean traced = msg.traced;
+                    if (traced) {
+                        this.connection.trace(MessageTracer.Point.DISPATCH_START, msg);
+                    }
+
                     try {
                         handler.onMessage(msg);
                     } catch (Exception exp) {
                         this.connection.processException(exp);
                     }
 
+                    if (traced) {
+                        this.connection.trace(MessageTracer.Point.DISPATCH_END, msg);
+                    }
+
                     if (sub.reachedUnsubLimit()) {
                         this.connection.invalidate(sub);
                     }
@@ -163,13 +176,10 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
         return subscriptionHandlers;
     }
 
-    void resendSubscriptions() {
-        this.subscriptionsUsingDefaultHandler.forEach((id, sub)->{
-            this.connection.sendSubscriptionMessage(sub.getSID(), sub.getSubject(), sub.getQueueName(), true);
-        });
-        this.subscriptionsWithHandlers.forEach((sid, sub)->{
-            this.connection.sendSubscriptionMessage(sub.getSID(), sub.getSubject(), sub.getQueueName(), true);
-        });
+    // Called by the connection on reconnect, which sends the subscriptions in one batch
+    void collectSubscriptions(List<NatsSubscription> subs) {
+        subs.addAll(this.subscriptionsUsingDefaultHandler.values());
+        subs.addAll(this.subscriptionsWithHandlers.values());
     }
 
     // Called by the connection when a subscription is removed.
@@ -0,0 +1,153 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import io.nats.client.Distribution;
+
+import java.util.Arrays;
+
+/**
+ * Counts values in power of two buckets. Not thread safe, {@link NatsStatistics} guards it
+ * and hands out copies.
+ */
+class NatsDistribution implements Distribution {
+    static final int BUCKETS = 65;
+
+    private final long[] buckets;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    NatsDistribution() {
+        buckets = new long[BUCKETS];
+    }
+
+    private NatsDistribution(NatsDistribution from) {
+        buckets = from.buckets.clone();
+        count = from.count;
+        sum = from.sum;
+        min = from.min;
+        max = from.max;
+    }
+
+    static int bucketOf(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Record a value, negative values are recorded as 0.
+     * @param value the value
+     */
+    void accept(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets[bucketOf(value)]++;
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        count++;
+        sum += value;
+    }
+
+    /**
+     * Add everything in another distribution to this one.
+     * @param other the other distribution
+     */
+    void add(Distribution other) {
+        if (other.getCount() == 0) {
+            return;
+        }
+        long[] otherBuckets = other.getBucketCounts();
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] += otherBuckets[i];
+        }
+        if (count == 0 || other.getMin() < min) {
+            min = other.getMin();
+        }
+        if (other.getMax() > max) {
+            max = other.getMax();
+        }
+        count += other.getCount();
+        sum += other.getSum();
+    }
+
+    NatsDistribution copy() {
+        return new NatsDistribution(this);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public long getSum() {
+        return sum;
+    }
+
+    @Override
+    public long getMin() {
+        return min;
+    }
+
+    @Override
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += buckets[i];
+            if (cumulative >= target) {
+                long top = i == 0 ? 0 : i == 64 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(top, max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public long[] getBucketCounts() {
+        return Arrays.copyOf(buckets, BUCKETS);
+    }
+
+    @Override
+    public String toString() {
+        return "Distribution{" +
+            "count=" + count +
+            ", min=" + min +
+            ", avg=" + String.format("%.1f", getAverage()) +
+            ", p50=" + getValueAtPercentile(50) +
+            ", p99=" + getValueAtPercentile(99) +
+            ", max=" + max +
+            '}';
+    }
+}
@@ -15,6 +15,7 @@ package io.nats.client.impl;
 
 import io.nats.client.AuthHandler;
 import io.nats.client.Connection;
+import io.nats.client.ConnectionGroup;
 import io.nats.client.Options;
 import io.nats.client.Statistics;
 
@@ -30,6 +31,10 @@ public class NatsImpl {
         return conn;
     }
 
+    public static ConnectionGroup createConnectionGroup(Options options, int shardCount, ConnectionGroup.Routing routing, boolean reconnectOnConnect) throws IOException, InterruptedException {
+        return NatsConnectionGroup.connect(options, shardCount, routing, reconnectOnConnect);
+    }
+
     public static Statistics createEmptyStats() {
         return new NatsStatistics(false);
     }
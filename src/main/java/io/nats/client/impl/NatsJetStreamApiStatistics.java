@@ -0,0 +1,171 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import io.nats.client.Distribution;
+import io.nats.client.JetStreamApiStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static io.nats.client.support.NatsJetStreamConstants.*;
+
+/**
+ * The JetStream API statistics for a connection, updated by every context made from it.
+ */
+class NatsJetStreamApiStatistics implements JetStreamApiStatistics {
+
+    // the fixed part of the API subjects, where one starts with another the longer is first
+    private static final String[] ENDPOINTS = {
+        endpoint(JSAPI_DURABLE_CREATE),
+        endpoint(JSAPI_CONSUMER_CREATE),
+        endpoint(JSAPI_CONSUMER_INFO),
+        endpoint(JSAPI_CONSUMER_DELETE),
+        endpoint(JSAPI_CONSUMER_NAMES),
+        endpoint(JSAPI_CONSUMER_LIST),
+        endpoint(JSAPI_STREAM_CREATE),
+        endpoint(JSAPI_STREAM_INFO),
+        endpoint(JSAPI_STREAM_UPDATE),
+        endpoint(JSAPI_STREAM_DELETE),
+        endpoint(JSAPI_STREAM_PURGE),
+        endpoint(JSAPI_STREAM_NAMES),
+        endpoint(JSAPI_STREAM_LIST),
+        endpoint(JSAPI_MSG_GET),
+        endpoint(JSAPI_MSG_DELETE),
+        endpoint(JSAPI_DIRECT_GET),
+        endpoint(JSAPI_ACCOUNT_INFO),
+    };
+
+    private static String endpoint(String apiFormat) {
+        int at = apiFormat.indexOf(".%s");
+        return at == -1 ? apiFormat : apiFormat.substring(0, at);
+    }
+
+    /**
+     * The endpoint for an API subject, without the prefix.
+     * A subject that isn't a known endpoint is grouped by its first two tokens.
+     */
+    static String endpointOf(String subject) {
+        for (String endpoint : ENDPOINTS) {
+            if (subject.startsWith(endpoint)
+                && (subject.length() == endpoint.length() || subject.charAt(endpoint.length()) == '.')) {
+                return endpoint;
+            }
+        }
+        int dot = subject.indexOf('.');
+        if (dot != -1) {
+            dot = subject.indexOf('.', dot + 1);
+        }
+        return dot == -1 ? subject : subject.substring(0, dot);
+    }
+
+    private static class Counts {
+        long requests;
+        long timeouts;
+        final NatsDistribution latency = new NatsDistribution();
+    }
+
+    private final Map<String, Counts> endpoints = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param subject the API subject, without the prefix
+     * @param nanos the time from request to response or timeout
+     * @param responded false if the request timed out
+     */
+    void record(String subject, long nanos, boolean responded) {
+        Counts counts = endpoints.computeIfAbsent(endpointOf(subject), e -> new Counts());
+        synchronized (counts) {
+            counts.requests++;
+            if (!responded) {
+                counts.timeouts++;
+            }
+            counts.latency.accept(nanos);
+        }
+    }
+
+    @Override
+    public List<Endpoint> getEndpoints() {
+        List<Endpoint> list = new ArrayList<>();
+        for (Map.Entry<String, Counts> entry : endpoints.entrySet()) {
+            list.add(snapshot(entry.getKey(), entry.getValue()));
+        }
+        return list;
+    }
+
+    @Override
+    public Endpoint getEndpoint(String name) {
+        Counts counts = endpoints.get(name);
+        return counts == null ? null : snapshot(name, counts);
+    }
+
+    @Override
+    public long getTotalRequests() {
+        long total = 0;
+        for (Counts counts : endpoints.values()) {
+            synchronized (counts) {
+                total += counts.requests;
+            }
+        }
+        return total;
+    }
+
+    private static Endpoint snapshot(String name, Counts counts) {
+        long requests;
+        long timeouts;
+        Distribution latency;
+        synchronized (counts) {
+            requests = counts.requests;
+            timeouts = counts.timeouts;
+            latency = counts.latency.copy();
+        }
+        return new Endpoint() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long getRequests() {
+                return requests;
+            }
+
+            @Override
+            public long getTimeouts() {
+                return timeouts;
+            }
+
+            @Override
+            public Distribution getLatencyNanos() {
+                return latency;
+            }
+
+            @Override
+            public String toString() {
+                return name + "{requests=" + requests + ", timeouts=" + timeouts + ", latencyNanos=" + latency + '}';
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("### JetStream API ###\n");
+        for (Endpoint endpoint : getEndpoints()) {
+            builder.append(endpoint).append("\n");
+        }
+        return builder.toString();
+    }
+}
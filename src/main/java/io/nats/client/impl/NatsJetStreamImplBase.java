@@ -14,6 +14,7 @@
 package io.nats.client.impl;
 
 import io.nats.client.JetStreamApiException;
+import io.nats.client.JetStreamApiStatistics;
 import io.nats.client.JetStreamOptions;
 import io.nats.client.Message;
 import io.nats.client.api.*;
@@ -147,19 +148,36 @@ class NatsJetStreamImplBase implements NatsJetStreamConstants {
     // Request Utils
     // ----------------------------------------------------------------------------------------------------
     Message makeRequestResponseRequired(String subject, byte[] bytes, Duration timeout) throws IOException {
+        String prefixed = prependPrefix(subject);
+        Object jfrEvent = JfrEvents.JETSTREAM_API_REQUEST.begin();
+        long start = System.nanoTime();
+        Message resp = null;
         try {
-            return responseRequired(conn.request(prependPrefix(subject), bytes, timeout));
+            resp = conn.request(prefixed, bytes, timeout);
         } catch (InterruptedException e) {
             throw new IOException(e);
+        } finally {
+            conn.getJetStreamApiStatistics().record(subject, System.nanoTime() - start, resp != null);
+            if (jfrEvent != null) {
+                JfrEvents.JETSTREAM_API_REQUEST.commit(jfrEvent, prefixed, resp != null);
+            }
         }
+        return responseRequired(resp);
     }
 
     Message makeInternalRequestResponseRequired(String subject, Headers headers, byte[] data, boolean utf8mode, Duration timeout, boolean cancelOn503) throws IOException {
+        Object jfrEvent = JfrEvents.JETSTREAM_API_REQUEST.begin();
+        Message resp = null;
         try {
-            return responseRequired(conn.requestInternal(subject, headers, data, utf8mode, timeout, cancelOn503));
+            resp = conn.requestInternal(subject, headers, data, utf8mode, timeout, cancelOn503);
         } catch (InterruptedException e) {
             throw new IOException(e);
+        } finally {
+            if (jfrEvent != null) {
+                JfrEvents.JETSTREAM_API_REQUEST.commit(jfrEvent, subject, resp != null);
+            }
         }
+        return responseRequired(resp);
     }
 
     Message responseRequired(Message respMessage) throws IOException {
@@ -169,6 +187,14 @@ class NatsJetStreamImplBase implements NatsJetStreamConstants {
         return respMessage;
     }
 
+    /**
+     * The API statistics of the connection, shared by every context made from it.
+     * @return the statistics
+     */
+    public JetStreamApiStatistics getApiStatistics() {
+        return conn.getJetStreamApiStatistics();
+    }
+
     String prependPrefix(String subject) {
         return jso.getPrefix() + subject;
     }
@@ -51,6 +51,10 @@ public class NatsJetStreamPullSubscription extends NatsJetStreamSubscription {
     @Override
     public void pull(PullRequestOptions pullRequestOptions) {
         String publishSubject = js.prependPrefix(String.format(JSAPI_CONSUMER_MSG_NEXT, stream, consumerName));
+        Object jfrEvent = JfrEvents.PULL_REQUEST.begin();
+        if (jfrEvent != null) {
+            manager.startPull(jfrEvent, publishSubject, pullRequestOptions);
+        }
         connection.publish(publishSubject, getSubject(), pullRequestOptions.serialize());
         connection.lenientFlushBuffer();
     }
@@ -61,6 +61,8 @@ public class NatsMessage implements Message {
 
     NatsMessage next; // for linked list
 
+    boolean traced; // sampled for the connection's MessageTracer
+
     protected AckType lastAck;
 
     // ----------------------------------------------------------------------------------------------------
@@ -263,6 +265,36 @@ public class NatsMessage implements Message {
         return 0;
     }
 
+    /**
+     * Copy the message as it goes on the wire, protocol line, headers and data, to the destination.
+     * The caller must have made sure there is room for {@link #getSizeInBytes()} bytes.
+     * @param destPosition the position index in destination byte array to start
+     * @param dest the byte array to write to
+     * @return the position after the message
+     */
+    int copyTo(int destPosition, byte[] dest) {
+        int blen = protocolBab.length();
+        System.arraycopy(protocolBab.internalArray(), 0, dest, destPosition, blen);
+        destPosition += blen;
+
+        dest[destPosition++] = CR;
+        dest[destPosition++] = LF;
+
+        if (!isProtocol()) {
+            destPosition += copyNotEmptyHeaders(destPosition, dest);
+
+            byte[] bytes = getData(); // guaranteed to not be null
+            if (bytes.length > 0) {
+                System.arraycopy(bytes, 0, dest, destPosition, bytes.length);
+                destPosition += bytes.length;
+            }
+
+            dest[destPosition++] = CR;
+            dest[destPosition++] = LF;
+        }
+        return destPosition;
+    }
+
     /**
      * {@inheritDoc}
      */
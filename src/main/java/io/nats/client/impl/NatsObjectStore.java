@@ -20,15 +20,21 @@ import io.nats.client.support.Digester;
 import io.nats.client.support.Validator;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static io.nats.client.support.NatsJetStreamClientError.*;
 import static io.nats.client.support.NatsObjectStoreUtil.*;
+import static java.nio.file.StandardOpenOption.*;
 
 public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
 
@@ -36,26 +42,37 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
     private final String bucketName;
     private final String rawChunkPrefix;
     private final String pubSubChunkPrefix;
+    private final String rawDigestChunkPrefix;
+    private final String pubSubDigestChunkPrefix;
     private final String rawMetaPrefix;
     private final String pubSubMetaPrefix;
+    private final int chunkPrefetch;
+    private final boolean chunkDeduplication;
+    private ExecutorService prefetchExecutor;
 
     NatsObjectStore(NatsConnection connection, String bucketName, ObjectStoreOptions oso) throws IOException {
         super(connection, oso);
         this.oso = oso;
+        chunkPrefetch = oso == null ? ObjectStoreOptions.DEFAULT_CHUNK_PREFETCH : oso.getChunkPrefetch();
+        chunkDeduplication = oso != null && oso.isChunkDeduplication();
         this.bucketName = Validator.validateBucketName(bucketName, true);
         streamName = toStreamName(bucketName);
         rawChunkPrefix = toChunkPrefix(bucketName);
+        rawDigestChunkPrefix = toDigestChunkPrefix(bucketName);
         rawMetaPrefix = toMetaPrefix(bucketName);
         if (oso == null) {
             pubSubChunkPrefix = rawChunkPrefix;
+            pubSubDigestChunkPrefix = rawDigestChunkPrefix;
             pubSubMetaPrefix = rawMetaPrefix;
         }
         else if (oso.getJetStreamOptions().isDefaultPrefix()) {
             pubSubChunkPrefix = rawChunkPrefix;
+            pubSubDigestChunkPrefix = rawDigestChunkPrefix;
             pubSubMetaPrefix = rawMetaPrefix;
         }
         else {
             pubSubChunkPrefix = oso.getJetStreamOptions().getPrefix() + rawChunkPrefix;
+            pubSubDigestChunkPrefix = oso.getJetStreamOptions().getPrefix() + rawDigestChunkPrefix;
             pubSubMetaPrefix = oso.getJetStreamOptions().getPrefix() + rawMetaPrefix;
         }
     }
@@ -68,6 +85,14 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
         return pubSubChunkPrefix + nuid;
     }
 
+    String rawDigestChunkSubject(String digest) {
+        return rawDigestChunkPrefix + digest;
+    }
+
+    String pubSubDigestChunkSubject(String digest) {
+        return pubSubDigestChunkPrefix + digest;
+    }
+
     String rawMetaSubject(String name) {
         return rawMetaPrefix + encodeForSubject(name);
     }
@@ -103,19 +128,123 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
      */
     @Override
     public ObjectInfo put(ObjectMeta meta, InputStream inputStream) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        validatePut(meta, inputStream);
+        return _put(meta, inputStream, NUID.nextGlobal(), 0, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo put(ObjectMeta meta, InputStream inputStream, ObjectPutCheckpointHandler checkpointHandler) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        validatePut(meta, inputStream);
+        Validator.validateNotNull(checkpointHandler, "Checkpoint Handler");
+        return _put(meta, inputStream, NUID.nextGlobal(), 0, null, checkpointHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo resume(ObjectPutCheckpoint checkpoint, InputStream inputStream, ObjectPutCheckpointHandler checkpointHandler) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        Validator.validateNotNull(checkpoint, "Checkpoint");
+        validatePut(checkpoint.getObjectMeta(), inputStream);
+        Validator.validateNotNull(checkpointHandler, "Checkpoint Handler");
+        if (!bucketName.equals(checkpoint.getBucket())) {
+            throw OsPutCheckpointMismatch.instance();
+        }
+        if (checkpoint.isDeduplicated() != chunkDeduplication) {
+            throw OsPutCheckpointDeduplicationMismatch.instance();
+        }
+
+        // With deduplication, chunks already stored are skipped anyway, so just put again,
+        // after removing any part of the manifest published by the failed attempt.
+        // Otherwise, the server is the source of truth for what was stored. It can be one chunk
+        // ahead of the checkpoint if the last ack was lost or the checkpoint was not saved.
+        long stored = 0;
+        if (chunkDeduplication) {
+            jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(checkpoint.getNuid())));
+        }
+        else {
+            stored = countChunks(checkpoint.getNuid());
+            if (stored != checkpoint.getChunks() && stored != checkpoint.getChunks() + 1) {
+                throw OsPutCheckpointMismatch.instance();
+            }
+        }
+        return _put(checkpoint.getObjectMeta(), inputStream, checkpoint.getNuid(), stored, checkpoint, checkpointHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void abort(ObjectPutCheckpoint checkpoint) throws IOException, JetStreamApiException {
+        Validator.validateNotNull(checkpoint, "Checkpoint");
+        if (!bucketName.equals(checkpoint.getBucket())) {
+            throw OsPutCheckpointMismatch.instance();
+        }
+        // deduplicated chunks may be shared, so they are left for compact
+        jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(checkpoint.getNuid())));
+    }
+
+    private void validatePut(ObjectMeta meta, InputStream inputStream) {
         Validator.validateNotNull(meta, "ObjectMeta");
         Validator.validateNotNull(meta.getObjectName(), "ObjectMeta name");
         Validator.validateNotNull(inputStream, "InputStream");
         if (meta.getObjectMetaOptions().getLink() != null) {
             throw OsLinkNotAllowOnPut.instance();
         }
+    }
+
+    /**
+     * Get the digests of the deduplicated chunks stored in the bucket, with a single filtered stream info
+     */
+    private Set<String> storedDigests() throws IOException, JetStreamApiException {
+        Set<String> digests = new HashSet<>();
+        StreamInfo si = jsm.getStreamInfo(streamName, StreamInfoOptions.filterSubjects(rawDigestChunkSubject("*")));
+        for (Subject s : si.getStreamState().getSubjects()) {
+            digests.add(s.getName().substring(rawDigestChunkPrefix.length()));
+        }
+        return digests;
+    }
 
-        String nuid = NUID.nextGlobal();
+    private long countChunks(String nuid) throws IOException, JetStreamApiException {
+        String subject = rawChunkSubject(nuid);
+        StreamInfo si = jsm.getStreamInfo(streamName, StreamInfoOptions.filterSubjects(subject));
+        for (Subject s : si.getStreamState().getSubjects()) {
+            if (s.getName().equals(subject)) {
+                return s.getCount();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Publish the chunks and then the meta of an object.
+     * @param meta the object meta
+     * @param inputStream the input, always read from the beginning
+     * @param nuid the nuid for the chunk subject
+     * @param storedChunks the number of chunks already on the server when resuming. They are
+     *                     read and digested from the input, but not published again.
+     * @param checkpoint the checkpoint being resumed from, or null. The input must have
+     *                   the same size as the checkpoint when it gets to the checkpoint's chunk.
+     * @param checkpointHandler when not null, the put is resumable, the handler is given a checkpoint
+     *                          after each acknowledged chunk and chunks are not purged on failure
+     * When chunk deduplication is on, each chunk is published under its own digest instead of the nuid,
+     * only if that digest was not already stored when the put started, and the digests are then published
+     * under the nuid as the manifest. Chunks may be shared, so only the manifest of a replaced object or a
+     * failed put is purged, the chunks are left for {@link #compact(Duration) compact}.
+     */
+    private ObjectInfo _put(ObjectMeta meta, InputStream inputStream, String nuid, long storedChunks, ObjectPutCheckpoint checkpoint, ObjectPutCheckpointHandler checkpointHandler) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
         String chunkSubject = pubSubChunkSubject(nuid);
 
         int chunkSize = meta.getObjectMetaOptions().getChunkSize();
         if (chunkSize <= 0) {
             chunkSize = DEFAULT_CHUNK_SIZE;
+            if (checkpointHandler != null) {
+                // the checkpoint must remember the chunk size to resume on the same boundaries
+                meta = ObjectMeta.builder(meta).chunkSize(chunkSize).build();
+            }
         }
 
         try {
@@ -123,11 +252,20 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
             long totalSize = 0; // track total bytes read to make sure
             int chunks = 0;
 
+            Digester chunkDigester = chunkDeduplication ? new Digester() : null;
+            List<String> manifest = chunkDeduplication ? new ArrayList<>() : null;
+            Set<String> stored = chunkDeduplication ? storedDigests() : null;
+            Set<String> reused = chunkDeduplication ? new HashSet<>() : null;
+
+            // only an object whose chunks are stored by digest leaves a manifest to clean up when it is
+            // replaced, and there can only be one if there were digest chunks when the put started
+            boolean mayReplaceDeduplicated = chunkDeduplication && !stored.isEmpty();
+
             // working with chunkSize number of bytes each time.
             byte[] buffer = new byte[chunkSize];
             int red = chunkSize;
             while (red == chunkSize) { // keep reading while last chunk was full size
-                red = inputStream.read(buffer);
+                red = readChunk(inputStream, buffer);
                 if (red > 0) {
                     // copy if red is less than chunk size
                     byte[] payload = red == chunkSize ? buffer : Arrays.copyOfRange(buffer, 0, red);
@@ -135,28 +273,76 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
                     // digest the actual bytes
                     digester.update(payload);
 
-                    // publish the payload
-                    js.publish(chunkSubject, payload);
+                    // the input must match what was uploaded before the checkpoint, checked before this chunk is published
+                    if (checkpoint != null && chunks + 1 == checkpoint.getChunks() && totalSize + red != checkpoint.getSize()) {
+                        throw OsPutCheckpointMismatch.instance();
+                    }
+
+                    // publish the payload unless it's already stored
+                    if (chunkDeduplication) {
+                        String chunkDigest = chunkDigester.reset(payload).getDigestValue();
+                        manifest.add(chunkDigest);
+                        if (stored.add(chunkDigest)) {
+                            js.publish(pubSubDigestChunkSubject(chunkDigest), payload);
+                        }
+                        else {
+                            reused.add(chunkDigest);
+                        }
+                    }
+                    else if (chunks >= storedChunks) {
+                        js.publish(chunkSubject, payload);
+                    }
 
                     // track total chunks and bytes
                     chunks++;
                     totalSize += red;
+
+                    if (checkpointHandler != null && chunks > storedChunks) {
+                        checkpointHandler.checkpoint(new ObjectPutCheckpoint(bucketName, nuid, meta, totalSize, chunks, chunkDeduplication));
+                    }
                 }
             }
 
-            return publishMeta(ObjectInfo.builder(bucketName, meta)
+            if (chunks < storedChunks || (checkpoint != null && chunks < checkpoint.getChunks())) {
+                throw OsPutCheckpointMismatch.instance();
+            }
+
+            if (chunkDeduplication) {
+                publishManifest(chunkSubject, manifest, chunkSize);
+
+                // Now that the manifest refers to them, make sure a compact did not purge a reused
+                // chunk after it was listed, failing instead of storing an object that cannot be read.
+                if (!reused.isEmpty() && !storedDigests().containsAll(reused)) {
+                    throw OsPutChunkPurged.instance();
+                }
+            }
+
+            ObjectInfo replaced = mayReplaceDeduplicated ? getInfo(meta.getObjectName(), false) : null;
+            ObjectInfo info = publishMeta(ObjectInfo.builder(bucketName, meta)
                 .size(totalSize)
                 .chunks(chunks)
                 .nuid(nuid)
                 .chunkSize(chunkSize)
                 .digest(digester.getDigestEntry())
+                .deduplicated(chunkDeduplication)
                 .build());
+
+            // the put succeeded, so failing to clean up after the replaced object is not an error
+            if (replaced != null && replaced.isDeduplicated() && !replaced.isLink()) {
+                try {
+                    jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(replaced.getNuid())));
+                }
+                catch (Exception ignore) {}
+            }
+            return info;
         }
-        catch (IOException | JetStreamApiException | NoSuchAlgorithmException e) {
-            try {
-                jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(nuid)));
+        catch (IOException | JetStreamApiException | NoSuchAlgorithmException | RuntimeException e) {
+            if (checkpointHandler == null) {
+                try {
+                    jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(nuid)));
+                }
+                catch (Exception ignore) {}
             }
-            catch (Exception ignore) {}
 
             throw e;
         }
@@ -165,6 +351,139 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
         }
     }
 
+    /**
+     * Publish the manifest of a deduplicated object under its nuid, packing as many digests,
+     * separated by new lines, into each message as fit in a chunk, so the manifest is never
+     * limited by the max payload of the server. The messages carry a header that marks them
+     * as a manifest, so compact can tell a put in progress from the chunks of a plain object.
+     */
+    private void publishManifest(String chunkSubject, List<String> manifest, int chunkSize) throws IOException, JetStreamApiException {
+        StringBuilder sb = new StringBuilder();
+        for (String digest : manifest) {
+            if (sb.length() > 0) {
+                if (sb.length() + 1 + digest.length() > chunkSize) {
+                    publishManifestPart(chunkSubject, sb);
+                    sb.setLength(0);
+                }
+                else {
+                    sb.append('\n');
+                }
+            }
+            sb.append(digest);
+        }
+        if (sb.length() > 0) {
+            publishManifestPart(chunkSubject, sb);
+        }
+    }
+
+    private void publishManifestPart(String chunkSubject, StringBuilder sb) throws IOException, JetStreamApiException {
+        js.publish(NatsMessage.builder()
+            .subject(chunkSubject)
+            .headers(new Headers().put(OBJ_MANIFEST_HDR, "true"))
+            .data(sb.toString().getBytes(StandardCharsets.US_ASCII))
+            .build()
+        );
+    }
+
+    /**
+     * Read the manifest of a deduplicated object, the digest of each chunk in order
+     * @param nuid the nuid of the object
+     * @return the manifest, which is only complete once the meta of the object is published
+     */
+    List<String> readManifest(String nuid) throws IOException, JetStreamApiException, InterruptedException {
+        List<String> manifest = new ArrayList<>();
+        visitSubject(pubSubChunkSubject(nuid), DeliverPolicy.All, false, true,
+            m -> manifest.addAll(Arrays.asList(new String(m.getData(), StandardCharsets.US_ASCII).split("\n"))));
+        return manifest;
+    }
+
+    /**
+     * Read the manifest of a deduplicated object and check it against the chunk count
+     * @param oi the info for the object
+     * @return the manifest
+     */
+    List<String> getManifest(ObjectInfo oi) throws IOException, JetStreamApiException, InterruptedException {
+        List<String> manifest = oi.getChunks() == 0 ? new ArrayList<>() : readManifest(oi.getNuid());
+        if (manifest.size() != oi.getChunks()) {
+            throw OsGetChunksMismatch.instance();
+        }
+        return manifest;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long compact(Duration gracePeriod) throws IOException, JetStreamApiException, InterruptedException {
+        Validator.validateNotNull(gracePeriod, "Grace Period");
+        ZonedDateTime cutoff = DateTimeUtils.gmtNow().minus(Validator.validateDurationNotRequiredGtOrEqZero(gracePeriod, Duration.ZERO));
+
+        Set<String> digests = storedDigests();
+        if (digests.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> live = new HashSet<>();
+        List<ObjectInfo> deduplicated = new ArrayList<>();
+        visitSubject(rawAllMetaSubject(), DeliverPolicy.LastPerSubject, false, true, m -> {
+            ObjectInfo oi = new ObjectInfo(m);
+            if (!oi.isDeleted()) {
+                live.add(oi.getNuid());
+                if (oi.isDeduplicated() && oi.getChunks() > 0) {
+                    deduplicated.add(oi);
+                }
+            }
+        });
+        for (ObjectInfo oi : deduplicated) {
+            if (digests.isEmpty()) {
+                return 0;
+            }
+            digests.removeAll(readManifest(oi.getNuid()));
+        }
+
+        // a put publishes its manifest before its meta, so a manifest
+        // from within the grace period with no object yet still counts
+        StreamInfo si = jsm.getStreamInfo(streamName, StreamInfoOptions.filterSubjects(rawChunkSubject("*")));
+        for (Subject s : si.getStreamState().getSubjects()) {
+            if (digests.isEmpty()) {
+                return 0;
+            }
+            String nuid = s.getName().substring(rawChunkPrefix.length());
+            if (!live.contains(nuid)) {
+                MessageInfo mi = _getLast(s.getName());
+                if (mi != null && mi.getHeaders() != null && mi.getHeaders().containsKey(OBJ_MANIFEST_HDR) && mi.getTime().isAfter(cutoff)) {
+                    digests.removeAll(readManifest(nuid));
+                }
+            }
+        }
+
+        // a chunk stored within the grace period may belong to a put that has not published its manifest yet
+        long purged = 0;
+        for (String digest : digests) {
+            MessageInfo mi = _getLast(rawDigestChunkSubject(digest));
+            if (mi != null && !mi.getTime().isAfter(cutoff)) {
+                purged += jsm.purgeStream(streamName, PurgeOptions.subject(rawDigestChunkSubject(digest))).getPurged();
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Read until the buffer is full or the end of the input,
+     * since a chunk boundary must not depend on how the stream delivers bytes.
+     */
+    private static int readChunk(InputStream inputStream, byte[] buffer) throws IOException {
+        int red = 0;
+        while (red < buffer.length) {
+            int n = inputStream.read(buffer, red, buffer.length - red);
+            if (n < 0) {
+                return red == 0 ? -1 : red;
+            }
+            red += n;
+        }
+        return red;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -193,17 +512,28 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
      * {@inheritDoc}
      */
     @Override
-    public ObjectInfo get(String objectName, OutputStream out) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException {
-        ObjectInfo oi = getInfo(objectName, false);
-        if (oi == null) {
-            throw OsObjectNotFound.instance();
-        }
+    public ObjectInfo put(Path path) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        Validator.validateNotNull(path, "Path");
+        return put(ObjectMeta.objectName(path.getFileName().toString()), path);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo put(ObjectMeta meta, Path path) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        Validator.validateNotNull(path, "Path");
+        return put(meta, new MappedFileInputStream(FileChannel.open(path, READ)));
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo get(String objectName, OutputStream out) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException {
+        ObjectInfo oi = getInfoForGet(objectName);
         if (oi.isLink()) {
             ObjectLink link = oi.getLink();
-            if (link.isBucketLink()) {
-                throw OsGetLinkToBucket.instance();
-            }
 
             // is the link in the same bucket
             if (link.getBucket().equals(bucketName)) {
@@ -215,22 +545,122 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
             return js.conn.objectStore(link.getBucket(), oso).get(link.getObjectName(), out);
         }
 
+        readChunks(oi, (data, position) -> out.write(data));
+        out.flush();
+        return oi;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo get(String objectName, Path path) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException {
+        Validator.validateNotNull(path, "Path");
+        ObjectInfo oi = getInfoForGet(objectName);
+        if (oi.isLink()) {
+            ObjectLink link = oi.getLink();
+            if (link.getBucket().equals(bucketName)) {
+                return get(link.getObjectName(), path);
+            }
+            return js.conn.objectStore(link.getBucket(), oso).get(link.getObjectName(), path);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            readChunks(oi, (data, position) -> {
+                ByteBuffer bb = ByteBuffer.wrap(data);
+                while (bb.hasRemaining()) {
+                    position += channel.write(bb, position);
+                }
+            });
+        }
+        return oi;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectStoreInputStream open(String objectName) throws IOException, JetStreamApiException {
+        ObjectInfo oi = getInfoForGet(objectName);
+        if (oi.isLink()) {
+            ObjectLink link = oi.getLink();
+            if (link.getBucket().equals(bucketName)) {
+                return open(link.getObjectName());
+            }
+            return js.conn.objectStore(link.getBucket(), oso).open(link.getObjectName());
+        }
+        return new NatsObjectStoreInputStream(this, oi);
+    }
+
+    private ObjectInfo getInfoForGet(String objectName) throws IOException, JetStreamApiException {
+        ObjectInfo oi = getInfo(objectName, false);
+        if (oi == null) {
+            throw OsObjectNotFound.instance();
+        }
+        if (oi.isLink() && oi.getLink().isBucketLink()) {
+            throw OsGetLinkToBucket.instance();
+        }
+        return oi;
+    }
+
+    interface ChunkWriter {
+        void write(byte[] data, long position) throws IOException;
+    }
+
+    /**
+     * Read all the chunks of an object, handing each to the writer in order along with its position in the object
+     * and validating the size, chunk count and digest against the info. The position is the sum of the lengths of
+     * the chunks before it, chunks other than the last are not always the chunk size, for instance when another
+     * client stored the object.
+     * @param oi the info for the object
+     * @param writer the writer
+     */
+    private void readChunks(ObjectInfo oi, ChunkWriter writer) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException {
         Digester digester = new Digester();
         long totalBytes = 0;
         long totalChunks = 0;
 
         // if there is one chunk, just go get the message directly and we're done.
-        if (oi.getChunks() == 1) {
+        if (oi.getChunks() == 1 && !oi.isDeduplicated()) {
             MessageInfo mi = jsm.getLastMessage(streamName, rawChunkSubject(oi.getNuid()));
             byte[] data = mi.getData();
 
             // track the byte count and chunks
             // update the digest
-            // write the bytes to the output file
+            // write the bytes to the output
             totalBytes = data.length;
             totalChunks = 1;
             digester.update(data);
-            out.write(data);
+            writer.write(data, 0);
+        }
+        else if (oi.isDeduplicated() || chunkPrefetch > 1) {
+            // Deduplicated chunks are found by their digest subject. Otherwise, find the stream
+            // sequence of every chunk. Then fetch them in parallel, keeping at most
+            // chunkPrefetch chunks in flight or waiting to be written
+            ChunkSource source;
+            int count;
+            if (oi.isDeduplicated()) {
+                List<String> manifest = getManifest(oi);
+                source = index -> dataOf(_getLast(rawDigestChunkSubject(manifest.get(index))));
+                count = manifest.size();
+            }
+            else {
+                List<Long> sequences = getChunkSequences(oi.getNuid());
+                source = index -> dataOf(_getBySeq(sequences.get(index)));
+                count = sequences.size();
+            }
+            long[] totals = new long[2]; // bytes and chunks
+            fetchChunks(getPrefetchExecutor(), chunkPrefetch, count, source, data -> {
+                // track the byte count and chunks
+                // update the digest
+                // write the bytes to the output
+                writer.write(data, totals[0]);
+                totals[0] += data.length;
+                totals[1]++;
+                digester.update(data);
+            });
+            totalBytes = totals[0];
+            totalChunks = totals[1];
         }
         else {
 
@@ -243,11 +673,11 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
 
                 // track the byte count and chunks
                 // update the digest
-                // write the bytes to the output file
+                // write the bytes to the output
+                writer.write(data, totalBytes);
                 totalBytes += data.length;
                 totalChunks++;
                 digester.update(data);
-                out.write(data);
 
                 // read until the subject is complete
                 m = sub.nextMessage(Duration.ofSeconds(1));
@@ -255,13 +685,114 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
 
             sub.unsubscribe();
         }
-        out.flush();
 
         if (totalBytes != oi.getSize()) { throw OsGetSizeMismatch.instance(); }
         if (totalChunks != oi.getChunks()) { throw OsGetChunksMismatch.instance(); }
         if (!digester.matches(oi.getDigest())) { throw OsGetDigestMismatch.instance(); }
+    }
 
-        return oi;
+    List<Long> getChunkSequences(String nuid) throws IOException, JetStreamApiException, InterruptedException {
+        List<Long> sequences = new ArrayList<>();
+        visitSubject(pubSubChunkSubject(nuid), DeliverPolicy.All, true, true,
+            m -> sequences.add(m.metaData().streamSequence()));
+        return sequences;
+    }
+
+    interface ChunkSource {
+        /**
+         * @param index the index of the chunk
+         * @return the data of the chunk, or null if it is not stored
+         */
+        byte[] get(int index) throws IOException, JetStreamApiException;
+    }
+
+    interface ChunkHandler {
+        void handle(byte[] data) throws IOException;
+    }
+
+    private static byte[] dataOf(MessageInfo mi) {
+        return mi == null ? null : mi.getData();
+    }
+
+    // The prefetched gets make blocking JetStream requests, so they run on their own threads, never on
+    // the connection's executor, where they could starve the reader, the writer or a dispatcher.
+    private synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            ThreadPoolExecutor tpe = new ThreadPoolExecutor(chunkPrefetch, chunkPrefetch,
+                500L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "object-store-prefetch:" + bucketName);
+                    t.setDaemon(true);
+                    return t;
+                });
+            tpe.allowCoreThreadTimeOut(true); // nothing shuts the store down, so let the threads end when idle
+            prefetchExecutor = tpe;
+        }
+        return prefetchExecutor;
+    }
+
+    /**
+     * Fetch chunks in parallel, keeping at most prefetch chunks in flight or waiting to be handled.
+     * Chunks can complete in any order, they are handed to the handler in order.
+     * @param executor the executor the chunks are fetched on
+     * @param prefetch the most chunks in flight or waiting
+     * @param count the number of chunks
+     * @param source the source of the chunks
+     * @param handler the handler, given the chunks in order
+     */
+    static void fetchChunks(ExecutorService executor, int prefetch, int count, ChunkSource source, ChunkHandler handler) throws IOException, JetStreamApiException, InterruptedException {
+        Deque<Future<byte[]>> window = new ArrayDeque<>(prefetch);
+        int next = 0;
+        try {
+            while (next < count && window.size() < prefetch) {
+                window.add(fetchChunk(executor, source, next));
+                next++;
+            }
+            while (!window.isEmpty()) {
+                byte[] data = awaitChunk(window.poll());
+
+                // as soon as one is taken off the window, start the next one
+                if (next < count) {
+                    window.add(fetchChunk(executor, source, next));
+                    next++;
+                }
+
+                handler.handle(data);
+            }
+        }
+        finally {
+            for (Future<byte[]> f : window) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private static Future<byte[]> fetchChunk(ExecutorService executor, ChunkSource source, int index) {
+        return executor.submit(() -> {
+            byte[] data = source.get(index);
+            if (data == null) {
+                throw OsGetChunksMismatch.instance();
+            }
+            return data;
+        });
+    }
+
+    private static byte[] awaitChunk(Future<byte[]> future) throws IOException, JetStreamApiException, InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof JetStreamApiException) {
+                throw (JetStreamApiException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause);
+        }
     }
 
     /**
@@ -344,6 +875,7 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
             .digest(null)
             .build());
 
+        // for a deduplicated object this is the manifest, the chunks may be shared and are left for compact
         jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(info.getNuid())));
         return deleted;
     }
@@ -434,4 +966,72 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
     public ObjectStoreStatus getStatus() throws IOException, JetStreamApiException {
         return new ObjectStoreStatus(jsm.getStreamInfo(streamName));
     }
+
+    /**
+     * Reads a file through read only mappings of the file channel, one segment at a time,
+     * so reading never goes through an intermediate stream buffer.
+     */
+    static class MappedFileInputStream extends InputStream {
+        static final long MAX_SEGMENT = 1024 * 1024 * 1024; // 1GB
+
+        private final FileChannel channel;
+        private final long maxSegment;
+        private final long size;
+        private long segmentStart;
+        private MappedByteBuffer segment;
+
+        MappedFileInputStream(FileChannel channel) throws IOException {
+            this(channel, MAX_SEGMENT);
+        }
+
+        MappedFileInputStream(FileChannel channel, long maxSegment) throws IOException {
+            this.channel = channel;
+            this.maxSegment = maxSegment;
+            size = channel.size();
+            segmentStart = 0;
+        }
+
+        private boolean ensureSegment() throws IOException {
+            if (segment != null && segment.hasRemaining()) {
+                return true;
+            }
+            if (segment != null) {
+                segmentStart += segment.capacity();
+            }
+            if (segmentStart >= size) {
+                return false;
+            }
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(maxSegment, size - segmentStart));
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensureSegment() ? segment.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            // fill as much of the request as possible, crossing segment boundaries,
+            // since put treats a short read as the end of the input
+            int red = 0;
+            while (red < len && ensureSegment()) {
+                int n = Math.min(len - red, segment.remaining());
+                segment.get(b, off + red, n);
+                red += n;
+            }
+            return red == 0 && len > 0 ? -1 : red;
+        }
+
+        @Override
+        public int available() {
+            long remaining = size - segmentStart - (segment == null ? 0 : segment.position());
+            return (int)Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
 }
@@ -0,0 +1,218 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.JetStreamApiException;
+import io.nats.client.ObjectStoreInputStream;
+import io.nats.client.api.MessageInfo;
+import io.nats.client.api.ObjectInfo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+
+import static io.nats.client.support.NatsJetStreamClientError.*;
+
+/**
+ * The object store input stream, which verifies the size of each chunk that is read.
+ */
+class NatsObjectStoreInputStream extends ObjectStoreInputStream {
+
+    private final NatsObjectStore os;
+    private final ObjectInfo oi;
+    private final long chunkSize;
+
+    private List<String> manifest;
+    private List<Long> sequences;
+    private long firstSequence;
+    private long position;
+    private long chunkIndex;
+    private byte[] chunk;
+    private boolean closed;
+
+    NatsObjectStoreInputStream(NatsObjectStore os, ObjectInfo oi) {
+        this.os = os;
+        this.oi = oi;
+        if (oi.getChunks() <= 1) {
+            chunkSize = oi.getSize();
+        }
+        else if (oi.getChunkSize() > 0) {
+            chunkSize = oi.getChunkSize();
+        }
+        else {
+            throw OsGetChunkSizeUnknown.instance();
+        }
+        chunkIndex = -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo getObjectInfo() {
+        return oi;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void seek(long position) throws IOException {
+        ensureOpen();
+        if (position < 0 || position > oi.getSize()) {
+            throw OsGetRangeOutOfBounds.instance();
+        }
+        this.position = position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (position >= oi.getSize()) {
+            return -1;
+        }
+        byte b = loadChunk()[(int)(position - chunkIndex * chunkSize)];
+        position++;
+        return b & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= oi.getSize()) {
+            return -1;
+        }
+        int red = 0;
+        while (red < len && position < oi.getSize()) {
+            byte[] data = loadChunk();
+            int inChunk = (int)(position - chunkIndex * chunkSize);
+            int n = Math.min(len - red, data.length - inChunk);
+            System.arraycopy(data, inChunk, b, off + red, n);
+            red += n;
+            position += n;
+        }
+        return red;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(n, oi.getSize() - position);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        if (chunk == null || position / chunkSize != chunkIndex) {
+            return 0;
+        }
+        return (int)(chunkIndex * chunkSize + chunk.length - position);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        chunk = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed.");
+        }
+    }
+
+    private byte[] loadChunk() throws IOException {
+        long index = position / chunkSize;
+        if (index != chunkIndex) {
+            try {
+                chunk = fetchChunk(index);
+            }
+            catch (JetStreamApiException e) {
+                throw new IOException(e);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            chunkIndex = index;
+
+            // every chunk is full size except maybe the last
+            long expected = Math.min(chunkSize, oi.getSize() - index * chunkSize);
+            if (chunk.length != expected) {
+                throw OsGetSizeMismatch.instance();
+            }
+        }
+        return chunk;
+    }
+
+    private byte[] fetchChunk(long index) throws IOException, JetStreamApiException, InterruptedException {
+        if (oi.isDeduplicated()) {
+            // the manifest is read once, on the first chunk
+            if (manifest == null) {
+                manifest = os.getManifest(oi);
+            }
+            MessageInfo mi = os._getLast(os.rawDigestChunkSubject(manifest.get((int)index)));
+            if (mi == null) {
+                throw OsGetChunksMismatch.instance();
+            }
+            return mi.getData();
+        }
+
+        if (oi.getChunks() == 1) {
+            return os.jsm.getLastMessage(os.getStreamName(), os.rawChunkSubject(oi.getNuid())).getData();
+        }
+
+        // Chunks published with nothing in between are at consecutive sequences, which is known
+        // from the first and last chunk. Otherwise, the chunk sequences are found once,
+        // with a headers only walk of the chunk subject.
+        String subject = os.rawChunkSubject(oi.getNuid());
+        if (firstSequence == 0 && sequences == null) {
+            long first = os.jsm.getFirstMessage(os.getStreamName(), subject).getSeq();
+            long last = os.jsm.getLastMessage(os.getStreamName(), subject).getSeq();
+            if (last - first + 1 == oi.getChunks()) {
+                firstSequence = first;
+            }
+            else {
+                sequences = os.getChunkSequences(oi.getNuid());
+                if (sequences.size() != oi.getChunks()) {
+                    throw OsGetChunksMismatch.instance();
+                }
+            }
+        }
+        MessageInfo mi = os._getBySeq(sequences == null ? firstSequence + index : sequences.get((int)index));
+        if (mi == null || !subject.equals(mi.getSubject())) {
+            throw OsGetChunksMismatch.instance();
+        }
+        return mi.getData();
+    }
+}
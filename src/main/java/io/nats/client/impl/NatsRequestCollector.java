@@ -0,0 +1,136 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.CollectOptions;
+import io.nats.client.Message;
+import io.nats.client.support.NatsRequestCompletableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Collects the replies to a scatter-gather request. It is registered with the connection
+ * like any other request, but stays registered for every reply until the collect options say it is done.
+ * This future completes, with no message, when collecting is over; the replies are in the result future.
+ */
+class NatsRequestCollector extends NatsRequestCompletableFuture {
+    private final CollectOptions collectOptions;
+    private final ScheduledExecutorService scheduler;
+    private final CompletableFuture<List<Message>> result;
+    private final List<Message> messages;
+    private ScheduledFuture<?> timeoutTask;
+    private ScheduledFuture<?> stallTask;
+    private boolean finished;
+
+    NatsRequestCollector(CollectOptions collectOptions, ScheduledExecutorService scheduler) {
+        super(true, collectOptions.getTimeout());
+        this.collectOptions = collectOptions;
+        this.scheduler = scheduler;
+        this.result = new CompletableFuture<>();
+        this.messages = new ArrayList<>();
+
+        // if the user cancels the result, stop collecting
+        result.whenComplete((list, exception) -> finish());
+    }
+
+    CompletableFuture<List<Message>> getResult() {
+        return result;
+    }
+
+    synchronized void start() {
+        if (!finished) {
+            timeoutTask = scheduler.schedule(this::finish, collectOptions.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            restartStall();
+        }
+    }
+
+    void collect(Message msg) {
+        boolean done;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+
+            Predicate<Message> sentinel = collectOptions.getSentinel();
+            if (msg.isStatusMessage() && msg.getStatus().getCode() == 503) {
+                done = true; // no responders, there is nothing to collect
+            }
+            else if (sentinel != null && sentinel.test(msg)) {
+                if (collectOptions.isIncludeSentinel()) {
+                    messages.add(msg);
+                }
+                done = true;
+            }
+            else {
+                messages.add(msg);
+                long max = collectOptions.getMaxMessages();
+                done = max > 0 && messages.size() >= max;
+                if (!done) {
+                    restartStall();
+                }
+            }
+        }
+
+        if (done) {
+            finish();
+        }
+    }
+
+    private void restartStall() {
+        if (collectOptions.getStall() != null) {
+            if (stallTask != null) {
+                stallTask.cancel(false);
+            }
+            stallTask = scheduler.schedule(this::finish, collectOptions.getStall().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void finish() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+            if (stallTask != null) {
+                stallTask.cancel(false);
+            }
+        }
+
+        // complete outside the lock, the result may have dependent stages
+        result.complete(messages);
+        complete(null);
+    }
+
+    @Override
+    public void cancelTimedOut() {
+        // running out of time is the normal end of collecting
+        finish();
+    }
+
+    @Override
+    public void cancelClosing() {
+        result.completeExceptionally(new CancellationException("Future cancelled, connection closing."));
+        super.cancelClosing();
+    }
+}
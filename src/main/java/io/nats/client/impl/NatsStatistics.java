@@ -13,17 +13,21 @@
 
 package io.nats.client.impl;
 
+import io.nats.client.Distribution;
 import io.nats.client.Statistics;
 
 import java.text.NumberFormat;
-import java.util.LongSummaryStatistics;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 class NatsStatistics implements Statistics {
     private ReentrantLock lock;
-    private LongSummaryStatistics readStats;
-    private LongSummaryStatistics writeStats;
+    private NatsDistribution readStats;
+    private NatsDistribution writeStats;
+    private NatsDistribution writeBlockedStats;
+    private NatsDistribution batchStats;
+    private NatsDistribution outgoingDepthStats;
+    private NatsDistribution outgoingBytesStats;
 
     private AtomicLong flushCounter;
     private AtomicLong outstandingRequests;
@@ -41,13 +45,19 @@ class NatsStatistics implements Statistics {
     private AtomicLong errCount;
     private AtomicLong exceptionCount;
     private AtomicLong droppedCount;
+    private AtomicLong pendingWatermarkCount;
+    private AtomicLong sendBufferResizes;
 
     final private boolean trackAdvanced;
 
     public NatsStatistics(boolean trackAdvanced) {
         this.trackAdvanced = trackAdvanced;
-        this.readStats = new LongSummaryStatistics();
-        this.writeStats = new LongSummaryStatistics();
+        this.readStats = new NatsDistribution();
+        this.writeStats = new NatsDistribution();
+        this.writeBlockedStats = new NatsDistribution();
+        this.batchStats = new NatsDistribution();
+        this.outgoingDepthStats = new NatsDistribution();
+        this.outgoingBytesStats = new NatsDistribution();
 
         this.lock = new ReentrantLock();
         this.flushCounter = new AtomicLong();
@@ -66,6 +76,12 @@ class NatsStatistics implements Statistics {
         this.errCount = new AtomicLong();
         this.exceptionCount = new AtomicLong();
         this.droppedCount = new AtomicLong();
+        this.pendingWatermarkCount = new AtomicLong();
+        this.sendBufferResizes = new AtomicLong();
+    }
+
+    boolean isTrackAdvanced() {
+        return trackAdvanced;
     }
 
     void incrementPingCount() {
@@ -76,6 +92,10 @@ class NatsStatistics implements Statistics {
         this.droppedCount.incrementAndGet();
     }
 
+    void incrementPendingWatermarkCount() {
+        this.pendingWatermarkCount.incrementAndGet();
+    }
+
     void incrementOkCount() {
         this.okCount.incrementAndGet();
     }
@@ -116,6 +136,10 @@ class NatsStatistics implements Statistics {
         this.outMsgs.incrementAndGet();
     }
 
+    void incrementOutMsgs(long msgs) {
+        this.outMsgs.addAndGet(msgs);
+    }
+
     void incrementInBytes(long bytes) {
         this.inBytes.addAndGet(bytes);
     }
@@ -133,6 +157,14 @@ class NatsStatistics implements Statistics {
         this.flushCounter.incrementAndGet();
     }
 
+    void incrementFlushCounter(long flushes) {
+        this.flushCounter.addAndGet(flushes);
+    }
+
+    void incrementSendBufferResizes() {
+        this.sendBufferResizes.incrementAndGet();
+    }
+
     void incrementOutstandingRequests() {
         this.outstandingRequests.incrementAndGet();
     }
@@ -141,7 +173,7 @@ class NatsStatistics implements Statistics {
         this.outstandingRequests.decrementAndGet();
     }
 
-    void registerSummaryStat(LongSummaryStatistics stats, long value) {
+    void registerSummaryStat(NatsDistribution stats, long value) {
         if(!trackAdvanced) {
             return;
         }
@@ -161,6 +193,64 @@ class NatsStatistics implements Statistics {
         registerSummaryStat(writeStats, bytes);
     }
 
+    void registerWriteBlocked(long nanos) {
+        registerSummaryStat(writeBlockedStats, nanos);
+    }
+
+    void registerBatch(long messages) {
+        registerSummaryStat(batchStats, messages);
+    }
+
+    void registerOutgoingQueue(long messages, long bytes) {
+        if(!trackAdvanced) {
+            return;
+        }
+        lock.lock();
+        try {
+            outgoingDepthStats.accept(messages);
+            outgoingBytesStats.accept(bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Distribution snapshot(NatsDistribution stats) {
+        lock.lock();
+        try {
+            return stats.copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Distribution getBytesPerRead() {
+        return snapshot(readStats);
+    }
+
+    public Distribution getBytesPerWrite() {
+        return snapshot(writeStats);
+    }
+
+    public Distribution getWriteBlockedNanos() {
+        return snapshot(writeBlockedStats);
+    }
+
+    public Distribution getMessagesPerBatch() {
+        return snapshot(batchStats);
+    }
+
+    public Distribution getOutgoingQueueDepth() {
+        return snapshot(outgoingDepthStats);
+    }
+
+    public Distribution getOutgoingQueueBytes() {
+        return snapshot(outgoingBytesStats);
+    }
+
+    public long getSendBufferResizes() {
+        return sendBufferResizes.get();
+    }
+
     public long getPings() {
         return this.pingCount.get();
     }
@@ -169,6 +259,10 @@ class NatsStatistics implements Statistics {
         return this.droppedCount.get();
     }
 
+    public long getPendingWatermarkCount() {
+        return this.pendingWatermarkCount.get();
+    }
+
     public long getOKs() {
         return this.okCount.get();
     }
@@ -248,6 +342,7 @@ class NatsStatistics implements Statistics {
                 appendNumberStat(builder, "Successful Flush Calls:          ", this.flushCounter.get());
                 appendNumberStat(builder, "Outstanding Request Futures:     ", this.outstandingRequests.get());
                 appendNumberStat(builder, "Dropped Messages:                ", this.droppedCount.get());
+                appendNumberStat(builder, "Pending Watermarks Reached:      ", this.pendingWatermarkCount.get());
             }
             builder.append("\n");
             builder.append("### Reader ###\n");
@@ -270,6 +365,17 @@ class NatsStatistics implements Statistics {
                 appendNumberStat(builder, "Average Bytes Per Write:         ", writeStats.getAverage());
                 appendNumberStat(builder, "Min Bytes Per Write:             ", writeStats.getMin());
                 appendNumberStat(builder, "Max Bytes Per Write:             ", writeStats.getMax());
+                appendNumberStat(builder, "Average Write Blocked Nanos:     ", writeBlockedStats.getAverage());
+                appendNumberStat(builder, "p99 Write Blocked Nanos:         ", writeBlockedStats.getValueAtPercentile(99));
+                appendNumberStat(builder, "Max Write Blocked Nanos:         ", writeBlockedStats.getMax());
+                appendNumberStat(builder, "Batches:                         ", batchStats.getCount());
+                appendNumberStat(builder, "Average Messages Per Batch:      ", batchStats.getAverage());
+                appendNumberStat(builder, "Max Messages Per Batch:          ", batchStats.getMax());
+                appendNumberStat(builder, "Average Outgoing Queue Depth:    ", outgoingDepthStats.getAverage());
+                appendNumberStat(builder, "p99 Outgoing Queue Depth:        ", outgoingDepthStats.getValueAtPercentile(99));
+                appendNumberStat(builder, "Max Outgoing Queue Depth:        ", outgoingDepthStats.getMax());
+                appendNumberStat(builder, "Max Outgoing Queue Bytes:        ", outgoingBytesStats.getMax());
+                appendNumberStat(builder, "Send Buffer Resizes:             ", this.sendBufferResizes.get());
             }
         } finally {
             lock.unlock();
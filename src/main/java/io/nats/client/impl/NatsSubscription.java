@@ -16,6 +16,7 @@ package io.nats.client.impl;
 import io.nats.client.Dispatcher;
 import io.nats.client.Message;
 import io.nats.client.MessageHandler;
+import io.nats.client.MessageTracer;
 import io.nats.client.Subscription;
 
 import java.time.Duration;
@@ -162,6 +163,10 @@ class NatsSubscription extends NatsConsumer implements Subscription {
 
         if (msg != null) {
             this.incrementDeliveredCount();
+            this.releasePendingWatermarks();
+            if (msg.traced) {
+                this.connection.trace(MessageTracer.Point.DISPATCH_START, msg);
+            }
         }
 
         if (this.reachedUnsubLimit()) {
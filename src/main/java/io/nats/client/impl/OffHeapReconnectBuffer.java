@@ -0,0 +1,302 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.nats.client.support.BuilderBase.bufferAllocSize;
+
+/**
+ * Holds the messages published while reconnecting, already serialized, in chunks of direct memory.
+ * The chunks are written in order and kept for the next outage once they are replayed,
+ * so buffering does not create garbage after the first outage. They are let go when the
+ * connection closes. If there is a spill log, messages that don't fit in memory go to disk,
+ * and once spilling starts everything goes to disk until the spill log is replayed, so the order is kept.
+ * Not thread safe, the writer guards it. A replay is taken under the writer's lock but written
+ * without it, so publishers can keep appending while it goes out.
+ */
+class OffHeapReconnectBuffer {
+    static final int CHUNK_SIZE = 64 * 1024;
+    private static final int SCRATCH_BLOCK_SIZE = 256;
+
+    private final long capacity;
+    private final int chunkSize;
+    private final ArrayDeque<ByteBuffer> chunks;
+    private final ArrayDeque<ByteBuffer> free;
+    private final ReconnectSpillLog spill;
+    private byte[] scratch;
+    private long memoryBytes;
+    private long messageCount;
+    private int headPosition; // what was already replayed from the first chunk
+    private long generation; // changes when the buffer is cleared, so an older replay is not consumed
+
+    /**
+     * @param capacity the most bytes to hold, less than zero for no limit
+     */
+    OffHeapReconnectBuffer(long capacity) {
+        this(capacity, CHUNK_SIZE, null);
+    }
+
+    /**
+     * @param capacity the most bytes to hold in memory, less than zero for no limit
+     * @param spill where messages go when memory is full, null to not spill
+     */
+    OffHeapReconnectBuffer(long capacity, ReconnectSpillLog spill) {
+        this(capacity, CHUNK_SIZE, spill);
+    }
+
+    OffHeapReconnectBuffer(long capacity, int chunkSize, ReconnectSpillLog spill) {
+        this.capacity = capacity < 0 ? Long.MAX_VALUE : capacity;
+        this.chunkSize = chunkSize;
+        this.spill = spill;
+        chunks = new ArrayDeque<>();
+        free = new ArrayDeque<>();
+        scratch = new byte[SCRATCH_BLOCK_SIZE];
+    }
+
+    /**
+     * Serialize the message to the end of the buffer.
+     * @param msg the message
+     * @return false if the message does not fit in the capacity, or in the spill log if there is one
+     * @throws IOException if the spill log could not be written
+     */
+    boolean append(NatsMessage msg) throws IOException {
+        long size = msg.getSizeInBytes();
+        boolean toMemory = spill == null || spill.sizeInBytes() == 0;
+        if (toMemory && headPosition + memoryBytes + size > capacity) {
+            if (spill == null) {
+                return false;
+            }
+            toMemory = false;
+        }
+
+        if (size > scratch.length) {
+            scratch = new byte[bufferAllocSize((int)size, SCRATCH_BLOCK_SIZE)];
+        }
+        int len = msg.copyTo(0, scratch);
+
+        if (!toMemory) {
+            if (!spill.append(scratch, len)) {
+                return false;
+            }
+            messageCount++;
+            return true;
+        }
+
+        int offset = 0;
+        while (offset < len) {
+            ByteBuffer tail = chunks.peekLast();
+            if (tail == null || !tail.hasRemaining()) {
+                tail = free.poll();
+                if (tail == null) {
+                    tail = ByteBuffer.allocateDirect(chunkSize);
+                }
+                chunks.add(tail);
+            }
+            int n = Math.min(tail.remaining(), len - offset);
+            tail.put(scratch, offset, n);
+            offset += n;
+        }
+
+        memoryBytes += len;
+        messageCount++;
+        return true;
+    }
+
+    /**
+     * Whether messages of this many bytes in total can all be appended, so a batch can be taken or
+     * refused whole. When spilling, a message goes to memory or disk whole, so this can be off by
+     * the part of a message that would not fit in memory.
+     * @param bytes the total size of the messages
+     * @return the flag
+     */
+    boolean fits(long bytes) {
+        long room = spill == null || spill.sizeInBytes() == 0 ? capacity - headPosition - memoryBytes : 0;
+        if (bytes <= room) {
+            return true;
+        }
+        return spill != null && bytes - room <= spill.remaining();
+    }
+
+    /**
+     * What was in the buffer when the replay was taken. Nothing is removed from the buffer
+     * until the replay is consumed after it has all been written.
+     */
+    static class Replay {
+        private final long generation;
+        private final List<ByteBuffer> memory;
+        private final List<ByteBuffer> spilled;
+        private final long messages;
+        private final long memoryBytes;
+        private final long spillBytes;
+
+        private Replay(long generation, List<ByteBuffer> memory, List<ByteBuffer> spilled, long messages, long memoryBytes, long spillBytes) {
+            this.generation = generation;
+            this.memory = memory;
+            this.spilled = spilled;
+            this.messages = messages;
+            this.memoryBytes = memoryBytes;
+            this.spillBytes = spillBytes;
+        }
+
+        /**
+         * Write the replay to the data port. If the port fails part way, a message may have been cut,
+         * so the replay is not consumed and the whole buffer is replayed on the next connection,
+         * which can send a message twice but never sends part of one.
+         * @param dataPort the port to write to
+         * @param transfer an array to copy through, since the data port takes arrays
+         * @param stats the statistics to update
+         * @throws IOException if the data port fails
+         */
+        void write(DataPort dataPort, byte[] transfer, NatsStatistics stats) throws IOException {
+            write(memory, dataPort, transfer, stats);
+            write(spilled, dataPort, transfer, stats);
+            stats.incrementOutMsgs(messages);
+            stats.incrementOutBytes(memoryBytes + spillBytes);
+        }
+
+        private static void write(List<ByteBuffer> readers, DataPort dataPort, byte[] transfer, NatsStatistics stats) throws IOException {
+            for (ByteBuffer r : readers) {
+                ByteBuffer reader = r.duplicate();
+                while (reader.hasRemaining()) {
+                    int n = Math.min(transfer.length, reader.remaining());
+                    reader.get(transfer, 0, n);
+                    dataPort.write(transfer, n);
+                    stats.registerWrite(n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Take a replay of everything in the buffer. Appends after this are not part of it.
+     * @return the replay
+     */
+    Replay snapshot() {
+        return new Replay(generation, readers(chunks, headPosition),
+            spill == null ? Collections.emptyList() : spill.readers(),
+            messageCount, memoryBytes, spill == null ? 0 : spill.sizeInBytes());
+    }
+
+    /**
+     * Views of the written part of each buffer, the first one starting at the head position
+     */
+    static List<ByteBuffer> readers(Iterable<? extends ByteBuffer> buffers, int headPosition) {
+        List<ByteBuffer> readers = new ArrayList<>();
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer reader = buffer.duplicate();
+            reader.flip();
+            if (readers.isEmpty()) {
+                reader.position(headPosition);
+            }
+            readers.add(reader);
+        }
+        return readers;
+    }
+
+    /**
+     * Remove what a replay wrote from the buffer. Chunks that were written to the end are kept for reuse.
+     * @param replay the replay, which has all been written
+     */
+    void consume(Replay replay) {
+        if (replay.generation != generation) {
+            return; // cleared while the replay was written
+        }
+        memoryBytes -= replay.memoryBytes;
+        messageCount -= replay.messages;
+        if (memoryBytes == 0) {
+            recycleChunks();
+        }
+        else {
+            for (ByteBuffer reader : replay.memory) {
+                if (reader.limit() == chunkSize) {
+                    ByteBuffer chunk = chunks.poll();
+                    chunk.clear();
+                    free.add(chunk);
+                    headPosition = 0;
+                }
+                else {
+                    headPosition = reader.limit();
+                }
+            }
+        }
+        if (spill != null) {
+            spill.consume(replay.spilled, replay.spillBytes);
+        }
+    }
+
+    /**
+     * Write everything in the buffer to the data port, emptying it once it has all been written.
+     * @param dataPort the port to write to
+     * @param transfer an array to copy through, since the data port takes arrays
+     * @param stats the statistics to update
+     * @throws IOException if the data port fails
+     */
+    void replay(DataPort dataPort, byte[] transfer, NatsStatistics stats) throws IOException {
+        Replay replay = snapshot();
+        replay.write(dataPort, transfer, stats);
+        consume(replay);
+    }
+
+    /**
+     * Empty the buffer, keeping the chunks for the next outage.
+     */
+    void clear() {
+        recycleChunks();
+        if (spill != null) {
+            spill.clear();
+        }
+        memoryBytes = 0;
+        messageCount = 0;
+        generation++;
+    }
+
+    /**
+     * Empty the buffer and let go of the chunks, since the connection is closed.
+     */
+    void release() {
+        clear();
+        free.clear();
+    }
+
+    private void recycleChunks() {
+        for (ByteBuffer chunk : chunks) {
+            chunk.clear();
+            free.add(chunk);
+        }
+        chunks.clear();
+        headPosition = 0;
+    }
+
+    int freeChunkCount() {
+        return free.size();
+    }
+
+    boolean isEmpty() {
+        return messageCount == 0;
+    }
+
+    long sizeInBytes() {
+        return spill == null ? memoryBytes : memoryBytes + spill.sizeInBytes();
+    }
+
+    long messageCount() {
+        return messageCount;
+    }
+}
@@ -15,21 +15,75 @@ package io.nats.client.impl;
 
 import io.nats.client.JetStreamStatusException;
 import io.nats.client.Message;
+import io.nats.client.PullRequestOptions;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 class PullMessageManager extends MessageManager {
 
     private static final List<Integer> PULL_KNOWN_STATUS_CODES = Arrays.asList(404, 408, 409);
 
+    // pulls being followed for the flight recorder, only added to while recording
+    private final Queue<TracedPull> tracedPulls = new ConcurrentLinkedQueue<>();
+
+    private static class TracedPull {
+        final Object jfrEvent;
+        final String subject;
+        final PullRequestOptions pro;
+        int received;
+
+        TracedPull(Object jfrEvent, String subject, PullRequestOptions pro) {
+            this.jfrEvent = jfrEvent;
+            this.subject = subject;
+            this.pro = pro;
+        }
+
+        void commit(String outcome) {
+            Duration expiresIn = pro.getExpiresIn();
+            JfrEvents.PULL_REQUEST.commit(jfrEvent, subject, pro.getBatchSize(),
+                expiresIn == null ? 0L : expiresIn.toMillis(), pro.isNoWait(), received, outcome);
+        }
+    }
+
+    @Override
+    void startPull(Object jfrEvent, String subject, PullRequestOptions pro) {
+        tracedPulls.add(new TracedPull(jfrEvent, subject, pro));
+    }
+
+    @Override
+    void shutdown() {
+        TracedPull traced;
+        while ((traced = tracedPulls.poll()) != null) {
+            traced.commit("Unsubscribed");
+        }
+    }
+
     boolean manage(Message msg) {
         if (msg.isStatusMessage()) {
             if ( !PULL_KNOWN_STATUS_CODES.contains(msg.getStatus().getCode()) ) {
                 throw new JetStreamStatusException(sub, msg.getStatus());
             }
+            if (!tracedPulls.isEmpty()) {
+                // statuses don't say which pull they end, so each one is taken to end
+                // the oldest traced pull, see the approximation in the event description
+                TracedPull traced = tracedPulls.poll();
+                if (traced != null) {
+                    traced.commit(msg.getStatus().getCode() + " " + msg.getStatus().getMessage());
+                }
+            }
             return true;
         }
+        if (!tracedPulls.isEmpty()) {
+            TracedPull traced = tracedPulls.peek();
+            if (traced != null && ++traced.received >= traced.pro.getBatchSize()) {
+                tracedPulls.poll();
+                traced.commit("Filled");
+            }
+        }
         return false;
     }
 }
@@ -22,8 +22,8 @@ import io.nats.client.support.Status;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static io.nats.client.support.NatsJetStreamConstants.CONSUMER_STALLED_HDR;
@@ -124,18 +124,15 @@ class PushMessageManager extends MessageManager {
     }
 
     class HeartbeatTimer {
-        Timer timer;
+        ScheduledFuture<?> timer;
         boolean alive = true;
 
-        class HeartbeatTimerTask extends TimerTask {
-            @Override
-            public void run() {
-                long sinceLast = System.currentTimeMillis() - lastMsgReceived.get();
-                if (sinceLast > alarmPeriodSetting) {
-                    handleHeartbeatError();
-                }
-                restart();
+        private void check() {
+            long sinceLast = System.currentTimeMillis() - lastMsgReceived.get();
+            if (sinceLast > alarmPeriodSetting) {
+                handleHeartbeatError();
             }
+            restart();
         }
 
         public HeartbeatTimer() {
@@ -145,8 +142,7 @@ class PushMessageManager extends MessageManager {
         synchronized void restart() {
             cancel();
             if (alive) {
-                timer = new Timer();
-                timer.schedule(new HeartbeatTimerTask(), alarmPeriodSetting);
+                timer = conn.getScheduler().schedule(this::check, alarmPeriodSetting, TimeUnit.MILLISECONDS);
             }
         }
 
@@ -157,8 +153,7 @@ class PushMessageManager extends MessageManager {
 
         private void cancel() {
             if (timer != null) {
-                timer.cancel();
-                timer.purge();
+                timer.cancel(false);
                 timer = null;
             }
         }
@@ -0,0 +1,252 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The overflow of the reconnect buffer, serialized messages appended to memory mapped segment files.
+ * The files are only for the life of the outage, they are deleted once replayed or when the connection closes.
+ * Segments replayed while the outage goes on are reused. A deleted segment's disk space is only released
+ * once its mapping is garbage collected, so until then it still counts against the max bytes.
+ * Not thread safe, the writer guards it.
+ */
+class ReconnectSpillLog {
+    static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    // a deleted segment that may still be mapped
+    private static class Retired extends WeakReference<MappedByteBuffer> {
+        final Path path;
+        final int size;
+
+        Retired(Segment segment) {
+            super(segment.buffer);
+            this.path = segment.path;
+            this.size = segment.buffer.capacity();
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int segmentSize;
+    private final List<Segment> segments;
+    private final ArrayDeque<Segment> freeSegments;
+    private final List<Retired> retired;
+    private long allocated; // live, free and retired segments
+    private long retiredBytes;
+    private long sizeInBytes;
+    private int headPosition; // what was already replayed from the first segment
+
+    ReconnectSpillLog(Path directory, long maxBytes) {
+        this(directory, maxBytes, SEGMENT_SIZE);
+    }
+
+    ReconnectSpillLog(Path directory, long maxBytes, int segmentSize) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentSize = segmentSize;
+        segments = new ArrayList<>();
+        freeSegments = new ArrayDeque<>();
+        retired = new ArrayList<>();
+    }
+
+    /**
+     * Append bytes to the log, starting new segments as needed.
+     * @param src the bytes
+     * @param len the number of bytes
+     * @return false if the bytes would go over the max disk usage
+     * @throws IOException if a segment could not be created
+     */
+    boolean append(byte[] src, int len) throws IOException {
+        // what was replayed from the first segment is on disk until the segment is done
+        if (headPosition + sizeInBytes + retiredBytes + len > maxBytes) {
+            releaseRetired();
+            if (headPosition + sizeInBytes + retiredBytes + len > maxBytes) {
+                return false;
+            }
+        }
+
+        int offset = 0;
+        while (offset < len) {
+            Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (tail == null || !tail.buffer.hasRemaining()) {
+                tail = freeSegments.poll();
+                if (tail == null) {
+                    tail = newSegment((int)Math.min(segmentSize, maxBytes - allocated));
+                }
+                else {
+                    tail.buffer.clear();
+                    segments.add(tail);
+                }
+            }
+            int n = Math.min(tail.buffer.remaining(), len - offset);
+            tail.buffer.put(src, offset, n);
+            offset += n;
+        }
+        sizeInBytes += len;
+        return true;
+    }
+
+    private Segment newSegment(int size) throws IOException {
+        Files.createDirectories(directory);
+        Path path = Files.createTempFile(directory, "nats-reconnect-", ".seg");
+        FileChannel channel = FileChannel.open(path, READ, WRITE);
+        try {
+            Segment segment = new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segments.add(segment);
+            allocated += size;
+            return segment;
+        }
+        catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Views of what is in the log, in order, to be written while appends go on after them
+     * @return the views
+     */
+    List<ByteBuffer> readers() {
+        List<MappedByteBuffer> buffers = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            buffers.add(segment.buffer);
+        }
+        return OffHeapReconnectBuffer.readers(buffers, headPosition);
+    }
+
+    /**
+     * Remove what was written from the log. Segments that were written to the end are kept for reuse,
+     * and all of them are deleted once the log is empty.
+     * @param readers the views the log was written from
+     * @param bytes the number of bytes the views held
+     */
+    void consume(List<ByteBuffer> readers, long bytes) {
+        sizeInBytes -= bytes;
+        if (sizeInBytes == 0) {
+            clear();
+            return;
+        }
+        for (ByteBuffer reader : readers) {
+            Segment segment = segments.get(0);
+            if (reader.limit() == segment.buffer.capacity()) {
+                freeSegments.add(segments.remove(0));
+                headPosition = 0;
+            }
+            else {
+                headPosition = reader.limit();
+            }
+        }
+    }
+
+    /**
+     * Close and delete the segments.
+     */
+    void clear() {
+        for (Segment segment : segments) {
+            retire(segment);
+        }
+        for (Segment segment : freeSegments) {
+            retire(segment);
+        }
+        segments.clear();
+        freeSegments.clear();
+        allocated = retiredBytes;
+        sizeInBytes = 0;
+        headPosition = 0;
+    }
+
+    private void retire(Segment segment) {
+        try {
+            segment.channel.close();
+        }
+        catch (IOException ignore) {
+            // the mapping does not need the channel
+        }
+        // on Linux this unlinks the file, but the space is in use until it is unmapped,
+        // on Windows the delete fails while it is mapped and is tried again once it is released
+        delete(segment.path);
+        retired.add(new Retired(segment));
+        retiredBytes += segment.buffer.capacity();
+    }
+
+    /**
+     * Stop counting deleted segments whose mappings were garbage collected.
+     */
+    private void releaseRetired() {
+        for (Iterator<Retired> it = retired.iterator(); it.hasNext(); ) {
+            Retired r = it.next();
+            if (r.get() == null && delete(r.path)) {
+                it.remove();
+                retiredBytes -= r.size;
+                allocated -= r.size;
+            }
+        }
+    }
+
+    private static boolean delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            return true;
+        }
+        catch (IOException e) {
+            return false; // still mapped, or the file is in the spill directory and can be removed by hand
+        }
+    }
+
+    long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    long remaining() {
+        if (!retired.isEmpty()) {
+            releaseRetired();
+        }
+        return maxBytes - headPosition - sizeInBytes - retiredBytes;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long retiredBytes() {
+        return retiredBytes;
+    }
+}
@@ -0,0 +1,155 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs tasks one at a time, in the order they were submitted, on a shared executor.
+ * Unlike a single thread executor, no thread is held while there is nothing to run.
+ */
+class SerialExecutor extends AbstractExecutorService {
+    private final Executor executor;
+    private final ArrayDeque<Runnable> tasks;
+    private final ReentrantLock lock;
+    private final Condition idle;
+    private boolean running;
+    private boolean shutdown;
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+        tasks = new ArrayDeque<>();
+        lock = new ReentrantLock();
+        idle = lock.newCondition();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor is shutdown.");
+            }
+            if (!running) {
+                // the lock is held, so the runner can't look at the tasks before this one is added
+                executor.execute(this::runTasks);
+                running = true;
+            }
+            tasks.add(task);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void runTasks() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    idle.signalAll();
+                    return;
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+
+            try {
+                task.run();
+            }
+            catch (RuntimeException e) {
+                // the tasks report their own errors, one failing must not stop the rest
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            idle.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        lock.lock();
+        try {
+            shutdown = true;
+            List<Runnable> notRun = new ArrayList<>(tasks);
+            tasks.clear();
+            idle.signalAll();
+            return notRun;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return shutdown && !running;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!(shutdown && !running)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = idle.awaitNanos(nanos);
+            }
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+}
@@ -45,6 +45,7 @@ public interface ApiConstants {
     String CREATED           = "created";
     String CURRENT           = "current";
     String DATA              = "data";
+    String DEDUPLICATED      = "deduplicated";
     String DELETED           = "deleted";
     String DELETED_DETAILS   = "deleted_details";
     String DELIVER           = "deliver";
@@ -196,6 +197,7 @@ public interface ApiConstants {
     Pattern CURRENT_RE            = boolean_pattern(CURRENT);
     Pattern CREATED_RE            = string_pattern(CREATED);
     Pattern DATA_RE               = string_pattern(DATA);
+    Pattern DEDUPLICATED_RE       = boolean_pattern(DEDUPLICATED);
     Pattern DELETED_RE            = boolean_pattern(DELETED);
     Pattern DELIVER_RE            = string_pattern(DELIVER);
     Pattern DELIVER_GROUP_RE      = string_pattern(DELIVER_GROUP);
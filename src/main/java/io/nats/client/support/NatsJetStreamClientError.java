@@ -63,6 +63,11 @@ public class NatsJetStreamClientError {
     public static final NatsJetStreamClientError OsGetSizeMismatch = new NatsJetStreamClientError(OS, 90207, "Total size does not match meta data.");
     public static final NatsJetStreamClientError OsGetLinkToBucket = new NatsJetStreamClientError(OS, 90208, "Cannot get object, it is a link to a bucket.");
     public static final NatsJetStreamClientError OsLinkNotAllowOnPut = new NatsJetStreamClientError(OS, 90209, "Link not allowed in metadata when putting an object.");
+    public static final NatsJetStreamClientError OsGetRangeOutOfBounds = new NatsJetStreamClientError(OS, 90210, "Range is outside of the object.");
+    public static final NatsJetStreamClientError OsGetChunkSizeUnknown = new NatsJetStreamClientError(OS, 90211, "Object chunk size is not known, cannot read by position.", KIND_ILLEGAL_STATE);
+    public static final NatsJetStreamClientError OsPutCheckpointMismatch = new NatsJetStreamClientError(OS, 90212, "Checkpoint does not match the bucket, the stored chunks or the input.", KIND_ILLEGAL_STATE);
+    public static final NatsJetStreamClientError OsPutChunkPurged = new NatsJetStreamClientError(OS, 90213, "A stored chunk the put reused was purged by a compact.", KIND_ILLEGAL_STATE);
+    public static final NatsJetStreamClientError OsPutCheckpointDeduplicationMismatch = new NatsJetStreamClientError(OS, 90214, "Checkpoint chunk deduplication does not match the object store options.");
 
     public static final NatsJetStreamClientError JsConsumerCreate290NotAvailable = new NatsJetStreamClientError(CON, 90301, "Name field not valid when v2.9.0 consumer create api is not available.");
     public static final NatsJetStreamClientError JsConsumerNameDurableMismatch = new NatsJetStreamClientError(CON, 90302, "Name must match durable if both are supplied.");
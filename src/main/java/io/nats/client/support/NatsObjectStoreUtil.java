@@ -33,6 +33,8 @@ public abstract class NatsObjectStoreUtil {
     public static final String OBJ_SUBJECT_SUFFIX = ".>";
     public static final String OBJ_META_PART = ".M";
     public static final String OBJ_CHUNK_PART = ".C";
+    public static final String OBJ_DIGEST_CHUNK_PART = "d";
+    public static final String OBJ_MANIFEST_HDR = "Nats-Obj-Manifest";
 
     public static String extractBucketName(String streamName) {
         return streamName.substring(OBJ_STREAM_PREFIX_LEN);
@@ -58,6 +60,10 @@ public abstract class NatsObjectStoreUtil {
         return OBJ_SUBJECT_PREFIX + bucketName + OBJ_CHUNK_PART + DOT;
     }
 
+    public static String toDigestChunkPrefix(String bucketName) {
+        return toChunkPrefix(bucketName) + OBJ_DIGEST_CHUNK_PART + DOT;
+    }
+
     public static String encodeForSubject(String name) {
         return Base64.getEncoder().encodeToString(name.getBytes(StandardCharsets.UTF_8));
     }
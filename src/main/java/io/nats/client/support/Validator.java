@@ -15,6 +15,7 @@ package io.nats.client.support;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 
 import static io.nats.client.support.NatsConstants.DOT;
 import static io.nats.client.support.NatsJetStreamConstants.MAX_HISTORY_PER_KEY;
@@ -307,6 +308,23 @@ public abstract class Validator {
         return l;
     }
 
+    /**
+     * Validate pending watermarks, percents of a consumer's pending limits.
+     * @param percents the percents, each between 1 and 99
+     * @return the distinct percents in ascending order, empty if none were given
+     */
+    public static int[] validatePendingWatermarks(int... percents) {
+        if (percents == null) {
+            return new int[0];
+        }
+        for (int p : percents) {
+            if (p < 1 || p > 99) {
+                throw new IllegalArgumentException("Pending watermarks must be between 1 and 99 percent");
+            }
+        }
+        return Arrays.stream(percents).sorted().distinct().toArray();
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // Helpers
     // ----------------------------------------------------------------------------------------------------
@@ -0,0 +1,58 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+import io.nats.client.api.ObjectInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteArrayObjectStoreInputStreamTests {
+
+    @Test
+    public void testReadSeekAndSkip() throws IOException {
+        byte[] data = new byte[100];
+        for (int x = 0; x < data.length; x++) {
+            data[x] = (byte)x;
+        }
+        ObjectInfo oi = ObjectInfo.builder("bucket", "object").size(data.length).build();
+        ObjectStoreInputStream in = new ByteArrayObjectStoreInputStream(oi, data);
+        assertSame(oi, in.getObjectInfo());
+
+        assertEquals(0, in.read());
+        assertEquals(1, in.getPosition());
+
+        in.seek(90);
+        byte[] buffer = new byte[20];
+        assertEquals(10, in.read(buffer, 0, 20));
+        assertEquals(90, buffer[0]);
+        assertEquals(99, buffer[9]);
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(buffer, 0, 20));
+
+        in.seek(50);
+        assertEquals(50, in.available());
+        assertEquals(50, in.skip(80));
+        assertEquals(100, in.getPosition());
+
+        assertThrows(IllegalArgumentException.class, () -> in.seek(101));
+        assertThrows(IllegalArgumentException.class, () -> in.seek(-1));
+
+        in.close();
+        assertThrows(IOException.class, in::read);
+    }
+}
@@ -327,6 +327,32 @@ public class ConnectTests {
         }
     }
 
+    @Test
+    public void testParallelConnectSkipsSlowServer() throws IOException, InterruptedException {
+        try (NatsServerProtocolMock slow = new NatsServerProtocolMock(ExitAt.SLEEP_BEFORE_INFO); // will sleep for 3
+             NatsServerProtocolMock dead = new NatsServerProtocolMock(ExitAt.EXIT_BEFORE_INFO);
+             NatsServerProtocolMock ok = new NatsServerProtocolMock(ExitAt.NO_EXIT)) {
+            Options options = new Options.Builder()
+                    .servers(new String[]{slow.getURI(), dead.getURI(), ok.getURI()})
+                    .noRandomize().noReconnect()
+                    .connectionTimeout(Duration.ofSeconds(6)) // longer than the sleep
+                    .parallelConnectAttempts(3)
+                    .parallelConnectStagger(Duration.ofMillis(20))
+                    .build();
+            long start = System.nanoTime();
+            Connection nc = Nats.connect(options);
+            long elapsed = System.nanoTime() - start;
+            try {
+                assertEquals(Connection.Status.CONNECTED, nc.getStatus(), "Connected Status");
+                assertEquals(ok.getURI(), nc.getConnectedUrl());
+                assertTrue(elapsed < Duration.ofSeconds(2).toNanos(), "Did not wait for the slow server");
+            }
+            finally {
+                standardCloseConnection(nc);
+            }
+        }
+    }
+
     @Test
     public void testTimeCheckCoverage() throws IOException, InterruptedException {
         try (NatsTestServer ts = new NatsTestServer(Options.DEFAULT_PORT, false)) {
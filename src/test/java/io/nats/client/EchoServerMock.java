@@ -0,0 +1,145 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-process server for tests that don't need a nats-server. It echoes publishes to matching
+ * subscriptions like a server with echo on, and answers the JetStream API requests a key value get makes.
+ * Enough protocol for the hot paths, no more.
+ */
+public class EchoServerMock implements NatsServerProtocolMock.Customizer {
+    public static final String DELIVER_SUBJECT = "mock.deliver";
+    public static final String BLAST_SUBJECT = "mock.blast"; // the payload is how many messages to deliver
+    public static final String BUCKET = "mock";
+
+    private static final String INFO_JSON = "{\"server_id\":\"mock\",\"version\":\"2.9.0\",\"proto\":1,"
+        + "\"headers\":true,\"jetstream\":true,\"max_payload\":1048576}";
+    private static final String STREAM_INFO_JSON = "{\"config\":{\"name\":\"KV_" + BUCKET + "\",\"subjects\":[\"$KV." + BUCKET + ".>\"],"
+        + "\"retention\":\"limits\",\"max_consumers\":-1,\"max_msgs\":-1,\"max_bytes\":-1,\"max_age\":0,\"max_msgs_per_subject\":1,"
+        + "\"max_msg_size\":-1,\"discard\":\"new\",\"storage\":\"memory\",\"num_replicas\":1,\"duplicate_window\":120000000000,"
+        + "\"allow_direct\":false},\"created\":\"2022-06-01T00:00:00.000000000Z\","
+        + "\"state\":{\"messages\":1,\"bytes\":40,\"first_seq\":1,\"last_seq\":1,\"consumer_count\":0}}";
+    private static final String MSG_GET_JSON = "{\"message\":{\"subject\":\"$KV." + BUCKET + ".key\",\"seq\":1,"
+        + "\"data\":\"dmFsdWU=\",\"time\":\"2022-06-01T00:00:00.000000000Z\"}}";
+
+    /**
+     * Start a mock server
+     * @return the server, which every key in the bucket answers with "value"
+     * @throws IOException if the server could not be started
+     */
+    public static NatsServerProtocolMock start() throws IOException {
+        return new NatsServerProtocolMock(new EchoServerMock(), INFO_JSON);
+    }
+
+    private final Map<String, String> subs = new LinkedHashMap<>(); // sid to subject
+
+    @Override
+    public void customizeTest(NatsServerProtocolMock ts, BufferedReader reader, PrintWriter writer) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                switch (parts[0]) {
+                    case "PING":
+                        writer.write("PONG\r\n");
+                        writer.flush();
+                        break;
+                    case "SUB":
+                        subs.put(parts[parts.length - 1], parts[1]);
+                        break;
+                    case "UNSUB":
+                        subs.remove(parts[1]);
+                        break;
+                    case "PUB":
+                    case "HPUB":
+                        route(parts, reader, writer);
+                        if (!reader.ready()) {
+                            writer.flush();
+                        }
+                        break;
+                }
+            }
+        }
+        catch (IOException e) {
+            // the client closed
+        }
+    }
+
+    private void route(String[] parts, BufferedReader reader, PrintWriter writer) throws IOException {
+        boolean headers = parts[0].equals("HPUB");
+        int args = parts.length - 2; // after the op and subject
+        String subject = parts[1];
+        int total = Integer.parseInt(parts[parts.length - 1]);
+        String hdrLen = headers ? parts[parts.length - 2] : null;
+        String reply = args == (headers ? 3 : 2) ? parts[2] : null;
+
+        char[] body = new char[total + 2];
+        int read = 0;
+        while (read < body.length) {
+            int n = reader.read(body, read, body.length - read);
+            if (n < 0) {
+                throw new IOException("closed");
+            }
+            read += n;
+        }
+
+        if (subject.equals(BLAST_SUBJECT)) {
+            String payload = new String(new char[64]).replace('\0', 'x');
+            for (int x = Integer.parseInt(new String(body, 0, total)); x > 0; x--) {
+                deliver(DELIVER_SUBJECT, null, null, payload, writer);
+            }
+            return;
+        }
+        if (subject.startsWith("$JS.API.")) {
+            String json = subject.startsWith("$JS.API.STREAM.INFO.") ? STREAM_INFO_JSON : MSG_GET_JSON;
+            deliver(reply, null, null, json, writer);
+            return;
+        }
+        deliver(subject, reply, hdrLen, new String(body, 0, total), writer);
+    }
+
+    private void deliver(String subject, String reply, String hdrLen, String body, PrintWriter writer) {
+        for (Map.Entry<String, String> e : subs.entrySet()) {
+            if (matches(e.getValue(), subject)) {
+                int len = body.getBytes(StandardCharsets.UTF_8).length;
+                writer.write((hdrLen == null ? "MSG " : "HMSG ") + subject + " " + e.getKey()
+                    + (reply == null ? "" : " " + reply)
+                    + (hdrLen == null ? "" : " " + hdrLen)
+                    + " " + len + "\r\n" + body + "\r\n");
+            }
+        }
+    }
+
+    private static boolean matches(String filter, String subject) {
+        String[] f = filter.split("\\.");
+        String[] s = subject.split("\\.");
+        for (int i = 0; i < f.length; i++) {
+            if (f[i].equals(">")) {
+                return s.length > i;
+            }
+            if (i >= s.length || (!f[i].equals("*") && !f[i].equals(s[i]))) {
+                return false;
+            }
+        }
+        return f.length == s.length;
+    }
+}
@@ -0,0 +1,177 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyServerListProviderTests {
+
+    @Test
+    public void testOrdersByLatency() throws Exception {
+        try (ProbeServer fast = new ProbeServer(0, "INFO {}\r\n");
+             ProbeServer slow = new ProbeServer(200, "INFO {}\r\n");
+             ProbeServer wrong = new ProbeServer(0, "-ERR\r\n");
+             ProbeServer silent = new ProbeServer(-1, null);
+             LatencyServerListProvider provider =
+                 new LatencyServerListProvider(Duration.ofMillis(600), Duration.ofMinutes(1), true))
+        {
+            // the first call does not wait for the probes, the servers are in the order given
+            List<String> configured = Arrays.asList(silent.url(), slow.url(), wrong.url());
+            List<String> discovered = Collections.singletonList("localhost:" + fast.port);
+            List<String> list = provider.getServerList(null, configured, discovered);
+            assertEquals(Arrays.asList(silent.url(), slow.url(), wrong.url(), fast.url()), list);
+
+            waitFor(() -> provider.getLatencies().size() == 2);
+            list = provider.getServerList(null, configured, discovered);
+            assertEquals(Arrays.asList(fast.url(), slow.url(), silent.url(), wrong.url()), list);
+
+            Map<String, Duration> latencies = provider.getLatencies();
+            assertTrue(latencies.get(slow.url()).compareTo(latencies.get(fast.url())) > 0);
+
+            // ranking is reused within the refresh interval, the current server goes last
+            int probes = fast.accepted.get();
+            list = provider.getServerList(fast.url(), configured, discovered);
+            assertEquals(Arrays.asList(slow.url(), silent.url(), wrong.url(), fast.url()), list);
+            assertEquals(probes, fast.accepted.get());
+
+            // a change in candidates keeps what is known while they are probed again
+            list = provider.getServerList(null, configured, Collections.emptyList());
+            assertEquals(Arrays.asList(slow.url(), silent.url(), wrong.url()), list);
+        }
+    }
+
+    @Test
+    public void testProbesInTheBackground() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (ProbeServer fast = new ProbeServer(0, "INFO {}\r\n");
+             ProbeServer slow = new ProbeServer(0, "INFO {}\r\n"))
+        {
+            // the servers are probed again every refresh interval, without being asked for
+            LatencyServerListProvider provider =
+                new LatencyServerListProvider(Duration.ofMillis(600), Duration.ofMillis(50), true, scheduler);
+            provider.getServerList(null, Collections.singletonList(fast.url()), null);
+            waitFor(() -> fast.accepted.get() >= 3);
+
+            // closing stops the probes, but not a scheduler that was given
+            provider.close();
+            Thread.sleep(100);
+            int probes = fast.accepted.get();
+            Thread.sleep(200);
+            assertEquals(probes, fast.accepted.get());
+            assertFalse(scheduler.isShutdown());
+            assertEquals(Collections.singletonList(fast.url()), provider.getServerList(null, Collections.singletonList(fast.url()), null));
+
+            // with a refresh interval of zero every call starts a probe, discovered servers can be ignored
+            try (LatencyServerListProvider zero = new LatencyServerListProvider(Duration.ofMillis(600), Duration.ZERO, false)) {
+                List<String> list = zero.getServerList(null, Collections.singletonList(slow.url()), Collections.singletonList(fast.url()));
+                assertEquals(Collections.singletonList(slow.url()), list);
+                waitFor(() -> zero.getLatencies().containsKey(slow.url()));
+                zero.getServerList(null, Collections.singletonList(slow.url()), null);
+                waitFor(() -> slow.accepted.get() == 2);
+                assertEquals(probes, fast.accepted.get());
+            }
+        }
+        finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConstruction() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyServerListProvider(null, Duration.ZERO, true));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyServerListProvider(Duration.ZERO, Duration.ZERO, true));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyServerListProvider(Duration.ofSeconds(1), null, true));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyServerListProvider(Duration.ofSeconds(1), Duration.ofSeconds(-1), true));
+        assertTrue(new LatencyServerListProvider().getLatencies().isEmpty());
+
+        Options o = new Options.Builder().serverListProvider(new LatencyServerListProvider()).build();
+        assertTrue(o.getServerListProvider() instanceof LatencyServerListProvider);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < end, "timed out waiting for the probes");
+            Thread.sleep(10);
+        }
+    }
+
+    static class ProbeServer implements AutoCloseable {
+        final ServerSocket ss;
+        final int port;
+        final AtomicInteger accepted = new AtomicInteger();
+
+        // delay < 0 means never respond
+        ProbeServer(long delay, String response) throws IOException {
+            ss = new ServerSocket(0);
+            port = ss.getLocalPort();
+            Thread t = new Thread(() -> {
+                while (!ss.isClosed()) {
+                    try {
+                        Socket s = ss.accept();
+                        accepted.incrementAndGet();
+                        new Thread(() -> respond(s, delay, response)).start();
+                    }
+                    catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        String url() {
+            return "nats://localhost:" + port;
+        }
+
+        private static void respond(Socket s, long delay, String response) {
+            try {
+                if (delay < 0) {
+                    Thread.sleep(2000);
+                }
+                else {
+                    Thread.sleep(delay);
+                    OutputStream out = s.getOutputStream();
+                    out.write(response.getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+                s.close();
+            }
+            catch (Exception ignore) {}
+        }
+
+        @Override
+        public void close() throws IOException {
+            ss.close();
+        }
+    }
+}
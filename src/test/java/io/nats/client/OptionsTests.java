@@ -24,6 +24,8 @@ import javax.net.ssl.SSLContext;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.Collection;
@@ -32,6 +34,7 @@ import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -159,6 +162,7 @@ public class OptionsTests {
                 .requestCleanupInterval(Duration.ofMillis(404))
                 .reconnectJitter(Duration.ofMillis(505))
                 .reconnectJitterTls(Duration.ofMillis(606))
+                .parallelConnectStagger(Duration.ofMillis(707))
                 .build();
         assertFalse(o.isVerbose(), "default verbose"); // One from a different type
         assertEquals(Duration.ofMillis(101), o.getReconnectWait(), "chained reconnect wait");
@@ -167,6 +171,117 @@ public class OptionsTests {
         assertEquals(Duration.ofMillis(404), o.getRequestCleanupInterval(), "chained cleanup interval");
         assertEquals(Duration.ofMillis(505), o.getReconnectJitter(), "chained reconnect jitter");
         assertEquals(Duration.ofMillis(606), o.getReconnectJitterTls(), "chained cleanup jitter tls");
+        assertEquals(Duration.ofMillis(707), o.getParallelConnectStagger(), "chained parallel connect stagger");
+    }
+
+    @Test
+    public void testParallelConnectOptions() {
+        Options o = new Options.Builder().build();
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_ATTEMPTS, o.getParallelConnectAttempts(), "default parallel connect attempts");
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_STAGGER, o.getParallelConnectStagger(), "default parallel connect stagger");
+
+        o = new Options.Builder().parallelConnectAttempts(3).build();
+        assertEquals(3, o.getParallelConnectAttempts(), "chained parallel connect attempts");
+
+        o = new Options.Builder().parallelConnectAttempts(0).parallelConnectStagger(Duration.ofMillis(-1)).build();
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_ATTEMPTS, o.getParallelConnectAttempts(), "invalid parallel connect attempts");
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_STAGGER, o.getParallelConnectStagger(), "invalid parallel connect stagger");
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_PARALLEL_CONNECT_ATTEMPTS, "4");
+        props.setProperty(Options.PROP_PARALLEL_CONNECT_STAGGER, "25");
+        o = new Options.Builder(props).build();
+        assertEquals(4, o.getParallelConnectAttempts(), "property parallel connect attempts");
+        assertEquals(Duration.ofMillis(25), o.getParallelConnectStagger(), "property parallel connect stagger");
+
+        props.setProperty(Options.PROP_PARALLEL_CONNECT_ATTEMPTS, "-1");
+        props.setProperty(Options.PROP_PARALLEL_CONNECT_STAGGER, "-1");
+        o = new Options.Builder(props).build();
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_ATTEMPTS, o.getParallelConnectAttempts(), "default property parallel connect attempts");
+        assertEquals(Options.DEFAULT_PARALLEL_CONNECT_STAGGER, o.getParallelConnectStagger(), "default property parallel connect stagger");
+    }
+
+    @Test
+    public void testReconnectBufferOffHeap() {
+        assertFalse(new Options.Builder().build().isReconnectBufferOffHeap(), "default off heap");
+        assertTrue(new Options.Builder().reconnectBufferOffHeap().build().isReconnectBufferOffHeap(), "chained off heap");
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_RECONNECT_BUF_OFF_HEAP, "true");
+        assertTrue(new Options.Builder(props).build().isReconnectBufferOffHeap(), "property off heap");
+    }
+
+    @Test
+    public void testReconnectBufferSpill() {
+        Options o = new Options.Builder().build();
+        assertNull(o.getReconnectBufferSpillDirectory(), "default spill dir");
+        assertEquals(Options.DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES, o.getReconnectBufferSpillMaxBytes(), "default spill max");
+        assertEquals(ReconnectBufferOverflowPolicy.THROW, o.getReconnectBufferOverflowPolicy(), "default overflow policy");
+
+        Path dir = Paths.get("spill");
+        o = new Options.Builder().reconnectBufferSpill(dir, 1024)
+            .reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy.DISCARD).build();
+        assertEquals(dir, o.getReconnectBufferSpillDirectory(), "chained spill dir");
+        assertEquals(1024, o.getReconnectBufferSpillMaxBytes(), "chained spill max");
+        assertTrue(o.isReconnectBufferOffHeap(), "spill is off heap");
+        assertEquals(ReconnectBufferOverflowPolicy.DISCARD, o.getReconnectBufferOverflowPolicy(), "chained overflow policy");
+
+        o = new Options.Builder().reconnectBufferSpill(dir, 0).reconnectBufferOverflowPolicy(null).build();
+        assertEquals(Options.DEFAULT_RECONNECT_BUF_SPILL_MAX_BYTES, o.getReconnectBufferSpillMaxBytes(), "invalid spill max");
+        assertEquals(ReconnectBufferOverflowPolicy.THROW, o.getReconnectBufferOverflowPolicy(), "null overflow policy");
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_RECONNECT_BUF_SPILL_DIR, "spill");
+        props.setProperty(Options.PROP_RECONNECT_BUF_SPILL_MAX_BYTES, "2048");
+        props.setProperty(Options.PROP_RECONNECT_BUF_OVERFLOW_POLICY, "discard");
+        o = new Options.Builder(props).build();
+        assertEquals(dir, o.getReconnectBufferSpillDirectory(), "property spill dir");
+        assertEquals(2048, o.getReconnectBufferSpillMaxBytes(), "property spill max");
+        assertEquals(ReconnectBufferOverflowPolicy.DISCARD, o.getReconnectBufferOverflowPolicy(), "property overflow policy");
+    }
+
+    public static class NoOpTracer implements MessageTracer {
+        @Override
+        public void trace(Point point, Message message, long nanoTime) {}
+    }
+
+    @Test
+    public void testMessageTracer() {
+        Options o = new Options.Builder().build();
+        assertNull(o.getMessageTracer(), "default tracer");
+        assertEquals(1, o.getMessageTracerSampling(), "default sampling");
+
+        MessageTracer tracer = new NoOpTracer();
+        o = new Options.Builder().messageTracer(tracer).messageTracerSampling(100).build();
+        assertSame(tracer, o.getMessageTracer(), "chained tracer");
+        assertEquals(100, o.getMessageTracerSampling(), "chained sampling");
+
+        o = new Options.Builder().messageTracerSampling(0).build();
+        assertEquals(1, o.getMessageTracerSampling(), "invalid sampling");
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_MESSAGE_TRACER, NoOpTracer.class.getName());
+        props.setProperty(Options.PROP_MESSAGE_TRACER_SAMPLING, "50");
+        o = new Options.Builder(props).build();
+        assertTrue(o.getMessageTracer() instanceof NoOpTracer, "property tracer");
+        assertEquals(50, o.getMessageTracerSampling(), "property sampling");
+    }
+
+    @Test
+    public void testPendingWatermarks() {
+        Options o = new Options.Builder().build();
+        assertEquals(0, o.getPendingWatermarks().length, "default watermarks");
+
+        o = new Options.Builder().pendingWatermarks(80, 50, 80).build();
+        assertArrayEquals(new int[] {50, 80}, o.getPendingWatermarks(), "chained watermarks");
+
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().pendingWatermarks(0));
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().pendingWatermarks(50, 100));
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_PENDING_WATERMARKS, "90, 25");
+        o = new Options.Builder(props).build();
+        assertArrayEquals(new int[] {25, 90}, o.getPendingWatermarks(), "property watermarks");
     }
 
     @Test
@@ -614,6 +729,36 @@ public class OptionsTests {
         assertTrue(name.startsWith(Options.DEFAULT_THREAD_NAME_PREFIX));
     }
 
+    @Test
+    public void testSetScheduler() {
+        ScheduledExecutorService sched = Executors.newScheduledThreadPool(1);
+        try {
+            Options options = new Options.Builder().scheduler(sched).build();
+            assertEquals(sched, options.getScheduler());
+        }
+        finally {
+            sched.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDefaultScheduler() throws Exception {
+        Options options = new Options.Builder().connectionName("test").build();
+        Future<Thread> future = options.getScheduler().schedule(Thread::currentThread, 1, TimeUnit.MILLISECONDS);
+        Thread t = future.get(5, TimeUnit.SECONDS);
+        assertTrue(t.getName().startsWith("test-scheduler"));
+        assertTrue(t.isDaemon());
+
+        options = new Options.Builder().build();
+        future = options.getScheduler().schedule(Thread::currentThread, 1, TimeUnit.MILLISECONDS);
+        t = future.get(5, TimeUnit.SECONDS);
+        assertTrue(t.getName().startsWith(Options.DEFAULT_THREAD_NAME_PREFIX + "-scheduler"));
+
+        // nothing shuts the default scheduler down, so its idle thread has to end on its own
+        t.join(5000);
+        assertFalse(t.isAlive());
+    }
+
     @Test
     public void testParseURIForServer() throws URISyntaxException {
         String[][] test = {
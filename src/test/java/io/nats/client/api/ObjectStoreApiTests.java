@@ -70,6 +70,13 @@ public class ObjectStoreApiTests extends JetStreamTestBase {
         now = ZonedDateTime.now();
         oi = new ObjectInfo(oi.toJson(), now);
         validateObjectInfo(oi, DateTimeUtils.toGmt(now));
+        assertFalse(oi.isDeduplicated());
+        assertFalse(oi.toJson().contains("deduplicated"));
+
+        oi = new ObjectInfo(ObjectInfo.builder(oi).deduplicated(true).build().toJson(), now);
+        validateObjectInfo(oi, DateTimeUtils.toGmt(now));
+        assertTrue(oi.isDeduplicated());
+        assertNotEquals(oi, ObjectInfo.builder(oi).deduplicated(false).build());
     }
 
     private void validateObjectInfo(ObjectInfo oi, ZonedDateTime modified) {
@@ -94,6 +101,37 @@ public class ObjectStoreApiTests extends JetStreamTestBase {
         assertTrue(list.contains(data(22)));
     }
 
+    @Test
+    public void testObjectPutCheckpointConstruction() {
+        ObjectMeta meta = ObjectMeta.builder("object-name")
+            .description("object-desc")
+            .headers(new Headers().put("key", "value"))
+            .chunkSize(4096)
+            .build();
+
+        ObjectPutCheckpoint cp = new ObjectPutCheckpoint("bucket", "nuid", meta, 8192, 2, false);
+        validateCheckpoint(cp, meta);
+        validateCheckpoint(new ObjectPutCheckpoint(cp.toJson()), meta);
+        assertFalse(cp.isDeduplicated());
+        assertFalse(new ObjectPutCheckpoint(cp.toJson()).isDeduplicated());
+        assertTrue(new ObjectPutCheckpoint(new ObjectPutCheckpoint("bucket", "nuid", meta, 8192, 2, true).toJson()).isDeduplicated());
+        assertNotNull(cp.toString()); // coverage
+
+        assertThrows(IllegalArgumentException.class, () -> new ObjectPutCheckpoint(null, "nuid", meta, 0, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> new ObjectPutCheckpoint("bucket", null, meta, 0, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> new ObjectPutCheckpoint("bucket", "nuid", null, 0, 0, false));
+    }
+
+    private void validateCheckpoint(ObjectPutCheckpoint cp, ObjectMeta meta) {
+        assertEquals("bucket", cp.getBucket());
+        assertEquals("nuid", cp.getNuid());
+        assertEquals(8192, cp.getSize());
+        assertEquals(2, cp.getChunks());
+        assertEquals(4096, cp.getChunkSize());
+        assertEquals("object-name", cp.getObjectName());
+        assertEquals(meta, cp.getObjectMeta());
+    }
+
     @Test
     public void testObjectInfoCoverage() throws Exception {
         ObjectLink link1a = ObjectLink.object(BUCKET, "name");
@@ -0,0 +1,222 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import io.nats.client.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for the hot paths, bytes per operation counted across the calling thread and the
+ * connection's own threads, against an in-process mock server. The budgets have some headroom over what
+ * the paths allocate today, a failure here means a change added garbage to every publish, delivery, ack or get.
+ */
+public class AllocationTests {
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 20_000;
+
+    // publish, delivered message, ack and kv get, about a third over what was measured with a 64 byte payload.
+    // Allocation depends on the JDK, so there are budgets for JDK 8, which CI builds on, and for JDK 17.
+    // The tests are skipped on any other JDK.
+    private static final long[] JAVA_8_BUDGETS = {1_200, 544, 1_500, 14_500};
+    private static final long[] JAVA_17_BUDGETS = {800, 512, 900, 11_500};
+
+    private static long publishBudget;
+    private static long deliverBudget;
+    private static long ackBudget;
+    private static long kvGetBudget;
+
+    private static final int BLAST_SIZE = 1000;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeAll
+    public static void beforeAll() {
+        String javaVersion = System.getProperty("java.specification.version");
+        long[] budgets = "1.8".equals(javaVersion) ? JAVA_8_BUDGETS : "17".equals(javaVersion) ? JAVA_17_BUDGETS : null;
+        assumeTrue(budgets != null, "There are no budgets for JDK " + javaVersion);
+        publishBudget = budgets[0];
+        deliverBudget = budgets[1];
+        ackBudget = budgets[2];
+        kvGetBudget = budgets[3];
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counting is not available");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocation counting is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void testPublishBudget() throws Exception {
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             ClientThreads threads = new ClientThreads()) {
+            Connection nc = threads.connect(server);
+            byte[] payload = new byte[64];
+
+            for (int x = 0; x < WARMUP; x++) {
+                nc.publish("alloc.pub", payload);
+            }
+            nc.flush(Duration.ofSeconds(5));
+
+            long start = threads.allocatedBytes(Thread.currentThread());
+            for (int x = 0; x < MEASURED; x++) {
+                nc.publish("alloc.pub", payload);
+            }
+            nc.flush(Duration.ofSeconds(5));
+            assertBudget("publish", publishBudget, threads.allocatedBytes(Thread.currentThread()) - start);
+            nc.close();
+        }
+    }
+
+    @Test
+    public void testDeliverBudget() throws Exception {
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             ClientThreads threads = new ClientThreads()) {
+            Connection nc = threads.connect(server);
+            AtomicInteger received = new AtomicInteger();
+            Dispatcher d = nc.createDispatcher(msg -> received.incrementAndGet());
+            d.subscribe(EchoServerMock.DELIVER_SUBJECT);
+            nc.flush(Duration.ofSeconds(5));
+
+            blastAndWait(nc, received, WARMUP);
+
+            long start = threads.allocatedBytes(Thread.currentThread());
+            blastAndWait(nc, received, WARMUP + MEASURED);
+            assertBudget("delivered message", deliverBudget, threads.allocatedBytes(Thread.currentThread()) - start);
+            nc.close();
+        }
+    }
+
+    @Test
+    public void testJetStreamAckBudget() throws Exception {
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             ClientThreads threads = new ClientThreads()) {
+            Connection nc = threads.connect(server);
+            Subscription sub = nc.subscribe("alloc.js");
+            nc.flush(Duration.ofSeconds(5));
+
+            // the mock server echoes these back, and a reply to $JS.ACK makes them JetStream messages
+            List<Message> messages = new ArrayList<>(WARMUP + MEASURED);
+            for (int x = 0; x < WARMUP + MEASURED; x++) {
+                nc.publish("alloc.js", "$JS.ACK.stream.consumer.1." + (x + 1) + "." + (x + 1) + ".1654041600000000000.0", new byte[16]);
+                messages.add(sub.nextMessage(Duration.ofSeconds(5)));
+            }
+            assertTrue(messages.get(0).isJetStream());
+
+            for (int x = 0; x < WARMUP; x++) {
+                messages.get(x).ack();
+            }
+            nc.flush(Duration.ofSeconds(5));
+
+            long start = threads.allocatedBytes(Thread.currentThread());
+            for (int x = WARMUP; x < WARMUP + MEASURED; x++) {
+                messages.get(x).ack();
+            }
+            nc.flush(Duration.ofSeconds(5));
+            assertBudget("ack", ackBudget, threads.allocatedBytes(Thread.currentThread()) - start);
+            nc.close();
+        }
+    }
+
+    @Test
+    public void testKeyValueGetBudget() throws Exception {
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             ClientThreads threads = new ClientThreads()) {
+            Connection nc = threads.connect(server);
+            KeyValue kv = nc.keyValue(EchoServerMock.BUCKET);
+            assertEquals("value", kv.get("key").getValueAsString());
+
+            int warmup = WARMUP / 4; // a round trip each, so fewer
+            int measured = MEASURED / 4;
+            for (int x = 0; x < warmup; x++) {
+                kv.get("key");
+            }
+
+            long start = threads.allocatedBytes(Thread.currentThread());
+            for (int x = 0; x < measured; x++) {
+                kv.get("key");
+            }
+            long allocated = threads.allocatedBytes(Thread.currentThread()) - start;
+            assertBudget("kv get", kvGetBudget, allocated * MEASURED / measured);
+            nc.close();
+        }
+    }
+
+    // one small publish asks the mock server for a thousand messages, so the publish cost is noise
+    private static void blastAndWait(Connection nc, AtomicInteger received, int until) throws InterruptedException {
+        while (received.get() < until) {
+            int target = Math.min(until, received.get() + BLAST_SIZE);
+            nc.publish(EchoServerMock.BLAST_SUBJECT, Integer.toString(target - received.get()).getBytes(StandardCharsets.US_ASCII));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (received.get() < target) {
+                assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for messages");
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static void assertBudget(String operation, long budget, long allocated) {
+        long perOp = allocated / MEASURED;
+        assertTrue(perOp <= budget, "Allocated " + perOp + " bytes per " + operation + ", over the budget of " + budget);
+    }
+
+    /**
+     * An executor for one connection that remembers the threads it creates, so their allocation can be counted.
+     */
+    static class ClientThreads implements AutoCloseable {
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "alloc-client");
+            t.setDaemon(true);
+            threads.add(t);
+            return t;
+        });
+
+        Connection connect(NatsServerProtocolMock server) throws IOException, InterruptedException {
+            return Nats.connect(new Options.Builder().server(server.getURI()).executor(executor).build());
+        }
+
+        long allocatedBytes(Thread caller) {
+            long total = 0;
+            List<Thread> counted = new ArrayList<>(threads);
+            if (caller != null) {
+                counted.add(caller);
+            }
+            for (Thread t : counted) {
+                long bytes = threadBean.getThreadAllocatedBytes(t.getId());
+                if (bytes > 0) {
+                    total += bytes;
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
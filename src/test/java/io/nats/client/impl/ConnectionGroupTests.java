@@ -0,0 +1,129 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionGroupTests {
+
+    @Test
+    public void testSubjectHashRouting() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false)) {
+            Options options = new Options.Builder().server(ts.getURI()).build();
+            ConnectionGroup group = Nats.connectSharded(options, 3);
+            try {
+                assertEquals(3, group.getShardCount());
+                assertEquals(3, group.getShards().size());
+                assertEquals(ConnectionGroup.Routing.SUBJECT_HASH, group.getRouting());
+                assertEquals(Connection.Status.CONNECTED, group.getStatus());
+                for (Connection shard : group.getShards()) {
+                    assertEquals(Connection.Status.CONNECTED, shard.getStatus());
+                }
+
+                Subscription sub = group.subscribe("hash");
+                for (int x = 0; x < 10; x++) {
+                    group.publish("hash", ("" + x).getBytes(StandardCharsets.US_ASCII));
+                }
+                group.flush(Duration.ofSeconds(2));
+
+                // all on one shard, so they arrive in order
+                for (int x = 0; x < 10; x++) {
+                    Message m = sub.nextMessage(Duration.ofSeconds(1));
+                    assertNotNull(m);
+                    assertEquals("" + x, new String(m.getData(), StandardCharsets.US_ASCII));
+                }
+
+                int used = 0;
+                for (Connection shard : group.getShards()) {
+                    if (shard.getStatistics().getOutMsgs() > 0) {
+                        used++;
+                    }
+                }
+                assertEquals(1, used);
+
+                Statistics stats = group.getStatistics();
+                assertEquals(10, stats.getOutMsgs());
+                assertEquals(10, stats.getInMsgs());
+                assertTrue(stats.toString().contains("Connection Group"));
+            }
+            finally {
+                group.close();
+            }
+            assertEquals(Connection.Status.CLOSED, group.getStatus());
+        }
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false)) {
+            Options options = new Options.Builder().server(ts.getURI()).build();
+            ConnectionGroup group = Nats.connectSharded(options, 2, ConnectionGroup.Routing.ROUND_ROBIN);
+            try {
+                CountDownLatch latch = new CountDownLatch(8);
+                Dispatcher d = group.createDispatcher(m -> latch.countDown());
+                d.subscribe("rr");
+                Subscription sub = group.subscribe("rr");
+                group.flush(Duration.ofSeconds(2));
+
+                for (int x = 0; x < 8; x++) {
+                    group.publish("rr", null);
+                }
+                group.flush(Duration.ofSeconds(2));
+                assertTrue(latch.await(2, TimeUnit.SECONDS));
+                for (int x = 0; x < 8; x++) {
+                    assertNotNull(sub.nextMessage(Duration.ofSeconds(1)));
+                }
+
+                // publishes alternate, and the dispatcher and subscription are on different shards
+                for (Connection shard : group.getShards()) {
+                    assertEquals(4, shard.getStatistics().getOutMsgs());
+                    assertEquals(8, shard.getStatistics().getInMsgs());
+                }
+
+                Dispatcher reply = group.createDispatcher(m -> group.publish(m.getReplyTo(), m.getData()));
+                reply.subscribe("echo");
+                group.flush(Duration.ofSeconds(2));
+                for (int x = 0; x < 4; x++) {
+                    Message m = group.request("echo", "hi".getBytes(StandardCharsets.US_ASCII), Duration.ofSeconds(2));
+                    assertNotNull(m);
+                    assertEquals("hi", new String(m.getData(), StandardCharsets.US_ASCII));
+                }
+
+                group.closeDispatcher(d);
+                group.closeDispatcher(reply);
+                assertThrows(IllegalArgumentException.class, () -> group.closeDispatcher(null));
+
+                assertTrue(group.drain(Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS));
+            }
+            finally {
+                group.close();
+            }
+        }
+    }
+
+    @Test
+    public void testConnectShardedValidation() {
+        Options options = new Options.Builder().build();
+        assertThrows(IllegalArgumentException.class, () -> Nats.connectSharded(options, 0));
+        assertThrows(IllegalArgumentException.class, () -> Nats.connectSharded(options, 2, null));
+    }
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -324,6 +325,71 @@ public class ErrorListenerTests {
         assertTrue(new String(discardedMessages.get(0).getData()).startsWith("message"), "Message data");
     }
 
+    @Test
+    public void testPendingWatermarks() throws Exception {
+        LinkedBlockingQueue<String> events = new LinkedBlockingQueue<>();
+        ErrorListener listener = new ErrorListener() {
+            @Override
+            public void pendingWatermarkReached(Connection conn, Consumer consumer, int percent) {
+                events.add("reached " + percent);
+            }
+
+            @Override
+            public void pendingWatermarkCleared(Connection conn, Consumer consumer, int percent) {
+                events.add("cleared " + percent);
+            }
+        };
+
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI())
+                 .errorListener(listener).pendingWatermarks(50, 80).build())) {
+            Subscription sub = nc.subscribe("watermark");
+            assertArrayEquals(new int[] {50, 80}, sub.getPendingWatermarks());
+            sub.setPendingLimits(10, 0);
+            nc.flush(Duration.ofSeconds(5));
+
+            publishAndWait(nc, sub, 4);
+            assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+            assertEquals(0, sub.getPendingWatermark());
+
+            publishAndWait(nc, sub, 5);
+            assertEquals("reached 50", events.poll(5, TimeUnit.SECONDS));
+            assertEquals(50, sub.getPendingWatermark());
+
+            publishAndWait(nc, sub, 9);
+            assertEquals("reached 80", events.poll(5, TimeUnit.SECONDS));
+            assertEquals(80, sub.getPendingWatermark());
+
+            // a watermark is held until the pending messages are under 90% of it
+            sub.nextMessage(Duration.ofSeconds(1));
+            assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+            assertEquals(80, sub.getPendingWatermark());
+            sub.nextMessage(Duration.ofSeconds(1));
+            assertEquals("cleared 80", events.poll(5, TimeUnit.SECONDS));
+            assertEquals(50, sub.getPendingWatermark());
+
+            sub.nextMessage(Duration.ofSeconds(1));
+            sub.nextMessage(Duration.ofSeconds(1));
+            assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+            sub.nextMessage(Duration.ofSeconds(1));
+            assertEquals("cleared 50", events.poll(5, TimeUnit.SECONDS));
+            assertEquals(0, sub.getPendingWatermark());
+            assertEquals(2, nc.getStatistics().getPendingWatermarkCount());
+
+            sub.setPendingWatermarks();
+            publishAndWait(nc, sub, 9);
+            assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+            assertThrows(IllegalArgumentException.class, () -> sub.setPendingWatermarks(100));
+        }
+    }
+
+    private static void publishAndWait(Connection nc, Subscription sub, int pending) throws Exception {
+        while (sub.getPendingMessageCount() < pending) {
+            nc.publish("watermark", new byte[8]);
+            nc.flush(Duration.ofSeconds(5));
+        }
+    }
+
     @Test
     public void testCoverage() {
         // this exercises default interface implementation
@@ -392,6 +458,8 @@ public class ErrorListenerTests {
         el.errorOccurred(null, null);
         el.exceptionOccurred(null, null);
         el.slowConsumerDetected(null, null);
+        el.pendingWatermarkReached(null, null, 50);
+        el.pendingWatermarkCleared(null, null, 50);
         el.messageDiscarded(null, null);
         el.heartbeatAlarm(null, null, -1, -1);
         el.unhandledStatus(null, null, null);
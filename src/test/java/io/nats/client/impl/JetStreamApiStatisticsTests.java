@@ -0,0 +1,92 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import io.nats.client.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.nats.client.impl.NatsJetStreamApiStatistics.endpointOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JetStreamApiStatisticsTests {
+
+    @Test
+    public void testEndpoints() {
+        assertEquals("INFO", endpointOf("INFO"));
+        assertEquals("STREAM.INFO", endpointOf("STREAM.INFO.stream"));
+        assertEquals("STREAM.INFO", endpointOf("STREAM.INFO.INFO"));
+        assertEquals("STREAM.NAMES", endpointOf("STREAM.NAMES"));
+        assertEquals("STREAM.MSG.GET", endpointOf("STREAM.MSG.GET.stream"));
+        assertEquals("STREAM.MSG.DELETE", endpointOf("STREAM.MSG.DELETE.stream"));
+        assertEquals("DIRECT.GET", endpointOf("DIRECT.GET.stream"));
+        assertEquals("DIRECT.GET", endpointOf("DIRECT.GET.stream.$KV.bucket.key"));
+        assertEquals("CONSUMER.CREATE", endpointOf("CONSUMER.CREATE.stream.consumer.filter"));
+        assertEquals("CONSUMER.DURABLE.CREATE", endpointOf("CONSUMER.DURABLE.CREATE.stream.durable"));
+        assertEquals("CONSUMER.INFO", endpointOf("CONSUMER.INFO.stream.consumer"));
+        assertEquals("SERVER.REMOVE", endpointOf("SERVER.REMOVE.server"));
+        assertEquals("STREAM.INFOS", endpointOf("STREAM.INFOS"));
+    }
+
+    @Test
+    public void testRecord() {
+        NatsJetStreamApiStatistics stats = new NatsJetStreamApiStatistics();
+        assertTrue(stats.getEndpoints().isEmpty());
+        assertNull(stats.getEndpoint("STREAM.INFO"));
+
+        stats.record("STREAM.INFO.a", 1000, true);
+        stats.record("STREAM.INFO.b", 3000, false);
+        stats.record("CONSUMER.INFO.a.b", 500, true);
+
+        List<JetStreamApiStatistics.Endpoint> endpoints = stats.getEndpoints();
+        assertEquals(2, endpoints.size());
+        assertEquals("CONSUMER.INFO", endpoints.get(0).getName());
+        assertEquals("STREAM.INFO", endpoints.get(1).getName());
+        assertEquals(3, stats.getTotalRequests());
+
+        JetStreamApiStatistics.Endpoint info = stats.getEndpoint("STREAM.INFO");
+        assertEquals(2, info.getRequests());
+        assertEquals(1, info.getTimeouts());
+        assertEquals(2, info.getLatencyNanos().getCount());
+        assertEquals(1000, info.getLatencyNanos().getMin());
+        assertEquals(3000, info.getLatencyNanos().getMax());
+
+        // a snapshot
+        stats.record("STREAM.INFO.a", 1000, true);
+        assertEquals(2, info.getRequests());
+        assertEquals(3, stats.getEndpoint("STREAM.INFO").getRequests());
+        assertTrue(stats.toString().contains("STREAM.INFO"));
+    }
+
+    @Test
+    public void testCountedForTheConnection() throws Exception {
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI()).build())) {
+            KeyValue kv = nc.keyValue(EchoServerMock.BUCKET);
+            for (int x = 0; x < 5; x++) {
+                kv.get("key");
+            }
+
+            JetStreamApiStatistics stats = nc.jetStreamManagement().getApiStatistics();
+            assertSame(stats, nc.jetStream().getApiStatistics());
+            JetStreamApiStatistics.Endpoint get = stats.getEndpoint("STREAM.MSG.GET");
+            assertEquals(5, get.getRequests());
+            assertEquals(0, get.getTimeouts());
+            assertTrue(get.getLatencyNanos().getMin() > 0);
+            assertTrue(stats.getEndpoint("STREAM.INFO").getRequests() >= 1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class JfrEventsTests {
+
+    @Test
+    public void testNoEventWhenNotRecording() {
+        if (!JfrEvents.isRecording()) {
+            assertNull(JfrEvents.WRITER_BATCH.begin());
+        }
+    }
+
+    @Test
+    public void testEventIsRecorded(@TempDir Path dir) throws Exception {
+        Class<?> recordingClass;
+        try {
+            recordingClass = Class.forName("jdk.jfr.Recording");
+        }
+        catch (ClassNotFoundException e) {
+            assumeTrue(false, "Flight Recorder is not available");
+            return;
+        }
+
+        // the library targets Java 8, so the recording is driven reflectively too
+        Object recording = recordingClass.getConstructor().newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, JfrEvents.WRITER_BATCH.getName());
+        recordingClass.getMethod("start").invoke(recording);
+        try {
+            assertTrue(JfrEvents.isRecording());
+            Object event = JfrEvents.WRITER_BATCH.begin();
+            assertNotNull(event);
+            JfrEvents.WRITER_BATCH.commit(event, 3, 99L);
+        }
+        finally {
+            recordingClass.getMethod("stop").invoke(recording);
+        }
+        assertFalse(JfrEvents.isRecording());
+        assertNull(JfrEvents.WRITER_BATCH.begin());
+
+        Path file = dir.resolve("nats.jfr");
+        recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+        recordingClass.getMethod("close").invoke(recording);
+
+        Class<?> recordingFileClass = Class.forName("jdk.jfr.consumer.RecordingFile");
+        List<?> events = (List<?>) recordingFileClass.getMethod("readAllEvents", Path.class).invoke(null, file);
+        int found = 0;
+        for (Object e : events) {
+            Object type = e.getClass().getMethod("getEventType").invoke(e);
+            if (JfrEvents.WRITER_BATCH.getName().equals(type.getClass().getMethod("getName").invoke(type))) {
+                assertEquals(3, e.getClass().getMethod("getInt", String.class).invoke(e, "messages"));
+                assertEquals(99L, e.getClass().getMethod("getLong", String.class).invoke(e, "bytes"));
+                found++;
+            }
+        }
+        assertEquals(1, found);
+    }
+}
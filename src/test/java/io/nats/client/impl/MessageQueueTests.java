@@ -20,6 +20,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -49,6 +50,35 @@ public class MessageQueueTests {
         });
     }
 
+    @Test
+    public void testPushBatch() throws InterruptedException {
+        MessageQueue q = new MessageQueue(true);
+        List<NatsMessage> batch = Arrays.asList(new ProtocolMessage(ONE), new ProtocolMessage(TWO), new ProtocolMessage(THREE));
+        assertTrue(q.push(batch).isEmpty());
+        assertEquals(3, q.length());
+
+        NatsMessage msg = q.accumulate(1000, 100, null);
+        for (NatsMessage expected : batch) {
+            assertEquals(expected, msg);
+            msg = msg.next;
+        }
+        assertNull(msg);
+        assertEquals(0, q.length());
+        assertEquals(0, q.sizeInBytes());
+
+        q = new MessageQueue(true, 2, true);
+        List<NatsMessage> discarded = q.push(batch);
+        assertEquals(1, discarded.size());
+        assertEquals(batch.get(2), discarded.get(0));
+
+        // a queue that does not discard gives back what did not fit instead of throwing
+        q = new MessageQueue(true, 2);
+        discarded = q.push(batch);
+        assertEquals(1, discarded.size());
+        assertEquals(batch.get(2), discarded.get(0));
+        assertEquals(2, q.length());
+    }
+
     @Test
     public void testPushPop() throws InterruptedException {
         MessageQueue q = new MessageQueue(false);
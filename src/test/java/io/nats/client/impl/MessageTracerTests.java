@@ -0,0 +1,201 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.nats.client.impl;
+
+import io.nats.client.*;
+import io.nats.client.MessageTracer.Point;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTracerTests {
+
+    static class RecordingTracer implements MessageTracer {
+        final List<Point> points = new ArrayList<>();
+        final List<Long> times = new ArrayList<>();
+        final List<String> traceIds = new ArrayList<>();
+        final String header;
+
+        RecordingTracer(String header) {
+            this.header = header;
+        }
+
+        @Override
+        public synchronized void trace(Point point, Message message, long nanoTime) {
+            points.add(point);
+            times.add(nanoTime);
+            if (header != null && message.hasHeaders()) {
+                traceIds.add(message.getHeaders().getFirst(header));
+            }
+        }
+
+        @Override
+        public String getTraceIdHeader() {
+            return header;
+        }
+
+        synchronized List<Point> points() {
+            return new ArrayList<>(points);
+        }
+    }
+
+    @Test
+    public void testTracesEveryPoint() throws Exception {
+        RecordingTracer tracer = new RecordingTracer("Trace-Id");
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI()).messageTracer(tracer).build())) {
+            CountDownLatch handled = new CountDownLatch(1);
+            Dispatcher d = nc.createDispatcher(msg -> handled.countDown());
+            d.subscribe("trace");
+            nc.flush(Duration.ofSeconds(5));
+
+            nc.publish("trace", new byte[8]);
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            nc.flush(Duration.ofSeconds(5)); // the end is traced after the handler returns
+
+            // write is traced once the socket write returns, so it can come after the echo is read,
+            // the publish points and the receive points are each in order
+            List<Point> points = tracer.points();
+            assertEquals(5, points.size(), points.toString());
+            assertEquals(Point.ENQUEUE, points.get(0));
+            List<Point> received = new ArrayList<>(points);
+            received.remove(Point.ENQUEUE);
+            received.remove(Point.WRITE);
+            assertEquals(Arrays.asList(Point.READ, Point.DISPATCH_START, Point.DISPATCH_END), received);
+            assertTrue(tracer.times.get(points.indexOf(Point.WRITE)) >= tracer.times.get(0));
+            long previous = tracer.times.get(0);
+            for (int x = 1; x < 5; x++) {
+                if (points.get(x) != Point.WRITE) {
+                    assertTrue(tracer.times.get(x) >= previous);
+                    previous = tracer.times.get(x);
+                }
+            }
+
+            // the id added on publish came back with the message
+            assertEquals(5, tracer.traceIds.size());
+            assertNotNull(tracer.traceIds.get(0));
+            for (String id : tracer.traceIds) {
+                assertEquals(tracer.traceIds.get(0), id);
+            }
+        }
+    }
+
+    @Test
+    public void testSyncSubscriptionAndExistingTraceId() throws Exception {
+        RecordingTracer tracer = new RecordingTracer("Trace-Id");
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI()).messageTracer(tracer).build())) {
+            Subscription sub = nc.subscribe("trace");
+            nc.flush(Duration.ofSeconds(5));
+
+            nc.publish(NatsMessage.builder().subject("trace").headers(new Headers().put("Trace-Id", "forwarded")).build());
+            Message m = sub.nextMessage(Duration.ofSeconds(5));
+            assertEquals("forwarded", m.getHeaders().getFirst("Trace-Id"));
+
+            List<Point> points = tracer.points();
+            assertEquals(Point.DISPATCH_START, points.get(points.size() - 1));
+            assertFalse(points.contains(Point.DISPATCH_END));
+            for (String id : tracer.traceIds) {
+                assertEquals("forwarded", id);
+            }
+        }
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        RecordingTracer tracer = new RecordingTracer(null);
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI())
+                 .messageTracer(tracer).messageTracerSampling(100).build())) {
+            for (int x = 0; x < 10_000; x++) {
+                nc.publish("sampled", new byte[8]);
+            }
+            nc.flush(Duration.ofSeconds(5));
+
+            long enqueued = tracer.points().stream().filter(p -> p == Point.ENQUEUE).count();
+            assertTrue(enqueued > 30 && enqueued < 300, "sampled " + enqueued);
+            assertTrue(tracer.traceIds.isEmpty()); // no header wanted
+        }
+    }
+
+    @Test
+    public void testSampledOnPublishIsTracedOnReceipt() throws Exception {
+        Set<String> published = ConcurrentHashMap.newKeySet();
+        Set<String> read = ConcurrentHashMap.newKeySet();
+        MessageTracer tracer = new MessageTracer() {
+            @Override
+            public void trace(Point point, Message message, long nanoTime) {
+                String id = message.hasHeaders() ? message.getHeaders().getFirst("Trace-Id") : null;
+                if (id != null && point == Point.ENQUEUE) {
+                    published.add(id);
+                }
+                else if (id != null && point == Point.READ) {
+                    read.add(id);
+                }
+            }
+
+            @Override
+            public String getTraceIdHeader() {
+                return "Trace-Id";
+            }
+        };
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI())
+                 .messageTracer(tracer).messageTracerSampling(100).build())) {
+            Subscription sub = nc.subscribe("sampled");
+            nc.flush(Duration.ofSeconds(5));
+            for (int x = 0; x < 5_000; x++) {
+                nc.publish("sampled", new byte[8]);
+            }
+            for (int x = 0; x < 5_000; x++) {
+                assertNotNull(sub.nextMessage(Duration.ofSeconds(5)));
+            }
+
+            // every message sampled on publish is traced again when it comes back, not 1 in 100 of them
+            assertFalse(published.isEmpty());
+            assertEquals(published, read);
+        }
+    }
+
+    @Test
+    public void testTracerExceptionsGoToTheErrorListener() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        try (NatsServerProtocolMock server = EchoServerMock.start();
+             Connection nc = Nats.connect(new Options.Builder().server(server.getURI())
+                 .messageTracer((point, message, nanoTime) -> { throw new IllegalStateException("tracer"); })
+                 .errorListener(new ErrorListener() {
+                     @Override
+                     public void exceptionOccurred(Connection conn, Exception exp) {
+                         if ("tracer".equals(exp.getMessage())) {
+                             reported.countDown();
+                         }
+                     }
+                 })
+                 .build())) {
+            nc.publish("trace", new byte[8]);
+            nc.flush(Duration.ofSeconds(5)); // the writer is still going
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
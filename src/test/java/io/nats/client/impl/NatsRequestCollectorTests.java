@@ -0,0 +1,125 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.CollectOptions;
+import io.nats.client.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NatsRequestCollectorTests {
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static Message reply(String data) {
+        return new NatsMessage("reply", null, data.getBytes());
+    }
+
+    @Test
+    public void testMaxMessages() throws Exception {
+        NatsRequestCollector collector = new NatsRequestCollector(
+            CollectOptions.builder().maxMessages(2).timeout(Duration.ofSeconds(10)).build(), scheduler);
+        collector.start();
+        collector.collect(reply("1"));
+        assertFalse(collector.getResult().isDone());
+        collector.collect(reply("2"));
+        collector.collect(reply("3"));
+
+        List<Message> list = collector.getResult().get(1, TimeUnit.SECONDS);
+        assertEquals(2, list.size());
+        assertEquals("2", new String(list.get(1).getData()));
+        assertTrue(collector.isDone());
+    }
+
+    @Test
+    public void testSentinel() throws Exception {
+        CollectOptions co = CollectOptions.builder().sentinel(m -> m.getData().length == 0).build();
+        NatsRequestCollector collector = new NatsRequestCollector(co, scheduler);
+        collector.start();
+        collector.collect(reply("1"));
+        collector.collect(reply(""));
+        assertEquals(1, collector.getResult().get(1, TimeUnit.SECONDS).size());
+
+        co = CollectOptions.builder().sentinel(m -> m.getData().length == 0).includeSentinel(true).build();
+        collector = new NatsRequestCollector(co, scheduler);
+        collector.start();
+        collector.collect(reply("1"));
+        collector.collect(reply(""));
+        assertEquals(2, collector.getResult().get(1, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    public void testTimeoutAndStall() throws Exception {
+        NatsRequestCollector collector = new NatsRequestCollector(
+            CollectOptions.builder().timeout(Duration.ofMillis(100)).build(), scheduler);
+        collector.start();
+        collector.collect(reply("1"));
+        assertEquals(1, collector.getResult().get(1, TimeUnit.SECONDS).size());
+
+        collector = new NatsRequestCollector(
+            CollectOptions.builder().timeout(Duration.ofSeconds(10)).stall(Duration.ofMillis(50)).build(), scheduler);
+        long start = System.nanoTime();
+        collector.start();
+        assertTrue(collector.getResult().get(1, TimeUnit.SECONDS).isEmpty());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+
+        // the backstop from the connection's cleanup ends collecting normally
+        collector = new NatsRequestCollector(CollectOptions.DEFAULT_COLLECT_OPTIONS, scheduler);
+        collector.collect(reply("1"));
+        collector.cancelTimedOut();
+        assertEquals(1, collector.getResult().get(1, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        NatsRequestCollector collector = new NatsRequestCollector(CollectOptions.DEFAULT_COLLECT_OPTIONS, scheduler);
+        collector.start();
+        collector.getResult().cancel(true);
+        assertTrue(collector.isDone());
+        collector.collect(reply("1"));
+
+        NatsRequestCollector closing = new NatsRequestCollector(CollectOptions.DEFAULT_COLLECT_OPTIONS, scheduler);
+        closing.start();
+        closing.cancelClosing();
+        assertTrue(closing.isDone());
+        assertThrows(CancellationException.class, () -> closing.getResult().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOptionsValidation() {
+        assertThrows(IllegalArgumentException.class, () -> CollectOptions.builder().maxMessages(0));
+        assertThrows(IllegalArgumentException.class, () -> CollectOptions.builder().timeout(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> CollectOptions.builder().stall(Duration.ofMillis(-1)));
+        CollectOptions co = CollectOptions.builder().timeout(null).stall(null).build();
+        assertEquals(CollectOptions.DEFAULT_TIMEOUT, co.getTimeout());
+        assertNull(co.getStall());
+        assertEquals(-1, co.getMaxMessages());
+    }
+}
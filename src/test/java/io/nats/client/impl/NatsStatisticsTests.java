@@ -92,4 +92,82 @@ public class NatsStatisticsTests {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDistribution() {
+        NatsDistribution d = new NatsDistribution();
+        assertEquals(0, d.getCount());
+        assertEquals(0, d.getMin());
+        assertEquals(0, d.getValueAtPercentile(50));
+
+        for (long v = 1; v <= 100; v++) {
+            d.accept(v);
+        }
+        d.accept(-5); // counted as 0
+        assertEquals(101, d.getCount());
+        assertEquals(5050, d.getSum());
+        assertEquals(0, d.getMin());
+        assertEquals(100, d.getMax());
+        assertEquals(5050 / 101.0, d.getAverage());
+
+        // values 32 to 63 share a bucket, the top of the bucket is reported
+        assertEquals(63, d.getValueAtPercentile(50));
+        assertEquals(100, d.getValueAtPercentile(99)); // capped at the max
+        assertEquals(100, d.getValueAtPercentile(100));
+
+        long[] buckets = d.getBucketCounts();
+        assertEquals(65, buckets.length);
+        assertEquals(1, buckets[0]);
+        assertEquals(1, buckets[1]);
+        assertEquals(2, buckets[2]);
+        assertEquals(32, buckets[6]);
+        buckets[0] = 99;
+        assertEquals(1, d.getBucketCounts()[0]); // a copy
+
+        NatsDistribution merged = new NatsDistribution();
+        merged.accept(1000);
+        merged.add(d);
+        assertEquals(102, merged.getCount());
+        assertEquals(0, merged.getMin());
+        assertEquals(1000, merged.getMax());
+    }
+
+    @Test
+    public void testWriterAndReaderDistributions() {
+        NatsStatistics off = new NatsStatistics(false);
+        off.registerRead(10);
+        off.registerBatch(3);
+        off.registerOutgoingQueue(4, 400);
+        off.incrementSendBufferResizes();
+        assertEquals(0, off.getBytesPerRead().getCount());
+        assertEquals(0, off.getMessagesPerBatch().getCount());
+        assertEquals(0, off.getOutgoingQueueDepth().getCount());
+        assertEquals(1, off.getSendBufferResizes()); // a plain counter, always kept
+
+        NatsStatistics stats = new NatsStatistics(true);
+        stats.registerRead(10);
+        stats.registerRead(30);
+        stats.registerWrite(100);
+        stats.registerWriteBlocked(2000);
+        stats.registerBatch(3);
+        stats.registerOutgoingQueue(4, 400);
+
+        Distribution reads = stats.getBytesPerRead();
+        assertEquals(2, reads.getCount());
+        assertEquals(20.0, reads.getAverage());
+        assertEquals(1, stats.getBytesPerWrite().getCount());
+        assertEquals(2000, stats.getWriteBlockedNanos().getMax());
+        assertEquals(3, stats.getMessagesPerBatch().getMax());
+        assertEquals(4, stats.getOutgoingQueueDepth().getMax());
+        assertEquals(400, stats.getOutgoingQueueBytes().getMax());
+
+        // snapshots don't change after they are taken
+        stats.registerRead(50);
+        assertEquals(2, reads.getCount());
+        assertEquals(3, stats.getBytesPerRead().getCount());
+
+        String str = stats.toString();
+        assertTrue(str.contains("Average Messages Per Batch"));
+        assertTrue(str.contains("Send Buffer Resizes"));
+    }
+}
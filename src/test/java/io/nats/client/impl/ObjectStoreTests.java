@@ -14,23 +14,26 @@ package io.nats.client.impl;
 
 import io.nats.client.*;
 import io.nats.client.api.*;
+import io.nats.client.support.Digester;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.nats.client.JetStreamOptions.DEFAULT_JS_OPTIONS;
 import static io.nats.client.api.ObjectStoreWatchOption.IGNORE_DELETE;
 import static io.nats.client.support.NatsJetStreamClientError.*;
-import static io.nats.client.support.NatsObjectStoreUtil.DEFAULT_CHUNK_SIZE;
+import static io.nats.client.support.NatsObjectStoreUtil.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ObjectStoreTests extends JetStreamTestBase {
@@ -212,6 +215,17 @@ public class ObjectStoreTests extends JetStreamTestBase {
         return oi;
     }
 
+    /**
+     * Ten full 4096 byte chunks and a partial one, no two of them the same
+     */
+    private static byte[] chunkedInput() {
+        byte[] input = new byte[4096 * 10 + 100];
+        for (int x = 0; x < input.length; x++) {
+            input[x] = (byte)(x % 251);
+        }
+        return input;
+    }
+
     @SuppressWarnings("SameParameterValue")
     private static Object[] getInput(int size) throws IOException {
         File found = null;
@@ -235,6 +249,335 @@ public class ObjectStoreTests extends JetStreamTestBase {
         return new Object[] {foundLen, found};
     }
 
+    @Test
+    public void testPutGetPath() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+
+            byte[] input = chunkedInput();
+            Path source = Files.createTempFile("os-put", ".bin");
+            Path target = Files.createTempFile("os-get", ".bin");
+            Path empty = Files.createTempFile("os-empty", ".bin");
+            try {
+                Files.write(source, input);
+                Files.write(target, "existing content is truncated".getBytes());
+
+                ObjectStore os = nc.objectStore(BUCKET);
+                ObjectInfo oi = os.put(ObjectMeta.builder("mapped").chunkSize(4096).build(), source);
+                assertEquals(input.length, oi.getSize());
+                assertEquals(11, oi.getChunks());
+
+                os.get("mapped", target);
+                assertArrayEquals(input, Files.readAllBytes(target));
+
+                // chunks placed in parallel
+                ObjectStore osPrefetch = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkPrefetch(4).build());
+                osPrefetch.get("mapped", target);
+                assertArrayEquals(input, Files.readAllBytes(target));
+
+                // name from the file name
+                oi = os.put(source);
+                assertEquals(source.getFileName().toString(), oi.getObjectName());
+
+                oi = os.put(empty);
+                assertEquals(0, oi.getSize());
+                assertEquals(0, oi.getChunks());
+            }
+            finally {
+                Files.deleteIfExists(source);
+                Files.deleteIfExists(target);
+                Files.deleteIfExists(empty);
+            }
+        });
+    }
+
+    @Test
+    public void testRangedReads() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+
+            byte[] input = chunkedInput();
+
+            ObjectStore os = nc.objectStore(BUCKET);
+            ObjectInfo oi = os.put(ObjectMeta.builder("ranged").chunkSize(4096).build(), new ByteArrayInputStream(input));
+            assertEquals(4096, oi.getChunkSize());
+            os.put("single", "single chunk".getBytes());
+
+            // within one chunk, across chunks, the footer, trimmed past the end
+            assertRange(os, "ranged", input, 10, 100);
+            assertRange(os, "ranged", input, 4000, 5000);
+            assertRange(os, "ranged", input, input.length - 100, 100);
+            assertRange(os, "ranged", input, input.length - 50, 100);
+            assertRange(os, "ranged", input, 0, input.length);
+            assertRange(os, "ranged", input, input.length, 10);
+            assertRange(os, "single", "single chunk".getBytes(), 7, 5);
+
+            assertClientError(OsGetRangeOutOfBounds, () -> os.get("ranged", -1, 10, new ByteArrayOutputStream()));
+            assertClientError(OsGetRangeOutOfBounds, () -> os.get("ranged", input.length + 1, 10, new ByteArrayOutputStream()));
+            assertClientError(OsObjectNotFound, () -> os.open("notFound"));
+
+            // read through a link
+            os.addLink("rangedLink", oi);
+            assertRange(os, "rangedLink", input, 4000, 5000);
+
+            try (ObjectStoreInputStream in = os.open("ranged")) {
+                assertEquals(oi.getNuid(), in.getObjectInfo().getNuid());
+                assertEquals(0, in.available());
+                assertEquals(input[0] & 0xFF, in.read());
+                assertEquals(4095, in.available());
+                assertEquals(4096, in.skip(4096));
+                assertEquals(4097, in.getPosition());
+                assertEquals(input[4097] & 0xFF, in.read());
+
+                in.seek(input.length - 10);
+                byte[] buffer = new byte[20];
+                assertEquals(10, in.read(buffer));
+                assertArrayEquals(Arrays.copyOfRange(input, input.length - 10, input.length), Arrays.copyOf(buffer, 10));
+                assertEquals(-1, in.read(buffer));
+                assertEquals(-1, in.read());
+                assertEquals(0, in.skip(10));
+
+                in.seek(0);
+                assertEquals(input[0] & 0xFF, in.read());
+                assertClientError(OsGetRangeOutOfBounds, () -> in.seek(-1));
+                assertClientError(OsGetRangeOutOfBounds, () -> in.seek(input.length + 1));
+
+                in.close();
+                assertThrows(IOException.class, in::read);
+            }
+        });
+    }
+
+    private static void assertRange(ObjectStore os, String name, byte[] input, int offset, int length) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        os.get(name, offset, length, baos);
+        int end = Math.min(input.length, offset + length);
+        assertArrayEquals(Arrays.copyOfRange(input, offset, end), baos.toByteArray());
+    }
+
+    @Test
+    public void testResumablePut() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(BUCKET);
+
+            byte[] input = chunkedInput();
+            ObjectMeta meta = ObjectMeta.builder("resumable").chunkSize(4096).build();
+
+            // fail after 4 chunks have been read
+            List<ObjectPutCheckpoint> checkpoints = new ArrayList<>();
+            assertThrows(IOException.class, () -> os.put(meta, new FailingInputStream(input, 4096 * 4), checkpoints::add));
+            assertEquals(4, checkpoints.size());
+            ObjectPutCheckpoint last = checkpoints.get(3);
+            assertEquals(4, last.getChunks());
+            assertEquals(4096 * 4, last.getSize());
+
+            // not visible yet
+            assertNull(os.getInfo("resumable"));
+
+            // stored in between, so the chunks are not at consecutive sequences
+            os.put("between", "between".getBytes());
+
+            // resume in a "new process" from the saved json
+            ObjectPutCheckpoint restored = new ObjectPutCheckpoint(last.toJson());
+
+            // input that does not match what was uploaded is refused before anything is published
+            JetStreamManagement jsm = nc.jetStreamManagement();
+            byte[] shorter = Arrays.copyOf(input, 4096 * 3 + 100);
+            assertClientError(OsPutCheckpointMismatch, () -> os.resume(restored, new ByteArrayInputStream(shorter), cp -> {}));
+            assertEquals(4, countChunkMessages(jsm, restored.getNuid()));
+            assertNull(os.getInfo("resumable"));
+
+            checkpoints.clear();
+            ObjectInfo oi = os.resume(restored, new ByteArrayInputStream(input), checkpoints::add);
+            assertEquals(7, checkpoints.size()); // only the chunks not stored before
+            assertEquals(input.length, oi.getSize());
+            assertEquals(11, oi.getChunks());
+            assertEquals(restored.getNuid(), oi.getNuid());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("resumable", baos);
+            assertArrayEquals(input, baos.toByteArray());
+            assertRange(os, "resumable", input, 4096 * 4 - 10, 20);
+
+            // checkpoint behind the server by more than one chunk
+            assertClientError(OsPutCheckpointMismatch, () -> os.resume(checkpoints.get(0), new ByteArrayInputStream(input), cp -> {}));
+
+            // a checkpoint can only be resumed with the chunk deduplication it was put with
+            assertFalse(restored.isDeduplicated());
+            ObjectStore osDedup = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkDeduplication(true).build());
+            assertClientError(OsPutCheckpointDeduplicationMismatch, () -> osDedup.resume(restored, new ByteArrayInputStream(input), cp -> {}));
+            checkpoints.clear();
+            assertThrows(IOException.class, () -> osDedup.put(ObjectMeta.builder("dedup").chunkSize(4096).build(), new FailingInputStream(input, 4096 * 2 + 10), checkpoints::add));
+            assertTrue(checkpoints.get(0).isDeduplicated());
+            assertClientError(OsPutCheckpointDeduplicationMismatch, () -> os.resume(checkpoints.get(0), new ByteArrayInputStream(input), cp -> {}));
+
+            // abort purges the stored chunks
+            checkpoints.clear();
+            assertThrows(IOException.class, () -> os.put(ObjectMeta.builder("aborted").chunkSize(4096).build(), new FailingInputStream(input, 4096 * 2 + 10), checkpoints::add));
+            assertEquals(2, checkpoints.size());
+            ObjectPutCheckpoint failed = checkpoints.get(1);
+            assertEquals(2, countChunkMessages(jsm, failed.getNuid()));
+            os.abort(failed);
+            assertEquals(0, countChunkMessages(jsm, failed.getNuid()));
+            assertNull(os.getInfo("aborted"));
+            assertClientError(OsPutCheckpointMismatch, () -> os.abort(new ObjectPutCheckpoint(bucket(2), "nuid", meta, 0, 0, false)));
+        });
+    }
+
+    static class FailingInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private final int failAt;
+        private int pos;
+
+        public FailingInputStream(byte[] buf, int failAt) {
+            in = new ByteArrayInputStream(buf);
+            this.failAt = failAt;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pos >= failAt) {
+                throw new IOException("fail");
+            }
+            int red = in.read(b, off, Math.min(len, failAt - pos));
+            pos += red;
+            return red;
+        }
+    }
+
+    @Test
+    public void testChunkDeduplication() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkDeduplication(true).build());
+            JetStreamManagement jsm = nc.jetStreamManagement();
+
+            byte[] input = chunkedInput();
+
+            NatsObjectStore nos = (NatsObjectStore)os;
+            ObjectInfo oi1 = os.put(ObjectMeta.builder("v1").chunkSize(4096).build(), new ByteArrayInputStream(input));
+            assertTrue(oi1.isDeduplicated());
+            List<String> manifest1 = nos.getManifest(oi1);
+            assertEquals(11, manifest1.size());
+            long msgsAfterFirst = jsm.getStreamInfo("OBJ_" + BUCKET).getStreamState().getMsgCount();
+
+            // change only the last chunk, only that chunk is published again
+            byte[] changed = Arrays.copyOf(input, input.length);
+            changed[changed.length - 1]++;
+            ObjectInfo oi2 = os.put(ObjectMeta.builder("v2").chunkSize(4096).build(), new ByteArrayInputStream(changed));
+            List<String> manifest2 = nos.getManifest(oi2);
+            assertEquals(manifest1.subList(0, 10), manifest2.subList(0, 10));
+            assertNotEquals(manifest1.get(10), manifest2.get(10));
+            long msgsAfterSecond = jsm.getStreamInfo("OBJ_" + BUCKET).getStreamState().getMsgCount();
+            assertEquals(msgsAfterFirst + 3, msgsAfterSecond); // one chunk, one manifest and one meta
+
+            // sequential, prefetched, path and ranged reads all use the manifest
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("v1", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            ObjectStore osPrefetch = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkPrefetch(4).build());
+            baos = new ByteArrayOutputStream();
+            osPrefetch.get("v2", baos);
+            assertArrayEquals(changed, baos.toByteArray());
+
+            assertRange(os, "v2", changed, input.length - 200, 200);
+
+            // deleting an object only purges its manifest, compacting keeps the
+            // chunks shared with the other object and purges the one only it had
+            assertEquals(12, countDigestSubjects(jsm));
+            os.delete("v1");
+            assertEquals(0, countChunkMessages(jsm, oi1.getNuid()));
+            assertEquals(12, countDigestSubjects(jsm));
+
+            // the orphaned chunk is kept while it is within the grace period
+            assertEquals(0, os.compact(Duration.ofMinutes(5)));
+            assertEquals(12, countDigestSubjects(jsm));
+            assertEquals(1, os.compact(Duration.ZERO));
+            assertEquals(11, countDigestSubjects(jsm));
+            baos = new ByteArrayOutputStream();
+            os.get("v2", baos);
+            assertArrayEquals(changed, baos.toByteArray());
+
+            // overwriting purges the replaced manifest, the chunk only the replaced object had is left for compact
+            os.put(ObjectMeta.builder("v2").chunkSize(4096).build(), new ByteArrayInputStream(input));
+            assertEquals(0, countChunkMessages(jsm, oi2.getNuid()));
+            assertEquals(1, countChunkMessages(jsm, "d." + manifest2.get(10)));
+            assertEquals(1, os.compact(Duration.ZERO));
+            assertEquals(0, countChunkMessages(jsm, "d." + manifest2.get(10)));
+            assertEquals(11, countDigestSubjects(jsm));
+            assertEquals(0, os.compact(Duration.ZERO));
+
+            // a manifest larger than a chunk is spread over several messages
+            ObjectInfo oi3 = os.put(ObjectMeta.builder("v3").chunkSize(128).build(), new ByteArrayInputStream(input));
+            assertEquals(oi3.getChunks(), nos.getManifest(oi3).size());
+            assertTrue(countChunkMessages(jsm, oi3.getNuid()) > 1);
+            baos = new ByteArrayOutputStream();
+            os.get("v3", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            os.delete("v2");
+            os.delete("v3");
+            assertTrue(os.compact(Duration.ZERO) > 0);
+            assertEquals(0, countChunkMessages(jsm, ">"));
+        });
+    }
+
+    private static long countDigestSubjects(JetStreamManagement jsm) throws Exception {
+        return chunkSubjects(jsm, "d.*").size();
+    }
+
+    private static long countChunkMessages(JetStreamManagement jsm, String token) throws Exception {
+        return chunkSubjects(jsm, token).stream().mapToLong(Subject::getCount).sum();
+    }
+
+    private static List<Subject> chunkSubjects(JetStreamManagement jsm, String token) throws Exception {
+        return jsm.getStreamInfo("OBJ_" + BUCKET, StreamInfoOptions.filterSubjects(toChunkPrefix(BUCKET) + token))
+            .getStreamState().getSubjects();
+    }
+
+    @Test
+    public void testMappedFileInputStream() throws Exception {
+        byte[] input = new byte[1000];
+        for (int x = 0; x < input.length; x++) {
+            input[x] = (byte)x;
+        }
+        Path path = Files.createTempFile("mapped", ".bin");
+        try {
+            Files.write(path, input);
+
+            // small segments so reads cross segment boundaries
+            try (InputStream in = new NatsObjectStore.MappedFileInputStream(FileChannel.open(path), 64)) {
+                assertEquals(input.length, in.available());
+                assertEquals(0, in.read());
+                byte[] buffer = new byte[300];
+                assertEquals(300, in.read(buffer));
+                assertArrayEquals(Arrays.copyOfRange(input, 1, 301), buffer);
+                assertEquals(699, in.available());
+                assertEquals(300, in.read(buffer));
+                assertEquals(300, in.read(buffer));
+                assertEquals(99, in.read(buffer));
+                assertArrayEquals(Arrays.copyOfRange(input, 901, 1000), Arrays.copyOf(buffer, 99));
+                assertEquals(-1, in.read(buffer));
+                assertEquals(-1, in.read());
+            }
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
     @Test
     public void testManageGetBucketNamesStatuses() throws Exception {
         runInJsServer(nc -> {
@@ -286,6 +629,200 @@ public class ObjectStoreTests extends JetStreamTestBase {
 
         oso = ObjectStoreOptions.builder().jsRequestTimeout(Duration.ofSeconds(10)).build();
         assertEquals(Duration.ofSeconds(10), oso.getJetStreamOptions().getRequestTimeout());
+
+        assertEquals(ObjectStoreOptions.DEFAULT_CHUNK_PREFETCH, ObjectStoreOptions.builder().build().getChunkPrefetch());
+        oso = ObjectStoreOptions.builder().chunkPrefetch(8).build();
+        assertEquals(8, oso.getChunkPrefetch());
+        assertEquals(8, ObjectStoreOptions.builder(oso).build().getChunkPrefetch());
+        assertThrows(IllegalArgumentException.class, () -> ObjectStoreOptions.builder().chunkPrefetch(0));
+
+        assertFalse(ObjectStoreOptions.builder().build().isChunkDeduplication());
+        oso = ObjectStoreOptions.builder().chunkDeduplication(true).build();
+        assertTrue(oso.isChunkDeduplication());
+        assertTrue(ObjectStoreOptions.builder(oso).build().isChunkDeduplication());
+    }
+
+    @Test
+    public void testGetWithChunkPrefetch() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+
+            NatsObjectStore os = (NatsObjectStore)nc.objectStore(BUCKET);
+            ObjectStore osPrefetch = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkPrefetch(4).build());
+
+            byte[] input = chunkedInput();
+
+            // Two puts running at the same time, that take turns reading each chunk, so the chunks of
+            // each object are published between the other's and their sequences are not contiguous.
+            CyclicBarrier turns = new CyclicBarrier(2);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<ObjectInfo> f1 = executor.submit(() -> os.put(ObjectMeta.builder("prefetch").chunkSize(4096).build(), new TurnTakingInputStream(input, 4096, turns)));
+                Future<ObjectInfo> f2 = executor.submit(() -> os.put(ObjectMeta.builder("other").chunkSize(4096).build(), new TurnTakingInputStream(input, 4096, turns)));
+                f1.get(10, TimeUnit.SECONDS);
+                f2.get(10, TimeUnit.SECONDS);
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            List<Long> sequences = os.getChunkSequences(os.getInfo("prefetch").getNuid());
+            assertEquals(11, sequences.size());
+            assertTrue(sequences.get(10) - sequences.get(0) + 1 > sequences.size());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectInfo oi = osPrefetch.get("prefetch", baos);
+            assertEquals(11, oi.getChunks());
+            assertArrayEquals(input, baos.toByteArray());
+
+            // prefetch larger than the number of chunks
+            osPrefetch = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkPrefetch(100).build());
+            baos = new ByteArrayOutputStream();
+            osPrefetch.get("other", baos);
+            assertArrayEquals(input, baos.toByteArray());
+        });
+    }
+
+    @Test
+    public void testGetWithShortMiddleChunk() throws Exception {
+        runInJsServer(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            osm.create(ObjectStoreConfiguration.builder(BUCKET).storageType(StorageType.Memory).build());
+            JetStream js = nc.jetStream();
+
+            // another client may store chunks other than the last shorter than the chunk size
+            int[] lengths = { 4, 2, 4, 4, 3 };
+            String nuid = NUID.nextGlobal();
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Digester digester = new Digester();
+            for (int x = 0; x < lengths.length; x++) {
+                byte[] chunk = new byte[lengths[x]];
+                Arrays.fill(chunk, (byte)('a' + x));
+                js.publish(toChunkPrefix(BUCKET) + nuid, chunk);
+                expected.write(chunk);
+                digester.update(chunk);
+            }
+            ObjectInfo stored = ObjectInfo.builder(BUCKET, "short")
+                .chunkSize(4)
+                .size(expected.size())
+                .chunks(lengths.length)
+                .nuid(nuid)
+                .digest(digester.getDigestEntry())
+                .build();
+            js.publish(toMetaPrefix(BUCKET) + encodeForSubject("short"), stored.serialize());
+
+            Path target = Files.createTempFile("os-short", ".bin");
+            try {
+                for (int prefetch : new int[]{1, 3}) {
+                    ObjectStore os = nc.objectStore(BUCKET, ObjectStoreOptions.builder().chunkPrefetch(prefetch).build());
+
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    os.get("short", baos);
+                    assertArrayEquals(expected.toByteArray(), baos.toByteArray());
+
+                    os.get("short", target);
+                    assertArrayEquals(expected.toByteArray(), Files.readAllBytes(target));
+                }
+            }
+            finally {
+                Files.deleteIfExists(target);
+            }
+        });
+    }
+
+    /**
+     * Waits at the barrier before each chunk is read, so puts of the same size take turns publishing chunks
+     */
+    static class TurnTakingInputStream extends InputStream {
+        private final byte[] input;
+        private final int chunkSize;
+        private final CyclicBarrier turns;
+        private int pos;
+
+        TurnTakingInputStream(byte[] input, int chunkSize, CyclicBarrier turns) {
+            this.input = input;
+            this.chunkSize = chunkSize;
+            this.turns = turns;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pos >= input.length) {
+                return -1;
+            }
+            if (pos % chunkSize == 0) {
+                try {
+                    turns.await(5, TimeUnit.SECONDS);
+                }
+                catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+            int red = Math.min(len, Math.min(input.length, (pos / chunkSize + 1) * chunkSize) - pos);
+            System.arraycopy(input, pos, b, off, red);
+            pos += red;
+            return red;
+        }
+    }
+
+    @Test
+    public void testFetchChunksOutOfOrder() throws Exception {
+        int count = 10;
+        int prefetch = 4;
+
+        // each chunk is held until the one after it has been fetched, the last of a window of
+        // chunks is released first, so the fetches complete in reverse order within each window
+        List<CountDownLatch> fetched = new ArrayList<>();
+        for (int x = 0; x <= count; x++) {
+            fetched.add(new CountDownLatch(1));
+        }
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        NatsObjectStore.ChunkSource source = index -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (index + 1 < count && (index + 1) % prefetch != 0) {
+                    assertTrue(fetched.get(index + 1).await(5, TimeUnit.SECONDS));
+                }
+                return new byte[]{(byte)index};
+            }
+            catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            finally {
+                inFlight.decrementAndGet();
+                completed.add(index);
+                fetched.get(index).countDown();
+            }
+        };
+
+        List<Integer> handled = new ArrayList<>();
+        ExecutorService executor = Executors.newCachedThreadPool(); // only the window limits the fetches
+        try {
+            NatsObjectStore.fetchChunks(executor, prefetch, count, source, data -> handled.add((int)data[0]));
+
+            // completed out of order, handed over in order
+            assertTrue(completed.indexOf(1) < completed.indexOf(0));
+            for (int x = 0; x < count; x++) {
+                assertEquals(x, handled.get(x));
+            }
+            assertTrue(maxInFlight.get() <= prefetch);
+
+            // a missing chunk fails the fetch
+            assertClientError(OsGetChunksMismatch, () -> NatsObjectStore.fetchChunks(executor, prefetch, count,
+                index -> index == 5 ? null : new byte[1], data -> {}));
+        }
+        finally {
+            executor.shutdownNow();
+        }
     }
 
     private void assertOso(ObjectStoreOptions oso) {
@@ -0,0 +1,303 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapReconnectBufferTests {
+
+    static class CapturingDataPort implements DataPort {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int failAfterWrites = -1;
+
+        @Override
+        public void connect(String serverURI, NatsConnection conn, long timeoutNanos) {}
+
+        @Override
+        public void upgradeToSecure() {}
+
+        @Override
+        public int read(byte[] dst, int off, int len) {
+            return -1;
+        }
+
+        @Override
+        public void write(byte[] src, int toWrite) throws IOException {
+            if (failAfterWrites == 0) {
+                throw new IOException("closed");
+            }
+            failAfterWrites--;
+            out.write(src, 0, toWrite);
+        }
+
+        @Override
+        public void shutdownInput() {}
+
+        @Override
+        public void close() {}
+
+        @Override
+        public void flush() {}
+    }
+
+    private static NatsMessage message(int x) {
+        Headers h = x % 3 == 0 ? new Headers().put("key", "value" + x) : null;
+        return new NatsMessage("subject." + x, x % 2 == 0 ? "reply" : null, h, ("data" + x).getBytes());
+    }
+
+    private static byte[] wire(NatsMessage msg) {
+        byte[] bytes = new byte[(int)msg.getSizeInBytes()];
+        int len = msg.copyTo(0, bytes);
+        byte[] exact = new byte[len];
+        System.arraycopy(bytes, 0, exact, 0, len);
+        return exact;
+    }
+
+    @Test
+    public void testAppendAndReplayAcrossChunks() throws IOException {
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(-1, 16, null);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int x = 0; x < 100; x++) {
+            NatsMessage msg = message(x);
+            expected.write(wire(msg));
+            assertTrue(buffer.append(msg));
+        }
+        assertEquals(100, buffer.messageCount());
+        assertEquals(expected.size(), buffer.sizeInBytes());
+
+        CapturingDataPort port = new CapturingDataPort();
+        NatsStatistics stats = new NatsStatistics(false);
+        buffer.replay(port, new byte[7], stats);
+        assertEquals(new String(expected.toByteArray(), StandardCharsets.UTF_8), new String(port.out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(100, stats.getOutMsgs());
+        assertEquals(expected.size(), stats.getOutBytes());
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.sizeInBytes());
+
+        // the chunks are reused for the next outage
+        assertTrue(buffer.append(message(1)));
+        port = new CapturingDataPort();
+        buffer.replay(port, new byte[1024], stats);
+        assertArrayEquals(wire(message(1)), port.out.toByteArray());
+    }
+
+    @Test
+    public void testCapacity() throws IOException {
+        NatsMessage msg = message(1);
+        long size = msg.getSizeInBytes();
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(size * 2);
+        assertTrue(buffer.append(msg));
+        assertTrue(buffer.append(message(1)));
+        assertFalse(buffer.append(message(1)));
+        assertEquals(2, buffer.messageCount());
+
+        assertFalse(new OffHeapReconnectBuffer(0).append(message(1)));
+    }
+
+    @Test
+    public void testFailedReplayKeepsEverything() throws IOException {
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(-1, 32, null);
+        for (int x = 0; x < 10; x++) {
+            buffer.append(message(x));
+        }
+        long size = buffer.sizeInBytes();
+
+        CapturingDataPort port = new CapturingDataPort();
+        port.failAfterWrites = 2;
+        assertThrows(IOException.class, () -> buffer.replay(port, new byte[16], new NatsStatistics(false)));
+        assertEquals(10, buffer.messageCount());
+        assertEquals(size, buffer.sizeInBytes());
+
+        CapturingDataPort next = new CapturingDataPort();
+        buffer.replay(next, new byte[16], new NatsStatistics(false));
+        assertEquals(size, next.out.size());
+    }
+
+    @Test
+    public void testSpillToDisk(@TempDir Path dir) throws IOException {
+        long memory = message(1).getSizeInBytes() * 5;
+        ReconnectSpillLog spill = new ReconnectSpillLog(dir, 1024, 100);
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(memory, 16, spill);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        int x = 0;
+        while (true) {
+            NatsMessage msg = message(x++);
+            if (!buffer.append(msg)) {
+                break;
+            }
+            expected.write(wire(msg));
+        }
+        assertTrue(spill.sizeInBytes() > 0);
+        assertTrue(spill.sizeInBytes() <= 1024);
+        assertTrue(spill.segmentCount() > 1);
+        assertEquals(spill.segmentCount(), countFiles(dir));
+        assertEquals(expected.size(), buffer.sizeInBytes());
+
+        CapturingDataPort port = new CapturingDataPort();
+        NatsStatistics stats = new NatsStatistics(false);
+        buffer.replay(port, new byte[64], stats);
+        assertEquals(new String(expected.toByteArray(), StandardCharsets.UTF_8), new String(port.out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(x - 1, stats.getOutMsgs());
+        assertEquals(0, spill.segmentCount());
+        assertEquals(0, countFiles(dir));
+
+        // memory is used again once the spill log is replayed
+        assertTrue(buffer.append(message(1)));
+        assertEquals(0, spill.sizeInBytes());
+        buffer.append(message(2));
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testAppendWhileReplaying(@TempDir Path dir) throws IOException {
+        long memory = message(1).getSizeInBytes() * 5;
+        ReconnectSpillLog spill = new ReconnectSpillLog(dir, 4096, 100);
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(memory, 16, spill);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int x = 0; x < 3; x++) {
+            expected.write(wire(message(x)));
+            assertTrue(buffer.append(message(x)));
+        }
+
+        // appends after the replay is taken are not in it, and are kept once it is consumed,
+        // including ones that spill since memory is only freed by the consume
+        OffHeapReconnectBuffer.Replay replay = buffer.snapshot();
+        ByteArrayOutputStream later = new ByteArrayOutputStream();
+        for (int x = 3; x < 10; x++) {
+            later.write(wire(message(x)));
+            assertTrue(buffer.append(message(x)));
+        }
+        assertTrue(spill.sizeInBytes() > 0);
+
+        CapturingDataPort port = new CapturingDataPort();
+        NatsStatistics stats = new NatsStatistics(false);
+        replay.write(port, new byte[5], stats);
+        assertArrayEquals(expected.toByteArray(), port.out.toByteArray());
+        assertEquals(3, stats.getOutMsgs());
+        assertEquals(10, buffer.messageCount());
+
+        buffer.consume(replay);
+        assertEquals(7, buffer.messageCount());
+        assertEquals(later.size(), buffer.sizeInBytes());
+
+        port = new CapturingDataPort();
+        buffer.replay(port, new byte[5], stats);
+        assertArrayEquals(later.toByteArray(), port.out.toByteArray());
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, countFiles(dir));
+
+        // a replay taken before the buffer is cleared does not consume what came after
+        buffer.append(message(1));
+        replay = buffer.snapshot();
+        buffer.clear();
+        buffer.append(message(2));
+        buffer.consume(replay);
+        assertEquals(1, buffer.messageCount());
+    }
+
+    @Test
+    public void testFits(@TempDir Path dir) throws IOException {
+        long size = message(1).getSizeInBytes();
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(size * 2);
+        assertTrue(buffer.fits(size * 2));
+        assertFalse(buffer.fits(size * 2 + 1));
+        buffer.append(message(1));
+        assertTrue(buffer.fits(size));
+        assertFalse(buffer.fits(size + 1));
+        assertTrue(new OffHeapReconnectBuffer(-1).fits(Long.MAX_VALUE / 2));
+
+        // memory and then the spill log
+        ReconnectSpillLog spill = new ReconnectSpillLog(dir, size * 3, 100);
+        buffer = new OffHeapReconnectBuffer(size * 2, 16, spill);
+        assertTrue(buffer.fits(size * 5));
+        assertFalse(buffer.fits(size * 5 + 1));
+        buffer.append(message(1));
+        buffer.append(message(1));
+        buffer.append(message(1));
+        assertTrue(buffer.fits(size * 2));
+        assertFalse(buffer.fits(size * 2 + 1));
+        buffer.release();
+    }
+
+    @Test
+    public void testReleaseLetsGoOfChunks() throws IOException {
+        OffHeapReconnectBuffer buffer = new OffHeapReconnectBuffer(-1, 16, null);
+        for (int x = 0; x < 10; x++) {
+            buffer.append(message(x));
+        }
+        buffer.replay(new CapturingDataPort(), new byte[64], new NatsStatistics(false));
+        assertTrue(buffer.freeChunkCount() > 0);
+
+        buffer.append(message(1));
+        buffer.release();
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.freeChunkCount());
+    }
+
+    @Test
+    public void testSpillSegmentsAreReusedAndCountedUntilUnmapped(@TempDir Path dir) throws Exception {
+        ReconnectSpillLog spill = new ReconnectSpillLog(dir, 300, 100);
+        byte[] bytes = new byte[100];
+        assertTrue(spill.append(bytes, 100));
+        assertTrue(spill.append(bytes, 50));
+
+        // a segment replayed while the outage goes on is reused, not deleted
+        List<ByteBuffer> readers = spill.readers();
+        readers.get(1).limit(0);
+        spill.consume(readers, 100);
+        assertTrue(spill.append(bytes, 100));
+        assertTrue(spill.append(bytes, 100));
+        assertTrue(spill.append(bytes, 50));
+        assertEquals(3, countFiles(dir));
+        assertFalse(spill.append(bytes, 1));
+
+        // once the log is empty the files are deleted, but the mappings still count until they are collected
+        readers = spill.readers();
+        spill.consume(readers, spill.sizeInBytes());
+        assertEquals(0, spill.sizeInBytes());
+        assertEquals(300, spill.retiredBytes());
+        assertFalse(spill.append(bytes, 1));
+
+        readers = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (spill.remaining() < 300 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, spill.retiredBytes());
+        assertTrue(spill.append(bytes, 100));
+        spill.clear();
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -20,7 +20,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.nats.client.utils.TestBase.runInJsServer;
 import static org.junit.jupiter.api.Assertions.*;
@@ -156,6 +160,118 @@ public class PingTests {
         });
     }
 
+    @Test
+    public void testFlushAsyncCoalescesPings() throws Exception {
+        AtomicInteger pings = new AtomicInteger();
+        NatsServerProtocolMock.Customizer slowPong = (ts, r, w) -> {
+            try {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.startsWith("PING")) {
+                        pings.incrementAndGet();
+                        Thread.sleep(100); // long enough for every flush below to be waiting
+                        w.write("PONG\r\n");
+                        w.flush();
+                    }
+                }
+            } catch (Exception e) {
+                // connection closed
+            }
+        };
+
+        try (NatsServerProtocolMock ts = new NatsServerProtocolMock(slowPong)) {
+            Options options = new Options.Builder().
+                                            server(ts.getURI()).
+                                            pingInterval(Duration.ofSeconds(10)). // Avoid auto pings
+                                            maxReconnects(0).
+                                            build();
+            NatsConnection nc = (NatsConnection) Nats.connect(options);
+            try {
+                assertTrue(Connection.Status.CONNECTED == nc.getStatus(), "Connected Status");
+                List<CompletableFuture<Duration>> futures = new ArrayList<>();
+                for (int x = 0; x < 1000; x++) {
+                    futures.add(nc.flushAsync());
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+                for (CompletableFuture<Duration> f : futures) {
+                    assertTrue(f.get().toMillis() >= 100);
+                }
+                assertTrue(pings.get() <= 2, "Pings: " + pings.get());
+                assertEquals(1000, nc.getNatsStatistics().getFlushCounter());
+
+                nc.flush(Duration.ofSeconds(2));
+                assertEquals(1001, nc.getNatsStatistics().getFlushCounter());
+            } finally {
+                nc.close();
+            }
+
+            ExecutionException ee = assertThrows(ExecutionException.class, () -> nc.flushAsync().get());
+            assertTrue(ee.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testFlushDoesNotNeedAnExecutorThread() throws Exception {
+        NatsServerProtocolMock.Customizer pong = (ts, r, w) -> {
+            try {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.startsWith("PING")) {
+                        w.write("PONG\r\n");
+                        w.flush();
+                    }
+                }
+            } catch (Exception e) {
+                // connection closed
+            }
+        };
+
+        // once saturated, the executor holds on to new tasks instead of running them
+        List<Runnable> held = new ArrayList<>();
+        AtomicBoolean saturated = new AtomicBoolean();
+        ExecutorService executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>()) {
+            @Override
+            public void execute(Runnable command) {
+                synchronized (held) {
+                    if (saturated.get()) {
+                        held.add(command);
+                        return;
+                    }
+                }
+                super.execute(command);
+            }
+        };
+
+        try (NatsServerProtocolMock ts = new NatsServerProtocolMock(pong)) {
+            Options options = new Options.Builder().
+                                            server(ts.getURI()).
+                                            executor(executor).
+                                            pingInterval(Duration.ofSeconds(10)). // Avoid auto pings
+                                            maxReconnects(0).
+                                            build();
+            NatsConnection nc = (NatsConnection) Nats.connect(options);
+            try {
+                assertTrue(Connection.Status.CONNECTED == nc.getStatus(), "Connected Status");
+                saturated.set(true);
+
+                // a blocking flush is released by the reader, an async one waits for the executor
+                CompletableFuture<Duration> async = nc.flushAsync();
+                nc.flush(Duration.ofSeconds(2));
+                Thread.sleep(100);
+                assertFalse(async.isDone());
+
+                synchronized (held) {
+                    saturated.set(false);
+                    held.forEach(executor::execute);
+                }
+                async.get(2, TimeUnit.SECONDS);
+            } finally {
+                nc.close();
+                executor.shutdownNow();
+            }
+        }
+    }
+
     @Test
     public void testFlushTimeoutDisconnected() {
         assertThrows(TimeoutException.class, () -> {
@@ -16,15 +16,22 @@ package io.nats.client.impl;
 import io.nats.client.*;
 import io.nats.client.ConnectionListener.Events;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static io.nats.client.utils.TestBase.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -105,6 +112,58 @@ public class ReconnectTests {
         standardCloseConnection(nc);
     }
 
+    @Test
+    public void testResubscribeManyInOneBatch() throws Exception {
+        NatsConnection nc;
+        TestHandler handler = new TestHandler();
+        int port = NatsTestServer.nextPort();
+        int count = 5000; // enough SUB lines for several buffer sized chunks
+        List<Subscription> subs = new ArrayList<>();
+        AtomicInteger dispatched = new AtomicInteger();
+
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            Options options = new Options.Builder().
+                                server(ts.getURI()).
+                                maxReconnects(-1).
+                                reconnectWait(Duration.ofMillis(100)).
+                                connectionListener(handler).
+                                build();
+            nc = (NatsConnection) standardConnection(options);
+
+            Dispatcher d = nc.createDispatcher(msg -> dispatched.incrementAndGet());
+            for (int x = 0; x < count; x++) {
+                subs.add(nc.subscribe("resub." + x));
+                d.subscribe("resubd." + x, "q" + x);
+            }
+            flushConnection(nc);
+            handler.prepForStatusChange(Events.DISCONNECTED);
+        }
+
+        flushAndWaitLong(nc, handler);
+        checkReconnectingStatus(nc);
+
+        handler.prepForStatusChange(Events.RESUBSCRIBED);
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            standardConnectionWait(nc, handler);
+
+            for (int x = 0; x < count; x++) {
+                nc.publish("resub." + x, null);
+                nc.publish("resubd." + x, null);
+            }
+            flushConnection(nc);
+
+            for (Subscription sub : subs) {
+                assertNotNull(sub.nextMessage(Duration.ofMillis(500)));
+            }
+            long timeout = System.currentTimeMillis() + 5000;
+            while (dispatched.get() < count && System.currentTimeMillis() < timeout) {
+                sleep(10);
+            }
+            assertEquals(count, dispatched.get());
+        }
+        standardCloseConnection(nc);
+    }
+
     @Test
     public void testSubscribeDuringReconnect() throws Exception {
         NatsConnection nc;
@@ -230,6 +289,57 @@ public class ReconnectTests {
         standardCloseConnection(nc);
     }
 
+    @Test
+    public void testOffHeapReconnectBuffer() throws Exception {
+        NatsConnection nc;
+        TestHandler handler = new TestHandler();
+        int port = NatsTestServer.nextPort();
+        Subscription sub;
+
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            Options options = new Options.Builder().
+                                server(ts.getURI()).
+                                maxReconnects(-1).
+                                reconnectWait(Duration.ofMillis(100)).
+                                reconnectBufferSize(100 * 64).
+                                reconnectBufferOffHeap().
+                                connectionListener(handler).
+                                build();
+            nc = (NatsConnection) standardConnection(options);
+            sub = nc.subscribe("offheap");
+            nc.flush(Duration.ofMillis(1000));
+            handler.prepForStatusChange(Events.DISCONNECTED);
+        }
+
+        flushAndWaitLong(nc, handler);
+        checkReconnectingStatus(nc);
+
+        for (int x = 0; x < 50; x++) {
+            nc.publish("offheap", ("" + x).getBytes(StandardCharsets.UTF_8));
+        }
+        assertTrue(nc.getWriter().offHeapBufferSizeInBytes() > 0);
+        final NatsConnection full = nc;
+        assertThrows(IllegalStateException.class, () -> {
+            for (int x = 0; x < 100; x++) {
+                full.publish("offheap", new byte[64]);
+            }
+        });
+
+        handler.prepForStatusChange(Events.RESUBSCRIBED);
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            standardConnectionWait(nc, handler);
+
+            // replayed in the order they were published
+            for (int x = 0; x < 50; x++) {
+                Message msg = sub.nextMessage(Duration.ofMillis(500));
+                assertNotNull(msg);
+                assertEquals("" + x, new String(msg.getData(), StandardCharsets.UTF_8));
+            }
+            assertEquals(0, nc.getWriter().offHeapBufferSizeInBytes());
+        }
+        standardCloseConnection(nc);
+    }
+
     @Test
     public void testMaxReconnects() throws Exception {
         Connection nc;
@@ -362,6 +472,95 @@ public class ReconnectTests {
         });
     }
 
+    @Test
+    public void testOverflowReconnectBufferDiscard() throws Exception {
+        Connection nc;
+        TestHandler handler = new TestHandler();
+
+        try (NatsTestServer ts = new NatsTestServer()) {
+            Options options = new Options.Builder().
+                                    server(ts.getURI()).
+                                    maxReconnects(-1).
+                                    connectionListener(handler).
+                                    errorListener(handler).
+                                    reconnectBufferSize(4*512).
+                                    reconnectBufferOverflowPolicy(ReconnectBufferOverflowPolicy.DISCARD).
+                                    reconnectWait(Duration.ofSeconds(480)).
+                                    build();
+            nc = standardConnection(options);
+            handler.prepForStatusChange(Events.DISCONNECTED);
+        }
+
+        flushAndWaitLong(nc, handler);
+        checkReconnectingStatus(nc);
+
+        for (int i=0;i<20;i++) {
+            nc.publish("test", new byte[512]); // the ones that don't fit are dropped
+        }
+        assertTrue(nc.getStatistics().getDroppedCount() > 0);
+        assertEquals(nc.getStatistics().getDroppedCount(), handler.getDiscardedMessages().size());
+
+        // a batch of requests that does not fit is dropped whole and can't be answered
+        long dropped = nc.getStatistics().getDroppedCount();
+        List<Message> requests = new ArrayList<>();
+        requests.add(NatsMessage.builder().subject("test").data(new byte[512]).build());
+        requests.add(NatsMessage.builder().subject("test").data(new byte[512]).build());
+        for (CompletableFuture<Message> future : nc.requestMany(requests)) {
+            assertTrue(future.isCancelled());
+        }
+        assertEquals(dropped + 2, nc.getStatistics().getDroppedCount());
+        standardCloseConnection(nc);
+    }
+
+    @Test
+    public void testSpillReconnectBuffer(@TempDir Path dir) throws Exception {
+        NatsConnection nc;
+        TestHandler handler = new TestHandler();
+        int port = NatsTestServer.nextPort();
+        Subscription sub;
+
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            Options options = new Options.Builder().
+                                server(ts.getURI()).
+                                maxReconnects(-1).
+                                reconnectWait(Duration.ofMillis(100)).
+                                reconnectBufferSize(1024).
+                                reconnectBufferSpill(dir, 1024 * 1024).
+                                connectionListener(handler).
+                                build();
+            nc = (NatsConnection) standardConnection(options);
+            sub = nc.subscribe("spill");
+            nc.flush(Duration.ofMillis(1000));
+            handler.prepForStatusChange(Events.DISCONNECTED);
+        }
+
+        flushAndWaitLong(nc, handler);
+        checkReconnectingStatus(nc);
+
+        for (int x = 0; x < 500; x++) {
+            nc.publish("spill", ("" + x).getBytes(StandardCharsets.UTF_8));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 0);
+        }
+
+        handler.prepForStatusChange(Events.RESUBSCRIBED);
+        try (NatsTestServer ts = new NatsTestServer(port, false)) {
+            standardConnectionWait(nc, handler);
+
+            // memory first, then the spill log, in the order they were published
+            for (int x = 0; x < 500; x++) {
+                Message msg = sub.nextMessage(Duration.ofMillis(500));
+                assertNotNull(msg);
+                assertEquals("" + x, new String(msg.getData(), StandardCharsets.UTF_8));
+            }
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+        standardCloseConnection(nc);
+    }
+
     @Test
     public void testInfiniteReconnectBuffer() throws Exception {
         Connection nc;
@@ -22,6 +22,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -79,6 +81,68 @@ public class RequestTests extends TestBase {
         });
     }
 
+    @Test
+    public void testRequestMany() throws Exception {
+        runInServer(nc -> {
+            Dispatcher d = nc.createDispatcher((msg) -> {
+                nc.publish(msg.getReplyTo(), msg.getData());
+            });
+            d.subscribe(SUBJECT);
+
+            List<Message> requests = new ArrayList<>();
+            for (int x = 0; x < 10; x++) {
+                requests.add(NatsMessage.builder().subject(SUBJECT).data(dataBytes(x)).build());
+            }
+
+            List<CompletableFuture<Message>> futures = nc.requestMany(requests);
+            assertEquals(10, futures.size());
+            for (int x = 0; x < 10; x++) {
+                assertEquals(data(x), new String(futures.get(x).get(1, TimeUnit.SECONDS).getData()));
+            }
+
+            futures = nc.requestMany(requests, Duration.ofSeconds(1));
+            for (int x = 0; x < 10; x++) {
+                assertEquals(data(x), new String(futures.get(x).get(1, TimeUnit.SECONDS).getData()));
+            }
+            assertEquals(0, ((NatsStatistics)nc.getStatistics()).getOutstandingRequests());
+
+            assertTrue(nc.requestMany(new ArrayList<>()).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> nc.requestMany(null));
+            assertThrows(IllegalArgumentException.class, () -> nc.requestMany(Collections.singletonList(null)));
+        });
+    }
+
+    @Test
+    public void testRequestManyCollect() throws Exception {
+        runInServer(nc -> {
+            for (int x = 0; x < 3; x++) {
+                Dispatcher d = nc.createDispatcher((msg) -> {
+                    nc.publish(msg.getReplyTo(), msg.getData());
+                });
+                d.subscribe(SUBJECT);
+            }
+            nc.flush(Duration.ofSeconds(1));
+
+            List<Message> replies = nc.requestMany(SUBJECT, dataBytes(1),
+                CollectOptions.builder().maxMessages(3).timeout(Duration.ofSeconds(5)).build()).get(5, TimeUnit.SECONDS);
+            assertEquals(3, replies.size());
+            for (Message m : replies) {
+                assertEquals(data(1), new String(m.getData()));
+            }
+
+            long start = System.nanoTime();
+            replies = nc.requestMany(NatsMessage.builder().subject(SUBJECT).data(dataBytes(2)).build(),
+                CollectOptions.builder().stall(Duration.ofMillis(250)).timeout(Duration.ofSeconds(10)).build()).get(5, TimeUnit.SECONDS);
+            assertEquals(3, replies.size());
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+
+            // no responders ends collecting right away
+            replies = nc.requestMany(subject(99), null, null).get(1, TimeUnit.SECONDS);
+            assertTrue(replies.isEmpty());
+            assertEquals(0, ((NatsStatistics)nc.getStatistics()).getOutstandingRequests());
+        });
+    }
+
     @Test
     public void testSimpleResponseMessageHasConnection() throws IOException, ExecutionException, TimeoutException, InterruptedException {
         try (NatsTestServer ts = new NatsTestServer(false);
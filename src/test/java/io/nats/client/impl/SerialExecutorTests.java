@@ -0,0 +1,93 @@
+// Copyright 2022 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerialExecutorTests {
+
+    @Test
+    public void testRunsInOrderOneAtATime() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            SerialExecutor serial = new SerialExecutor(pool);
+            List<Integer> ran = new ArrayList<>();
+            AtomicInteger concurrent = new AtomicInteger();
+            AtomicInteger maxConcurrent = new AtomicInteger();
+            for (int x = 0; x < 1000; x++) {
+                final int id = x;
+                serial.execute(() -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    ran.add(id);
+                    if (id == 500) {
+                        throw new RuntimeException("does not stop the rest");
+                    }
+                    concurrent.decrementAndGet();
+                });
+            }
+            serial.shutdown();
+            assertTrue(serial.isShutdown());
+            assertTrue(serial.awaitTermination(5, TimeUnit.SECONDS));
+            assertTrue(serial.isTerminated());
+
+            // the task that threw didn't decrement, so one extra is expected
+            assertTrue(maxConcurrent.get() <= 2);
+            assertEquals(1000, ran.size());
+            for (int x = 0; x < 1000; x++) {
+                assertEquals(x, ran.get(x));
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> serial.execute(() -> {}));
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            SerialExecutor serial = new SerialExecutor(pool);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            serial.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException ignore) {}
+            });
+            serial.execute(() -> {});
+            serial.execute(() -> {});
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertEquals(2, serial.shutdownNow().size());
+            assertFalse(serial.isTerminated());
+            assertFalse(serial.awaitTermination(10, TimeUnit.MILLISECONDS));
+            release.countDown();
+            assertTrue(serial.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+}